@@ -0,0 +1,77 @@
+package com.yuesaohub.platform.gateway.cache;
+
+import org.springframework.http.HttpHeaders;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A stored upstream response. Fresh until {@code freshUntil}; after that it may still be
+ * served until {@code staleUntil} while one request fetches a replacement.
+ */
+public class CachedResponse {
+
+    private final int status;
+    private final HttpHeaders headers;
+    private final byte[] body;
+    private final String etag;
+    private final Instant storedAt;
+    private final Instant freshUntil;
+    private final Instant staleUntil;
+    private final AtomicBoolean revalidating = new AtomicBoolean();
+
+    public CachedResponse(int status, HttpHeaders headers, byte[] body, String etag,
+                          Instant storedAt, Instant freshUntil, Instant staleUntil) {
+        this.status = status;
+        this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+        this.body = body;
+        this.etag = etag;
+        this.storedAt = storedAt;
+        this.freshUntil = freshUntil;
+        this.staleUntil = staleUntil;
+    }
+
+    public boolean isFresh(Instant now) {
+        return now.isBefore(freshUntil);
+    }
+
+    /**
+     * Claims the one upstream refresh of a stale entry; false if another request already has.
+     */
+    public boolean startRevalidation() {
+        return revalidating.compareAndSet(false, true);
+    }
+
+    public void endRevalidation() {
+        revalidating.set(false);
+    }
+
+    // Approximate heap footprint, for the cache's byte budget
+    public int weight() {
+        return body.length + 512;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public Instant getStoredAt() {
+        return storedAt;
+    }
+
+    public Instant getStaleUntil() {
+        return staleUntil;
+    }
+}
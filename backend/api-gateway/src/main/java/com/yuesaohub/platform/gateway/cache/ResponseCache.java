@@ -0,0 +1,64 @@
+package com.yuesaohub.platform.gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Byte-budgeted store of cached responses. Entries are weighed by body size, so the
+ * cache holds many small search pages or fewer large ones within the same budget, and
+ * each is dropped once it is past its stale-while-revalidate window.
+ */
+public class ResponseCache {
+
+    private final Cache<String, CachedResponse> entries;
+
+    public ResponseCache(long maxBytes, MeterRegistry meterRegistry) {
+        this.entries = Caffeine.newBuilder()
+            .maximumWeight(maxBytes)
+            .weigher((String key, CachedResponse response) -> response.weight())
+            .expireAfter(new StaleExpiry())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "gateway.responses");
+    }
+
+    public CachedResponse get(String key) {
+        return entries.getIfPresent(key);
+    }
+
+    public void put(String key, CachedResponse response) {
+        entries.put(key, response);
+    }
+
+    public void invalidate(String key) {
+        entries.invalidate(key);
+    }
+
+    public void invalidateAll() {
+        entries.invalidateAll();
+    }
+
+    private static final class StaleExpiry implements Expiry<String, CachedResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedResponse response, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), response.getStaleUntil()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedResponse response, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, response, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedResponse response, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
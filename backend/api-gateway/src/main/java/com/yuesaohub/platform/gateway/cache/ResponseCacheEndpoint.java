@@ -0,0 +1,39 @@
+package com.yuesaohub.platform.gateway.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+/**
+ * Drops cached responses when they must not wait for their max-age, e.g. after a profile
+ * was taken down. {@code DELETE /actuator/responsecache/api/v1/users/42} drops that path
+ * (without a query string) and {@code DELETE /actuator/responsecache} everything. Guarded
+ * by {@link com.yuesaohub.platform.gateway.filter.ManagementKeyFilter}; each gateway
+ * instance has its own cache.
+ */
+@Endpoint(id = "responsecache")
+public class ResponseCacheEndpoint {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseCacheEndpoint.class);
+
+    private final ResponseCache cache;
+
+    public ResponseCacheEndpoint(ResponseCache cache) {
+        this.cache = cache;
+    }
+
+    @DeleteOperation
+    public void invalidate(@Selector(match = Selector.Match.ALL_REMAINING) String[] path) {
+        String key = "/" + String.join("/", path);
+        log.info("Dropping cached response for {}", key);
+        cache.invalidate(key);
+    }
+
+    @DeleteOperation
+    public void invalidateAll() {
+        log.info("Dropping all cached responses");
+        cache.invalidateAll();
+    }
+}
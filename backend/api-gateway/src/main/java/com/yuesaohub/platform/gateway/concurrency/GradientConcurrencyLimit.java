@@ -0,0 +1,69 @@
+package com.yuesaohub.platform.gateway.concurrency;
+
+/**
+ * Concurrency limit that follows upstream latency (a simplified gradient algorithm).
+ * It keeps a slow-moving average of round-trip times as the "healthy" baseline. While
+ * samples stay within {@code tolerance} of it, the limit grows by about the square root
+ * of itself per update, probing for headroom; when latency rises the limit shrinks in
+ * proportion, and a dropped request (timeout, overload status) cuts it by
+ * {@code backoffRatio}. This is what stops the gateway piling more requests onto a
+ * user-service that is already slowing down.
+ */
+public class GradientConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double backoffRatio;
+    private final double baselineDecay;
+
+    private double limit;
+    private double baselineNanos;
+
+    public GradientConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance,
+                                    double smoothing, double backoffRatio, int baselineWindow) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= initial <= max");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.backoffRatio = backoffRatio;
+        this.baselineDecay = 2.0 / (baselineWindow + 1);
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Records one completed request. {@code inFlight} is the concurrency it ran under;
+     * samples from a mostly idle route say nothing about how much more it can take.
+     */
+    public synchronized void onSample(long rttNanos, int inFlight, boolean dropped) {
+        if (dropped) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+            return;
+        }
+        if (inFlight < limit / 2) {
+            return;
+        }
+        if (baselineNanos == 0) {
+            baselineNanos = rttNanos;
+        } else {
+            baselineNanos += (rttNanos - baselineNanos) * baselineDecay;
+        }
+        // Far above current latency means the baseline still holds a spike that has passed;
+        // let it drop quickly, or the limit stays low long after upstream recovered
+        if (baselineNanos > rttNanos * 2) {
+            baselineNanos *= 0.95;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * baselineNanos / rttNanos));
+        double target = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - smoothing) + target * smoothing));
+    }
+}
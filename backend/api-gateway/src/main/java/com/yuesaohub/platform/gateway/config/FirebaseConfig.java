@@ -1,6 +1,7 @@
 package com.yuesaohub.platform.gateway.config;
 
 import com.google.auth.oauth2.GoogleCredentials;
+import com.google.auth.oauth2.ServiceAccountCredentials;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.FirebaseOptions;
 import org.springframework.beans.factory.annotation.Value;
@@ -18,17 +19,26 @@ public class FirebaseConfig {
     @Value("${app.firebase.service-account-path:./firebase-service-account.json}")
     private String serviceAccountPath;
 
+    // Token audience; defaults to the service account's project
+    @Value("${app.firebase.project-id:}")
+    private String projectId;
+
     @PostConstruct
     public void initialize() {
         try {
             FileInputStream serviceAccount = new FileInputStream(serviceAccountPath);
             
-            FirebaseOptions options = FirebaseOptions.builder()
-                .setCredentials(GoogleCredentials.fromStream(serviceAccount))
-                .build();
+            GoogleCredentials credentials = GoogleCredentials.fromStream(serviceAccount);
+            FirebaseOptions.Builder options = FirebaseOptions.builder()
+                .setCredentials(credentials);
+            if (!projectId.isBlank()) {
+                options.setProjectId(projectId);
+            } else if (credentials instanceof ServiceAccountCredentials serviceAccountCredentials) {
+                options.setProjectId(serviceAccountCredentials.getProjectId());
+            }
             
             if (FirebaseApp.getApps().isEmpty()) {
-                FirebaseApp.initializeApp(options);
+                FirebaseApp.initializeApp(options.build());
             }
         } catch (IOException e) {
             throw new RuntimeException("Failed to initialize Firebase: " + e.getMessage(), e);
@@ -0,0 +1,12 @@
+package com.yuesaohub.platform.gateway.config;
+
+import com.yuesaohub.platform.gateway.loadbalancer.UpstreamLoadBalancerConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(LoadBalancerProperties.class)
+@LoadBalancerClients(defaultConfiguration = UpstreamLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+}
@@ -0,0 +1,68 @@
+package com.yuesaohub.platform.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Outlier ejection for {@code lb://} routes, bound from {@code app.load-balancer}.
+ */
+@ConfigurationProperties(prefix = "app.load-balancer")
+public class LoadBalancerProperties {
+
+    private OutlierEjection outlierEjection = new OutlierEjection();
+
+    public OutlierEjection getOutlierEjection() {
+        return outlierEjection;
+    }
+
+    public void setOutlierEjection(OutlierEjection outlierEjection) {
+        this.outlierEjection = outlierEjection;
+    }
+
+    public static class OutlierEjection {
+
+        // Failed calls in a row (connect errors, timeouts, 502/503/504) that take an instance out
+        private int consecutiveFailures = 5;
+
+        // First ejection lasts this long; each repeat adds another, up to maxEjectionTime
+        private Duration baseEjectionTime = Duration.ofSeconds(30);
+
+        private Duration maxEjectionTime = Duration.ofMinutes(5);
+
+        // Never eject more than this share of a service's instances at once
+        private int maxEjectionPercent = 50;
+
+        public int getConsecutiveFailures() {
+            return consecutiveFailures;
+        }
+
+        public void setConsecutiveFailures(int consecutiveFailures) {
+            this.consecutiveFailures = consecutiveFailures;
+        }
+
+        public Duration getBaseEjectionTime() {
+            return baseEjectionTime;
+        }
+
+        public void setBaseEjectionTime(Duration baseEjectionTime) {
+            this.baseEjectionTime = baseEjectionTime;
+        }
+
+        public Duration getMaxEjectionTime() {
+            return maxEjectionTime;
+        }
+
+        public void setMaxEjectionTime(Duration maxEjectionTime) {
+            this.maxEjectionTime = maxEjectionTime;
+        }
+
+        public int getMaxEjectionPercent() {
+            return maxEjectionPercent;
+        }
+
+        public void setMaxEjectionPercent(int maxEjectionPercent) {
+            this.maxEjectionPercent = maxEjectionPercent;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.yuesaohub.platform.gateway.config;
+
+import com.yuesaohub.platform.gateway.filter.PublicRouteMatcher;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(PublicRouteProperties.class)
+public class PublicRouteConfig {
+
+    // Compiled once at startup; an invalid pattern fails the boot instead of a request
+    @Bean
+    public PublicRouteMatcher publicRouteMatcher(PublicRouteProperties properties) {
+        return new PublicRouteMatcher(properties.getPublicRoutes());
+    }
+}
@@ -0,0 +1,48 @@
+package com.yuesaohub.platform.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routes that pass the gateway without a token, bound from {@code app.auth.public-routes}.
+ * Path patterns are matched segment by segment: {@code *} matches any one segment,
+ * {@code {number}} one all-digit segment, and a trailing {@code **} one or more further
+ * segments. A route without {@code methods} is public for every method.
+ */
+@ConfigurationProperties(prefix = "app.auth")
+public class PublicRouteProperties {
+
+    private List<Route> publicRoutes = new ArrayList<>();
+
+    public List<Route> getPublicRoutes() {
+        return publicRoutes;
+    }
+
+    public void setPublicRoutes(List<Route> publicRoutes) {
+        this.publicRoutes = publicRoutes;
+    }
+
+    public static class Route {
+
+        private String path;
+        private List<String> methods = new ArrayList<>();
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public List<String> getMethods() {
+            return methods;
+        }
+
+        public void setMethods(List<String> methods) {
+            this.methods = methods;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.yuesaohub.platform.gateway.config;
+
+import com.yuesaohub.platform.gateway.ratelimit.InMemoryRateLimiterBackend;
+import com.yuesaohub.platform.gateway.ratelimit.RateLimiterBackend;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+    // Replaced by any other RateLimiterBackend bean, e.g. one backed by a shared store
+    @Bean
+    @ConditionalOnMissingBean(RateLimiterBackend.class)
+    public RateLimiterBackend rateLimiterBackend(RateLimitProperties properties) {
+        return new InMemoryRateLimiterBackend(properties.getIdleTimeout(), properties.getMaxBuckets());
+    }
+}
@@ -0,0 +1,128 @@
+package com.yuesaohub.platform.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Token-bucket limits, bound from {@code app.rate-limit}. Requests are counted per
+ * verified user, or per client IP when anonymous. The first policy whose path pattern
+ * (Spring {@code PathPattern} syntax) and methods match applies; other requests fall
+ * under {@code default-policy}. Each policy has its own buckets.
+ */
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Buckets unused this long are dropped; keep it above the slowest policy's refill time
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    private long maxBuckets = 100000;
+
+    // Proxies in front of the gateway whose X-Forwarded-For entries are trusted for the client IP
+    private int trustedProxies = 0;
+
+    private Policy defaultPolicy = new Policy();
+    private List<Policy> policies = new ArrayList<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public long getMaxBuckets() {
+        return maxBuckets;
+    }
+
+    public void setMaxBuckets(long maxBuckets) {
+        this.maxBuckets = maxBuckets;
+    }
+
+    public int getTrustedProxies() {
+        return trustedProxies;
+    }
+
+    public void setTrustedProxies(int trustedProxies) {
+        this.trustedProxies = trustedProxies;
+    }
+
+    public Policy getDefaultPolicy() {
+        return defaultPolicy;
+    }
+
+    public void setDefaultPolicy(Policy defaultPolicy) {
+        this.defaultPolicy = defaultPolicy;
+    }
+
+    public List<Policy> getPolicies() {
+        return policies;
+    }
+
+    public void setPolicies(List<Policy> policies) {
+        this.policies = policies;
+    }
+
+    public static class Policy {
+
+        private String name = "default";
+        private String path;
+        private List<String> methods = new ArrayList<>();
+
+        // Requests per second added to the bucket, and the most it holds
+        private double replenishRate = 20;
+        private int burstCapacity = 40;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public List<String> getMethods() {
+            return methods;
+        }
+
+        public void setMethods(List<String> methods) {
+            this.methods = methods;
+        }
+
+        public double getReplenishRate() {
+            return replenishRate;
+        }
+
+        public void setReplenishRate(double replenishRate) {
+            this.replenishRate = replenishRate;
+        }
+
+        public int getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public void setBurstCapacity(int burstCapacity) {
+            this.burstCapacity = burstCapacity;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.yuesaohub.platform.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single-flight for identical concurrent GETs, bound from {@code app.coalescing}.
+ */
+@ConfigurationProperties(prefix = "app.coalescing")
+public class RequestCoalescingProperties {
+
+    private boolean enabled = true;
+
+    // Spring PathPattern syntax
+    private List<String> paths = new ArrayList<>();
+
+    // Larger responses are not buffered for sharing; waiting requests then go upstream themselves
+    private DataSize maxBodySize = DataSize.ofMegabytes(1);
+
+    // How long a request waits on another's upstream call before making its own
+    private Duration maxWait = Duration.ofSeconds(5);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    public void setPaths(List<String> paths) {
+        this.paths = paths;
+    }
+
+    public DataSize getMaxBodySize() {
+        return maxBodySize;
+    }
+
+    public void setMaxBodySize(DataSize maxBodySize) {
+        this.maxBodySize = maxBodySize;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    public void setMaxWait(Duration maxWait) {
+        this.maxWait = maxWait;
+    }
+}
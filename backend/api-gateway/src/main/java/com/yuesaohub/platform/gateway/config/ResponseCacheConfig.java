@@ -0,0 +1,26 @@
+package com.yuesaohub.platform.gateway.config;
+
+import com.yuesaohub.platform.gateway.cache.ResponseCache;
+import com.yuesaohub.platform.gateway.cache.ResponseCacheEndpoint;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+public class ResponseCacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.response-cache.enabled", havingValue = "true", matchIfMissing = true)
+    public ResponseCache responseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        return new ResponseCache(properties.getMaxSize().toBytes(), meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.response-cache.enabled", havingValue = "true", matchIfMissing = true)
+    public ResponseCacheEndpoint responseCacheEndpoint(ResponseCache responseCache) {
+        return new ResponseCacheEndpoint(responseCache);
+    }
+}
@@ -0,0 +1,77 @@
+package com.yuesaohub.platform.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Edge cache for anonymous GETs, bound from {@code app.response-cache}. Only paths
+ * matching {@code paths} (Spring {@code PathPattern} syntax) are cached. Upstream
+ * {@code Cache-Control} wins over the defaults here.
+ */
+@ConfigurationProperties(prefix = "app.response-cache")
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+    private List<String> paths = new ArrayList<>();
+
+    // Total body bytes held, and the largest single response worth caching
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+    private DataSize maxEntrySize = DataSize.ofKilobytes(256);
+
+    // Used when upstream sends no max-age / stale-while-revalidate; kept short, as nothing
+    // tells the gateway when a response changes
+    private Duration defaultTtl = Duration.ofSeconds(5);
+    private Duration defaultStaleWhileRevalidate = Duration.ofSeconds(10);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    public void setPaths(List<String> paths) {
+        this.paths = paths;
+    }
+
+    public DataSize getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(DataSize maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public DataSize getMaxEntrySize() {
+        return maxEntrySize;
+    }
+
+    public void setMaxEntrySize(DataSize maxEntrySize) {
+        this.maxEntrySize = maxEntrySize;
+    }
+
+    public Duration getDefaultTtl() {
+        return defaultTtl;
+    }
+
+    public void setDefaultTtl(Duration defaultTtl) {
+        this.defaultTtl = defaultTtl;
+    }
+
+    public Duration getDefaultStaleWhileRevalidate() {
+        return defaultStaleWhileRevalidate;
+    }
+
+    public void setDefaultStaleWhileRevalidate(Duration defaultStaleWhileRevalidate) {
+        this.defaultStaleWhileRevalidate = defaultStaleWhileRevalidate;
+    }
+}
@@ -0,0 +1,66 @@
+package com.yuesaohub.platform.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * gRPC channel to user-service for transcoded reads, bound from {@code app.user-grpc}.
+ */
+@ConfigurationProperties(prefix = "app.user-grpc")
+public class UserGrpcProperties {
+
+    private boolean enabled = true;
+
+    // Calls go to the instances the load balancer picks for this service, as HTTP requests do
+    private String serviceId = "user-service";
+
+    // gRPC port of an instance without a grpc-port entry in its discovery metadata
+    private int port = 9091;
+
+    // Per call, like the route's response-timeout
+    private Duration deadline = Duration.ofSeconds(5);
+
+    // Pings keep the HTTP/2 connections open through idle periods and NAT timeouts
+    private Duration keepAliveTime = Duration.ofSeconds(30);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getServiceId() {
+        return serviceId;
+    }
+
+    public void setServiceId(String serviceId) {
+        this.serviceId = serviceId;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    public Duration getDeadline() {
+        return deadline;
+    }
+
+    public void setDeadline(Duration deadline) {
+        this.deadline = deadline;
+    }
+
+    public Duration getKeepAliveTime() {
+        return keepAliveTime;
+    }
+
+    public void setKeepAliveTime(Duration keepAliveTime) {
+        this.keepAliveTime = keepAliveTime;
+    }
+}
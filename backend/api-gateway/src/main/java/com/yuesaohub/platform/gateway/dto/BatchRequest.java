@@ -0,0 +1,64 @@
+package com.yuesaohub.platform.gateway.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Body of {@code POST /api/v1/batch}: the API calls to make, each as it would be sent on
+ * its own.
+ */
+public class BatchRequest {
+    private List<Part> requests = new ArrayList<>();
+
+    public List<Part> getRequests() {
+        return requests;
+    }
+
+    public void setRequests(List<Part> requests) {
+        this.requests = requests;
+    }
+
+    public static class Part {
+        // Chosen by the client and echoed in the matching response part
+        private String id;
+        private String method = "GET";
+        // Gateway path with query string, e.g. /api/v1/users/search/caregivers?province=ON
+        private String path;
+        private JsonNode body;
+
+        // Getters and Setters
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public void setMethod(String method) {
+            this.method = method;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public JsonNode getBody() {
+            return body;
+        }
+
+        public void setBody(JsonNode body) {
+            this.body = body;
+        }
+    }
+}
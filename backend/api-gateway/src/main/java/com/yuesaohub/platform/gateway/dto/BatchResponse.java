@@ -0,0 +1,68 @@
+package com.yuesaohub.platform.gateway.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+
+/**
+ * Answer to a {@link BatchRequest}: one part per request, in the same order.
+ */
+public class BatchResponse {
+    private List<Part> responses;
+
+    public BatchResponse() {
+    }
+
+    public BatchResponse(List<Part> responses) {
+        this.responses = responses;
+    }
+
+    public List<Part> getResponses() {
+        return responses;
+    }
+
+    public void setResponses(List<Part> responses) {
+        this.responses = responses;
+    }
+
+    public static class Part {
+        private String id;
+        private int status;
+        // The JSON the call returned on its own, a string for other content, or null when empty
+        private JsonNode body;
+
+        public Part() {
+        }
+
+        public Part(String id, int status, JsonNode body) {
+            this.id = id;
+            this.status = status;
+            this.body = body;
+        }
+
+        // Getters and Setters
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public void setStatus(int status) {
+            this.status = status;
+        }
+
+        public JsonNode getBody() {
+            return body;
+        }
+
+        public void setBody(JsonNode body) {
+            this.body = body;
+        }
+    }
+}
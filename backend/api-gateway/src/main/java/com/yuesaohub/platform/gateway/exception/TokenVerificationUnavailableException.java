@@ -0,0 +1,8 @@
+package com.yuesaohub.platform.gateway.exception;
+
+public class TokenVerificationUnavailableException extends RuntimeException {
+
+    public TokenVerificationUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,235 @@
+package com.yuesaohub.platform.gateway.filter;
+
+import com.yuesaohub.platform.gateway.concurrency.GradientConcurrencyLimit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Route filter that caps concurrent upstream requests at a limit adapted to observed
+ * latency (see {@link GradientConcurrencyLimit}). Requests over the limit are refused at
+ * once with {@code 503} and {@code Retry-After} rather than queued, so a slow upstream
+ * sheds load instead of building a backlog that every later request waits behind.
+ *
+ * <pre>
+ * filters:
+ *   - name: AdaptiveConcurrencyLimit
+ *     args:
+ *       name: user-service
+ *       initial-limit: 20
+ * </pre>
+ *
+ * Place it before {@code CircuitBreaker}, so shed requests never count as upstream failures.
+ */
+@Component
+public class AdaptiveConcurrencyLimitGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<AdaptiveConcurrencyLimitGatewayFilterFactory.Config> {
+
+    private final ErrorResponseWriter errorResponseWriter;
+    private final MeterRegistry meterRegistry;
+
+    // By name, so a limiter keeps its learned limit and its meters when routes are refreshed
+    private final Map<String, Limiter> limiters = new ConcurrentHashMap<>();
+
+    public AdaptiveConcurrencyLimitGatewayFilterFactory(ErrorResponseWriter errorResponseWriter,
+                                                        MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.errorResponseWriter = errorResponseWriter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        Limiter limiter = limiters.computeIfAbsent(config.getName(), name -> createLimiter(config));
+
+        return (exchange, chain) -> {
+            int current = limiter.tryAcquire();
+            if (current < 0) {
+                exchange.getResponse().getHeaders().set("Retry-After", "1");
+                return errorResponseWriter.write(exchange, HttpStatus.SERVICE_UNAVAILABLE,
+                    "Service is busy, please retry");
+            }
+            long start = System.nanoTime();
+            return chain.filter(exchange).doFinally(signal -> {
+                if (signal == SignalType.CANCEL) {
+                    // The client went away; says nothing about upstream
+                    limiter.release();
+                    return;
+                }
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                limiter.release(start, current, signal == SignalType.ON_ERROR || isOverloadStatus(status));
+            });
+        };
+    }
+
+    /**
+     * Runs {@code call} under the named limiter, as a request on a route with that limiter
+     * would run, e.g. for a part of a batch. Over the limit, {@code rejected} is returned
+     * instead. Errors and values {@code overloaded} accepts count as dropped. Calls run
+     * unlimited when no route has set up a limiter of that name.
+     */
+    public <T> Mono<T> limit(String name, Mono<T> call, Predicate<? super T> overloaded, Supplier<Mono<T>> rejected) {
+        Limiter limiter = limiters.get(name);
+        if (limiter == null) {
+            return call;
+        }
+        return Mono.defer(() -> {
+            int current = limiter.tryAcquire();
+            if (current < 0) {
+                return rejected.get();
+            }
+            long start = System.nanoTime();
+            return call
+                .doOnSuccess(value -> limiter.release(start, current, value != null && overloaded.test(value)))
+                .doOnError(e -> limiter.release(start, current, true))
+                .doOnCancel(limiter::release);
+        });
+    }
+
+    private Limiter createLimiter(Config config) {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(config.getInitialLimit(), config.getMinLimit(),
+            config.getMaxLimit(), config.getTolerance(), config.getSmoothing(), config.getBackoffRatio(),
+            config.getBaselineWindow());
+        AtomicInteger inFlight = new AtomicInteger();
+
+        Gauge.builder("gateway.concurrency.limit", limit, GradientConcurrencyLimit::getLimit)
+            .tag("name", config.getName())
+            .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.in.flight", inFlight, AtomicInteger::get)
+            .tag("name", config.getName())
+            .register(meterRegistry);
+        Counter rejected = Counter.builder("gateway.concurrency.rejected")
+            .tag("name", config.getName())
+            .register(meterRegistry);
+        return new Limiter(limit, inFlight, rejected);
+    }
+
+    // Statuses an overloaded or timed-out upstream (or an open circuit) produces
+    static boolean isOverloadStatus(HttpStatusCode status) {
+        return status != null && (status.value() == HttpStatus.SERVICE_UNAVAILABLE.value()
+            || status.value() == HttpStatus.GATEWAY_TIMEOUT.value()
+            || status.value() == HttpStatus.TOO_MANY_REQUESTS.value());
+    }
+
+    private record Limiter(GradientConcurrencyLimit limit, AtomicInteger inFlight, Counter rejected) {
+
+        // The in-flight count including this request, or -1 (and counted) when over the limit
+        int tryAcquire() {
+            int current = inFlight.incrementAndGet();
+            if (current > limit.getLimit()) {
+                inFlight.decrementAndGet();
+                rejected.increment();
+                return -1;
+            }
+            return current;
+        }
+
+        void release() {
+            inFlight.decrementAndGet();
+        }
+
+        void release(long start, int inFlightAtStart, boolean dropped) {
+            inFlight.decrementAndGet();
+            limit.onSample(System.nanoTime() - start, inFlightAtStart, dropped);
+        }
+    }
+
+    public static class Config {
+
+        // Identifies the limiter and tags its metrics; give each route its own
+        private String name = "default";
+
+        private int initialLimit = 20;
+        private int minLimit = 4;
+        private int maxLimit = 200;
+
+        // How far latency may rise above the baseline before the limit shrinks
+        private double tolerance = 1.5;
+
+        // Weight of each update; lower reacts slower but steadier
+        private double smoothing = 0.2;
+
+        // Limit multiplier after a timeout or overload response
+        private double backoffRatio = 0.9;
+
+        // Samples averaged into the latency baseline
+        private int baselineWindow = 500;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public double getTolerance() {
+            return tolerance;
+        }
+
+        public void setTolerance(double tolerance) {
+            this.tolerance = tolerance;
+        }
+
+        public double getSmoothing() {
+            return smoothing;
+        }
+
+        public void setSmoothing(double smoothing) {
+            this.smoothing = smoothing;
+        }
+
+        public double getBackoffRatio() {
+            return backoffRatio;
+        }
+
+        public void setBackoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+        }
+
+        public int getBaselineWindow() {
+            return baselineWindow;
+        }
+
+        public void setBaselineWindow(int baselineWindow) {
+            this.baselineWindow = baselineWindow;
+        }
+    }
+}
@@ -0,0 +1,456 @@
+package com.yuesaohub.platform.gateway.filter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.yuesaohub.platform.gateway.dto.BatchRequest;
+import com.yuesaohub.platform.gateway.dto.BatchResponse;
+import com.yuesaohub.platform.gateway.dto.ErrorResponse;
+import com.yuesaohub.platform.gateway.loadbalancer.InstanceHealthRegistry;
+import com.yuesaohub.platform.gateway.service.VerifiedToken;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreaker;
+import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreakerFactory;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.NotFoundException;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Route filter that answers a batch of API calls in one round trip. The body lists the
+ * calls ({@link BatchRequest}); they are sent to {@code upstream} concurrently and
+ * answered together, each with its own status and body ({@link BatchResponse}). The
+ * token is verified once, for the batch, and every call carries the same identity
+ * headers {@link FirebaseAuthFilter} adds to a single request.
+ *
+ * <pre>
+ * filters:
+ *   - name: Batch
+ *     args:
+ *       upstream: lb://user-service
+ *       paths: /api/v1/users/**
+ *       strip-prefix: 1
+ *       circuit-breaker: user-service
+ *       concurrency-limit: user-service
+ * </pre>
+ *
+ * Calls go over the gateway's pooled HTTP client. Each is treated as the request it
+ * stands for would be on its own route: charged to the rate limit policy of its own
+ * path, held to the named {@code AdaptiveConcurrencyLimit} limiter and circuit breaker,
+ * and sent to an instance the load balancer picks, with the outcome reported to the
+ * {@link InstanceHealthRegistry}. Other filters of that route are skipped. A call to a
+ * path outside {@code paths} fails on its own with {@code 400}.
+ */
+@Component
+public class BatchGatewayFilterFactory extends AbstractGatewayFilterFactory<BatchGatewayFilterFactory.Config> {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchGatewayFilterFactory.class);
+
+    private static final Set<HttpMethod> METHODS = Set.of(
+        HttpMethod.GET, HttpMethod.HEAD, HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE);
+
+    // Same statuses the CircuitBreaker route filter counts as failures
+    private static final Set<Integer> FAILURE_STATUSES = Set.of(500, 502, 503, 504);
+
+    // Same statuses InstanceHealthFilter blames on the instance
+    private static final Set<Integer> INSTANCE_FAILURE_STATUSES = Set.of(502, 503, 504);
+
+    private final HttpClient httpClient;
+    private final ReactiveLoadBalancer.Factory<ServiceInstance> loadBalancers;
+    private final InstanceHealthRegistry healthRegistry;
+    private final ReactiveCircuitBreakerFactory<?, ?> circuitBreakerFactory;
+    private final AdaptiveConcurrencyLimitGatewayFilterFactory concurrencyLimits;
+    private final ObjectProvider<RateLimitFilter> rateLimitFilter;
+    private final ErrorResponseWriter errorResponseWriter;
+    private final ObjectMapper objectMapper;
+    private final DistributionSummary batchSize;
+
+    public BatchGatewayFilterFactory(HttpClient httpClient, ReactiveLoadBalancer.Factory<ServiceInstance> loadBalancers,
+                                     InstanceHealthRegistry healthRegistry,
+                                     ReactiveCircuitBreakerFactory<?, ?> circuitBreakerFactory,
+                                     AdaptiveConcurrencyLimitGatewayFilterFactory concurrencyLimits,
+                                     ObjectProvider<RateLimitFilter> rateLimitFilter,
+                                     ErrorResponseWriter errorResponseWriter, ObjectMapper objectMapper,
+                                     MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.httpClient = httpClient;
+        this.loadBalancers = loadBalancers;
+        this.healthRegistry = healthRegistry;
+        this.circuitBreakerFactory = circuitBreakerFactory;
+        this.concurrencyLimits = concurrencyLimits;
+        this.rateLimitFilter = rateLimitFilter;
+        this.errorResponseWriter = errorResponseWriter;
+        this.objectMapper = objectMapper;
+        this.batchSize = DistributionSummary.builder("gateway.batch.size")
+            .description("Calls per batch request")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        // The gateway's own client, so calls reuse its warm connections to the upstream instances
+        WebClient webClient = WebClient.builder()
+            .clientConnector(new ReactorClientHttpConnector(httpClient))
+            .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int) config.getMaxPartResponseSize().toBytes()))
+            .build();
+        ReactiveCircuitBreaker circuitBreaker = config.getCircuitBreaker() == null
+            ? null : circuitBreakerFactory.create(config.getCircuitBreaker());
+        List<PathPattern> paths = config.getPaths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+        URI upstream = URI.create(config.getUpstream());
+
+        return (exchange, chain) -> DataBufferUtils.join(exchange.getRequest().getBody(),
+                (int) config.getMaxRequestSize().toBytes())
+            .<BatchRequest>handle((buffer, sink) -> {
+                try {
+                    sink.next(objectMapper.readValue(buffer.asInputStream(true), BatchRequest.class));
+                } catch (IOException e) {
+                    log.debug("Unreadable batch request: {}", e.getMessage());
+                }
+            })
+            .map(Optional::of)
+            .defaultIfEmpty(Optional.empty())
+            .flatMap(batch -> {
+                List<BatchRequest.Part> parts = batch.map(BatchRequest::getRequests).orElse(null);
+                if (parts == null || parts.isEmpty()) {
+                    return errorResponseWriter.write(exchange, HttpStatus.BAD_REQUEST, "Invalid batch request");
+                }
+                if (parts.size() > config.getMaxParts()) {
+                    return errorResponseWriter.write(exchange, HttpStatus.BAD_REQUEST,
+                        "At most " + config.getMaxParts() + " requests per batch");
+                }
+                batchSize.record(parts.size());
+                HttpHeaders identity = identityHeaders(exchange);
+                return Flux.fromIterable(parts)
+                    .flatMapSequential(part -> dispatch(exchange, webClient, circuitBreaker, upstream, paths, config,
+                        identity, part))
+                    .collectList()
+                    .flatMap(responses -> write(exchange, new BatchResponse(responses)));
+            })
+            .onErrorResume(DataBufferLimitException.class, e -> errorResponseWriter.write(exchange,
+                HttpStatus.PAYLOAD_TOO_LARGE, "Batch request is too large"));
+    }
+
+    private Mono<BatchResponse.Part> dispatch(ServerWebExchange exchange, WebClient webClient,
+                                              ReactiveCircuitBreaker circuitBreaker, URI upstream,
+                                              List<PathPattern> paths, Config config, HttpHeaders identity,
+                                              BatchRequest.Part part) {
+        String id = part.getId();
+        HttpMethod method = part.getMethod() == null ? null
+            : HttpMethod.valueOf(part.getMethod().toUpperCase(Locale.ROOT));
+        if (method == null || !METHODS.contains(method)) {
+            return Mono.just(errorPart(id, HttpStatus.BAD_REQUEST, "Unsupported method"));
+        }
+        URI requested = allowedUri(paths, part.getPath());
+        String upstreamPath = requested == null ? null : upstreamPath(config.getStripPrefix(), requested);
+        if (upstreamPath == null) {
+            return Mono.just(errorPart(id, HttpStatus.BAD_REQUEST, "Path not allowed in a batch"));
+        }
+
+        Mono<BatchResponse.Part> call = send(upstream, instanceUri -> {
+                WebClient.RequestBodySpec request = webClient.method(method).uri(URI.create(instanceUri + upstreamPath))
+                    .headers(headers -> headers.addAll(identity))
+                    .accept(MediaType.APPLICATION_JSON);
+                WebClient.RequestHeadersSpec<?> spec = part.getBody() == null || part.getBody().isNull()
+                    ? request : request.contentType(MediaType.APPLICATION_JSON).bodyValue(part.getBody());
+                return spec
+                    .exchangeToMono(response -> response.bodyToMono(byte[].class)
+                        .defaultIfEmpty(new byte[0])
+                        .map(bytes -> new BatchResponse.Part(id, response.statusCode().value(),
+                            body(response.headers().contentType().orElse(null), bytes))))
+                    .timeout(config.getPartTimeout());
+            })
+            .flatMap(response -> FAILURE_STATUSES.contains(response.getStatus())
+                ? Mono.error(new FailedPartException(response)) : Mono.just(response));
+        if (circuitBreaker != null) {
+            call = circuitBreaker.run(call, Mono::error);
+        }
+        // 5xx answers go back as they are, and count for the limiter by status as on the route
+        call = call.onErrorResume(FailedPartException.class, e -> Mono.just(e.part));
+        if (config.getConcurrencyLimit() != null) {
+            call = concurrencyLimits.limit(config.getConcurrencyLimit(), call,
+                response -> AdaptiveConcurrencyLimitGatewayFilterFactory.isOverloadStatus(
+                    HttpStatusCode.valueOf(response.getStatus())),
+                () -> Mono.just(errorPart(id, HttpStatus.SERVICE_UNAVAILABLE, "Service is busy, please retry")));
+        }
+        call = call.onErrorResume(e -> Mono.just(failurePart(id, e)));
+
+        RateLimitFilter rateLimit = rateLimitFilter.getIfAvailable();
+        if (rateLimit == null) {
+            return call;
+        }
+        Mono<BatchResponse.Part> limited = call;
+        return rateLimit.tryAcquire(exchange, method, PathContainer.parsePath(requested.getRawPath()))
+            .flatMap(decision -> decision.allowed() ? limited
+                : Mono.just(errorPart(id, HttpStatus.TOO_MANY_REQUESTS, "Too many requests")));
+    }
+
+    // Over lb:// to an instance the load balancer picks, reported to the health registry as InstanceHealthFilter does
+    private <T extends BatchResponse.Part> Mono<T> send(URI upstream, Function<String, Mono<T>> call) {
+        if (!"lb".equals(upstream.getScheme())) {
+            return call.apply(upstream.toString());
+        }
+        ReactiveLoadBalancer<ServiceInstance> loadBalancer = loadBalancers.getInstance(upstream.getHost());
+        if (loadBalancer == null) {
+            return Mono.error(NotFoundException.create(true, "No load balancer for " + upstream.getHost()));
+        }
+        return Mono.from(loadBalancer.choose())
+            .filter(Response::hasServer)
+            .switchIfEmpty(Mono.error(() -> NotFoundException.create(true,
+                "Unable to find instance for " + upstream.getHost())))
+            .flatMap(response -> {
+                ServiceInstance instance = response.getServer();
+                healthRegistry.requestStarted(instance);
+                return call.apply(instance.getUri().toString())
+                    .doOnSuccess(answer -> healthRegistry.requestFinished(instance,
+                        answer != null && INSTANCE_FAILURE_STATUSES.contains(answer.getStatus())))
+                    .doOnError(e -> healthRegistry.requestFinished(instance, true))
+                    .doOnCancel(() -> healthRegistry.requestCancelled(instance));
+            });
+    }
+
+    // The part's path as a URI, or null when it is not one of the allowed paths
+    private URI allowedUri(List<PathPattern> paths, String path) {
+        if (path == null || !path.startsWith("/")) {
+            return null;
+        }
+        URI uri;
+        try {
+            uri = URI.create(path);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        // No host of its own, and no dot segments that would leave the allowed paths upstream
+        if (uri.getRawAuthority() != null || !uri.getRawPath().equals(uri.normalize().getRawPath())) {
+            return null;
+        }
+        PathContainer pathContainer = PathContainer.parsePath(uri.getRawPath());
+        if (paths.stream().noneMatch(pattern -> pattern.matches(pathContainer))) {
+            return null;
+        }
+        return uri;
+    }
+
+    // /v1/users/5?... for /api/v1/users/5?...; null when nothing is left after the prefix
+    private static String upstreamPath(int stripPrefix, URI uri) {
+        String[] segments = uri.getRawPath().substring(1).split("/", -1);
+        if (segments.length <= stripPrefix) {
+            return null;
+        }
+        StringBuilder target = new StringBuilder();
+        for (int i = stripPrefix; i < segments.length; i++) {
+            target.append('/').append(segments[i]);
+        }
+        if (uri.getRawQuery() != null) {
+            target.append('?').append(uri.getRawQuery());
+        }
+        return target.toString();
+    }
+
+    private static HttpHeaders identityHeaders(ServerWebExchange exchange) {
+        HttpHeaders headers = new HttpHeaders();
+        VerifiedToken token = exchange.getAttribute(FirebaseAuthFilter.VERIFIED_TOKEN_ATTRIBUTE);
+        if (token != null) {
+            headers.set("X-User-ID", token.uid());
+            if (token.email() != null) {
+                headers.set("X-User-Email", token.email());
+            }
+            if (token.name() != null) {
+                headers.set("X-User-Name", token.name());
+            }
+        }
+        return headers;
+    }
+
+    private JsonNode body(MediaType contentType, byte[] bytes) {
+        if (bytes.length == 0) {
+            return null;
+        }
+        if (contentType != null && contentType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+            try {
+                return objectMapper.readTree(bytes);
+            } catch (IOException e) {
+                log.debug("Batch part answered with invalid JSON: {}", e.getMessage());
+            }
+        }
+        return TextNode.valueOf(new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    private BatchResponse.Part failurePart(String id, Throwable e) {
+        if (e instanceof FailedPartException failed) {
+            return failed.part;
+        }
+        if (e instanceof CallNotPermittedException || e instanceof NotFoundException) {
+            return errorPart(id, HttpStatus.SERVICE_UNAVAILABLE, "Service temporarily unavailable");
+        }
+        if (e instanceof TimeoutException) {
+            return errorPart(id, HttpStatus.GATEWAY_TIMEOUT, "Response took longer than timeout");
+        }
+        log.warn("Batch part {} failed: {}", id, e.toString());
+        return errorPart(id, HttpStatus.BAD_GATEWAY, "Upstream request failed");
+    }
+
+    private BatchResponse.Part errorPart(String id, HttpStatus status, String message) {
+        return new BatchResponse.Part(id, status.value(), objectMapper.valueToTree(ErrorResponse.error(message)));
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, BatchResponse batchResponse) {
+        ServerHttpResponse response = exchange.getResponse();
+        byte[] bytes;
+        try {
+            bytes = objectMapper.writeValueAsBytes(batchResponse);
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(bytes.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+    }
+
+    // A 5xx answer: a failure for the circuit breaker, but still returned to the client as is
+    private static class FailedPartException extends RuntimeException {
+        private final BatchResponse.Part part;
+
+        FailedPartException(BatchResponse.Part part) {
+            super("Upstream answered " + part.getStatus(), null, false, false);
+            this.part = part;
+        }
+    }
+
+    public static class Config {
+        // Base URI calls are sent to, e.g. lb://user-service
+        private String upstream;
+
+        // Gateway paths a batch may call, in Spring PathPattern syntax
+        private List<String> paths = new ArrayList<>();
+
+        // Leading path segments dropped before calling upstream, as StripPrefix does
+        private int stripPrefix = 1;
+
+        // Resilience4j instance the calls count toward; none when null
+        private String circuitBreaker;
+
+        // AdaptiveConcurrencyLimit limiter the calls take a permit from; none when null
+        private String concurrencyLimit;
+
+        private int maxParts = 10;
+
+        private DataSize maxRequestSize = DataSize.ofKilobytes(256);
+
+        // Per call; larger answers fail that call with 502
+        private DataSize maxPartResponseSize = DataSize.ofMegabytes(1);
+
+        private Duration partTimeout = Duration.ofSeconds(5);
+
+        public String getUpstream() {
+            return upstream;
+        }
+
+        public void setUpstream(String upstream) {
+            this.upstream = upstream;
+        }
+
+        public List<String> getPaths() {
+            return paths;
+        }
+
+        public void setPaths(List<String> paths) {
+            this.paths = paths;
+        }
+
+        public int getStripPrefix() {
+            return stripPrefix;
+        }
+
+        public void setStripPrefix(int stripPrefix) {
+            this.stripPrefix = stripPrefix;
+        }
+
+        public String getCircuitBreaker() {
+            return circuitBreaker;
+        }
+
+        public void setCircuitBreaker(String circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+        }
+
+        public String getConcurrencyLimit() {
+            return concurrencyLimit;
+        }
+
+        public void setConcurrencyLimit(String concurrencyLimit) {
+            this.concurrencyLimit = concurrencyLimit;
+        }
+
+        public int getMaxParts() {
+            return maxParts;
+        }
+
+        public void setMaxParts(int maxParts) {
+            this.maxParts = maxParts;
+        }
+
+        public DataSize getMaxRequestSize() {
+            return maxRequestSize;
+        }
+
+        public void setMaxRequestSize(DataSize maxRequestSize) {
+            this.maxRequestSize = maxRequestSize;
+        }
+
+        public DataSize getMaxPartResponseSize() {
+            return maxPartResponseSize;
+        }
+
+        public void setMaxPartResponseSize(DataSize maxPartResponseSize) {
+            this.maxPartResponseSize = maxPartResponseSize;
+        }
+
+        public Duration getPartTimeout() {
+            return partTimeout;
+        }
+
+        public void setPartTimeout(Duration partTimeout) {
+            this.partTimeout = partTimeout;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.yuesaohub.platform.gateway.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuesaohub.platform.gateway.dto.ErrorResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Answers a request from the gateway itself with an {@link ErrorResponse} body, for
+ * filters that reject a request instead of routing it.
+ */
+@Component
+public class ErrorResponseWriter {
+
+    private final ObjectMapper objectMapper;
+
+    public ErrorResponseWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public Mono<Void> write(ServerWebExchange exchange, HttpStatus status, String message) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+
+        ErrorResponse errorResponse = ErrorResponse.error(message);
+
+        try {
+            return response.writeWith(
+                Mono.just(response.bufferFactory().wrap(
+                    objectMapper.writeValueAsBytes(errorResponse)
+                ))
+            );
+        } catch (Exception e) {
+            return Mono.error(e);
+        }
+    }
+}
@@ -1,16 +1,17 @@
 package com.yuesaohub.platform.gateway.filter;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.firebase.auth.FirebaseAuthException;
-import com.yuesaohub.platform.gateway.dto.ErrorResponse;
+import com.yuesaohub.platform.gateway.exception.InvalidTokenException;
+import com.yuesaohub.platform.gateway.exception.TokenVerificationUnavailableException;
 import com.yuesaohub.platform.gateway.service.FirebaseAuthService;
+import com.yuesaohub.platform.gateway.service.VerifiedToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
-import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
@@ -19,16 +20,39 @@ import reactor.core.publisher.Mono;
 @ConditionalOnProperty(name = "app.firebase.enabled", havingValue = "true", matchIfMissing = false)
 public class FirebaseAuthFilter implements GlobalFilter, Ordered {
 
+    // Verified uid, for later filters; unlike the X-User-ID header a client cannot set it
+    public static final String USER_ID_ATTRIBUTE = FirebaseAuthFilter.class.getName() + ".userId";
+    // The whole VerifiedToken, for filters that call services themselves
+    public static final String VERIFIED_TOKEN_ATTRIBUTE = FirebaseAuthFilter.class.getName() + ".verifiedToken";
+
+    private static final String USER_HEADER_PREFIX = "X-User-";
+
+    private static final Logger log = LoggerFactory.getLogger(FirebaseAuthFilter.class);
+
     private final FirebaseAuthService firebaseAuthService;
-    private final ObjectMapper objectMapper;
+    private final PublicRouteMatcher publicRouteMatcher;
+    private final ErrorResponseWriter errorResponseWriter;
 
-    public FirebaseAuthFilter(FirebaseAuthService firebaseAuthService, ObjectMapper objectMapper) {
+    public FirebaseAuthFilter(FirebaseAuthService firebaseAuthService, PublicRouteMatcher publicRouteMatcher,
+                              ErrorResponseWriter errorResponseWriter) {
         this.firebaseAuthService = firebaseAuthService;
-        this.objectMapper = objectMapper;
+        this.publicRouteMatcher = publicRouteMatcher;
+        this.errorResponseWriter = errorResponseWriter;
     }
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        // Only the gateway says who the caller is, also on public routes; drop what the client sent
+        ServerHttpRequest request = exchange.getRequest();
+        if (request.getHeaders().keySet().stream().anyMatch(FirebaseAuthFilter::isUserHeader)) {
+            request = request.mutate().headers(headers -> headers.keySet().removeIf(FirebaseAuthFilter::isUserHeader))
+                .build();
+            exchange = exchange.mutate().request(request).build();
+        }
+        return authenticate(exchange, chain);
+    }
+
+    private Mono<Void> authenticate(ServerWebExchange exchange, GatewayFilterChain chain) {
         ServerHttpRequest request = exchange.getRequest();
 
         // Skip auth for OPTIONS requests (CORS preflight)
@@ -36,8 +60,8 @@ public class FirebaseAuthFilter implements GlobalFilter, Ordered {
             return chain.filter(exchange);
         }
 
-        // Skip auth for public endpoints
-        if (isPublicEndpoint(request.getPath().value())) {
+        // Skip auth for public endpoints (app.auth.public-routes)
+        if (publicRouteMatcher.isPublic(request.getMethod().name(), request.getPath().value())) {
             return chain.filter(exchange);
         }
 
@@ -46,21 +70,29 @@ public class FirebaseAuthFilter implements GlobalFilter, Ordered {
             return onError(exchange, "No token provided", HttpStatus.UNAUTHORIZED);
         }
 
-        try {
-            var decodedToken = firebaseAuthService.verifyToken(token);
-
-            // Add user info to headers
-            ServerHttpRequest modifiedRequest = request.mutate()
-                .header("X-User-ID", decodedToken.getUid())
-                .header("X-User-Email", decodedToken.getEmail())
-                .header("X-User-Name", decodedToken.getName())
-                .build();
-
-            return chain.filter(exchange.mutate().request(modifiedRequest).build());
-
-        } catch (FirebaseAuthException e) {
-            return onError(exchange, "Invalid token", HttpStatus.UNAUTHORIZED);
-        }
+        // Verification errors answer the request themselves and emit no token
+        return firebaseAuthService.verifyToken(token)
+            .onErrorResume(InvalidTokenException.class,
+                e -> onError(exchange, "Invalid token", HttpStatus.UNAUTHORIZED).then(Mono.<VerifiedToken>empty()))
+            .onErrorResume(TokenVerificationUnavailableException.class, e -> {
+                // Signing keys could not be loaded; the token may well be valid
+                log.error("Token verification unavailable: {}", e.getMessage());
+                return onError(exchange, "Authentication temporarily unavailable", HttpStatus.SERVICE_UNAVAILABLE)
+                    .then(Mono.<VerifiedToken>empty());
+            })
+            .flatMap(verifiedToken -> {
+                exchange.getAttributes().put(USER_ID_ATTRIBUTE, verifiedToken.uid());
+                exchange.getAttributes().put(VERIFIED_TOKEN_ATTRIBUTE, verifiedToken);
+
+                // Add user info to headers
+                ServerHttpRequest modifiedRequest = request.mutate()
+                    .header("X-User-ID", verifiedToken.uid())
+                    .header("X-User-Email", verifiedToken.email())
+                    .header("X-User-Name", verifiedToken.name())
+                    .build();
+
+                return chain.filter(exchange.mutate().request(modifiedRequest).build());
+            });
     }
 
     @Override
@@ -68,13 +100,8 @@ public class FirebaseAuthFilter implements GlobalFilter, Ordered {
         return -100; // Execute before other filters
     }
 
-    private boolean isPublicEndpoint(String path) {
-        return path.startsWith("/api/public/") || 
-               path.startsWith("/actuator/") ||
-               path.equals("/health") ||
-               // Allow public read access to user profiles and search
-               path.matches("/api/v1/users/\\d+") ||
-               path.startsWith("/api/v1/users/search/");
+    private static boolean isUserHeader(String name) {
+        return name.regionMatches(true, 0, USER_HEADER_PREFIX, 0, USER_HEADER_PREFIX.length());
     }
 
     private String extractToken(ServerHttpRequest request) {
@@ -86,19 +113,6 @@ public class FirebaseAuthFilter implements GlobalFilter, Ordered {
     }
 
     private Mono<Void> onError(ServerWebExchange exchange, String message, HttpStatus status) {
-        ServerHttpResponse response = exchange.getResponse();
-        response.setStatusCode(status);
-
-        ErrorResponse errorResponse = ErrorResponse.error(message);
-
-        try {
-            return response.writeWith(
-                Mono.just(response.bufferFactory().wrap(
-                    objectMapper.writeValueAsBytes(errorResponse)
-                ))
-            );
-        } catch (Exception e) {
-            return Mono.error(e);
-        }
+        return errorResponseWriter.write(exchange, status, message);
     }
 }
@@ -0,0 +1,370 @@
+package com.yuesaohub.platform.gateway.filter;
+
+import com.yuesaohub.platform.gateway.hedging.BufferingServerHttpResponse;
+import com.yuesaohub.platform.gateway.hedging.HedgeBudget;
+import com.yuesaohub.platform.gateway.hedging.RollingPercentile;
+import com.yuesaohub.platform.gateway.loadbalancer.LeastOutstandingRequestsLoadBalancer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebExchangeDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+
+/**
+ * Route filter that hedges slow GETs. When a GET has not been answered within the route's
+ * recent p95 latency, a second copy goes to another instance. The first answer is sent to
+ * the client and the other call is cancelled. A {@link HedgeBudget} keeps the extra
+ * calls to {@code budget-percent} of the route's GETs. Other methods pass straight
+ * through, as they may not be safe to send twice.
+ *
+ * Latency is kept apart for calls answered over gRPC by {@code UserGrpcTranscoding} and
+ * those proxied over HTTP, and is the first call's own: one cancelled because the second
+ * won counts as at least as slow as it had become. A GET whose first call has no instance
+ * from the load balancer yet is not hedged, as there is nothing to send the second away from.
+ *
+ * <pre>
+ * filters:
+ *   - name: Hedge
+ *     args:
+ *       name: user-service
+ *       budget-percent: 10
+ * </pre>
+ *
+ * Place it after {@code CircuitBreaker}, so the breaker sees one outcome per request. The
+ * filters after it run once per call. Both answers are buffered, so a response larger
+ * than {@code max-body-size} fails the request.
+ */
+@Component
+public class HedgeGatewayFilterFactory extends AbstractGatewayFilterFactory<HedgeGatewayFilterFactory.Config> {
+
+    private final MeterRegistry meterRegistry;
+
+    // By name, so the learned latency and the saved-up budget survive route refreshes
+    private final Map<String, Hedger> hedgers = new ConcurrentHashMap<>();
+
+    public HedgeGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        Hedger hedger = hedgers.computeIfAbsent(config.getName(), name -> createHedger(config));
+        long minDelayNanos = config.getMinDelay().toNanos();
+        int maxBodySize = (int) config.getMaxBodySize().toBytes();
+
+        return (exchange, chain) -> {
+            if (!HttpMethod.GET.equals(exchange.getRequest().getMethod())) {
+                return chain.filter(exchange);
+            }
+            hedger.budget().onRequest();
+            long start = System.nanoTime();
+            // Calls not yet answered; once none is left, the last outcome is the result
+            AtomicInteger running = new AtomicInteger(1);
+            AtomicBoolean hedgeWon = new AtomicBoolean();
+
+            Attempt primary = new Attempt(exchange, maxBodySize);
+            Mono<Outcome> first = call(primary, chain, null, false, running)
+                .doOnNext(outcome -> {
+                    if (outcome.response() != null) {
+                        hedger.latency(primary).record(System.nanoTime() - start);
+                    }
+                })
+                .doOnCancel(() -> {
+                    if (hedgeWon.get()) {
+                        hedger.latency(primary).record(System.nanoTime() - start);
+                    }
+                });
+
+            // The transport is only known once the first call is under way, so wait for the
+            // quicker estimate and then for the rest of the one that applies
+            long earliestNanos = hedger.earliestThreshold();
+            Mono<Outcome> second = earliestNanos < 0 ? Mono.empty()
+                : Mono.delay(Duration.ofNanos(Math.max(earliestNanos, minDelayNanos)))
+                    .flatMap(tick -> {
+                        ServiceInstance avoid = instanceOf(primary);
+                        long thresholdNanos = hedger.latency(primary).get();
+                        if (avoid == null || thresholdNanos < 0) {
+                            return Mono.empty();
+                        }
+                        long remainingNanos = Math.max(thresholdNanos, minDelayNanos) - (System.nanoTime() - start);
+                        return remainingNanos > 0
+                            ? Mono.delay(Duration.ofNanos(remainingNanos)).thenReturn(avoid) : Mono.just(avoid);
+                    })
+                    .flatMap(avoid -> {
+                        if (!hedger.budget().tryAcquire()) {
+                            hedger.budgetExhausted().increment();
+                            return Mono.empty();
+                        }
+                        hedger.hedged().increment();
+                        running.incrementAndGet();
+                        return call(new Attempt(exchange, maxBodySize), chain, avoid, true, running);
+                    });
+
+            // The first answer wins and cancels the other call; a failed call leaves it to the other
+            return Flux.merge(first, second)
+                .doOnNext(outcome -> hedgeWon.set(outcome.hedge() && outcome.response() != null))
+                .takeUntil(outcome -> outcome.response() != null || running.get() == 0)
+                .last()
+                .flatMap(outcome -> {
+                    if (outcome.response() == null) {
+                        return Mono.error(outcome.error());
+                    }
+                    if (outcome.hedge()) {
+                        hedger.wins().increment();
+                    }
+                    return write(exchange, outcome.response());
+                });
+        };
+    }
+
+    private Mono<Outcome> call(Attempt attempt, GatewayFilterChain chain, ServiceInstance avoid, boolean hedge,
+                               AtomicInteger running) {
+        Mono<Void> call = chain.filter(attempt);
+        if (avoid != null) {
+            call = call.contextWrite(context -> context.put(LeastOutstandingRequestsLoadBalancer.AVOID_INSTANCE, avoid));
+        }
+        return call
+            .then(Mono.defer(() -> readUpstreamBody(attempt)))
+            .doOnCancel(() -> closeUpstream(attempt))
+            .doOnError(e -> closeUpstream(attempt))
+            .then(Mono.fromSupplier(() -> new Outcome(hedge, attempt.getResponse(), null)))
+            .onErrorResume(e -> Mono.just(new Outcome(hedge, null, e)))
+            .doOnNext(outcome -> running.decrementAndGet());
+    }
+
+    // NettyWriteResponseFilter runs outside route filters, on the real exchange, so each call reads its own body
+    private static Mono<Void> readUpstreamBody(Attempt attempt) {
+        Connection connection = attempt.getAttribute(CLIENT_RESPONSE_CONN_ATTR);
+        if (connection == null) {
+            // Answered without an upstream HTTP call, e.g. over gRPC
+            return Mono.empty();
+        }
+        DataBufferFactory bufferFactory = attempt.getResponse().bufferFactory();
+        Flux<DataBuffer> body = connection.inbound().receive().retain().map(byteBuf -> {
+            if (bufferFactory instanceof NettyDataBufferFactory nettyBufferFactory) {
+                return nettyBufferFactory.wrap(byteBuf);
+            }
+            byte[] bytes = new byte[byteBuf.readableBytes()];
+            byteBuf.readBytes(bytes);
+            byteBuf.release();
+            return bufferFactory.wrap(bytes);
+        });
+        return attempt.getResponse().writeWith(body);
+    }
+
+    // As NettyWriteResponseFilter does: a half-read connection cannot go back to the pool
+    private static void closeUpstream(Attempt attempt) {
+        Connection connection = attempt.getAttribute(CLIENT_RESPONSE_CONN_ATTR);
+        if (connection != null && connection.channel().isActive()) {
+            connection.dispose();
+        }
+    }
+
+    // Where the load balancer sent a call, once it has chosen; null for calls not load-balanced
+    private static ServiceInstance instanceOf(Attempt attempt) {
+        Response<ServiceInstance> lbResponse = attempt.getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        return lbResponse != null && lbResponse.hasServer() ? lbResponse.getServer() : null;
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, BufferingServerHttpResponse answer) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(answer.getStatusOrOk());
+        answer.getHeaders().forEach((name, values) -> {
+            if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)
+                    && !HttpHeaders.TRANSFER_ENCODING.equalsIgnoreCase(name)) {
+                response.getHeaders().put(name, values);
+            }
+        });
+        byte[] body = answer.getBody();
+        response.getHeaders().setContentLength(body.length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(body)));
+    }
+
+    private Hedger createHedger(Config config) {
+        RollingPercentile httpLatency = createLatency(config, "http");
+        RollingPercentile grpcLatency = createLatency(config, "grpc");
+        HedgeBudget budget = new HedgeBudget(config.getBudgetPercent(), config.getMaxBurst());
+
+        Counter hedged = Counter.builder("gateway.hedge.sent")
+            .tag("name", config.getName())
+            .description("Second calls sent for slow GETs")
+            .register(meterRegistry);
+        Counter wins = Counter.builder("gateway.hedge.wins")
+            .tag("name", config.getName())
+            .description("Hedged GETs answered by the second call")
+            .register(meterRegistry);
+        Counter budgetExhausted = Counter.builder("gateway.hedge.budget.exhausted")
+            .tag("name", config.getName())
+            .description("Slow GETs not hedged because the hedge budget was spent")
+            .register(meterRegistry);
+        return new Hedger(httpLatency, grpcLatency, budget, hedged, wins, budgetExhausted);
+    }
+
+    private RollingPercentile createLatency(Config config, String transport) {
+        RollingPercentile latency = new RollingPercentile(config.getPercentile(), config.getWindowSize(),
+            config.getMinSamples());
+        Gauge.builder("gateway.hedge.delay", latency, l -> Math.max(0, l.get()) / 1e6)
+            .tag("name", config.getName())
+            .tag("transport", transport)
+            .description("Milliseconds a GET waits before it is hedged")
+            .register(meterRegistry);
+        return latency;
+    }
+
+    // One call of a request: its own attributes, so the routing filters can run twice, and a held response
+    private static class Attempt extends ServerWebExchangeDecorator {
+        private final Map<String, Object> attributes;
+        private final BufferingServerHttpResponse response;
+
+        Attempt(ServerWebExchange exchange, int maxBodySize) {
+            super(exchange);
+            this.attributes = new ConcurrentHashMap<>(exchange.getAttributes());
+            this.response = new BufferingServerHttpResponse(exchange.getResponse().bufferFactory(), maxBodySize);
+        }
+
+        @Override
+        public BufferingServerHttpResponse getResponse() {
+            return response;
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return attributes;
+        }
+    }
+
+    private record Outcome(boolean hedge, BufferingServerHttpResponse response, Throwable error) {
+    }
+
+    private record Hedger(RollingPercentile httpLatency, RollingPercentile grpcLatency, HedgeBudget budget,
+                          Counter hedged, Counter wins, Counter budgetExhausted) {
+
+        // Latency of calls over the transport the first call went by
+        RollingPercentile latency(ServerWebExchange primary) {
+            return Boolean.TRUE.equals(primary.getAttribute(UserGrpcTranscodingGatewayFilterFactory.GRPC_CALL_ATTRIBUTE))
+                ? grpcLatency : httpLatency;
+        }
+
+        // The smaller of the two estimates, or -1 while neither transport has one
+        long earliestThreshold() {
+            long http = httpLatency.get();
+            long grpc = grpcLatency.get();
+            return http < 0 ? grpc : grpc < 0 ? http : Math.min(http, grpc);
+        }
+    }
+
+    public static class Config {
+        // Hedgers with the same name share latency history and budget
+        private String name;
+
+        // Latency percentile after which a GET is hedged
+        private double percentile = 0.95;
+
+        // Latencies of the last this many GETs make up the percentile
+        private int windowSize = 1000;
+
+        // No hedging until this many GETs have been timed
+        private int minSamples = 100;
+
+        // Never hedge sooner than this, however fast the route usually is
+        private Duration minDelay = Duration.ofMillis(10);
+
+        // Extra calls allowed, as a percentage of GETs
+        private double budgetPercent = 10;
+
+        // Hedges that can be saved up while the route is fast
+        private int maxBurst = 10;
+
+        private DataSize maxBodySize = DataSize.ofMegabytes(2);
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public double getPercentile() {
+            return percentile;
+        }
+
+        public void setPercentile(double percentile) {
+            this.percentile = percentile;
+        }
+
+        public int getWindowSize() {
+            return windowSize;
+        }
+
+        public void setWindowSize(int windowSize) {
+            this.windowSize = windowSize;
+        }
+
+        public int getMinSamples() {
+            return minSamples;
+        }
+
+        public void setMinSamples(int minSamples) {
+            this.minSamples = minSamples;
+        }
+
+        public Duration getMinDelay() {
+            return minDelay;
+        }
+
+        public void setMinDelay(Duration minDelay) {
+            this.minDelay = minDelay;
+        }
+
+        public double getBudgetPercent() {
+            return budgetPercent;
+        }
+
+        public void setBudgetPercent(double budgetPercent) {
+            this.budgetPercent = budgetPercent;
+        }
+
+        public int getMaxBurst() {
+            return maxBurst;
+        }
+
+        public void setMaxBurst(int maxBurst) {
+            this.maxBurst = maxBurst;
+        }
+
+        public DataSize getMaxBodySize() {
+            return maxBodySize;
+        }
+
+        public void setMaxBodySize(DataSize maxBodySize) {
+            this.maxBodySize = maxBodySize;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.yuesaohub.platform.gateway.filter;
+
+import com.yuesaohub.platform.gateway.loadbalancer.InstanceHealthRegistry;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+
+/**
+ * Reports each load-balanced request to the {@link InstanceHealthRegistry}: counts it as
+ * outstanding on the chosen instance while in flight, then records whether the instance
+ * failed it. Runs right after the load balancer has picked the instance. Unlike the load
+ * balancer lifecycle callbacks, it also sees cancelled requests, so the counts do not
+ * drift up.
+ */
+@Component
+public class InstanceHealthFilter implements GlobalFilter, Ordered {
+
+    private final InstanceHealthRegistry healthRegistry;
+
+    public InstanceHealthFilter(InstanceHealthRegistry healthRegistry) {
+        this.healthRegistry = healthRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Response<ServiceInstance> lbResponse = exchange.getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return chain.filter(exchange);
+        }
+        ServiceInstance instance = lbResponse.getServer();
+        healthRegistry.requestStarted(instance);
+        return chain.filter(exchange).doFinally(signal -> {
+            if (signal == SignalType.CANCEL) {
+                // The client went away; says nothing about the instance
+                healthRegistry.requestCancelled(instance);
+                return;
+            }
+            boolean failed = signal == SignalType.ON_ERROR
+                || isInstanceFailure(exchange.getResponse().getStatusCode());
+            healthRegistry.requestFinished(instance, failed);
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+    }
+
+    // A 500 is usually one bad request, not a bad instance, so it does not count
+    private boolean isInstanceFailure(HttpStatusCode status) {
+        return status != null && (status.value() == HttpStatus.BAD_GATEWAY.value()
+            || status.value() == HttpStatus.SERVICE_UNAVAILABLE.value()
+            || status.value() == HttpStatus.GATEWAY_TIMEOUT.value());
+    }
+}
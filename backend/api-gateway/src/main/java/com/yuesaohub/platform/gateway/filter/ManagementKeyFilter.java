@@ -0,0 +1,65 @@
+package com.yuesaohub.platform.gateway.filter;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Guards the gateway's own actuator endpoints other than health and info, which can drop
+ * caches. Callers send {@code Authorization: Bearer <app.management.key>}; with no key
+ * configured those endpoints are refused. Actuator requests are not routed, so the
+ * Firebase filter never sees them.
+ */
+@Component
+public class ManagementKeyFilter implements WebFilter, Ordered {
+
+    private static final String ACTUATOR = "/actuator/";
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final byte[] key;
+    private final ErrorResponseWriter errorResponseWriter;
+
+    public ManagementKeyFilter(@Value("${app.management.key:}") String key, ErrorResponseWriter errorResponseWriter) {
+        this.key = key.getBytes(StandardCharsets.UTF_8);
+        this.errorResponseWriter = errorResponseWriter;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!isGuarded(exchange.getRequest().getPath().value())) {
+            return chain.filter(exchange);
+        }
+        if (key.length == 0) {
+            return errorResponseWriter.write(exchange, HttpStatus.FORBIDDEN, "Management endpoints are disabled");
+        }
+        String authorization = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)
+                || !MessageDigest.isEqual(key, authorization.substring(BEARER_PREFIX.length())
+                    .getBytes(StandardCharsets.UTF_8))) {
+            return errorResponseWriter.write(exchange, HttpStatus.UNAUTHORIZED, "Invalid management key");
+        }
+        return chain.filter(exchange);
+    }
+
+    private static boolean isGuarded(String path) {
+        if (!path.startsWith(ACTUATOR)) {
+            return false;
+        }
+        String endpoint = path.substring(ACTUATOR.length());
+        return !endpoint.equals("health") && !endpoint.startsWith("health/") && !endpoint.equals("info");
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,124 @@
+package com.yuesaohub.platform.gateway.filter;
+
+import com.yuesaohub.platform.gateway.config.PublicRouteProperties;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The public route table compiled into a segment trie, so deciding whether a request
+ * needs a token walks the path once instead of testing every rule. Literal segments are
+ * tried before {@code {number}}, then {@code *}, then {@code **}.
+ */
+public class PublicRouteMatcher {
+
+    private static final String ANY_SEGMENT = "*";
+    private static final String NUMBER_SEGMENT = "{number}";
+    private static final String REMAINING_SEGMENTS = "**";
+
+    private final Node root = new Node();
+
+    public PublicRouteMatcher(List<PublicRouteProperties.Route> routes) {
+        for (PublicRouteProperties.Route route : routes) {
+            add(route.getPath(), route.getMethods());
+        }
+    }
+
+    public boolean isPublic(String method, String path) {
+        if (path.isEmpty() || path.charAt(0) != '/') {
+            return false;
+        }
+        return matches(root, path, 1, method);
+    }
+
+    private void add(String pattern, List<String> methods) {
+        if (pattern == null || !pattern.startsWith("/")) {
+            throw new IllegalArgumentException("Public route path must start with '/': " + pattern);
+        }
+        Node node = root;
+        String[] segments = pattern.substring(1).split("/", -1);
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (REMAINING_SEGMENTS.equals(segment)) {
+                if (i != segments.length - 1) {
+                    throw new IllegalArgumentException("'**' must be the last segment: " + pattern);
+                }
+                node = node.remaining == null ? (node.remaining = new Node()) : node.remaining;
+            } else if (ANY_SEGMENT.equals(segment)) {
+                node = node.any == null ? (node.any = new Node()) : node.any;
+            } else if (NUMBER_SEGMENT.equals(segment)) {
+                node = node.number == null ? (node.number = new Node()) : node.number;
+            } else {
+                node = node.literals.computeIfAbsent(segment, key -> new Node());
+            }
+        }
+        node.addMethods(methods);
+    }
+
+    // Matches the segment starting at offset (just past a '/') and everything after it
+    private static boolean matches(Node node, String path, int offset, String method) {
+        int end = path.indexOf('/', offset);
+        boolean last = end < 0;
+        if (last) {
+            end = path.length();
+        }
+
+        Node literal = node.literals.isEmpty() ? null : node.literals.get(path.substring(offset, end));
+        if (literal != null && matchesRest(literal, path, end, last, method)) {
+            return true;
+        }
+        if (node.number != null && end > offset && isDigits(path, offset, end)
+                && matchesRest(node.number, path, end, last, method)) {
+            return true;
+        }
+        if (node.any != null && matchesRest(node.any, path, end, last, method)) {
+            return true;
+        }
+        return node.remaining != null && node.remaining.allows(method);
+    }
+
+    private static boolean matchesRest(Node node, String path, int end, boolean last, String method) {
+        return last ? node.allows(method) : matches(node, path, end + 1, method);
+    }
+
+    private static boolean isDigits(String path, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = path.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Node {
+        private final Map<String, Node> literals = new HashMap<>();
+        private Node number;
+        private Node any;
+        private Node remaining;
+
+        // null while no route ends at this node
+        private Set<String> methods;
+        private boolean allMethods;
+
+        void addMethods(List<String> routeMethods) {
+            if (routeMethods == null || routeMethods.isEmpty()) {
+                allMethods = true;
+            }
+            if (methods == null) {
+                methods = new HashSet<>();
+            }
+            if (routeMethods != null) {
+                routeMethods.forEach(method -> methods.add(method.toUpperCase(Locale.ROOT)));
+            }
+        }
+
+        boolean allows(String method) {
+            return methods != null && (allMethods || methods.contains(method));
+        }
+    }
+}
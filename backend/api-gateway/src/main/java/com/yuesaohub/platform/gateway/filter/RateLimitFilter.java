@@ -0,0 +1,126 @@
+package com.yuesaohub.platform.gateway.filter;
+
+import com.yuesaohub.platform.gateway.config.RateLimitProperties;
+import com.yuesaohub.platform.gateway.ratelimit.RateLimitDecision;
+import com.yuesaohub.platform.gateway.ratelimit.RateLimitPolicy;
+import com.yuesaohub.platform.gateway.ratelimit.RateLimiterBackend;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.support.ipresolver.RemoteAddressResolver;
+import org.springframework.cloud.gateway.support.ipresolver.XForwardedRemoteAddressResolver;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Rejects clients that exceed their token bucket with {@code 429 Too Many Requests} and a
+ * {@code Retry-After} header. Runs after {@link FirebaseAuthFilter}, so signed-in users are
+ * limited by uid and cannot be throttled by others behind the same IP; anonymous traffic
+ * (the public profile and search routes) is limited per client IP.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+    private final RateLimiterBackend backend;
+    private final ErrorResponseWriter errorResponseWriter;
+    private final MeterRegistry meterRegistry;
+    private final RemoteAddressResolver remoteAddressResolver;
+    private final List<RoutePolicy> routePolicies = new ArrayList<>();
+    private final RateLimitPolicy defaultPolicy;
+
+    public RateLimitFilter(RateLimitProperties properties, RateLimiterBackend backend,
+                           ErrorResponseWriter errorResponseWriter, MeterRegistry meterRegistry) {
+        this.backend = backend;
+        this.errorResponseWriter = errorResponseWriter;
+        this.meterRegistry = meterRegistry;
+        this.remoteAddressResolver = properties.getTrustedProxies() > 0
+            ? XForwardedRemoteAddressResolver.maxTrustedIndex(properties.getTrustedProxies())
+            : new RemoteAddressResolver() { };
+        for (RateLimitProperties.Policy policy : properties.getPolicies()) {
+            routePolicies.add(new RoutePolicy(
+                PathPatternParser.defaultInstance.parse(policy.getPath()),
+                policy.getMethods().stream().map(method -> method.toUpperCase(Locale.ROOT)).collect(Collectors.toSet()),
+                toPolicy(policy)));
+        }
+        this.defaultPolicy = toPolicy(properties.getDefaultPolicy());
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        HttpMethod method = exchange.getRequest().getMethod();
+        if (HttpMethod.OPTIONS.equals(method)) {
+            return chain.filter(exchange);
+        }
+        return tryAcquire(exchange, method, exchange.getRequest().getPath().pathWithinApplication()).flatMap(decision -> {
+            if (decision.allowed()) {
+                exchange.getResponse().getHeaders().set("X-RateLimit-Remaining", String.valueOf(decision.remaining()));
+                return chain.filter(exchange);
+            }
+            // Whole seconds, rounded up so a client that honours it is not rejected again
+            long retryAfterSeconds = Math.max(1, (decision.retryAfter().toMillis() + 999) / 1000);
+            exchange.getResponse().getHeaders().set("Retry-After", String.valueOf(retryAfterSeconds));
+            exchange.getResponse().getHeaders().set("X-RateLimit-Remaining", "0");
+            return errorResponseWriter.write(exchange, HttpStatus.TOO_MANY_REQUESTS, "Too many requests");
+        });
+    }
+
+    /**
+     * Charges one call made for {@code exchange}'s client, e.g. a part of a batch, to the
+     * policy of the call's own method and path, as if it had arrived on its own.
+     */
+    public Mono<RateLimitDecision> tryAcquire(ServerWebExchange exchange, HttpMethod method, PathContainer path) {
+        RateLimitPolicy policy = policyFor(method.name(), path);
+        return backend.tryAcquire(policy.name() + ":" + clientKey(exchange), policy).doOnNext(decision -> {
+            if (!decision.allowed()) {
+                meterRegistry.counter("gateway.ratelimit.rejected", "policy", policy.name()).increment();
+            }
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return -90; // Right after FirebaseAuthFilter, before any upstream work
+    }
+
+    private RateLimitPolicy policyFor(String method, PathContainer path) {
+        for (RoutePolicy routePolicy : routePolicies) {
+            if ((routePolicy.methods().isEmpty() || routePolicy.methods().contains(method))
+                    && routePolicy.pattern().matches(path)) {
+                return routePolicy.policy();
+            }
+        }
+        return defaultPolicy;
+    }
+
+    private String clientKey(ServerWebExchange exchange) {
+        String userId = exchange.getAttribute(FirebaseAuthFilter.USER_ID_ATTRIBUTE);
+        if (userId != null) {
+            return "user:" + userId;
+        }
+        InetSocketAddress address = remoteAddressResolver.resolve(exchange);
+        return "ip:" + (address == null ? "unknown" : address.getHostString());
+    }
+
+    private static RateLimitPolicy toPolicy(RateLimitProperties.Policy policy) {
+        return new RateLimitPolicy(policy.getName(), policy.getReplenishRate(), policy.getBurstCapacity());
+    }
+
+    private record RoutePolicy(PathPattern pattern, Set<String> methods, RateLimitPolicy policy) {
+    }
+}
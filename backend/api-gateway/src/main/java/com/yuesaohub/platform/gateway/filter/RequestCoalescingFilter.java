@@ -0,0 +1,178 @@
+package com.yuesaohub.platform.gateway.filter;
+
+import com.yuesaohub.platform.gateway.config.RequestCoalescingProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collapses identical concurrent GETs into one upstream call. The first request for a
+ * key (path, sorted query and caller) goes upstream and its response is buffered as it
+ * streams back; requests arriving while it is in flight wait for it and get a copy.
+ * A waiting request falls back to its own upstream call if the shared one fails, is not
+ * a {@code 200}, its body exceeds {@code max-body-size}, it sets a cookie, or it takes
+ * longer than {@code max-wait}. Conditional and range requests always make their own
+ * call, as their answer ({@code 304}, {@code 206}) depends on their own headers. Sits
+ * behind {@link ResponseCacheFilter}, so it collapses the burst of misses for a profile
+ * that is not cached yet.
+ */
+@Component
+@ConditionalOnProperty(name = "app.coalescing.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestCoalescingFilter implements GlobalFilter, Ordered {
+
+    // Set per request by earlier filters or tied to one connection, so never copied to followers
+    private static final Set<String> UNSHARED_HEADERS = Set.of(
+        "x-ratelimit-remaining", "x-cache", "vary", "connection", "transfer-encoding", "content-length", "keep-alive");
+
+    // Requests whose response depends on more than the key, so neither lead nor follow
+    private static final List<String> PER_REQUEST_HEADERS = List.of(
+        HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_MODIFIED_SINCE, HttpHeaders.IF_MATCH,
+        HttpHeaders.IF_UNMODIFIED_SINCE, HttpHeaders.IF_RANGE, HttpHeaders.RANGE);
+
+    private final Map<String, CompletableFuture<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final RequestCoalescingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final List<PathPattern> paths;
+
+    public RequestCoalescingFilter(RequestCoalescingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.paths = properties.getPaths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!HttpMethod.GET.equals(request.getMethod())
+                || PER_REQUEST_HEADERS.stream().anyMatch(request.getHeaders()::containsKey)
+                || paths.stream().noneMatch(pattern -> pattern.matches(request.getPath().pathWithinApplication()))) {
+            return chain.filter(exchange);
+        }
+
+        // Signed-in callers only share with themselves: upstream may tailor the response to them
+        String userId = exchange.getAttribute(FirebaseAuthFilter.USER_ID_ATTRIBUTE);
+        String key = (userId == null ? "anonymous" : "user:" + userId) + " " + RequestKeys.pathAndQuery(request);
+
+        CompletableFuture<SharedResponse> leader = new CompletableFuture<>();
+        CompletableFuture<SharedResponse> existing = inFlight.putIfAbsent(key, leader);
+        if (existing == null) {
+            return lead(exchange, chain, key, leader);
+        }
+        // Empty when the shared call could not be used: fall back to an own upstream call
+        return Mono.fromFuture(existing, true)
+            .timeout(properties.getMaxWait(), Mono.empty())
+            .map(Optional::of)
+            .defaultIfEmpty(Optional.empty())
+            .flatMap(shared -> {
+                if (shared.isEmpty()) {
+                    count("fallback");
+                    return chain.filter(exchange);
+                }
+                count("shared");
+                return write(exchange, shared.get());
+            });
+    }
+
+    @Override
+    public int getOrder() {
+        return -70; // Behind ResponseCacheFilter: only cache misses are coalesced
+    }
+
+    private Mono<Void> lead(ServerWebExchange exchange, GatewayFilterChain chain, String key,
+                            CompletableFuture<SharedResponse> shared) {
+        count("leader");
+        ServerHttpResponseDecorator capturing = new ServerHttpResponseDecorator(exchange.getResponse()) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                HttpStatusCode status = getStatusCode();
+                // Errors and partial answers are not shared; followers retry on their own
+                if (status == null || status.value() != HttpStatus.OK.value()
+                        || getHeaders().containsKey(HttpHeaders.SET_COOKIE)) {
+                    release(key, shared, null);
+                    return super.writeWith(body);
+                }
+                HttpHeaders headers = shareableHeaders(getHeaders());
+                ByteArrayOutputStream captured = new ByteArrayOutputStream();
+                long maxBytes = properties.getMaxBodySize().toBytes();
+                Flux<? extends DataBuffer> teed = Flux.from(body)
+                    .doOnNext(buffer -> {
+                        int length = buffer.readableByteCount();
+                        if (captured.size() + length > maxBytes) {
+                            // Too large to hold for others; they make their own calls
+                            release(key, shared, null);
+                            return;
+                        }
+                        byte[] chunk = new byte[length];
+                        buffer.toByteBuffer(buffer.readPosition(), ByteBuffer.wrap(chunk), 0, length);
+                        captured.write(chunk, 0, length);
+                    })
+                    .doOnComplete(() -> release(key, shared, new SharedResponse(status, headers, captured.toByteArray())));
+                return super.writeWith(teed);
+            }
+        };
+        // Covers errors, cancellation and bodyless responses; a no-op once released
+        return chain.filter(exchange.mutate().response(capturing).build())
+            .doFinally(signal -> release(key, shared, null));
+    }
+
+    // Unregisters first, so requests arriving after completion start a fresh call
+    private void release(String key, CompletableFuture<SharedResponse> shared, SharedResponse response) {
+        if (!shared.isDone()) {
+            inFlight.remove(key, shared);
+            shared.complete(response);
+        }
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, SharedResponse shared) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(shared.status());
+        shared.headers().forEach((name, values) -> response.getHeaders().put(name, values));
+        response.getHeaders().setContentLength(shared.body().length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(shared.body())));
+    }
+
+    private static HttpHeaders shareableHeaders(HttpHeaders headers) {
+        HttpHeaders shareable = new HttpHeaders();
+        headers.forEach((name, values) -> {
+            String lowerName = name.toLowerCase(Locale.ROOT);
+            if (!UNSHARED_HEADERS.contains(lowerName) && !lowerName.startsWith("access-control-")) {
+                shareable.put(name, List.copyOf(values));
+            }
+        });
+        return shareable;
+    }
+
+    private void count(String role) {
+        meterRegistry.counter("gateway.coalescing.requests", "role", role).increment();
+    }
+
+    private record SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+    }
+}
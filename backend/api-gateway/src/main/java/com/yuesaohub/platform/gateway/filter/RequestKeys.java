@@ -0,0 +1,40 @@
+package com.yuesaohub.platform.gateway.filter;
+
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.util.MultiValueMap;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Identifies requests that must get the same response.
+ */
+final class RequestKeys {
+
+    private RequestKeys() {
+    }
+
+    // Path plus query parameters in sorted order, so ?b=2&a=1 and ?a=1&b=2 share a key
+    static String pathAndQuery(ServerHttpRequest request) {
+        StringBuilder key = new StringBuilder(request.getPath().value());
+        MultiValueMap<String, String> query = request.getQueryParams();
+        char separator = '?';
+        for (Map.Entry<String, List<String>> parameter : new TreeMap<>(query).entrySet()) {
+            for (String value : parameter.getValue()) {
+                key.append(separator).append(encode(parameter.getKey()));
+                if (value != null) {
+                    key.append('=').append(encode(value));
+                }
+                separator = '&';
+            }
+        }
+        return key.toString();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
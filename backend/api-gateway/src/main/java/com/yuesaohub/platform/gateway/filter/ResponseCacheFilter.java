@@ -0,0 +1,249 @@
+package com.yuesaohub.platform.gateway.filter;
+
+import com.yuesaohub.platform.gateway.cache.CachedResponse;
+import com.yuesaohub.platform.gateway.cache.ResponseCache;
+import com.yuesaohub.platform.gateway.config.ResponseCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.CRC32C;
+
+/**
+ * Serves anonymous GETs on the configured public paths from an in-memory cache, so
+ * repeated profile views and searches do not reach user-service.
+ *
+ * <p>Responses are keyed by path plus query parameters in sorted order. A {@code 200}
+ * is stored unless upstream marks it {@code no-store}, {@code no-cache} or
+ * {@code private}, sets a cookie or compresses it; its lifetime comes from
+ * {@code s-maxage}/{@code max-age} and {@code stale-while-revalidate}, falling back to
+ * the configured defaults. Once an entry goes stale, the first request fetches a new
+ * copy while concurrent requests keep getting the stale one. Every entry carries an
+ * ETag (upstream's, or a weak one computed from the body) so clients revalidating
+ * with {@code If-None-Match} get a bodyless {@code 304}. Requests with an
+ * {@code Authorization} header always go upstream; client {@code Cache-Control}
+ * directives are ignored so they cannot be used to bypass the cache.
+ */
+@Component
+@ConditionalOnProperty(name = "app.response-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    // Entity headers replayed from the cache; CORS and rate-limit headers are per request
+    private static final List<String> STORED_HEADERS = List.of(
+        HttpHeaders.CONTENT_TYPE, HttpHeaders.CONTENT_LANGUAGE, HttpHeaders.LAST_MODIFIED, HttpHeaders.CACHE_CONTROL);
+
+    private final ResponseCache cache;
+    private final ResponseCacheProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final List<PathPattern> paths;
+
+    public ResponseCacheFilter(ResponseCache cache, ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.cache = cache;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.paths = properties.getPaths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!HttpMethod.GET.equals(request.getMethod())
+                || request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)
+                || paths.stream().noneMatch(pattern -> pattern.matches(request.getPath().pathWithinApplication()))) {
+            return chain.filter(exchange);
+        }
+
+        String key = RequestKeys.pathAndQuery(request);
+        CachedResponse cached = cache.get(key);
+        if (cached == null) {
+            count("miss");
+            return fetchAndStore(exchange, chain, key);
+        }
+        if (cached.isFresh(Instant.now())) {
+            count("hit");
+            return serve(exchange, cached, "HIT");
+        }
+        if (!cached.startRevalidation()) {
+            count("stale");
+            return serve(exchange, cached, "STALE");
+        }
+        count("revalidate");
+        return fetchAndStore(exchange, chain, key).doFinally(signal -> cached.endRevalidation());
+    }
+
+    @Override
+    public int getOrder() {
+        return -80; // After auth and rate limiting, so cache hits are still counted against scrapers
+    }
+
+    private Mono<Void> fetchAndStore(ServerWebExchange exchange, GatewayFilterChain chain, String key) {
+        ServerHttpResponse response = exchange.getResponse();
+        ServerHttpResponseDecorator capturing = new ServerHttpResponseDecorator(response) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                Freshness freshness = freshness(getStatusCode(), getHeaders());
+                getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+                if (freshness == null) {
+                    return super.writeWith(body);
+                }
+                // Copies the body as it streams through, so the client is not held up
+                BodyCapture capture = new BodyCapture(properties.getMaxEntrySize().toBytes());
+                Flux<? extends DataBuffer> teed = Flux.from(body)
+                    .doOnNext(capture::append)
+                    .doOnComplete(() -> {
+                        byte[] bytes = capture.bytes();
+                        if (bytes != null) {
+                            cache.put(key, toCachedResponse(getStatusCode(), getHeaders(), bytes, freshness));
+                        }
+                    });
+                return super.writeWith(teed);
+            }
+        };
+        return chain.filter(exchange.mutate().response(capturing).build());
+    }
+
+    private Mono<Void> serve(ServerWebExchange exchange, CachedResponse cached, String cacheStatus) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.setETag(cached.getEtag());
+        headers.set(CACHE_STATUS_HEADER, cacheStatus);
+        headers.set(HttpHeaders.AGE, String.valueOf(Duration.between(cached.getStoredAt(), Instant.now()).toSeconds()));
+
+        List<String> ifNoneMatch = exchange.getRequest().getHeaders().getIfNoneMatch();
+        if (ifNoneMatch.contains(cached.getEtag()) || ifNoneMatch.contains("*")) {
+            headers.setCacheControl(cached.getHeaders().getCacheControl());
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+
+        for (String name : STORED_HEADERS) {
+            List<String> values = cached.getHeaders().get(name);
+            if (values != null) {
+                headers.put(name, values);
+            }
+        }
+        headers.setContentLength(cached.getBody().length);
+        response.setStatusCode(HttpStatusCode.valueOf(cached.getStatus()));
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(cached.getBody())));
+    }
+
+    // Null when the response must not be cached
+    private Freshness freshness(HttpStatusCode status, HttpHeaders headers) {
+        if (status == null || status.value() != HttpStatus.OK.value()
+                || headers.containsKey(HttpHeaders.SET_COOKIE)
+                || headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            return null;
+        }
+        Duration ttl = properties.getDefaultTtl();
+        Duration staleWhileRevalidate = properties.getDefaultStaleWhileRevalidate();
+        boolean sharedMaxAge = false;
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl != null) {
+            for (String directive : cacheControl.toLowerCase(Locale.ROOT).split(",")) {
+                String[] parts = directive.trim().split("=", 2);
+                switch (parts[0]) {
+                    case "no-store", "no-cache", "private" -> {
+                        return null;
+                    }
+                    case "s-maxage" -> {
+                        ttl = seconds(parts, ttl);
+                        sharedMaxAge = true;
+                    }
+                    case "max-age" -> ttl = sharedMaxAge ? ttl : seconds(parts, ttl);
+                    case "stale-while-revalidate" -> staleWhileRevalidate = seconds(parts, staleWhileRevalidate);
+                    default -> {
+                    }
+                }
+            }
+        }
+        return ttl.isZero() || ttl.isNegative() ? null : new Freshness(ttl, staleWhileRevalidate);
+    }
+
+    private CachedResponse toCachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, Freshness freshness) {
+        HttpHeaders stored = new HttpHeaders();
+        for (String name : STORED_HEADERS) {
+            List<String> values = headers.get(name);
+            if (values != null) {
+                stored.put(name, List.copyOf(values));
+            }
+        }
+        String etag = headers.getETag();
+        if (etag == null) {
+            CRC32C checksum = new CRC32C();
+            checksum.update(body);
+            etag = "W/\"" + body.length + "-" + Long.toHexString(checksum.getValue()) + "\"";
+        }
+        Instant now = Instant.now();
+        Instant freshUntil = now.plus(freshness.ttl());
+        return new CachedResponse(status.value(), stored, body, etag, now, freshUntil,
+            freshUntil.plus(freshness.staleWhileRevalidate()));
+    }
+
+    private static Duration seconds(String[] directive, Duration fallback) {
+        try {
+            return directive.length == 2 ? Duration.ofSeconds(Long.parseLong(directive[1].trim())) : fallback;
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("gateway.response.cache", "result", result).increment();
+    }
+
+    private record Freshness(Duration ttl, Duration staleWhileRevalidate) {
+    }
+
+    // Collects up to maxBytes of a streamed body; bytes() is null if it was larger
+    private static final class BodyCapture {
+        private final long maxBytes;
+        private ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        private BodyCapture(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        void append(DataBuffer buffer) {
+            if (bytes == null) {
+                return;
+            }
+            int length = buffer.readableByteCount();
+            if (bytes.size() + length > maxBytes) {
+                bytes = null;
+                return;
+            }
+            byte[] chunk = new byte[length];
+            buffer.toByteBuffer(buffer.readPosition(), ByteBuffer.wrap(chunk), 0, length);
+            bytes.write(chunk, 0, length);
+        }
+
+        byte[] bytes() {
+            return bytes == null ? null : bytes.toByteArray();
+        }
+    }
+}
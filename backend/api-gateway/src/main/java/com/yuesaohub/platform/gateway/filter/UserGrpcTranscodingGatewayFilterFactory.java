@@ -0,0 +1,227 @@
+package com.yuesaohub.platform.gateway.filter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuesaohub.platform.gateway.grpc.UserProtoJson;
+import com.yuesaohub.platform.gateway.grpc.UserQueryClient;
+import com.yuesaohub.platform.userapi.v1.GetUserRequest;
+import com.yuesaohub.platform.userapi.v1.SearchCaregiversRequest;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+
+/**
+ * Route filter that answers user-service's hot reads over gRPC instead of proxying the
+ * HTTP request: profile by id or Firebase uid, and caregiver search. The JSON written is
+ * the same as the REST endpoint's (see {@link UserProtoJson}), and so is the
+ * {@code Cache-Control}, which user-service sends back with the gRPC answer. Everything else, and any
+ * request whose parameters need REST's own validation, goes on to the HTTP route.
+ *
+ * <pre>
+ * filters:
+ *   - StripPrefix=1
+ *   - UserGrpcTranscoding
+ * </pre>
+ *
+ * Matches the user-service paths ({@code /v1/users/...}), so it goes after
+ * {@code StripPrefix}. Place it after {@code CircuitBreaker} so gRPC calls count toward the
+ * circuit. Calls go to an instance picked by the route's load balancer and carry the
+ * caller's uid, so read-your-writes holds as over HTTP. If the gRPC endpoint is
+ * UNAVAILABLE, the request falls back to HTTP. When
+ * {@code app.user-grpc.enabled} is false, the filter lets every request through.
+ */
+@Component
+public class UserGrpcTranscodingGatewayFilterFactory extends AbstractGatewayFilterFactory<Object> {
+
+    private static final Logger log = LoggerFactory.getLogger(UserGrpcTranscodingGatewayFilterFactory.class);
+
+    // Set while a request is answered over gRPC, so filters before this one can tell it from HTTP
+    public static final String GRPC_CALL_ATTRIBUTE =
+        UserGrpcTranscodingGatewayFilterFactory.class.getName() + ".grpcCall";
+
+    private static final PathPattern BY_ID = PathPatternParser.defaultInstance.parse("/v1/users/{id:\\d+}");
+    private static final PathPattern BY_FIREBASE_UID =
+        PathPatternParser.defaultInstance.parse("/v1/users/firebase/{firebaseUid}");
+    private static final PathPattern SEARCH_CAREGIVERS =
+        PathPatternParser.defaultInstance.parse("/v1/users/search/caregivers");
+
+    // Same conversions Spring MVC applies to @RequestParam and @PathVariable
+    private static final ConversionService CONVERSION = DefaultConversionService.getSharedInstance();
+
+    private final ObjectProvider<UserQueryClient> userQueryClient;
+    private final UserProtoJson userProtoJson;
+    private final ObjectMapper objectMapper;
+    private final Counter fallbacks;
+
+    public UserGrpcTranscodingGatewayFilterFactory(ObjectProvider<UserQueryClient> userQueryClient,
+                                                   UserProtoJson userProtoJson, ObjectMapper objectMapper,
+                                                   MeterRegistry meterRegistry) {
+        super(Object.class);
+        this.userQueryClient = userQueryClient;
+        this.userProtoJson = userProtoJson;
+        this.objectMapper = objectMapper;
+        this.fallbacks = Counter.builder("gateway.grpc.fallbacks")
+            .description("Transcodable requests sent over HTTP because user-service gRPC was unavailable")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public GatewayFilter apply(Object config) {
+        return (exchange, chain) -> {
+            UserQueryClient client = userQueryClient.getIfAvailable();
+            if (client == null || exchange.getRequest().getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+            String userId = exchange.getAttribute(FirebaseAuthFilter.USER_ID_ATTRIBUTE);
+            Function<ServiceInstance, Mono<UserQueryClient.Reply<JsonNode>>> call =
+                transcode(client, exchange.getRequest(), userId);
+            if (call == null) {
+                return chain.filter(exchange);
+            }
+            return client.choose()
+                .flatMap(instance -> {
+                    // Where the call went, as the load balancer filter records it for HTTP
+                    exchange.getAttributes().put(GATEWAY_LOADBALANCER_RESPONSE_ATTR, new DefaultResponse(instance));
+                    exchange.getAttributes().put(GRPC_CALL_ATTRIBUTE, true);
+                    return call.apply(instance);
+                })
+                .flatMap(reply -> {
+                    exchange.getResponse().getHeaders().setCacheControl(reply.cacheControl());
+                    return write(exchange, HttpStatus.OK, userProtoJson.success(reply.message()));
+                })
+                .onErrorResume(StatusRuntimeException.class, e -> onGrpcError(exchange, chain, e));
+        };
+    }
+
+    // The call for this request, to the instance given, or null when it is not one of the transcoded reads
+    private Function<ServiceInstance, Mono<UserQueryClient.Reply<JsonNode>>> transcode(UserQueryClient client,
+                                                                                     ServerHttpRequest request,
+                                                                                     String userId) {
+        PathContainer path = request.getPath().pathWithinApplication();
+        try {
+            PathPattern.PathMatchInfo match = BY_ID.matchAndExtract(path);
+            if (match != null) {
+                long id = CONVERSION.convert(match.getUriVariables().get("id"), Long.class);
+                GetUserRequest getUser = GetUserRequest.newBuilder().setId(id).build();
+                return instance -> client.getUser(instance, userId, getUser)
+                    .map(reply -> reply.map(userProtoJson::user));
+            }
+            match = BY_FIREBASE_UID.matchAndExtract(path);
+            if (match != null) {
+                GetUserRequest getUser = GetUserRequest.newBuilder()
+                    .setFirebaseUid(match.getUriVariables().get("firebaseUid"))
+                    .build();
+                return instance -> client.getUser(instance, userId, getUser)
+                    .map(reply -> reply.map(userProtoJson::user));
+            }
+            if (SEARCH_CAREGIVERS.matches(path)) {
+                SearchCaregiversRequest search = searchRequest(request.getQueryParams());
+                return instance -> client.searchCaregivers(instance, userId, search)
+                    .map(reply -> reply.map(userProtoJson::searchResults));
+            }
+        } catch (ConversionException e) {
+            // Not a valid REST request either; let user-service answer it as it always has
+            log.debug("Not transcoding {}: {}", path, e.getMessage());
+        }
+        return null;
+    }
+
+    private SearchCaregiversRequest searchRequest(MultiValueMap<String, String> params) {
+        SearchCaregiversRequest.Builder b = SearchCaregiversRequest.newBuilder();
+        param(params, "province", String.class, b::setProvince);
+        param(params, "languages", String.class, b::setLanguages);
+        param(params, "services", String.class, b::setServices);
+        param(params, "specializations", String.class, b::setSpecializations);
+        param(params, "minExperience", Integer.class, b::setMinExperience);
+        param(params, "available", Boolean.class, b::setAvailable);
+        param(params, "ageMin", Integer.class, b::setAgeMin);
+        param(params, "ageMax", Integer.class, b::setAgeMax);
+        b.setPage(0).setSize(20).setSort("relevance");
+        param(params, "page", Integer.class, b::setPage);
+        param(params, "size", Integer.class, b::setSize);
+        param(params, "sort", String.class, b::setSort);
+        return b.build();
+    }
+
+    // Absent or empty parameters stay unset, as they bind to null in REST
+    private <T> void param(MultiValueMap<String, String> params, String name, Class<T> type, Consumer<T> setter) {
+        String value = params.getFirst(name);
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        T converted = CONVERSION.convert(value, type);
+        if (converted != null) {
+            setter.accept(converted);
+        }
+    }
+
+    private Mono<Void> onGrpcError(ServerWebExchange exchange, GatewayFilterChain chain, StatusRuntimeException e) {
+        Status.Code code = e.getStatus().getCode();
+        return switch (code) {
+            // Same answers GlobalExceptionHandler gives over REST
+            case NOT_FOUND -> write(exchange, HttpStatus.NOT_FOUND, userProtoJson.error(e.getStatus().getDescription()));
+            case INVALID_ARGUMENT ->
+                write(exchange, HttpStatus.BAD_REQUEST, userProtoJson.error(e.getStatus().getDescription()));
+            case UNAVAILABLE -> {
+                // No gRPC endpoint reachable (e.g. an older user-service); HTTP may still work
+                fallbacks.increment();
+                log.debug("User gRPC unavailable, proxying over HTTP: {}", e.getStatus());
+                exchange.getAttributes().remove(GRPC_CALL_ATTRIBUTE);
+                yield chain.filter(exchange);
+            }
+            // As the HTTP route does when response-timeout expires
+            case DEADLINE_EXCEEDED -> Mono.error(new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT,
+                "Response took longer than timeout", e));
+            default -> {
+                log.error("User gRPC call failed: {}", e.getStatus());
+                yield write(exchange, HttpStatus.INTERNAL_SERVER_ERROR,
+                    userProtoJson.error("An unexpected error occurred"));
+            }
+        };
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, HttpStatus status, JsonNode body) {
+        ServerHttpResponse response = exchange.getResponse();
+        byte[] bytes;
+        try {
+            bytes = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(bytes.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+    }
+}
@@ -0,0 +1,150 @@
+package com.yuesaohub.platform.gateway.grpc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.DecimalNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.yuesaohub.platform.userapi.v1.CaregiverSearchItem;
+import com.yuesaohub.platform.userapi.v1.SearchCaregiversResponse;
+import com.yuesaohub.platform.userapi.v1.User;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Renders {@code UserQueryService} messages as the JSON user-service's REST API returns
+ * for them: the {@code ApiResponse} envelope around {@code UserDto} or
+ * {@code SearchResultsDto}, with the same field names, and with nulls for unset fields.
+ * Clients cannot tell which transport served them.
+ */
+@Component
+public class UserProtoJson {
+
+    private final ObjectMapper objectMapper;
+
+    public UserProtoJson(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    // ApiResponse.success(data); its nulls (path) are left out, like @JsonInclude(NON_NULL) does
+    public ObjectNode success(JsonNode data) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("success", true);
+        node.put("message", "Success");
+        node.set("data", data);
+        node.put("timestamp", DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(LocalDateTime.now()));
+        return node;
+    }
+
+    // ApiResponse.error(message)
+    public ObjectNode error(String message) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("success", false);
+        node.put("message", message);
+        node.put("timestamp", DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(LocalDateTime.now()));
+        return node;
+    }
+
+    public ObjectNode user(User u) {
+        ObjectNode node = objectMapper.createObjectNode();
+
+        // Core Identity
+        node.put("id", u.hasId() ? u.getId() : null);
+        node.put("createdAt", u.hasCreatedAt() ? u.getCreatedAt() : null);
+        node.put("updatedAt", u.hasUpdatedAt() ? u.getUpdatedAt() : null);
+        node.put("firebaseUid", u.hasFirebaseUid() ? u.getFirebaseUid() : null);
+        node.put("email", u.hasEmail() ? u.getEmail() : null);
+        node.put("userType", u.hasUserType() ? u.getUserType() : null);
+
+        // Basic Information
+        node.put("fullName", u.hasFullName() ? u.getFullName() : null);
+        node.put("displayName", u.hasDisplayName() ? u.getDisplayName() : null);
+        node.put("age", u.hasAge() ? u.getAge() : null);
+        node.put("profilePhotoUrl", u.hasProfilePhotoUrl() ? u.getProfilePhotoUrl() : null);
+
+        // Contact Information
+        node.put("primaryPhone", u.hasPrimaryPhone() ? u.getPrimaryPhone() : null);
+        node.put("wechatId", u.hasWechatId() ? u.getWechatId() : null);
+        node.put("wechatQrCodeUrl", u.hasWechatQrCodeUrl() ? u.getWechatQrCodeUrl() : null);
+        node.put("xiaohongshuHandle", u.hasXiaohongshuHandle() ? u.getXiaohongshuHandle() : null);
+
+        // Location & Service
+        node.put("city", u.hasCity() ? u.getCity() : null);
+        node.put("province", u.hasProvince() ? u.getProvince() : null);
+        node.put("country", u.hasCountry() ? u.getCountry() : null);
+        node.put("serviceAreas", u.hasServiceAreas() ? u.getServiceAreas() : null);
+        node.put("currentLocation", u.hasCurrentLocation() ? u.getCurrentLocation() : null);
+        node.put("willingToRelocate", u.hasWillingToRelocate() ? u.getWillingToRelocate() : null);
+
+        // Professional Information
+        node.put("yearsOfExperience", u.hasYearsOfExperience() ? u.getYearsOfExperience() : null);
+        node.put("languages", u.hasLanguages() ? u.getLanguages() : null);
+        node.put("specializations", u.hasSpecializations() ? u.getSpecializations() : null);
+        node.put("certifications", u.hasCertifications() ? u.getCertifications() : null);
+        node.put("servicesOffered", u.hasServicesOffered() ? u.getServicesOffered() : null);
+        node.set("hourlyRate", decimal(u.hasHourlyRate(), u.getHourlyRate()));
+
+        // Rich Content
+        node.put("aboutMe", u.hasAboutMe() ? u.getAboutMe() : null);
+        node.put("professionalExperience", u.hasProfessionalExperience() ? u.getProfessionalExperience() : null);
+        node.put("educationBackground", u.hasEducationBackground() ? u.getEducationBackground() : null);
+        node.put("specialSkills", u.hasSpecialSkills() ? u.getSpecialSkills() : null);
+
+        // Media
+        node.put("galleryPhotos", u.hasGalleryPhotos() ? u.getGalleryPhotos() : null);
+        node.put("certificatesPhotos", u.hasCertificatesPhotos() ? u.getCertificatesPhotos() : null);
+
+        // Social Proof
+        node.set("totalRating", decimal(u.hasTotalRating(), u.getTotalRating()));
+        node.put("totalReviews", u.hasTotalReviews() ? u.getTotalReviews() : null);
+
+        // Platform Management
+        node.put("profileCompletionPercentage",
+            u.hasProfileCompletionPercentage() ? u.getProfileCompletionPercentage() : null);
+        node.put("isFeatured", u.hasIsFeatured() ? u.getIsFeatured() : null);
+        node.put("isActive", u.hasIsActive() ? u.getIsActive() : null);
+        node.put("lastActiveAt", u.hasLastActiveAt() ? u.getLastActiveAt() : null);
+        node.put("profileViews", u.hasProfileViews() ? u.getProfileViews() : null);
+        node.put("verificationStatus", u.hasVerificationStatus() ? u.getVerificationStatus() : null);
+
+        return node;
+    }
+
+    public ObjectNode searchResults(SearchCaregiversResponse response) {
+        ObjectNode node = objectMapper.createObjectNode();
+        ArrayNode items = node.putArray("items");
+        response.getItemsList().forEach(item -> items.add(caregiver(item)));
+        node.put("total", response.getTotal());
+        node.put("page", response.getPage());
+        node.put("size", response.getSize());
+        return node;
+    }
+
+    private ObjectNode caregiver(CaregiverSearchItem c) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("id", c.hasId() ? c.getId() : null);
+        node.put("displayName", c.hasDisplayName() ? c.getDisplayName() : null);
+        node.put("profilePhotoUrl", c.hasProfilePhotoUrl() ? c.getProfilePhotoUrl() : null);
+        node.put("coverPhotoUrl", c.hasCoverPhotoUrl() ? c.getCoverPhotoUrl() : null);
+        node.put("province", c.hasProvince() ? c.getProvince() : null);
+        node.put("languages", c.hasLanguages() ? c.getLanguages() : null);
+        node.put("servicesOffered", c.hasServicesOffered() ? c.getServicesOffered() : null);
+        node.put("specializations", c.hasSpecializations() ? c.getSpecializations() : null);
+        node.put("yearsOfExperience", c.hasYearsOfExperience() ? c.getYearsOfExperience() : null);
+        node.put("age", c.hasAge() ? c.getAge() : null);
+        node.put("profileCompletionPercentage",
+            c.hasProfileCompletionPercentage() ? c.getProfileCompletionPercentage() : null);
+        node.set("totalRating", decimal(c.hasTotalRating(), c.getTotalRating()));
+        node.put("totalReviews", c.hasTotalReviews() ? c.getTotalReviews() : null);
+        return node;
+    }
+
+    // DecimalNode keeps the scale as sent (25.50 stays 25.50), as Jackson writes a BigDecimal
+    private JsonNode decimal(boolean present, String value) {
+        return present ? DecimalNode.valueOf(new BigDecimal(value)) : NullNode.getInstance();
+    }
+}
@@ -0,0 +1,188 @@
+package com.yuesaohub.platform.gateway.grpc;
+
+import com.yuesaohub.platform.gateway.config.UserGrpcProperties;
+import com.yuesaohub.platform.gateway.loadbalancer.InstanceHealthRegistry;
+import com.yuesaohub.platform.userapi.v1.BatchGetUsersRequest;
+import com.yuesaohub.platform.userapi.v1.BatchGetUsersResponse;
+import com.yuesaohub.platform.userapi.v1.GetUserRequest;
+import com.yuesaohub.platform.userapi.v1.SearchCaregiversRequest;
+import com.yuesaohub.platform.userapi.v1.SearchCaregiversResponse;
+import com.yuesaohub.platform.userapi.v1.User;
+import com.yuesaohub.platform.userapi.v1.UserQueryServiceGrpc;
+import io.grpc.Context;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.netty.NettyChannelBuilder;
+import io.grpc.stub.MetadataUtils;
+import io.grpc.stub.StreamObserver;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Reactive calls to user-service's {@code UserQueryService}. Instances come from the same
+ * load balancer as the HTTP route's, so discovery, health checks, outlier ejection and
+ * {@code AVOID_INSTANCE} apply alike, and each call is reported to the
+ * {@link InstanceHealthRegistry}. One HTTP/2 channel per instance multiplexes all calls
+ * to it. The caller's uid goes along as {@code x-user-id}, as X-User-ID does over HTTP.
+ * Each call gets the configured deadline and is cancelled on the server too when its
+ * subscriber goes away. Failures arrive as {@link StatusRuntimeException}. Answers come
+ * with the {@code cache-control} response header user-service set, as over REST.
+ */
+@Component
+@ConditionalOnProperty(name = "app.user-grpc.enabled", havingValue = "true", matchIfMissing = true)
+public class UserQueryClient {
+
+    public static final Metadata.Key<String> USER_ID = Metadata.Key.of("x-user-id", Metadata.ASCII_STRING_MARSHALLER);
+
+    public static final Metadata.Key<String> CACHE_CONTROL =
+        Metadata.Key.of("cache-control", Metadata.ASCII_STRING_MARSHALLER);
+
+    // Discovery metadata entry with an instance's gRPC port
+    public static final String GRPC_PORT_METADATA = "grpc-port";
+
+    private final ReactiveLoadBalancer.Factory<ServiceInstance> loadBalancers;
+    private final InstanceHealthRegistry healthRegistry;
+    private final UserGrpcProperties properties;
+
+    // By gRPC address
+    private final Map<String, ManagedChannel> channels = new ConcurrentHashMap<>();
+
+    public UserQueryClient(ReactiveLoadBalancer.Factory<ServiceInstance> loadBalancers,
+                           InstanceHealthRegistry healthRegistry, UserGrpcProperties properties) {
+        this.loadBalancers = loadBalancers;
+        this.healthRegistry = healthRegistry;
+        this.properties = properties;
+    }
+
+    /**
+     * Picks the instance for the next call, or fails with UNAVAILABLE when there is none.
+     */
+    public Mono<ServiceInstance> choose() {
+        ReactiveLoadBalancer<ServiceInstance> loadBalancer = loadBalancers.getInstance(properties.getServiceId());
+        if (loadBalancer == null) {
+            return Mono.error(unavailable());
+        }
+        return Mono.from(loadBalancer.choose())
+            .flatMap(response -> response.hasServer() ? Mono.just(response.getServer()) : Mono.error(unavailable()))
+            .switchIfEmpty(Mono.error(unavailable()));
+    }
+
+    public Mono<Reply<User>> getUser(ServiceInstance instance, String userId, GetUserRequest request) {
+        return call(instance, userId, (stub, observer) -> stub.getUser(request, observer));
+    }
+
+    public Mono<Reply<BatchGetUsersResponse>> batchGetUsers(ServiceInstance instance, String userId,
+                                                     BatchGetUsersRequest request) {
+        return call(instance, userId, (stub, observer) -> stub.batchGetUsers(request, observer));
+    }
+
+    public Mono<Reply<SearchCaregiversResponse>> searchCaregivers(ServiceInstance instance, String userId,
+                                                           SearchCaregiversRequest request) {
+        return call(instance, userId, (stub, observer) -> stub.searchCaregivers(request, observer));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        channels.values().forEach(ManagedChannel::shutdown);
+    }
+
+    private <T> Mono<Reply<T>> call(ServiceInstance instance, String userId,
+                                    BiConsumer<UserQueryServiceGrpc.UserQueryServiceStub, StreamObserver<T>> invocation) {
+        Duration deadline = properties.getDeadline();
+        Mono<Reply<T>> call = Mono.create(sink -> {
+            UserQueryServiceGrpc.UserQueryServiceStub stub = UserQueryServiceGrpc.newStub(channel(instance));
+            if (userId != null) {
+                Metadata headers = new Metadata();
+                headers.put(USER_ID, userId);
+                stub = stub.withInterceptors(MetadataUtils.newAttachHeadersInterceptor(headers));
+            }
+            AtomicReference<Metadata> responseHeaders = new AtomicReference<>();
+            AtomicReference<Metadata> trailers = new AtomicReference<>();
+            UserQueryServiceGrpc.UserQueryServiceStub callStub = stub
+                .withInterceptors(MetadataUtils.newCaptureMetadataInterceptor(responseHeaders, trailers));
+
+            Context.CancellableContext context = Context.current().withCancellation();
+            sink.onCancel(() -> context.cancel(null));
+            context.run(() -> invocation.accept(
+                callStub.withDeadlineAfter(deadline.toMillis(), TimeUnit.MILLISECONDS),
+                new StreamObserver<>() {
+                    @Override
+                    public void onNext(T value) {
+                        Metadata headers = responseHeaders.get();
+                        sink.success(new Reply<>(value, headers == null ? null : headers.get(CACHE_CONTROL)));
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        sink.error(t);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                    }
+                }));
+        });
+
+        // As InstanceHealthFilter does for HTTP; recorded before the outcome reaches the caller
+        return Mono.defer(() -> {
+            healthRegistry.requestStarted(instance);
+            return call
+                .doOnSuccess(value -> healthRegistry.requestFinished(instance, false))
+                .doOnError(e -> healthRegistry.requestFinished(instance, isInstanceFailure(e)))
+                .doOnCancel(() -> healthRegistry.requestCancelled(instance));
+        });
+    }
+
+    // UNAVAILABLE is left out: the request then goes over HTTP, whose outcome is reported as usual
+    private static boolean isInstanceFailure(Throwable e) {
+        return Status.fromThrowable(e).getCode() == Status.Code.DEADLINE_EXCEEDED;
+    }
+
+    private ManagedChannel channel(ServiceInstance instance) {
+        String host = instance.getHost();
+        int port = grpcPort(instance);
+        return channels.computeIfAbsent(host + ":" + port, address -> NettyChannelBuilder.forAddress(host, port)
+            .usePlaintext()
+            .keepAliveTime(properties.getKeepAliveTime().toMillis(), TimeUnit.MILLISECONDS)
+            .keepAliveWithoutCalls(true)
+            // Callbacks only complete a Mono; no need to hop to another thread for that
+            .directExecutor()
+            .build());
+    }
+
+    private int grpcPort(ServiceInstance instance) {
+        Map<String, String> metadata = instance.getMetadata();
+        String port = metadata != null ? metadata.get(GRPC_PORT_METADATA) : null;
+        return port != null ? Integer.parseInt(port) : properties.getPort();
+    }
+
+    /**
+     * A call's answer, with the {@code Cache-Control} user-service chose for it, if any.
+     */
+    public record Reply<T>(T message, String cacheControl) {
+
+        public <R> Reply<R> map(Function<? super T, ? extends R> mapper) {
+            return new Reply<>(mapper.apply(message), cacheControl);
+        }
+    }
+
+    private StatusRuntimeException unavailable() {
+        return Status.UNAVAILABLE
+            .withDescription("No instance of " + properties.getServiceId() + " available")
+            .asRuntimeException();
+    }
+}
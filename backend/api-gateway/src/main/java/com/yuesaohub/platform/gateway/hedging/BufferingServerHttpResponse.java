@@ -0,0 +1,76 @@
+package com.yuesaohub.platform.gateway.hedging;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.AbstractServerHttpResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * A response that is held in memory instead of sent, so one of several attempts at a
+ * request can be picked afterwards. Bodies over {@code maxBodySize} fail the write with
+ * {@link org.springframework.core.io.buffer.DataBufferLimitException}.
+ */
+public class BufferingServerHttpResponse extends AbstractServerHttpResponse {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final int maxBodySize;
+    private byte[] body = EMPTY;
+
+    public BufferingServerHttpResponse(DataBufferFactory bufferFactory, int maxBodySize) {
+        super(bufferFactory, new HttpHeaders());
+        this.maxBodySize = maxBodySize;
+    }
+
+    public HttpStatusCode getStatusOrOk() {
+        HttpStatusCode status = getStatusCode();
+        return status == null ? HttpStatus.OK : status;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getNativeResponse() {
+        return (T) this;
+    }
+
+    @Override
+    protected Mono<Void> writeWithInternal(Publisher<? extends DataBuffer> body) {
+        return DataBufferUtils.join(body, maxBodySize)
+            .doOnNext(buffer -> {
+                byte[] bytes = new byte[buffer.readableByteCount()];
+                buffer.read(bytes);
+                DataBufferUtils.release(buffer);
+                this.body = bytes;
+            })
+            .then();
+    }
+
+    @Override
+    protected Mono<Void> writeAndFlushWithInternal(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+        return writeWithInternal(Flux.from(body).concatMap(Flux::from));
+    }
+
+    @Override
+    protected void applyStatusCode() {
+    }
+
+    @Override
+    protected void applyHeaders() {
+    }
+
+    @Override
+    protected void applyCookies() {
+        getCookies().values().forEach(cookies ->
+            cookies.forEach(cookie -> getHeaders().add(HttpHeaders.SET_COOKIE, cookie.toString())));
+    }
+}
@@ -0,0 +1,42 @@
+package com.yuesaohub.platform.gateway.hedging;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps hedged requests at a share of ordinary ones. Every request earns
+ * {@code percent / 100} of a hedge, up to {@code maxBurst} hedges saved up, and each hedge
+ * spends one. So hedging adds at most about {@code percent}% load upstream, even when
+ * every request is slow, which is exactly when extra load hurts the most.
+ */
+public class HedgeBudget {
+
+    // In thousandths of a hedge, so small percentages still add up
+    private static final long HEDGE_COST = 1000;
+
+    private final long earnedPerRequest;
+    private final long maxBalance;
+    private final AtomicLong balance = new AtomicLong();
+
+    public HedgeBudget(double percent, int maxBurst) {
+        if (percent < 0 || maxBurst < 1) {
+            throw new IllegalArgumentException("Hedge budget needs percent >= 0 and max-burst >= 1");
+        }
+        this.earnedPerRequest = Math.round(percent * HEDGE_COST / 100);
+        this.maxBalance = maxBurst * HEDGE_COST;
+    }
+
+    public void onRequest() {
+        balance.accumulateAndGet(earnedPerRequest, (current, earned) -> Math.min(maxBalance, current + earned));
+    }
+
+    public boolean tryAcquire() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < HEDGE_COST) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - HEDGE_COST));
+        return true;
+    }
+}
@@ -0,0 +1,47 @@
+package com.yuesaohub.platform.gateway.hedging;
+
+import java.util.Arrays;
+
+/**
+ * A latency percentile over the last {@code windowSize} samples. The value is recomputed
+ * every {@code recomputeEvery} samples rather than on every read, so reads on the request
+ * path are a volatile load. Until {@code minSamples} have been recorded there is no
+ * estimate, and {@link #get()} returns -1.
+ */
+public class RollingPercentile {
+
+    private final double percentile;
+    private final int minSamples;
+    private final int recomputeEvery;
+    private final long[] window;
+
+    private int next;
+    private long recorded;
+    private volatile long valueNanos = -1;
+
+    public RollingPercentile(double percentile, int windowSize, int minSamples) {
+        if (percentile <= 0 || percentile >= 1 || minSamples < 1 || windowSize < minSamples) {
+            throw new IllegalArgumentException("Need 0 < percentile < 1 and 1 <= min-samples <= window-size");
+        }
+        this.percentile = percentile;
+        this.minSamples = minSamples;
+        this.recomputeEvery = Math.max(1, windowSize / 10);
+        this.window = new long[windowSize];
+    }
+
+    public long get() {
+        return valueNanos;
+    }
+
+    public synchronized void record(long nanos) {
+        window[next] = nanos;
+        next = (next + 1) % window.length;
+        recorded++;
+        if (recorded >= minSamples && (recorded == minSamples || recorded % recomputeEvery == 0)) {
+            int size = (int) Math.min(recorded, window.length);
+            long[] sorted = Arrays.copyOf(window, size);
+            Arrays.sort(sorted);
+            valueNanos = sorted[Math.min(size - 1, (int) Math.ceil(percentile * size) - 1)];
+        }
+    }
+}
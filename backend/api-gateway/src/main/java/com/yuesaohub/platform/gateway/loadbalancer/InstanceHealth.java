@@ -0,0 +1,63 @@
+package com.yuesaohub.platform.gateway.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * What the gateway has observed of one upstream instance: requests in flight to it, and
+ * whether recent failures got it ejected.
+ */
+public class InstanceHealth {
+
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    // Guarded by this
+    private int consecutiveFailures;
+    private int ejections;
+
+    // nanoTime the current ejection ends; 0 when not ejected
+    private volatile long ejectedUntil;
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    void requestStarted() {
+        outstanding.incrementAndGet();
+    }
+
+    void requestFinished() {
+        outstanding.decrementAndGet();
+    }
+
+    public boolean isEjected(long now) {
+        long until = ejectedUntil;
+        return until != 0 && now - until < 0;
+    }
+
+    synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        ejections = 0;
+    }
+
+    /**
+     * Counts a failure and ejects the instance once {@code threshold} failures come in a
+     * row. Each ejection in a row lasts {@code baseNanos} longer, up to {@code maxNanos}.
+     *
+     * @return the ejection length in nanoseconds, or 0 if the instance was not ejected
+     */
+    synchronized long recordFailure(long now, int threshold, long baseNanos, long maxNanos) {
+        if (isEjected(now)) {
+            // Requests sent before the ejection are still coming back
+            return 0;
+        }
+        if (++consecutiveFailures < threshold) {
+            return 0;
+        }
+        consecutiveFailures = 0;
+        ejections++;
+        long duration = Math.min(baseNanos * ejections, maxNanos);
+        long until = now + duration;
+        ejectedUntil = until == 0 ? 1 : until;
+        return duration;
+    }
+}
@@ -0,0 +1,96 @@
+package com.yuesaohub.platform.gateway.loadbalancer;
+
+import com.yuesaohub.platform.gateway.config.LoadBalancerProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link InstanceHealth} for every upstream instance the gateway has routed to, shared by
+ * the load balancers of all services. Outcomes are fed in by
+ * {@link com.yuesaohub.platform.gateway.filter.InstanceHealthFilter}.
+ */
+@Component
+public class InstanceHealthRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(InstanceHealthRegistry.class);
+
+    private final LoadBalancerProperties.OutlierEjection outlierEjection;
+    private final MeterRegistry meterRegistry;
+
+    // By service and address: instance ids are optional in the simple discovery list
+    private final Map<String, Tracked> instances = new ConcurrentHashMap<>();
+
+    public InstanceHealthRegistry(LoadBalancerProperties properties, MeterRegistry meterRegistry) {
+        this.outlierEjection = properties.getOutlierEjection();
+        this.meterRegistry = meterRegistry;
+    }
+
+    public InstanceHealth get(ServiceInstance instance) {
+        return tracked(instance).health();
+    }
+
+    public void requestStarted(ServiceInstance instance) {
+        get(instance).requestStarted();
+    }
+
+    /**
+     * Records how a request to {@code instance} ended.
+     *
+     * @param failed whether the instance itself failed it: no connection, timed out, or
+     *               answered 502/503/504
+     */
+    public void requestFinished(ServiceInstance instance, boolean failed) {
+        Tracked tracked = tracked(instance);
+        InstanceHealth health = tracked.health();
+        health.requestFinished();
+        if (!failed) {
+            health.recordSuccess();
+            return;
+        }
+        long ejectedFor = health.recordFailure(System.nanoTime(), outlierEjection.getConsecutiveFailures(),
+            outlierEjection.getBaseEjectionTime().toNanos(), outlierEjection.getMaxEjectionTime().toNanos());
+        if (ejectedFor > 0) {
+            tracked.ejections().increment();
+            log.warn("Ejecting {} instance {}:{} for {} after {} consecutive failures",
+                instance.getServiceId(), instance.getHost(), instance.getPort(),
+                Duration.ofNanos(ejectedFor), outlierEjection.getConsecutiveFailures());
+        }
+    }
+
+    public void requestCancelled(ServiceInstance instance) {
+        get(instance).requestFinished();
+    }
+
+    private Tracked tracked(ServiceInstance instance) {
+        String address = instance.getHost() + ":" + instance.getPort();
+        return instances.computeIfAbsent(instance.getServiceId() + "/" + address,
+            key -> register(instance.getServiceId(), address));
+    }
+
+    private Tracked register(String serviceId, String address) {
+        InstanceHealth health = new InstanceHealth();
+        Gauge.builder("gateway.lb.outstanding", health, InstanceHealth::getOutstanding)
+            .description("Requests in flight to an upstream instance")
+            .tag("service", serviceId)
+            .tag("instance", address)
+            .register(meterRegistry);
+        Counter ejections = Counter.builder("gateway.lb.ejections")
+            .description("Times an upstream instance was ejected as an outlier")
+            .tag("service", serviceId)
+            .tag("instance", address)
+            .register(meterRegistry);
+        return new Tracked(health, ejections);
+    }
+
+    private record Tracked(InstanceHealth health, Counter ejections) {
+    }
+}
@@ -0,0 +1,107 @@
+package com.yuesaohub.platform.gateway.loadbalancer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Power of two choices: picks two instances at random and sends the request to the one
+ * with fewer requests outstanding. Tracks load nearly as well as scanning every instance
+ * for the least loaded, without every gateway thread piling onto the same one. Ejected
+ * outliers are skipped, unless that would leave too few instances to serve from. An
+ * instance put in the Reactor context under {@link #AVOID_INSTANCE} is skipped too, if
+ * there is another to choose.
+ */
+public class LeastOutstandingRequestsLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    // ServiceInstance a request should go elsewhere than, e.g. where its hedged twin went
+    public static final String AVOID_INSTANCE = LeastOutstandingRequestsLoadBalancer.class.getName() + ".avoid";
+
+    private static final Logger log = LoggerFactory.getLogger(LeastOutstandingRequestsLoadBalancer.class);
+
+    private final String serviceId;
+    private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+    private final InstanceHealthRegistry healthRegistry;
+    private final int maxEjectionPercent;
+
+    public LeastOutstandingRequestsLoadBalancer(String serviceId,
+                                                ObjectProvider<ServiceInstanceListSupplier> supplierProvider,
+                                                InstanceHealthRegistry healthRegistry, int maxEjectionPercent) {
+        this.serviceId = serviceId;
+        this.supplierProvider = supplierProvider;
+        this.healthRegistry = healthRegistry;
+        this.maxEjectionPercent = maxEjectionPercent;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = supplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return Mono.deferContextual(context -> supplier.get(request).next().map(instances -> {
+            Response<ServiceInstance> response = choose(instances, context.getOrDefault(AVOID_INSTANCE, null));
+            if (supplier instanceof SelectedInstanceCallback callback && response.hasServer()) {
+                callback.selectedServiceInstance(response.getServer());
+            }
+            return response;
+        }));
+    }
+
+    private Response<ServiceInstance> choose(List<ServiceInstance> instances, ServiceInstance avoid) {
+        if (instances.isEmpty()) {
+            log.warn("No healthy instances available for service: {}", serviceId);
+            return new EmptyResponse();
+        }
+        List<ServiceInstance> candidates = admitted(instances);
+        if (avoid != null && candidates.size() > 1) {
+            List<ServiceInstance> others = candidates.stream()
+                .filter(instance -> !sameAddress(instance, avoid))
+                .toList();
+            candidates = others.isEmpty() ? candidates : others;
+        }
+        if (candidates.size() == 1) {
+            return new DefaultResponse(candidates.get(0));
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = candidates.get(first);
+        ServiceInstance b = candidates.get(second);
+        return new DefaultResponse(
+            healthRegistry.get(a).getOutstanding() <= healthRegistry.get(b).getOutstanding() ? a : b);
+    }
+
+    private static boolean sameAddress(ServiceInstance a, ServiceInstance b) {
+        return a.getHost().equals(b.getHost()) && a.getPort() == b.getPort();
+    }
+
+    private List<ServiceInstance> admitted(List<ServiceInstance> instances) {
+        long now = System.nanoTime();
+        List<ServiceInstance> admitted = new ArrayList<>(instances.size());
+        for (ServiceInstance instance : instances) {
+            if (!healthRegistry.get(instance).isEjected(now)) {
+                admitted.add(instance);
+            }
+        }
+        // Past the cap, ejection would overload the rest; better to spread over all of them
+        int maxEjected = instances.size() * maxEjectionPercent / 100;
+        return admitted.isEmpty() || instances.size() - admitted.size() > maxEjected ? instances : admitted;
+    }
+}
@@ -0,0 +1,37 @@
+package com.yuesaohub.platform.gateway.loadbalancer;
+
+import com.yuesaohub.platform.gateway.config.LoadBalancerProperties;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Per-service load balancer beans, created in each service's child context. Deliberately
+ * not a {@code @Configuration}: component scanning must not register these in the
+ * gateway's own context.
+ */
+public class UpstreamLoadBalancerConfiguration {
+
+    // Instances from discovery (the static simple list or Eureka), minus those failing /actuator/health
+    @Bean
+    public ServiceInstanceListSupplier serviceInstanceListSupplier(ConfigurableApplicationContext context) {
+        return ServiceInstanceListSupplier.builder()
+            .withDiscoveryClient()
+            .withHealthChecks()
+            .build(context);
+    }
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> reactorServiceInstanceLoadBalancer(
+            Environment environment, LoadBalancerClientFactory clientFactory,
+            InstanceHealthRegistry healthRegistry, LoadBalancerProperties properties) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new LeastOutstandingRequestsLoadBalancer(serviceId,
+            clientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+            healthRegistry, properties.getOutlierEjection().getMaxEjectionPercent());
+    }
+}
@@ -0,0 +1,52 @@
+package com.yuesaohub.platform.gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets in local memory. Each bucket is a single {@link AtomicLong} holding the
+ * time at which it will be full again (the GCRA form of a token bucket), updated with a
+ * compare-and-set loop, so concurrent requests for one key never take a lock.
+ * Buckets idle for {@code idleTimeout} are evicted; by then they have refilled, so
+ * dropping one is indistinguishable from keeping it. {@code maxBuckets} bounds memory
+ * when clients rotate addresses.
+ */
+public class InMemoryRateLimiterBackend implements RateLimiterBackend {
+
+    private final Cache<String, AtomicLong> buckets;
+
+    public InMemoryRateLimiterBackend(Duration idleTimeout, long maxBuckets) {
+        this.buckets = Caffeine.newBuilder()
+            .expireAfterAccess(idleTimeout)
+            .maximumSize(maxBuckets)
+            .build();
+    }
+
+    @Override
+    public Mono<RateLimitDecision> tryAcquire(String key, RateLimitPolicy policy) {
+        return Mono.just(acquire(key, policy));
+    }
+
+    RateLimitDecision acquire(String key, RateLimitPolicy policy) {
+        AtomicLong fullAt = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+        long interval = (long) (1_000_000_000L / policy.replenishRate());
+        long capacity = interval * policy.burstCapacity();
+        while (true) {
+            long now = System.nanoTime();
+            long current = fullAt.get();
+            // An empty backlog starts from now; each request adds one interval of debt
+            long next = Math.max(current, now) + interval;
+            long debt = next - now;
+            if (debt > capacity) {
+                return new RateLimitDecision(false, 0, Duration.ofNanos(debt - capacity));
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return new RateLimitDecision(true, (capacity - debt) / interval, Duration.ZERO);
+            }
+        }
+    }
+}
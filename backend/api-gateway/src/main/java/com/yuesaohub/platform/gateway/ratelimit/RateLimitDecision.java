@@ -0,0 +1,10 @@
+package com.yuesaohub.platform.gateway.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Outcome of one request against a bucket. {@code retryAfter} is how long a rejected
+ * client must wait for a token, and zero when the request was allowed.
+ */
+public record RateLimitDecision(boolean allowed, long remaining, Duration retryAfter) {
+}
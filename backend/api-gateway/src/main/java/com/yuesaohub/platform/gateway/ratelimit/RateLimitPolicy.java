@@ -0,0 +1,15 @@
+package com.yuesaohub.platform.gateway.ratelimit;
+
+/**
+ * A token bucket: {@code burstCapacity} requests at once, refilled at
+ * {@code replenishRate} requests per second.
+ */
+public record RateLimitPolicy(String name, double replenishRate, int burstCapacity) {
+
+    public RateLimitPolicy {
+        if (replenishRate <= 0 || burstCapacity < 1) {
+            throw new IllegalArgumentException("Rate limit policy " + name
+                + " needs a positive replenish rate and a burst capacity of at least 1");
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.yuesaohub.platform.gateway.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Where token buckets live. The default keeps them in this gateway instance; a shared
+ * store (e.g. Redis) can be plugged in by declaring another bean of this type, so
+ * limits hold across gateway replicas.
+ */
+public interface RateLimiterBackend {
+
+    Mono<RateLimitDecision> tryAcquire(String key, RateLimitPolicy policy);
+}
@@ -1,17 +1,31 @@
 package com.yuesaohub.platform.gateway.service;
 
-import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.auth.FirebaseAuthException;
-import com.google.firebase.auth.FirebaseToken;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
 @Service
 @ConditionalOnProperty(name = "app.firebase.enabled", havingValue = "true", matchIfMissing = false)
 public class FirebaseAuthService {
 
-    public FirebaseToken verifyToken(String idToken) throws FirebaseAuthException {
-        FirebaseAuth firebaseAuth = FirebaseAuth.getInstance();
-        return firebaseAuth.verifyIdToken(idToken);
+    private final FirebaseTokenVerifier tokenVerifier;
+    private final VerifiedTokenCache tokenCache;
+
+    public FirebaseAuthService(FirebaseTokenVerifier tokenVerifier, VerifiedTokenCache tokenCache) {
+        this.tokenVerifier = tokenVerifier;
+        this.tokenCache = tokenCache;
+    }
+
+    /**
+     * Emits the verified token, failing with {@code InvalidTokenException} if it is not
+     * valid. Never blocks the calling event-loop thread.
+     */
+    public Mono<VerifiedToken> verifyToken(String idToken) {
+        VerifiedToken cached = tokenCache.get(idToken);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return tokenVerifier.verify(idToken)
+            .doOnNext(verified -> tokenCache.put(idToken, verified));
     }
 }
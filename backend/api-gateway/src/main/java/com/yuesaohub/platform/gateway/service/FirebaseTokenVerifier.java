@@ -0,0 +1,282 @@
+package com.yuesaohub.platform.gateway.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.firebase.FirebaseApp;
+import com.yuesaohub.platform.gateway.exception.InvalidTokenException;
+import com.yuesaohub.platform.gateway.exception.TokenVerificationUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.cert.CertificateFactory;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Verifies Firebase ID tokens without blocking the event loop, following the checks of
+ * {@code FirebaseAuth.verifyIdToken}: an RS256 signature by one of Google's published
+ * certificates, this project's audience and issuer, and valid iat/exp/auth_time claims.
+ *
+ * <p>The certificates are fetched with {@link WebClient} and held in memory. They are
+ * refreshed in the background shortly before the {@code max-age} Google serves them
+ * with runs out, so verification normally never waits on the network. A token signed
+ * with an unknown key id triggers one shared refresh (Google rotates keys); if a
+ * refresh fails, the previous keys stay in use and the refresh is retried.
+ */
+@Component
+@ConditionalOnProperty(name = "app.firebase.enabled", havingValue = "true", matchIfMissing = false)
+public class FirebaseTokenVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(FirebaseTokenVerifier.class);
+
+    private static final String ISSUER_PREFIX = "https://securetoken.google.com/";
+    private static final Duration CLOCK_SKEW = Duration.ofMinutes(5);
+    private static final Duration DEFAULT_MAX_AGE = Duration.ofHours(1);
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(30);
+    private static final Duration MIN_REFRESH_INTERVAL = Duration.ofMinutes(1);
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+
+    private final WebClient webClient;
+    private final ObjectMapper objectMapper;
+    private final String keysUrl;
+    private final Clock clock;
+    private final AtomicReference<KeySet> keys = new AtomicReference<>(KeySet.EMPTY);
+    private final AtomicReference<Mono<KeySet>> refreshInFlight = new AtomicReference<>();
+    private final AtomicReference<Disposable> scheduledRefresh = new AtomicReference<>();
+
+    @Value("${app.firebase.project-id:}")
+    private volatile String projectId;
+
+    @Autowired
+    public FirebaseTokenVerifier(WebClient.Builder webClientBuilder, ObjectMapper objectMapper,
+                                 @Value("${app.firebase.keys-url:https://www.googleapis.com/robot/v1/metadata/x509/securetoken@system.gserviceaccount.com}")
+                                 String keysUrl) {
+        this(webClientBuilder, objectMapper, keysUrl, Clock.systemUTC());
+    }
+
+    FirebaseTokenVerifier(WebClient.Builder webClientBuilder, ObjectMapper objectMapper, String keysUrl, Clock clock) {
+        this.webClient = webClientBuilder.build();
+        this.objectMapper = objectMapper;
+        this.keysUrl = keysUrl;
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void start() {
+        refresh().subscribe();
+    }
+
+    /**
+     * Emits the verified token, or fails with {@link InvalidTokenException} if it is not
+     * a valid ID token for this project.
+     */
+    public Mono<VerifiedToken> verify(String idToken) {
+        ParsedToken token;
+        try {
+            token = parse(idToken);
+        } catch (InvalidTokenException e) {
+            return Mono.error(e);
+        }
+        KeySet current = keys.get();
+        PublicKey key = current.get(token.keyId());
+        if (key != null) {
+            return Mono.fromCallable(() -> check(token, key));
+        }
+        // Keys fetched moments ago are current, so made-up key ids cannot force refetches
+        if (!current.byKeyId().isEmpty()
+                && current.fetchedAt().plus(MIN_REFRESH_INTERVAL).isAfter(Instant.now(clock))) {
+            return Mono.error(new InvalidTokenException("Token signed with unknown key id " + token.keyId()));
+        }
+        // Otherwise Google may have rotated its keys (or none are loaded yet), so refresh once
+        return refresh().map(refreshed -> {
+            if (refreshed.byKeyId().isEmpty()) {
+                throw new TokenVerificationUnavailableException("Firebase signing keys are unavailable");
+            }
+            PublicKey refreshedKey = refreshed.get(token.keyId());
+            if (refreshedKey == null) {
+                throw new InvalidTokenException("Token signed with unknown key id " + token.keyId());
+            }
+            return check(token, refreshedKey);
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        Disposable next = scheduledRefresh.getAndSet(null);
+        if (next != null) {
+            next.dispose();
+        }
+    }
+
+    private ParsedToken parse(String idToken) {
+        String[] parts = idToken.split("\\.", -1);
+        if (parts.length != 3) {
+            throw new InvalidTokenException("Token is not a JWT");
+        }
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            JsonNode header = objectMapper.readTree(decoder.decode(parts[0]));
+            JsonNode payload = objectMapper.readTree(decoder.decode(parts[1]));
+            if (!"RS256".equals(header.path("alg").asText())) {
+                throw new InvalidTokenException("Unexpected signing algorithm: " + header.path("alg").asText());
+            }
+            return new ParsedToken(header.path("kid").asText(), payload,
+                (parts[0] + "." + parts[1]).getBytes(StandardCharsets.US_ASCII), decoder.decode(parts[2]));
+        } catch (IOException | IllegalArgumentException e) {
+            throw new InvalidTokenException("Malformed token", e);
+        }
+    }
+
+    private VerifiedToken check(ParsedToken token, PublicKey key) {
+        try {
+            Signature signature = Signature.getInstance("SHA256withRSA");
+            signature.initVerify(key);
+            signature.update(token.signedContent());
+            if (!signature.verify(token.signature())) {
+                throw new InvalidTokenException("Invalid token signature");
+            }
+        } catch (GeneralSecurityException e) {
+            throw new InvalidTokenException("Invalid token signature", e);
+        }
+
+        JsonNode claims = token.payload();
+        String project = projectId();
+        if (!project.equals(claims.path("aud").asText())) {
+            throw new InvalidTokenException("Token has incorrect audience");
+        }
+        if (!(ISSUER_PREFIX + project).equals(claims.path("iss").asText())) {
+            throw new InvalidTokenException("Token has incorrect issuer");
+        }
+        String uid = claims.path("sub").asText();
+        if (uid.isEmpty() || uid.length() > 128) {
+            throw new InvalidTokenException("Token has invalid subject");
+        }
+        Instant now = Instant.now(clock);
+        Instant expiresAt = Instant.ofEpochSecond(claims.path("exp").asLong());
+        if (!expiresAt.plus(CLOCK_SKEW).isAfter(now)) {
+            throw new InvalidTokenException("Token has expired");
+        }
+        if (Instant.ofEpochSecond(claims.path("iat").asLong()).minus(CLOCK_SKEW).isAfter(now)
+                || Instant.ofEpochSecond(claims.path("auth_time").asLong()).minus(CLOCK_SKEW).isAfter(now)) {
+            throw new InvalidTokenException("Token issued in the future");
+        }
+        return new VerifiedToken(uid, textOrNull(claims, "email"), textOrNull(claims, "name"), expiresAt);
+    }
+
+    // Concurrent callers share one fetch; the in-flight slot clears when it completes
+    private Mono<KeySet> refresh() {
+        Mono<KeySet> inFlight = refreshInFlight.get();
+        if (inFlight != null) {
+            return inFlight;
+        }
+        Mono<KeySet> fetch = fetchKeys()
+            .doOnNext(fetched -> {
+                keys.set(fetched);
+                // Refresh ahead of expiry so requests never find the keys stale
+                scheduleRefresh(fetched.maxAge().multipliedBy(9).dividedBy(10));
+            })
+            .onErrorResume(e -> {
+                log.warn("Failed to refresh Firebase signing keys from {}: {}", keysUrl, e.getMessage());
+                scheduleRefresh(RETRY_DELAY);
+                return Mono.just(keys.get());
+            })
+            .doFinally(signal -> refreshInFlight.set(null))
+            .cache();
+        Mono<KeySet> winner = refreshInFlight.compareAndExchange(null, fetch);
+        return winner != null ? winner : fetch;
+    }
+
+    private void scheduleRefresh(Duration delay) {
+        Disposable next = Mono.delay(delay).flatMap(tick -> refresh()).subscribe();
+        Disposable previous = scheduledRefresh.getAndSet(next);
+        if (previous != null) {
+            previous.dispose();
+        }
+    }
+
+    private Mono<KeySet> fetchKeys() {
+        return webClient.get()
+            .uri(keysUrl)
+            .retrieve()
+            .toEntity(String.class)
+            .timeout(Duration.ofSeconds(10))
+            .map(this::toKeySet);
+    }
+
+    private KeySet toKeySet(ResponseEntity<String> response) {
+        try {
+            Map<String, String> certificates = objectMapper.readValue(response.getBody(),
+                new TypeReference<Map<String, String>>() {});
+            CertificateFactory factory = CertificateFactory.getInstance("X.509");
+            Map<String, PublicKey> publicKeys = new HashMap<>();
+            for (Map.Entry<String, String> certificate : certificates.entrySet()) {
+                byte[] pem = certificate.getValue().getBytes(StandardCharsets.US_ASCII);
+                publicKeys.put(certificate.getKey(),
+                    factory.generateCertificate(new ByteArrayInputStream(pem)).getPublicKey());
+            }
+            return new KeySet(Map.copyOf(publicKeys), maxAge(response.getHeaders().getCacheControl()),
+                Instant.now(clock));
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Unreadable Firebase signing keys", e);
+        }
+    }
+
+    private static Duration maxAge(String cacheControl) {
+        Matcher matcher = cacheControl == null ? null : MAX_AGE.matcher(cacheControl);
+        return matcher != null && matcher.find() ? Duration.ofSeconds(Long.parseLong(matcher.group(1))) : DEFAULT_MAX_AGE;
+    }
+
+    private String projectId() {
+        String project = projectId;
+        if (project == null || project.isBlank()) {
+            project = FirebaseApp.getInstance().getOptions().getProjectId();
+            if (project == null) {
+                throw new TokenVerificationUnavailableException(
+                    "Firebase project id is not configured (app.firebase.project-id)");
+            }
+            projectId = project;
+        }
+        return project;
+    }
+
+    private static String textOrNull(JsonNode claims, String field) {
+        JsonNode value = claims.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private record ParsedToken(String keyId, JsonNode payload, byte[] signedContent, byte[] signature) {
+    }
+
+    private record KeySet(Map<String, PublicKey> byKeyId, Duration maxAge, Instant fetchedAt) {
+
+        static final KeySet EMPTY = new KeySet(Map.of(), Duration.ZERO, Instant.EPOCH);
+
+        PublicKey get(String keyId) {
+            return byKeyId.get(keyId);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.yuesaohub.platform.gateway.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops cached tokens after a revocation, so it takes effect at once instead of after
+ * {@code max-ttl}. {@code DELETE /actuator/tokencache/{uid}} drops one user's tokens and
+ * {@code DELETE /actuator/tokencache} all of them. Guarded by
+ * {@link com.yuesaohub.platform.gateway.filter.ManagementKeyFilter}; call every gateway
+ * instance, as each has its own cache.
+ */
+@Component
+@Endpoint(id = "tokencache")
+@ConditionalOnProperty(name = "app.firebase.enabled", havingValue = "true", matchIfMissing = false)
+public class TokenCacheEndpoint {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenCacheEndpoint.class);
+
+    private final VerifiedTokenCache tokenCache;
+
+    public TokenCacheEndpoint(VerifiedTokenCache tokenCache) {
+        this.tokenCache = tokenCache;
+    }
+
+    @DeleteOperation
+    public void invalidateUser(@Selector String uid) {
+        log.info("Dropping cached tokens of user {}", uid);
+        tokenCache.invalidateUser(uid);
+    }
+
+    @DeleteOperation
+    public void invalidateAll() {
+        log.info("Dropping all cached tokens");
+        tokenCache.invalidateAll();
+    }
+}
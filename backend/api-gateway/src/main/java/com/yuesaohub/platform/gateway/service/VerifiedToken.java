@@ -0,0 +1,9 @@
+package com.yuesaohub.platform.gateway.service;
+
+import java.time.Instant;
+
+/**
+ * The parts of a verified Firebase ID token the gateway forwards to services.
+ */
+public record VerifiedToken(String uid, String email, String name, Instant expiresAt) {
+}
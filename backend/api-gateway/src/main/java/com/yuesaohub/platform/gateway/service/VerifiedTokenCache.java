@@ -0,0 +1,99 @@
+package com.yuesaohub.platform.gateway.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Remembers tokens that already passed verification, so a browser reusing its ID token
+ * for an hour pays for signature verification once. Entries are keyed by a SHA-256 of
+ * the raw token (the token itself is never held) and expire at the token's own
+ * {@code exp}, but no later than {@code max-ttl} after they were cached; the cap bounds
+ * how long a revoked token keeps working on a gateway that was not told about it.
+ * Hit rate is exported as {@code cache.gets{cache="gateway.auth.tokens"}}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.firebase.enabled", havingValue = "true", matchIfMissing = false)
+public class VerifiedTokenCache {
+
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(@Value("${app.auth.token-cache.max-size:50000}") long maxSize,
+                              @Value("${app.auth.token-cache.max-ttl:5m}") Duration maxTtl,
+                              MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new TokenExpiry(maxTtl))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.auth.tokens");
+    }
+
+    public VerifiedToken get(String idToken) {
+        return cache.getIfPresent(key(idToken));
+    }
+
+    public void put(String idToken, VerifiedToken token) {
+        if (token.expiresAt().isAfter(Instant.now())) {
+            cache.put(key(idToken), token);
+        }
+    }
+
+    /**
+     * Drops every cached token of a user, e.g. after their tokens were revoked or the
+     * account was disabled. Their next request is verified from scratch.
+     */
+    public void invalidateUser(String uid) {
+        cache.asMap().values().removeIf(token -> token.uid().equals(uid));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static String key(String idToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(idToken.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class TokenExpiry implements Expiry<String, VerifiedToken> {
+
+        private final long maxTtlNanos;
+
+        private TokenExpiry(Duration maxTtl) {
+            this.maxTtlNanos = maxTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+            long untilExpiry = Duration.between(Instant.now(), token.expiresAt()).toNanos();
+            return Math.max(0, Math.min(untilExpiry, maxTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken token, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, token, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.yuesaohub.platform.gateway.concurrency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GradientConcurrencyLimitTest {
+
+    private static final Duration HEALTHY = Duration.ofMillis(10);
+    private static final Duration SPIKE = Duration.ofMillis(100);
+
+    private GradientConcurrencyLimit limit;
+
+    @BeforeEach
+    void setUp() {
+        // The route defaults of AdaptiveConcurrencyLimitGatewayFilterFactory
+        limit = new GradientConcurrencyLimit(20, 4, 200, 1.5, 0.2, 0.9, 500);
+    }
+
+    @Test
+    void growsWhileLatencyHolds() {
+        saturate(HEALTHY, 600);
+
+        assertThat(limit.getLimit()).isEqualTo(200);
+    }
+
+    @Test
+    void shrinksOnSpikeAndRecoversWithLatency() {
+        saturate(HEALTHY, 600);
+
+        saturate(SPIKE, 20);
+        assertThat(limit.getLimit()).isLessThan(50);
+
+        // A long spike must not leave the limit pinned once upstream is fast again
+        saturate(SPIKE, 280);
+        saturate(HEALTHY, 20);
+        assertThat(limit.getLimit()).isGreaterThan(150);
+    }
+
+    @Test
+    void detectsTheNextSpikeAfterRecovering() {
+        saturate(HEALTHY, 600);
+        saturate(SPIKE, 300);
+        saturate(HEALTHY, 100);
+
+        saturate(HEALTHY.multipliedBy(4), 20);
+
+        assertThat(limit.getLimit()).isLessThan(100);
+    }
+
+    @Test
+    void idleSamplesLeaveTheLimitAlone() {
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(SPIKE.toNanos(), 1, false);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    void dropsBackOff() {
+        limit.onSample(HEALTHY.toNanos(), 20, true);
+
+        assertThat(limit.getLimit()).isEqualTo(18);
+    }
+
+    // Samples taken while the route runs at its limit, the only ones that move it
+    private void saturate(Duration rtt, int samples) {
+        for (int i = 0; i < samples; i++) {
+            limit.onSample(rtt.toNanos(), limit.getLimit(), false);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.yuesaohub.platform.gateway.filter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuesaohub.platform.gateway.config.LoadBalancerProperties;
+import com.yuesaohub.platform.gateway.config.RateLimitProperties;
+import com.yuesaohub.platform.gateway.loadbalancer.InstanceHealthRegistry;
+import com.yuesaohub.platform.gateway.ratelimit.InMemoryRateLimiterBackend;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreakerFactory;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Batch parts against a MockWebServer instance, with the rate limiter, concurrency limiter
+ * and health registry the route filters would use.
+ */
+class BatchGatewayFilterFactoryTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ErrorResponseWriter errorResponseWriter = new ErrorResponseWriter(objectMapper);
+    @SuppressWarnings("unchecked")
+    private final ReactiveLoadBalancer.Factory<ServiceInstance> loadBalancers = mock(ReactiveLoadBalancer.Factory.class);
+    @SuppressWarnings("unchecked")
+    private final ObjectProvider<RateLimitFilter> rateLimitFilter = mock(ObjectProvider.class);
+
+    private MockWebServer server;
+    private ServiceInstance instance;
+    private InstanceHealthRegistry healthRegistry;
+    private AdaptiveConcurrencyLimitGatewayFilterFactory concurrencyLimits;
+    private BatchGatewayFilterFactory factory;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                MockResponse response = new MockResponse()
+                    .setHeader("Content-Type", "application/json")
+                    .setBody("{\"path\":\"" + request.getPath() + "\"}");
+                // Slow enough that the other parts of a batch are in flight at the same time
+                return request.getPath().startsWith("/v1/users/slow")
+                    ? response.setBodyDelay(200, TimeUnit.MILLISECONDS) : response;
+            }
+        });
+        server.start();
+
+        instance = new DefaultServiceInstance("user-service-1", "user-service", server.getHostName(),
+            server.getPort(), false);
+        ReactiveLoadBalancer<ServiceInstance> loadBalancer = request -> Mono.just(new DefaultResponse(instance));
+        when(loadBalancers.getInstance("user-service")).thenReturn(loadBalancer);
+
+        healthRegistry = new InstanceHealthRegistry(new LoadBalancerProperties(), meterRegistry);
+        concurrencyLimits = new AdaptiveConcurrencyLimitGatewayFilterFactory(errorResponseWriter, meterRegistry);
+        factory = new BatchGatewayFilterFactory(HttpClient.create(), loadBalancers, healthRegistry,
+            mock(ReactiveCircuitBreakerFactory.class), concurrencyLimits, rateLimitFilter, errorResponseWriter,
+            objectMapper, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    void partsGoToTheChosenInstanceAndAreReportedToIt() throws Exception {
+        JsonNode responses = batch(config(), "/api/v1/users/1", "/api/v1/users/2?fields=name");
+
+        assertThat(responses.findValuesAsText("status")).containsExactly("200", "200");
+        assertThat(responses.get(1).get("body").get("path").asText()).isEqualTo("/v1/users/2?fields=name");
+        assertThat(server.getRequestCount()).isEqualTo(2);
+        assertThat(healthRegistry.get(instance).getOutstanding()).isZero();
+    }
+
+    @Test
+    void partsAreChargedToTheirOwnPathsPolicy() throws Exception {
+        RateLimitProperties.Policy search = new RateLimitProperties.Policy();
+        search.setName("search");
+        search.setPath("/api/v1/users/search/**");
+        search.setReplenishRate(0.01);
+        search.setBurstCapacity(1);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setPolicies(List.of(search));
+        when(rateLimitFilter.getIfAvailable()).thenReturn(new RateLimitFilter(properties,
+            new InMemoryRateLimiterBackend(Duration.ofMinutes(1), 100), errorResponseWriter, meterRegistry));
+
+        JsonNode responses = batch(config(),
+            "/api/v1/users/search/caregivers", "/api/v1/users/search/caregivers", "/api/v1/users/1");
+
+        // The second search is over its policy's burst; the default policy still has room
+        assertThat(responses.findValuesAsText("status")).containsExactly("200", "429", "200");
+        assertThat(server.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    void partsTakePermitsFromTheNamedLimiter() throws Exception {
+        AdaptiveConcurrencyLimitGatewayFilterFactory.Config limit = new AdaptiveConcurrencyLimitGatewayFilterFactory.Config();
+        limit.setName("user-service");
+        limit.setInitialLimit(1);
+        limit.setMinLimit(1);
+        concurrencyLimits.apply(limit);
+        BatchGatewayFilterFactory.Config config = config();
+        config.setConcurrencyLimit("user-service");
+
+        JsonNode responses = batch(config, "/api/v1/users/slow", "/api/v1/users/1");
+
+        assertThat(responses.findValuesAsText("status")).containsExactly("200", "503");
+        assertThat(server.getRequestCount()).isEqualTo(1);
+    }
+
+    private BatchGatewayFilterFactory.Config config() {
+        BatchGatewayFilterFactory.Config config = new BatchGatewayFilterFactory.Config();
+        config.setUpstream("lb://user-service");
+        config.setPaths(List.of("/api/v1/users/**"));
+        config.setStripPrefix(1);
+        return config;
+    }
+
+    private JsonNode batch(BatchGatewayFilterFactory.Config config, String... paths) throws Exception {
+        StringBuilder body = new StringBuilder("{\"requests\":[");
+        for (int i = 0; i < paths.length; i++) {
+            body.append(i == 0 ? "" : ",").append("{\"id\":\"").append(i).append("\",\"path\":\"")
+                .append(paths[i]).append("\"}");
+        }
+        body.append("]}");
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/v1/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(body.toString()));
+
+        factory.apply(config).filter(exchange, e -> Mono.empty()).block(Duration.ofSeconds(5));
+
+        return objectMapper.readTree(exchange.getResponse().getBodyAsString().block()).get("responses");
+    }
+}
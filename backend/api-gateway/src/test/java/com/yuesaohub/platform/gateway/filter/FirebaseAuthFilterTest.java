@@ -0,0 +1,74 @@
+package com.yuesaohub.platform.gateway.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuesaohub.platform.gateway.config.PublicRouteProperties;
+import com.yuesaohub.platform.gateway.service.FirebaseAuthService;
+import com.yuesaohub.platform.gateway.service.VerifiedToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FirebaseAuthFilterTest {
+
+    private final FirebaseAuthService firebaseAuthService = mock(FirebaseAuthService.class);
+    private final AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+    private final GatewayFilterChain chain = exchange -> {
+        forwarded.set(exchange);
+        return Mono.empty();
+    };
+
+    private FirebaseAuthFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        PublicRouteProperties.Route route = new PublicRouteProperties.Route();
+        route.setPath("/api/v1/users/search");
+        filter = new FirebaseAuthFilter(firebaseAuthService, new PublicRouteMatcher(List.of(route)),
+            new ErrorResponseWriter(new ObjectMapper()));
+    }
+
+    @Test
+    void stripsClientUserHeadersOnPublicRoutes() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest
+            .get("/api/v1/users/search")
+            .header("X-User-ID", "someone-else")
+            .header("x-user-email", "someone@example.com")
+            .header("X-Request-ID", "abc"));
+
+        filter.filter(exchange, chain).block();
+
+        HttpHeaders headers = forwarded.get().getRequest().getHeaders();
+        assertThat(headers.containsKey("X-User-ID")).isFalse();
+        assertThat(headers.containsKey("X-User-Email")).isFalse();
+        assertThat(headers.getFirst("X-Request-ID")).isEqualTo("abc");
+    }
+
+    @Test
+    void replacesClientUserHeadersWithVerifiedOnes() {
+        when(firebaseAuthService.verifyToken("token"))
+            .thenReturn(Mono.just(new VerifiedToken("uid-1", "me@example.com", "Me", Instant.now().plusSeconds(60))));
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest
+            .get("/api/v1/users/firebase/uid-1")
+            .header(HttpHeaders.AUTHORIZATION, "Bearer token")
+            .header("X-User-ID", "someone-else"));
+
+        filter.filter(exchange, chain).block();
+
+        HttpHeaders headers = forwarded.get().getRequest().getHeaders();
+        assertThat(headers.get("X-User-ID")).containsExactly("uid-1");
+        assertThat(headers.get("X-User-Email")).containsExactly("me@example.com");
+    }
+}
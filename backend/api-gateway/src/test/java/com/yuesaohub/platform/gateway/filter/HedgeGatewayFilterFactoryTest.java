@@ -0,0 +1,118 @@
+package com.yuesaohub.platform.gateway.filter;
+
+import com.yuesaohub.platform.gateway.loadbalancer.LeastOutstandingRequestsLoadBalancer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+
+class HedgeGatewayFilterFactoryTest {
+
+    private final ServiceInstance instance = new DefaultServiceInstance("user-service-1", "user-service",
+        "localhost", 8081, false);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // How each upstream call in turn behaves, and the instance each was told to avoid
+    private final Queue<Call> calls = new ConcurrentLinkedQueue<>();
+    private final List<Object> avoided = new ArrayList<>();
+
+    private final GatewayFilterChain upstream = exchange -> Mono.deferContextual(context -> {
+        synchronized (avoided) {
+            avoided.add(context.getOrDefault(LeastOutstandingRequestsLoadBalancer.AVOID_INSTANCE, null));
+        }
+        Call call = calls.remove();
+        if (call.loadBalanced()) {
+            exchange.getAttributes().put(GATEWAY_LOADBALANCER_RESPONSE_ATTR, new DefaultResponse(instance));
+        }
+        if (call.grpc()) {
+            exchange.getAttributes().put(UserGrpcTranscodingGatewayFilterFactory.GRPC_CALL_ATTRIBUTE, true);
+        }
+        return Mono.delay(call.delay()).then(Mono.defer(() -> {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            byte[] body = call.body().getBytes(StandardCharsets.UTF_8);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+        }));
+    });
+
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        HedgeGatewayFilterFactory.Config config = new HedgeGatewayFilterFactory.Config();
+        config.setName("user-service");
+        // The last GET alone makes up the threshold
+        config.setWindowSize(1);
+        config.setMinSamples(1);
+        config.setBudgetPercent(100);
+        filter = new HedgeGatewayFilterFactory(meterRegistry).apply(config);
+    }
+
+    @Test
+    void slowGetIsHedgedAwayFromItsInstance() {
+        get(new Call(Duration.ofMillis(20), true, false, "warm-up"));
+
+        MockServerWebExchange exchange = get(
+            new Call(Duration.ofSeconds(2), true, false, "primary"),
+            new Call(Duration.ofMillis(10), true, false, "hedge"));
+
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("hedge");
+        assertThat(avoided).containsExactly(null, null, instance);
+    }
+
+    @Test
+    void getWithoutAnInstanceIsNotHedged() {
+        get(new Call(Duration.ofMillis(20), true, false, "warm-up"));
+
+        MockServerWebExchange exchange = get(new Call(Duration.ofMillis(300), false, false, "primary"));
+
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("primary");
+        assertThat(avoided).hasSize(2);
+    }
+
+    @Test
+    void grpcLatencyDoesNotSetTheHttpThreshold() {
+        get(new Call(Duration.ofMillis(20), true, true, "grpc"));
+
+        // No HTTP call timed yet, so no HTTP threshold to hedge after
+        MockServerWebExchange exchange = get(new Call(Duration.ofMillis(300), true, false, "http"));
+
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("http");
+        assertThat(avoided).hasSize(2);
+        assertThat(delayMillis("grpc")).isGreaterThanOrEqualTo(20);
+        assertThat(delayMillis("http")).isGreaterThanOrEqualTo(300);
+    }
+
+    private MockServerWebExchange get(Call... upstreamCalls) {
+        calls.addAll(List.of(upstreamCalls));
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/v1/users/42"));
+        filter.filter(exchange, upstream).block(Duration.ofSeconds(5));
+        return exchange;
+    }
+
+    private double delayMillis(String transport) {
+        return meterRegistry.get("gateway.hedge.delay").tag("transport", transport).gauge().value();
+    }
+
+    private record Call(Duration delay, boolean loadBalanced, boolean grpc, String body) {
+    }
+}
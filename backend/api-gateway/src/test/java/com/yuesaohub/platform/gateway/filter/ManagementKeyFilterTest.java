@@ -0,0 +1,48 @@
+package com.yuesaohub.platform.gateway.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ManagementKeyFilterTest {
+
+    @ParameterizedTest
+    @CsvSource(nullValues = "none", value = {
+        "secret, /actuator/health,            none,          true,  none",
+        "secret, /actuator/health/liveness,   none,          true,  none",
+        "secret, /actuator/info,              none,          true,  none",
+        "secret, /api/v1/users/1,             none,          true,  none",
+        "secret, /actuator/tokencache/uid-1,  Bearer secret, true,  none",
+        "secret, /actuator/tokencache/uid-1,  none,          false, UNAUTHORIZED",
+        "secret, /actuator/tokencache,        Bearer wrong,  false, UNAUTHORIZED",
+        "'',     /actuator/tokencache,        Bearer '',     false, FORBIDDEN",
+    })
+    void guardsCacheEndpoints(String key, String path, String authorization, boolean passes, HttpStatus status) {
+        ManagementKeyFilter filter = new ManagementKeyFilter(key, new ErrorResponseWriter(new ObjectMapper().findAndRegisterModules()));
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.delete(path);
+        if (authorization != null) {
+            request.header(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        AtomicBoolean passed = new AtomicBoolean();
+        WebFilterChain chain = e -> {
+            passed.set(true);
+            return Mono.empty();
+        };
+
+        filter.filter(exchange, chain).block();
+
+        assertThat(passed.get()).isEqualTo(passes);
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(status);
+    }
+}
@@ -0,0 +1,70 @@
+package com.yuesaohub.platform.gateway.filter;
+
+import com.yuesaohub.platform.gateway.config.PublicRouteProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of the public route check: the trie compiled from application.yml
+ * against the hard-coded {@code isPublicEndpoint} it replaced. Run with the jmh profile
+ * (see the api-gateway pom).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PublicRouteMatcherBenchmark {
+
+    // A public profile read, a public search, and two private paths the old rules tested in full
+    @Param({"/api/v1/users/42", "/api/v1/users/search/caregivers", "/api/v1/users/me/photos",
+        "/api/v1/bookings/17/messages"})
+    public String path;
+
+    private PublicRouteMatcher matcher;
+
+    @Setup
+    public void compileConfiguredRoutes() throws IOException {
+        PublicRouteProperties properties = new Binder(ConfigurationPropertySources.from(
+                new YamlPropertySourceLoader().load("application", new ClassPathResource("application.yml"))))
+            .bind("app.auth", PublicRouteProperties.class)
+            .get();
+        matcher = new PublicRouteMatcher(properties.getPublicRoutes());
+    }
+
+    @Benchmark
+    public boolean trie() {
+        return matcher.isPublic("GET", path);
+    }
+
+    @Benchmark
+    public boolean legacy() {
+        return isPublicEndpoint(path);
+    }
+
+    // FirebaseAuthFilter.isPublicEndpoint before the routes moved to configuration
+    private static boolean isPublicEndpoint(String path) {
+        return path.startsWith("/api/public/") ||
+               path.startsWith("/actuator/") ||
+               path.equals("/health") ||
+               path.matches("/api/v1/users/\\d+") ||
+               path.startsWith("/api/v1/users/search/");
+    }
+}
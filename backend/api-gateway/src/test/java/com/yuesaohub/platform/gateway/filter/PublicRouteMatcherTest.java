@@ -0,0 +1,105 @@
+package com.yuesaohub.platform.gateway.filter;
+
+import com.yuesaohub.platform.gateway.config.PublicRouteProperties;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.io.ClassPathResource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The routes in application.yml, compiled into the trie, against the hard-coded rules
+ * they replaced.
+ */
+class PublicRouteMatcherTest {
+
+    private static PublicRouteMatcher matcher;
+
+    @BeforeAll
+    static void compileConfiguredRoutes() throws Exception {
+        PublicRouteProperties properties = new Binder(ConfigurationPropertySources.from(
+                new YamlPropertySourceLoader().load("application", new ClassPathResource("application.yml"))))
+            .bind("app.auth", PublicRouteProperties.class)
+            .get();
+        matcher = new PublicRouteMatcher(properties.getPublicRoutes());
+    }
+
+    // FirebaseAuthFilter.isPublicEndpoint before the routes moved to configuration
+    private static boolean legacyIsPublic(String path) {
+        return path.startsWith("/api/public/")
+            || path.startsWith("/actuator/")
+            || path.equals("/health")
+            || path.matches("/api/v1/users/\\d+")
+            || path.startsWith("/api/v1/users/search/");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "/api/public/", "/api/public/terms", "/api/public/a/b/c", "/api/public", "/api/publicity",
+        "/actuator/", "/actuator/health", "/actuator/health/liveness", "/actuator",
+        "/health", "/health/", "/healthz",
+        "/api/v1/users/1", "/api/v1/users/0042", "/api/v1/users/42/", "/api/v1/users/42/photos",
+        "/api/v1/users/abc", "/api/v1/users/4a", "/api/v1/users/-1", "/api/v1/users/", "/api/v1/users",
+        "/api/v1/users/firebase/uid-1", "/api/v1/users/me",
+        "/api/v1/users/search/", "/api/v1/users/search/caregivers", "/api/v1/users/search/a/b",
+        "/api/v1/users/search", "/api/v1/users/searching",
+        "/", "", "api/public/terms", "//api/public/terms"
+    })
+    void getMatchesLegacyRules(String path) {
+        assertThat(matcher.isPublic("GET", path)).as(path).isEqualTo(legacyIsPublic(path));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/v1/users/42", "/api/v1/users/search/caregivers"})
+    void userReadsArePublicForGetAndHeadOnly(String path) {
+        assertThat(matcher.isPublic("GET", path)).isTrue();
+        assertThat(matcher.isPublic("HEAD", path)).isTrue();
+        // Public for every method under the old rules
+        assertThat(legacyIsPublic(path)).isTrue();
+        assertThat(matcher.isPublic("PUT", path)).isFalse();
+        assertThat(matcher.isPublic("POST", path)).isFalse();
+        assertThat(matcher.isPublic("DELETE", path)).isFalse();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/public/terms", "/actuator/health", "/health"})
+    void unrestrictedRoutesArePublicForEveryMethod(String path) {
+        for (String method : List.of("GET", "HEAD", "POST", "PUT", "DELETE")) {
+            assertThat(matcher.isPublic(method, path)).as("%s %s", method, path).isTrue();
+        }
+    }
+
+    @Test
+    void literalSegmentsWinOverWildcards() {
+        PublicRouteMatcher routes = new PublicRouteMatcher(List.of(
+            route("/api/v1/users/*/photos", "GET"), route("/api/v1/users/me/photos", "POST")));
+
+        assertThat(routes.isPublic("POST", "/api/v1/users/me/photos")).isTrue();
+        // Falls back to the wildcard once the literal branch does not allow the method
+        assertThat(routes.isPublic("GET", "/api/v1/users/me/photos")).isTrue();
+        assertThat(routes.isPublic("POST", "/api/v1/users/42/photos")).isFalse();
+    }
+
+    @Test
+    void rejectsDoubleStarBeforeTheLastSegment() {
+        assertThatThrownBy(() -> new PublicRouteMatcher(List.of(route("/api/**/x"))))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new PublicRouteMatcher(List.of(route("api/public/**"))))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static PublicRouteProperties.Route route(String path, String... methods) {
+        PublicRouteProperties.Route route = new PublicRouteProperties.Route();
+        route.setPath(path);
+        route.setMethods(List.of(methods));
+        return route;
+    }
+}
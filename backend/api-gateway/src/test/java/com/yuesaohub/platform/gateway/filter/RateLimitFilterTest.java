@@ -0,0 +1,131 @@
+package com.yuesaohub.platform.gateway.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuesaohub.platform.gateway.config.RateLimitProperties;
+import com.yuesaohub.platform.gateway.ratelimit.InMemoryRateLimiterBackend;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    private static final InetSocketAddress PROXY = new InetSocketAddress("10.0.0.1", 40000);
+
+    private final RateLimitProperties properties = new RateLimitProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        // One request, then one more every 2 seconds
+        RateLimitProperties.Policy policy = new RateLimitProperties.Policy();
+        policy.setReplenishRate(0.5);
+        policy.setBurstCapacity(1);
+        properties.setDefaultPolicy(policy);
+    }
+
+    @Test
+    void overTheBurstIsRejectedWithRetryAfter() {
+        RateLimitFilter filter = filter();
+
+        MockServerWebExchange first = send(filter, MockServerHttpRequest.get("/api/v1/users/42").remoteAddress(PROXY));
+        MockServerWebExchange second = send(filter, MockServerHttpRequest.get("/api/v1/users/42").remoteAddress(PROXY));
+
+        assertThat(first.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(first.getResponse().getHeaders().getFirst("X-RateLimit-Remaining")).isEqualTo("0");
+        assertThat(second.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        // Just under 2 seconds to the next token, rounded up
+        assertThat(second.getResponse().getHeaders().getFirst("Retry-After")).isEqualTo("2");
+        assertThat(meterRegistry.get("gateway.ratelimit.rejected").tag("policy", "default").counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void signedInUsersAreLimitedByUidNotAddress() {
+        RateLimitFilter filter = filter();
+
+        assertThat(status(filter, signedIn("uid-1", PROXY))).isEqualTo(HttpStatus.OK);
+        // Another user behind the same address has their own bucket
+        assertThat(status(filter, signedIn("uid-2", PROXY))).isEqualTo(HttpStatus.OK);
+        // The same user from another address does not
+        assertThat(status(filter, signedIn("uid-1", new InetSocketAddress("10.0.0.2", 40000))))
+            .isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @Test
+    void anonymousClientsAreLimitedByAddress() {
+        RateLimitFilter filter = filter();
+
+        assertThat(status(filter, MockServerHttpRequest.get("/api/v1/users/42").remoteAddress(PROXY)))
+            .isEqualTo(HttpStatus.OK);
+        assertThat(status(filter, MockServerHttpRequest.get("/api/v1/users/42")
+            .remoteAddress(new InetSocketAddress("10.0.0.2", 40000)))).isEqualTo(HttpStatus.OK);
+        assertThat(status(filter, MockServerHttpRequest.get("/api/v1/users/42").remoteAddress(PROXY)))
+            .isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @Test
+    void forwardedForIsIgnoredWithoutTrustedProxies() {
+        RateLimitFilter filter = filter();
+
+        assertThat(status(filter, forwarded("203.0.113.1"))).isEqualTo(HttpStatus.OK);
+        // Every client behind the proxy shares its address
+        assertThat(status(filter, forwarded("203.0.113.2"))).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @Test
+    void trustedProxyForwardedForKeysTheClient() {
+        properties.setTrustedProxies(1);
+        RateLimitFilter filter = filter();
+
+        assertThat(status(filter, forwarded("203.0.113.1"))).isEqualTo(HttpStatus.OK);
+        assertThat(status(filter, forwarded("203.0.113.2"))).isEqualTo(HttpStatus.OK);
+        // Only the entry our proxy appended counts, so a client cannot spoof a fresh address
+        assertThat(status(filter, forwarded("198.51.100.9, 203.0.113.1"))).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    private RateLimitFilter filter() {
+        return new RateLimitFilter(properties, new InMemoryRateLimiterBackend(Duration.ofMinutes(1), 100),
+            new ErrorResponseWriter(new ObjectMapper().findAndRegisterModules()), meterRegistry);
+    }
+
+    private static MockServerHttpRequest.BaseBuilder<?> forwarded(String forwardedFor) {
+        return MockServerHttpRequest.get("/api/v1/users/42").remoteAddress(PROXY).header("X-Forwarded-For", forwardedFor);
+    }
+
+    private static MockServerWebExchange signedIn(String uid, InetSocketAddress address) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+            MockServerHttpRequest.get("/api/v1/users/me").remoteAddress(address));
+        exchange.getAttributes().put(FirebaseAuthFilter.USER_ID_ATTRIBUTE, uid);
+        return exchange;
+    }
+
+    private static HttpStatus status(RateLimitFilter filter, MockServerHttpRequest.BaseBuilder<?> request) {
+        return status(filter, MockServerWebExchange.from(request));
+    }
+
+    private static HttpStatus status(RateLimitFilter filter, MockServerWebExchange exchange) {
+        filter.filter(exchange, RateLimitFilterTest::ok).block(Duration.ofSeconds(5));
+        return HttpStatus.valueOf(exchange.getResponse().getStatusCode().value());
+    }
+
+    private static MockServerWebExchange send(RateLimitFilter filter, MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        filter.filter(exchange, RateLimitFilterTest::ok).block(Duration.ofSeconds(5));
+        return exchange;
+    }
+
+    private static Mono<Void> ok(ServerWebExchange exchange) {
+        exchange.getResponse().setStatusCode(HttpStatus.OK);
+        return Mono.empty();
+    }
+}
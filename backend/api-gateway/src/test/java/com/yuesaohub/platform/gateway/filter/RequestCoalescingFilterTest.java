@@ -0,0 +1,100 @@
+package com.yuesaohub.platform.gateway.filter;
+
+import com.yuesaohub.platform.gateway.config.RequestCoalescingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestCoalescingFilterTest {
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private HttpStatus upstreamStatus = HttpStatus.OK;
+
+    // Slow enough that the second request arrives while the first is in flight
+    private final GatewayFilterChain upstream = exchange -> Mono.delay(Duration.ofMillis(100)).then(Mono.defer(() -> {
+        int call = upstreamCalls.incrementAndGet();
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(upstreamStatus);
+        byte[] body = ("call " + call).getBytes(StandardCharsets.UTF_8);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }));
+
+    private RequestCoalescingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RequestCoalescingProperties properties = new RequestCoalescingProperties();
+        properties.setPaths(List.of("/api/v1/users/{id}"));
+        filter = new RequestCoalescingFilter(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void identicalGetsShareOneCall() {
+        MockServerWebExchange first = get();
+        MockServerWebExchange second = get();
+
+        Mono.when(filter.filter(first, upstream), filter.filter(second, upstream)).block();
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(second.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo("call 1");
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "If-None-Match, W/\"17-abc\"",
+        "If-Modified-Since, Mon, 19 Oct 2026 00:00:00 GMT",
+        "Range, bytes=0-99",
+    })
+    void conditionalAndRangeRequestsMakeTheirOwnCall(String header, String value) {
+        MockServerWebExchange first = get();
+        MockServerWebExchange conditional = MockServerWebExchange.from(
+            MockServerHttpRequest.get("/api/v1/users/42").header(header, value));
+
+        Mono.when(filter.filter(first, upstream), filter.filter(conditional, upstream)).block();
+
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void conditionalRequestDoesNotLeadOthers() {
+        MockServerWebExchange conditional = MockServerWebExchange.from(
+            MockServerHttpRequest.get("/api/v1/users/42").header("If-None-Match", "W/\"17-abc\""));
+        MockServerWebExchange plain = get();
+
+        Mono.when(filter.filter(conditional, upstream), filter.filter(plain, upstream)).block();
+
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void nonOkResponsesAreNotShared() {
+        upstreamStatus = HttpStatus.SERVICE_UNAVAILABLE;
+        MockServerWebExchange first = get();
+        MockServerWebExchange second = get();
+
+        Mono.when(filter.filter(first, upstream), filter.filter(second, upstream)).block();
+
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo("call 2");
+    }
+
+    private static MockServerWebExchange get() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/users/42"));
+    }
+}
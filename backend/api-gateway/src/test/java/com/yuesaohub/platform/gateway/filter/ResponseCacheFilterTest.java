@@ -0,0 +1,151 @@
+package com.yuesaohub.platform.gateway.filter;
+
+import com.yuesaohub.platform.gateway.cache.CachedResponse;
+import com.yuesaohub.platform.gateway.cache.ResponseCache;
+import com.yuesaohub.platform.gateway.config.ResponseCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheFilterTest {
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private String upstreamCacheControl = "public, max-age=60";
+
+    // Slow enough that concurrent requests arrive while a fetch is in flight
+    private final GatewayFilterChain upstream = exchange -> Mono.delay(Duration.ofMillis(100)).then(Mono.defer(() -> {
+        int call = upstreamCalls.incrementAndGet();
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().setCacheControl(upstreamCacheControl);
+        byte[] body = ("call " + call).getBytes(StandardCharsets.UTF_8);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }));
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ResponseCache cache;
+    private ResponseCacheFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setPaths(List.of("/api/v1/users/{id}", "/api/v1/users/search/**"));
+        cache = new ResponseCache(properties.getMaxSize().toBytes(), meterRegistry);
+        filter = new ResponseCacheFilter(cache, properties, meterRegistry);
+    }
+
+    @Test
+    void repeatedGetIsServedFromTheCache() {
+        MockServerWebExchange first = send(MockServerHttpRequest.get("/api/v1/users/42"));
+        MockServerWebExchange second = send(MockServerHttpRequest.get("/api/v1/users/42"));
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(first.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("MISS");
+        assertThat(second.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("HIT");
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo("call 1");
+        assertThat(second.getResponse().getHeaders().getCacheControl()).isEqualTo("public, max-age=60");
+    }
+
+    @Test
+    void authenticatedRequestsBypassTheCache() {
+        send(MockServerHttpRequest.get("/api/v1/users/42"));
+
+        MockServerWebExchange authenticated = send(MockServerHttpRequest.get("/api/v1/users/42")
+            .header(HttpHeaders.AUTHORIZATION, "Bearer token"));
+
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(authenticated.getResponse().getHeaders().containsKey("X-Cache")).isFalse();
+        assertThat(authenticated.getResponse().getBodyAsString().block()).isEqualTo("call 2");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"no-store", "private, max-age=60", "no-cache"})
+    void uncacheableResponsesAreNotStored(String cacheControl) {
+        upstreamCacheControl = cacheControl;
+
+        send(MockServerHttpRequest.get("/api/v1/users/42"));
+        MockServerWebExchange second = send(MockServerHttpRequest.get("/api/v1/users/42"));
+
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(second.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("MISS");
+    }
+
+    @Test
+    void queryParameterOrderSharesAnEntry() {
+        send(MockServerHttpRequest.get("/api/v1/users/search/caregivers?city=Seattle&page=2"));
+        MockServerWebExchange reordered = send(
+            MockServerHttpRequest.get("/api/v1/users/search/caregivers?page=2&city=Seattle"));
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(reordered.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("HIT");
+    }
+
+    @Test
+    void matchingIfNoneMatchGetsNotModified() {
+        send(MockServerHttpRequest.get("/api/v1/users/42"));
+        String etag = send(MockServerHttpRequest.get("/api/v1/users/42")).getResponse().getHeaders().getETag();
+
+        MockServerWebExchange revalidated = send(MockServerHttpRequest.get("/api/v1/users/42").ifNoneMatch(etag));
+
+        assertThat(etag).startsWith("W/\"");
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(revalidated.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(revalidated.getResponse().getHeaders().getETag()).isEqualTo(etag);
+        assertThat(revalidated.getResponse().getBodyAsString().block()).isNullOrEmpty();
+    }
+
+    @Test
+    void staleEntryIsServedWhileOneRequestRevalidates() {
+        Instant now = Instant.now();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl("public, max-age=60");
+        cache.put("/api/v1/users/42", new CachedResponse(200, headers, "stale".getBytes(StandardCharsets.UTF_8),
+            "W/\"5-0\"", now.minusSeconds(90), now.minusSeconds(30), now.plusSeconds(30)));
+
+        MockServerWebExchange revalidating = get();
+        MockServerWebExchange second = get();
+        MockServerWebExchange third = get();
+        Mono.when(filter.filter(revalidating, upstream), filter.filter(second, upstream),
+            filter.filter(third, upstream)).block(Duration.ofSeconds(5));
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(revalidating.getResponse().getBodyAsString().block()).isEqualTo("call 1");
+        for (MockServerWebExchange exchange : List.of(second, third)) {
+            assertThat(exchange.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("STALE");
+            assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("stale");
+        }
+        // The refreshed copy replaced the stale one
+        MockServerWebExchange after = send(MockServerHttpRequest.get("/api/v1/users/42"));
+        assertThat(after.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("HIT");
+        assertThat(after.getResponse().getBodyAsString().block()).isEqualTo("call 1");
+        assertThat(meterRegistry.get("gateway.response.cache").tag("result", "revalidate").counter().count())
+            .isEqualTo(1);
+    }
+
+    private MockServerWebExchange get() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/users/42"));
+    }
+
+    private MockServerWebExchange send(MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        filter.filter(exchange, upstream).block(Duration.ofSeconds(5));
+        return exchange;
+    }
+}
@@ -0,0 +1,116 @@
+package com.yuesaohub.platform.gateway.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuesaohub.platform.gateway.config.LoadBalancerProperties;
+import com.yuesaohub.platform.gateway.config.UserGrpcProperties;
+import com.yuesaohub.platform.gateway.grpc.UserProtoJson;
+import com.yuesaohub.platform.gateway.grpc.UserQueryClient;
+import com.yuesaohub.platform.gateway.loadbalancer.InstanceHealthRegistry;
+import com.yuesaohub.platform.userapi.v1.GetUserRequest;
+import com.yuesaohub.platform.userapi.v1.User;
+import com.yuesaohub.platform.userapi.v1.UserQueryServiceGrpc;
+import io.grpc.ForwardingServerCall;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerInterceptors;
+import io.grpc.netty.NettyServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserGrpcTranscodingGatewayFilterFactoryTest {
+
+    // What user-service sends with GET /v1/users/{id} over REST (UserControllerCacheControlTest)
+    private static final String PROFILE_CACHE_CONTROL = "max-age=5, public, stale-while-revalidate=10";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    @SuppressWarnings("unchecked")
+    private final ReactiveLoadBalancer.Factory<ServiceInstance> loadBalancers = mock(ReactiveLoadBalancer.Factory.class);
+    @SuppressWarnings("unchecked")
+    private final ObjectProvider<UserQueryClient> clientProvider = mock(ObjectProvider.class);
+
+    private Server server;
+    private UserQueryClient client;
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // As user-service's CacheControlServerInterceptor does for reads by id only
+        ServerInterceptor cacheControl = new ServerInterceptor() {
+            @Override
+            public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call,
+                                                                         Metadata headers,
+                                                                         ServerCallHandler<ReqT, RespT> next) {
+                return next.startCall(new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+                    @Override
+                    public void sendHeaders(Metadata responseHeaders) {
+                        responseHeaders.put(UserQueryClient.CACHE_CONTROL, PROFILE_CACHE_CONTROL);
+                        super.sendHeaders(responseHeaders);
+                    }
+                }, headers);
+            }
+        };
+        server = NettyServerBuilder.forPort(0)
+            .addService(ServerInterceptors.intercept(new UserQueryServiceGrpc.UserQueryServiceImplBase() {
+                @Override
+                public void getUser(GetUserRequest request, StreamObserver<User> responseObserver) {
+                    responseObserver.onNext(User.newBuilder().setId(request.getId()).build());
+                    responseObserver.onCompleted();
+                }
+            }, cacheControl))
+            .build()
+            .start();
+
+        ServiceInstance instance = new DefaultServiceInstance("user-service-1", "user-service", "localhost", 8081,
+            false, Map.of(UserQueryClient.GRPC_PORT_METADATA, String.valueOf(server.getPort())));
+        ReactiveLoadBalancer<ServiceInstance> loadBalancer = request -> Mono.just(new DefaultResponse(instance));
+        when(loadBalancers.getInstance("user-service")).thenReturn(loadBalancer);
+        client = new UserQueryClient(loadBalancers,
+            new InstanceHealthRegistry(new LoadBalancerProperties(), new SimpleMeterRegistry()),
+            new UserGrpcProperties());
+        when(clientProvider.getIfAvailable()).thenReturn(client);
+
+        filter = new UserGrpcTranscodingGatewayFilterFactory(clientProvider, new UserProtoJson(objectMapper),
+            objectMapper, new SimpleMeterRegistry()).apply(new Object());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        client.shutdown();
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void answerCarriesTheCacheControlOfTheRestEndpoint() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/v1/users/42"));
+
+        filter.filter(exchange, e -> Mono.error(new AssertionError("Went over HTTP"))).block(Duration.ofSeconds(5));
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(exchange.getResponse().getHeaders().getCacheControl()).isEqualTo(PROFILE_CACHE_CONTROL);
+        assertThat(exchange.getResponse().getBodyAsString().block()).contains("\"id\":42");
+    }
+}
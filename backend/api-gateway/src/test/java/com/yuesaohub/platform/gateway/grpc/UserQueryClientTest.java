@@ -0,0 +1,139 @@
+package com.yuesaohub.platform.gateway.grpc;
+
+import com.yuesaohub.platform.gateway.config.LoadBalancerProperties;
+import com.yuesaohub.platform.gateway.config.UserGrpcProperties;
+import com.yuesaohub.platform.gateway.loadbalancer.InstanceHealthRegistry;
+import com.yuesaohub.platform.userapi.v1.GetUserRequest;
+import com.yuesaohub.platform.userapi.v1.User;
+import com.yuesaohub.platform.userapi.v1.UserQueryServiceGrpc;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.netty.NettyServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserQueryClientTest {
+
+    private final AtomicReference<String> receivedUserId = new AtomicReference<>();
+    private final UserGrpcProperties properties = new UserGrpcProperties();
+    private final LoadBalancerProperties loadBalancerProperties = new LoadBalancerProperties();
+    @SuppressWarnings("unchecked")
+    private final ReactiveLoadBalancer.Factory<ServiceInstance> loadBalancers = mock(ReactiveLoadBalancer.Factory.class);
+
+    private Server server;
+    private ServiceInstance instance;
+    private InstanceHealthRegistry healthRegistry;
+    private UserQueryClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ServerInterceptor captureUserId = new ServerInterceptor() {
+            @Override
+            public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call,
+                                                                         Metadata headers,
+                                                                         ServerCallHandler<ReqT, RespT> next) {
+                receivedUserId.set(headers.get(UserQueryClient.USER_ID));
+                return next.startCall(call, headers);
+            }
+        };
+        server = NettyServerBuilder.forPort(0)
+            .addService(ServerInterceptors.intercept(new UserQueryServiceGrpc.UserQueryServiceImplBase() {
+                @Override
+                public void getUser(GetUserRequest request, StreamObserver<User> responseObserver) {
+                    if (request.getId() == 0) {
+                        // Never answers, so the call runs into its deadline
+                        return;
+                    }
+                    responseObserver.onNext(User.newBuilder().setId(request.getId()).build());
+                    responseObserver.onCompleted();
+                }
+            }, captureUserId))
+            .build()
+            .start();
+
+        // The HTTP port is what the load balancer knows; the gRPC one comes from metadata
+        instance = new DefaultServiceInstance("user-service-1", "user-service", "localhost", 8081, false,
+            Map.of(UserQueryClient.GRPC_PORT_METADATA, String.valueOf(server.getPort())));
+        loadBalancerReturns(new DefaultResponse(instance));
+        loadBalancerProperties.getOutlierEjection().setConsecutiveFailures(1);
+        healthRegistry = new InstanceHealthRegistry(loadBalancerProperties, new SimpleMeterRegistry());
+        client = new UserQueryClient(loadBalancers, healthRegistry, properties);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        client.shutdown();
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void callsTheChosenInstanceWithTheCallersUid() {
+        User user = client.choose()
+            .flatMap(chosen -> client.getUser(chosen, "uid-1", GetUserRequest.newBuilder().setId(42).build()))
+            .map(UserQueryClient.Reply::message)
+            .block();
+
+        assertThat(user.getId()).isEqualTo(42);
+        assertThat(receivedUserId).hasValue("uid-1");
+        assertThat(healthRegistry.get(instance).getOutstanding()).isZero();
+        assertThat(healthRegistry.get(instance).isEjected(System.nanoTime())).isFalse();
+    }
+
+    @Test
+    void anonymousCallsCarryNoUid() {
+        client.getUser(instance, null, GetUserRequest.newBuilder().setId(42).build()).block();
+
+        assertThat(receivedUserId).hasValue(null);
+    }
+
+    @Test
+    void deadlineCountsAgainstTheInstance() {
+        properties.setDeadline(Duration.ofMillis(100));
+
+        assertThatThrownBy(() -> client.getUser(instance, null, GetUserRequest.newBuilder().setId(0).build()).block())
+            .isInstanceOfSatisfying(StatusRuntimeException.class,
+                e -> assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.DEADLINE_EXCEEDED));
+        assertThat(healthRegistry.get(instance).getOutstanding()).isZero();
+        assertThat(healthRegistry.get(instance).isEjected(System.nanoTime())).isTrue();
+    }
+
+    @Test
+    void noInstanceIsUnavailable() {
+        loadBalancerReturns(new EmptyResponse());
+
+        assertThatThrownBy(() -> client.choose().block())
+            .isInstanceOfSatisfying(StatusRuntimeException.class,
+                e -> assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.UNAVAILABLE));
+    }
+
+    private void loadBalancerReturns(Response<ServiceInstance> response) {
+        ReactiveLoadBalancer<ServiceInstance> loadBalancer = request -> Mono.just(response);
+        when(loadBalancers.getInstance("user-service")).thenReturn(loadBalancer);
+    }
+}
@@ -0,0 +1,64 @@
+package com.yuesaohub.platform.gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryRateLimiterBackendTest {
+
+    private final InMemoryRateLimiterBackend backend = new InMemoryRateLimiterBackend(Duration.ofMinutes(1), 100);
+
+    @Test
+    void burstIsServedThenRejected() {
+        RateLimitPolicy policy = new RateLimitPolicy("test", 0.1, 3);
+
+        assertThat(backend.acquire("ip:a", policy)).extracting(RateLimitDecision::allowed, RateLimitDecision::remaining)
+            .containsExactly(true, 2L);
+        assertThat(backend.acquire("ip:a", policy).remaining()).isEqualTo(1);
+        assertThat(backend.acquire("ip:a", policy).remaining()).isZero();
+
+        RateLimitDecision rejected = backend.acquire("ip:a", policy);
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.remaining()).isZero();
+    }
+
+    @Test
+    void retryAfterIsTheWaitForTheNextToken() {
+        // One token every 10 seconds
+        RateLimitPolicy policy = new RateLimitPolicy("test", 0.1, 1);
+        backend.acquire("ip:a", policy);
+
+        RateLimitDecision rejected = backend.acquire("ip:a", policy);
+
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.retryAfter()).isGreaterThan(Duration.ofSeconds(9)).isLessThanOrEqualTo(Duration.ofSeconds(10));
+        // Rejections take no token, so the wait does not grow
+        assertThat(backend.acquire("ip:a", policy).retryAfter()).isLessThanOrEqualTo(rejected.retryAfter());
+    }
+
+    @Test
+    void bucketRefillsWhileIdle() throws Exception {
+        // One token every 50ms
+        RateLimitPolicy policy = new RateLimitPolicy("test", 20, 2);
+        backend.acquire("ip:a", policy);
+        backend.acquire("ip:a", policy);
+        assertThat(backend.acquire("ip:a", policy).allowed()).isFalse();
+
+        Thread.sleep(150);
+
+        // Refilled to the burst capacity, not beyond
+        assertThat(backend.acquire("ip:a", policy)).extracting(RateLimitDecision::allowed, RateLimitDecision::remaining)
+            .containsExactly(true, 1L);
+    }
+
+    @Test
+    void keysHaveSeparateBuckets() {
+        RateLimitPolicy policy = new RateLimitPolicy("test", 0.1, 1);
+
+        assertThat(backend.acquire("ip:a", policy).allowed()).isTrue();
+        assertThat(backend.acquire("ip:b", policy).allowed()).isTrue();
+        assertThat(backend.acquire("ip:a", policy).allowed()).isFalse();
+    }
+}
@@ -0,0 +1,291 @@
+package com.yuesaohub.platform.gateway.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuesaohub.platform.gateway.exception.InvalidTokenException;
+import com.yuesaohub.platform.gateway.exception.TokenVerificationUnavailableException;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.cert.Certificate;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Signs tokens with RSA keys made by keytool and serves their certificates the way Google
+ * does: a JSON map of key id to PEM certificate, with a {@code max-age}.
+ */
+class FirebaseTokenVerifierTest {
+
+    private static final String PROJECT = "demo-project";
+    private static final String CACHE_CONTROL = "public, max-age=22000, must-revalidate, no-transform";
+
+    private static SigningKey key1;
+    private static SigningKey key2;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+
+    private MockWebServer keyServer;
+    private FirebaseTokenVerifier verifier;
+
+    @BeforeAll
+    static void generateKeys(@TempDir Path dir) throws Exception {
+        key1 = SigningKey.generate(dir, "key-1");
+        key2 = SigningKey.generate(dir, "key-2");
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        keyServer = new MockWebServer();
+        keyServer.start();
+        verifier = new FirebaseTokenVerifier(WebClient.builder(), objectMapper, keyServer.url("/certs").toString(),
+            clock);
+        ReflectionTestUtils.setField(verifier, "projectId", PROJECT);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        verifier.stop();
+        keyServer.shutdown();
+    }
+
+    @Test
+    void acceptsValidToken() {
+        serveKeys(key1);
+        verifier.start();
+
+        VerifiedToken token = verifier.verify(token(key1, claims())).block();
+
+        assertThat(token.uid()).isEqualTo("uid-1");
+        assertThat(token.email()).isEqualTo("li@example.com");
+        assertThat(token.expiresAt()).isEqualTo(clock.instant().plus(Duration.ofHours(1)));
+    }
+
+    @Test
+    void rejectsTokenSignedByAnotherKey() {
+        startWithKeys(key1);
+
+        String forged = token(new SigningKey(key1.keyId(), key2.privateKey(), key2.certificatePem()), claims());
+
+        assertThatThrownBy(() -> verifier.verify(forged).block())
+            .isInstanceOf(InvalidTokenException.class)
+            .hasMessageContaining("signature");
+    }
+
+    @Test
+    void rejectsWrongAudienceOrIssuer() {
+        startWithKeys(key1);
+
+        Map<String, Object> wrongAudience = claims();
+        wrongAudience.put("aud", "other-project");
+        Map<String, Object> wrongIssuer = claims();
+        wrongIssuer.put("iss", "https://securetoken.google.com/other-project");
+
+        assertThatThrownBy(() -> verifier.verify(token(key1, wrongAudience)).block())
+            .isInstanceOf(InvalidTokenException.class)
+            .hasMessageContaining("audience");
+        assertThatThrownBy(() -> verifier.verify(token(key1, wrongIssuer)).block())
+            .isInstanceOf(InvalidTokenException.class)
+            .hasMessageContaining("issuer");
+    }
+
+    @Test
+    void rejectsExpiredToken() {
+        startWithKeys(key1);
+
+        Map<String, Object> expired = claims();
+        expired.put("exp", clock.instant().minus(Duration.ofMinutes(10)).getEpochSecond());
+
+        assertThatThrownBy(() -> verifier.verify(token(key1, expired)).block())
+            .isInstanceOf(InvalidTokenException.class)
+            .hasMessageContaining("expired");
+    }
+
+    @Test
+    void unknownKeyIdTriggersOneSharedRefresh() {
+        startWithKeys(key1);
+        clock.advance(Duration.ofMinutes(2));
+        // Held back, so every verification below arrives while the refresh is in flight
+        keyServer.enqueue(keysResponse(key1, key2).setHeadersDelay(300, TimeUnit.MILLISECONDS));
+
+        String rotated = token(key2, claims());
+        List<VerifiedToken> verified = Flux.range(0, 8)
+            .flatMap(i -> verifier.verify(rotated))
+            .collectList()
+            .block();
+
+        assertThat(verified).hasSize(8).allSatisfy(token -> assertThat(token.uid()).isEqualTo("uid-1"));
+        assertThat(keyServer.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    void unknownKeyIdRightAfterRefreshDoesNotRefetch() {
+        startWithKeys(key1);
+
+        assertThatThrownBy(() -> verifier.verify(token(key2, claims())).block())
+            .isInstanceOf(InvalidTokenException.class)
+            .hasMessageContaining("unknown key id");
+        assertThat(keyServer.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void failedRefreshKeepsPreviousKeys() {
+        startWithKeys(key1);
+        clock.advance(Duration.ofMinutes(2));
+        keyServer.enqueue(new MockResponse().setResponseCode(500));
+
+        assertThatThrownBy(() -> verifier.verify(token(key2, claims())).block())
+            .isInstanceOf(InvalidTokenException.class)
+            .hasMessageContaining("unknown key id");
+        assertThat(verifier.verify(token(key1, claims())).block().uid()).isEqualTo("uid-1");
+        assertThat(keyServer.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    void unavailableWithoutAnyKeys() {
+        keyServer.enqueue(new MockResponse().setResponseCode(500));
+        keyServer.enqueue(new MockResponse().setResponseCode(500));
+        verifier.start();
+
+        assertThatThrownBy(() -> verifier.verify(token(key1, claims())).block())
+            .isInstanceOf(TokenVerificationUnavailableException.class);
+    }
+
+    private void startWithKeys(SigningKey... keys) {
+        serveKeys(keys);
+        verifier.start();
+        // Returns once the first fetch has completed
+        verifier.verify(token(keys[0], claims())).block();
+    }
+
+    private void serveKeys(SigningKey... keys) {
+        keyServer.enqueue(keysResponse(keys));
+    }
+
+    private MockResponse keysResponse(SigningKey... keys) {
+        Map<String, String> certificates = new LinkedHashMap<>();
+        for (SigningKey key : keys) {
+            certificates.put(key.keyId(), key.certificatePem());
+        }
+        try {
+            return new MockResponse()
+                .setHeader("Content-Type", "application/json; charset=UTF-8")
+                .setHeader("Cache-Control", CACHE_CONTROL)
+                .setBody(objectMapper.writeValueAsString(certificates));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Map<String, Object> claims() {
+        long now = clock.instant().getEpochSecond();
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("iss", "https://securetoken.google.com/" + PROJECT);
+        claims.put("aud", PROJECT);
+        claims.put("sub", "uid-1");
+        claims.put("email", "li@example.com");
+        claims.put("iat", now);
+        claims.put("auth_time", now);
+        claims.put("exp", now + 3600);
+        return claims;
+    }
+
+    private String token(SigningKey key, Map<String, Object> claims) {
+        try {
+            Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+            String header = encoder.encodeToString(
+                objectMapper.writeValueAsBytes(Map.of("alg", "RS256", "kid", key.keyId(), "typ", "JWT")));
+            String payload = encoder.encodeToString(objectMapper.writeValueAsBytes(claims));
+            Signature signature = Signature.getInstance("SHA256withRSA");
+            signature.initSign(key.privateKey());
+            signature.update((header + "." + payload).getBytes(StandardCharsets.US_ASCII));
+            return header + "." + payload + "." + encoder.encodeToString(signature.sign());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record SigningKey(String keyId, PrivateKey privateKey, String certificatePem) {
+
+        // The JDK has no API for self-signed certificates, so keytool makes them
+        static SigningKey generate(Path dir, String keyId) throws Exception {
+            Path keyStore = dir.resolve(keyId + ".p12");
+            Process keytool = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "keytool").toString(),
+                "-genkeypair", "-alias", keyId, "-keyalg", "RSA", "-keysize", "2048", "-sigalg", "SHA256withRSA",
+                "-dname", "CN=securetoken.system.gserviceaccount.com", "-validity", "365",
+                "-storetype", "PKCS12", "-keystore", keyStore.toString(), "-storepass", "changeit")
+                .redirectErrorStream(true)
+                .start();
+            String output = new String(keytool.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            if (keytool.waitFor() != 0) {
+                throw new IllegalStateException("keytool failed: " + output);
+            }
+
+            KeyStore store = KeyStore.getInstance("PKCS12");
+            try (InputStream in = Files.newInputStream(keyStore)) {
+                store.load(in, "changeit".toCharArray());
+            }
+            Certificate certificate = store.getCertificate(keyId);
+            String pem = "-----BEGIN CERTIFICATE-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII))
+                    .encodeToString(certificate.getEncoded())
+                + "\n-----END CERTIFICATE-----\n";
+            return new SigningKey(keyId, (PrivateKey) store.getKey(keyId, "changeit".toCharArray()), pem);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -9,6 +9,10 @@ public abstract class BaseEvent {
     private LocalDateTime timestamp;
     private String source;
 
+    // For decoders; the envelope fields are set afterwards
+    protected BaseEvent() {
+    }
+
     protected BaseEvent(String eventType, String source) {
         this.eventId = UUID.randomUUID().toString();
         this.eventType = eventType;
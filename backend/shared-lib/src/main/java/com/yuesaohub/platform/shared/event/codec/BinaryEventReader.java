@@ -0,0 +1,133 @@
+package com.yuesaohub.platform.shared.event.codec;
+
+import com.yuesaohub.platform.shared.exception.EventCodecException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Reads values written by {@link BinaryEventWriter}. Truncated input raises
+ * {@link EventCodecException}; {@link BinaryEventCodec#decode} reports other malformed
+ * values the same way.
+ */
+public class BinaryEventReader {
+
+    private final byte[] buffer;
+    private int position;
+
+    public BinaryEventReader(byte[] buffer) {
+        this.buffer = buffer;
+    }
+
+    public int readByte() {
+        if (position >= buffer.length) {
+            throw new EventCodecException("Unexpected end of event payload");
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    public byte[] readBytes(int length) {
+        if (length < 0 || position + length > buffer.length) {
+            throw new EventCodecException("Unexpected end of event payload");
+        }
+        byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+        position += length;
+        return bytes;
+    }
+
+    public long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new EventCodecException("Malformed varint in event payload");
+    }
+
+    public long readFixed64() {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value |= (long) readByte() << (8 * i);
+        }
+        return value;
+    }
+
+    public long readZigZag() {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public boolean readBoolean() {
+        return readByte() != 0;
+    }
+
+    public String readString() {
+        long length = readVarLong();
+        if (length == 0) {
+            return null;
+        }
+        if (length - 1 > buffer.length - position) {
+            throw new EventCodecException("Unexpected end of event payload");
+        }
+        String value = new String(buffer, position, (int) (length - 1), StandardCharsets.UTF_8);
+        position += (int) (length - 1);
+        return value;
+    }
+
+    public Long readNullableLong() {
+        return readBoolean() ? readZigZag() : null;
+    }
+
+    public Integer readNullableInt() {
+        Long value = readNullableLong();
+        return value == null ? null : Math.toIntExact(value);
+    }
+
+    public Boolean readNullableBoolean() {
+        int value = readByte();
+        return value == 0 ? null : value == 2;
+    }
+
+    public BigDecimal readDecimal() {
+        if (!readBoolean()) {
+            return null;
+        }
+        int scale = Math.toIntExact(readZigZag());
+        byte[] unscaled = readBytes(Math.toIntExact(readVarLong()));
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    public LocalDateTime readTimestamp() {
+        if (!readBoolean()) {
+            return null;
+        }
+        long epochSecond = readZigZag();
+        int nanos = Math.toIntExact(readVarLong());
+        return LocalDateTime.ofEpochSecond(epochSecond, nanos, ZoneOffset.UTC);
+    }
+
+    public Object readValue() {
+        int tag = readByte();
+        return switch (tag) {
+            case BinaryEventWriter.TAG_NULL -> null;
+            case BinaryEventWriter.TAG_STRING -> readString();
+            case BinaryEventWriter.TAG_LONG -> readZigZag();
+            case BinaryEventWriter.TAG_FALSE -> Boolean.FALSE;
+            case BinaryEventWriter.TAG_TRUE -> Boolean.TRUE;
+            case BinaryEventWriter.TAG_DECIMAL -> readDecimal();
+            case BinaryEventWriter.TAG_DOUBLE -> Double.longBitsToDouble(readFixed64());
+            default -> throw new EventCodecException("Unknown value tag in event payload: " + tag);
+        };
+    }
+
+    public boolean hasRemaining() {
+        return position < buffer.length;
+    }
+}
@@ -0,0 +1,18 @@
+package com.yuesaohub.platform.shared.event.codec;
+
+import com.yuesaohub.platform.shared.event.BaseEvent;
+
+/**
+ * Binary layout of one event type's own fields (the {@link BaseEvent} envelope is written
+ * by {@link BinaryEventCodec}). Fields are written positionally, so a schema change means
+ * a new {@link #version()}: {@link #write} always produces the current version and
+ * {@link #read} must still accept every older one.
+ */
+public interface BinaryEventSchema<T extends BaseEvent> {
+
+    int version();
+
+    void write(T event, BinaryEventWriter out);
+
+    T read(BinaryEventReader in, int version);
+}
@@ -0,0 +1,157 @@
+package com.yuesaohub.platform.shared.event.codec;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Appends primitive values in the binary event format: unsigned LEB128 varints,
+ * zig-zag varints for signed numbers, length-prefixed UTF-8 strings. Nullable values
+ * carry their own presence marker.
+ */
+public class BinaryEventWriter {
+
+    // Type tags for writeValue
+    static final int TAG_NULL = 0;
+    static final int TAG_STRING = 1;
+    static final int TAG_LONG = 2;
+    static final int TAG_FALSE = 3;
+    static final int TAG_TRUE = 4;
+    static final int TAG_DECIMAL = 5;
+    static final int TAG_DOUBLE = 6;
+
+    private byte[] buffer;
+    private int size;
+
+    public BinaryEventWriter() {
+        this(128);
+    }
+
+    public BinaryEventWriter(int initialCapacity) {
+        this.buffer = new byte[initialCapacity];
+    }
+
+    public void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) value;
+    }
+
+    public void writeBytes(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+
+    public void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    public void writeFixed64(long value) {
+        ensureCapacity(8);
+        for (int i = 0; i < 8; i++) {
+            buffer[size++] = (byte) (value >>> (8 * i));
+        }
+    }
+
+    public void writeZigZag(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    public void writeBoolean(boolean value) {
+        writeByte(value ? 1 : 0);
+    }
+
+    // Length + 1 so that 0 can mean null
+    public void writeString(String value) {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length + 1L);
+        writeBytes(bytes);
+    }
+
+    public void writeNullableLong(Long value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeZigZag(value);
+        }
+    }
+
+    public void writeNullableInt(Integer value) {
+        writeNullableLong(value == null ? null : value.longValue());
+    }
+
+    public void writeNullableBoolean(Boolean value) {
+        writeByte(value == null ? 0 : value ? 2 : 1);
+    }
+
+    public void writeDecimal(BigDecimal value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeZigZag(value.scale());
+            byte[] unscaled = value.unscaledValue().toByteArray();
+            writeVarLong(unscaled.length);
+            writeBytes(unscaled);
+        }
+    }
+
+    // LocalDateTime as written, no zone conversion: seconds and nanos on the UTC line
+    public void writeTimestamp(LocalDateTime value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeZigZag(value.toEpochSecond(ZoneOffset.UTC));
+            writeVarLong(value.getNano());
+        }
+    }
+
+    /**
+     * Writes a dynamically typed scalar (string, integral number, boolean, decimal or
+     * floating point) with a one-byte type tag.
+     */
+    public void writeValue(Object value) {
+        if (value == null) {
+            writeByte(TAG_NULL);
+        } else if (value instanceof String string) {
+            writeByte(TAG_STRING);
+            writeString(string);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            writeByte(TAG_LONG);
+            writeZigZag(((Number) value).longValue());
+        } else if (value instanceof Boolean bool) {
+            writeByte(bool ? TAG_TRUE : TAG_FALSE);
+        } else if (value instanceof BigDecimal decimal) {
+            writeByte(TAG_DECIMAL);
+            writeDecimal(decimal);
+        } else if (value instanceof BigInteger integer) {
+            writeByte(TAG_DECIMAL);
+            writeDecimal(new BigDecimal(integer));
+        } else if (value instanceof Double || value instanceof Float) {
+            writeByte(TAG_DOUBLE);
+            writeFixed64(Double.doubleToLongBits(((Number) value).doubleValue()));
+        } else {
+            // Enums and other simple values travel as their string form
+            writeByte(TAG_STRING);
+            writeString(value.toString());
+        }
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.yuesaohub.platform.shared.event.codec;
+
+import com.yuesaohub.platform.shared.event.BaseEvent;
+
+/**
+ * Serializes events to and from message bodies in one wire format, identified by the
+ * AMQP content type it is published with.
+ */
+public interface EventCodec {
+
+    String contentType();
+
+    byte[] encode(BaseEvent event);
+
+    BaseEvent decode(byte[] payload);
+}
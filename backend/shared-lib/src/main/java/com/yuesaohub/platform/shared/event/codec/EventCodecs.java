@@ -0,0 +1,45 @@
+package com.yuesaohub.platform.shared.event.codec;
+
+import com.yuesaohub.platform.shared.exception.EventCodecException;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Picks the codec for a message by its content type. Publishers encode with
+ * {@link #defaultCodec()}; consumers decode whatever content type a message carries, so
+ * producers can switch formats without a coordinated consumer release.
+ */
+public class EventCodecs {
+
+    private final Map<String, EventCodec> byContentType = new LinkedHashMap<>();
+    private final EventCodec defaultCodec;
+
+    public EventCodecs(List<EventCodec> codecs, String defaultContentType) {
+        for (EventCodec codec : codecs) {
+            byContentType.put(normalize(codec.contentType()), codec);
+        }
+        this.defaultCodec = forContentType(defaultContentType);
+    }
+
+    public EventCodec defaultCodec() {
+        return defaultCodec;
+    }
+
+    public EventCodec forContentType(String contentType) {
+        EventCodec codec = contentType == null ? null : byContentType.get(normalize(contentType));
+        if (codec == null) {
+            throw new EventCodecException("No event codec for content type: " + contentType);
+        }
+        return codec;
+    }
+
+    // Drops parameters such as "; charset=UTF-8"
+    private static String normalize(String contentType) {
+        int parameters = contentType.indexOf(';');
+        String mediaType = parameters >= 0 ? contentType.substring(0, parameters) : contentType;
+        return mediaType.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,62 @@
+package com.yuesaohub.platform.shared.event.codec;
+
+import com.yuesaohub.platform.shared.event.BaseEvent;
+import com.yuesaohub.platform.shared.exception.EventCodecException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Known event types: the {@code eventType} name, the class it decodes to, and for the
+ * binary format a stable numeric id and schema. Ids go on the wire, so once assigned an
+ * id must never be reused for another type.
+ */
+public class EventTypeRegistry {
+
+    private final Map<String, Registration<?>> byEventType = new HashMap<>();
+    private final Map<Integer, Registration<?>> byTypeId = new HashMap<>();
+    private final Map<Class<?>, Registration<?>> byClass = new HashMap<>();
+
+    public <T extends BaseEvent> EventTypeRegistry register(int typeId, String eventType, Class<T> eventClass,
+                                                            BinaryEventSchema<T> schema) {
+        if (typeId <= 0) {
+            throw new IllegalArgumentException("Event type id must be positive: " + typeId);
+        }
+        if (byTypeId.containsKey(typeId) || byEventType.containsKey(eventType)) {
+            throw new IllegalArgumentException("Event type already registered: " + typeId + " / " + eventType);
+        }
+        Registration<T> registration = new Registration<>(typeId, eventType, eventClass, schema);
+        byEventType.put(eventType, registration);
+        byTypeId.put(typeId, registration);
+        byClass.put(eventClass, registration);
+        return this;
+    }
+
+    public Registration<?> forEventType(String eventType) {
+        Registration<?> registration = byEventType.get(eventType);
+        if (registration == null) {
+            throw new EventCodecException("Unknown event type: " + eventType);
+        }
+        return registration;
+    }
+
+    public Registration<?> forTypeId(int typeId) {
+        Registration<?> registration = byTypeId.get(typeId);
+        if (registration == null) {
+            throw new EventCodecException("Unknown event type id: " + typeId);
+        }
+        return registration;
+    }
+
+    public Registration<?> forClass(Class<?> eventClass) {
+        Registration<?> registration = byClass.get(eventClass);
+        if (registration == null) {
+            throw new EventCodecException("Unregistered event class: " + eventClass.getName());
+        }
+        return registration;
+    }
+
+    public record Registration<T extends BaseEvent>(int typeId, String eventType, Class<T> eventClass,
+                                                    BinaryEventSchema<T> schema) {
+    }
+}
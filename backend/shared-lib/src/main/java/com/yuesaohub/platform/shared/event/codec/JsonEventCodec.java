@@ -0,0 +1,61 @@
+package com.yuesaohub.platform.shared.event.codec;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuesaohub.platform.shared.event.BaseEvent;
+import com.yuesaohub.platform.shared.exception.EventCodecException;
+
+import java.io.IOException;
+
+/**
+ * The original JSON encoding, kept for consumers that do not read the binary format.
+ * The {@code eventType} property selects the class to decode into.
+ */
+public class JsonEventCodec implements EventCodec {
+
+    public static final String CONTENT_TYPE = "application/json";
+
+    private final ObjectMapper objectMapper;
+    private final EventTypeRegistry registry;
+
+    public JsonEventCodec(ObjectMapper objectMapper, EventTypeRegistry registry) {
+        this.objectMapper = objectMapper;
+        this.registry = registry;
+    }
+
+    @Override
+    public String contentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public byte[] encode(BaseEvent event) {
+        try {
+            return objectMapper.writeValueAsBytes(event);
+        } catch (IOException e) {
+            throw new EventCodecException("Failed to encode " + event.getEventType() + " event as JSON", e);
+        }
+    }
+
+    @Override
+    public BaseEvent decode(byte[] payload) {
+        try {
+            JsonNode tree = objectMapper.readTree(payload);
+            JsonNode eventType = tree.get("eventType");
+            if (eventType == null || !eventType.isTextual()) {
+                throw new EventCodecException("JSON event has no eventType");
+            }
+            Class<? extends BaseEvent> eventClass = registry.forEventType(eventType.asText()).eventClass();
+            return objectMapper.readerFor(eventClass)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .readValue(tree);
+        } catch (IOException e) {
+            throw new EventCodecException("Malformed JSON event", e);
+        } catch (EventCodecException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new EventCodecException("Malformed JSON event", e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.yuesaohub.platform.shared.event.consumer;
+
+import com.yuesaohub.platform.shared.event.BaseEvent;
+
+import java.util.List;
+
+/**
+ * Application callback for an event consumer. Receives each delivered batch with
+ * duplicates already removed; throwing rejects the whole batch so it is redelivered.
+ */
+@FunctionalInterface
+public interface BatchEventHandler {
+
+    void handle(List<BaseEvent> events);
+}
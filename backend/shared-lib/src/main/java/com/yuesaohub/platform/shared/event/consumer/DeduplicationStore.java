@@ -0,0 +1,24 @@
+package com.yuesaohub.platform.shared.event.consumer;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Durable record of which events a consumer has already processed.
+ */
+public interface DeduplicationStore {
+
+    /**
+     * Records the events as processed by {@code consumer} and returns the ids that were not
+     * recorded before. Runs in the caller's transaction, so a rolled-back batch releases its
+     * claims and is processed again on redelivery.
+     */
+    Set<String> claim(String consumer, Collection<String> eventIds);
+
+    /**
+     * Forgets what {@code consumer} processed more than {@code retention} ago and returns
+     * how many records were removed.
+     */
+    int purgeOlderThan(String consumer, Duration retention);
+}
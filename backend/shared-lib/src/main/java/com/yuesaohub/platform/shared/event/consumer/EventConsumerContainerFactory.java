@@ -0,0 +1,152 @@
+package com.yuesaohub.platform.shared.event.consumer;
+
+import com.yuesaohub.platform.shared.event.codec.EventCodecs;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.ImmediateRequeueAmqpException;
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.amqp.rabbit.retry.MessageBatchRecoverer;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+/**
+ * Builds listener containers for idempotent batch consumers. The returned container is
+ * not started; register it as a bean so its lifecycle follows the application context.
+ *
+ * <pre>
+ * &#64;Bean
+ * Declarables profileSyncQueue() {
+ *     return EventConsumerContainerFactory.deadLetteredQueue("profile-sync.queue");
+ * }
+ *
+ * &#64;Bean
+ * SimpleMessageListenerContainer profileSyncConsumer(EventConsumerContainerFactory factory) {
+ *     return factory.create("profile-sync", properties, events -&gt; ..., "profile-sync.queue");
+ * }
+ * </pre>
+ *
+ * A failed batch is retried {@code maxAttempts} times in place and then rejected, which
+ * moves it to the queue's dead-letter queue, or drops it when the queue has none. Each
+ * consumer's dedup records older than {@code retention} are purged every
+ * {@code purgeInterval} on the given scheduler.
+ */
+public class EventConsumerContainerFactory {
+
+    private static final Logger log = LoggerFactory.getLogger(EventConsumerContainerFactory.class);
+
+    private static final String DEAD_LETTER_SUFFIX = ".dlq";
+
+    private final ConnectionFactory connectionFactory;
+    private final EventCodecs eventCodecs;
+    private final DeduplicationStore deduplicationStore;
+    private final PlatformTransactionManager transactionManager;
+    private final TaskScheduler taskScheduler;
+
+    /**
+     * @param transactionManager used to run each batch's claims and handler together; it must
+     *                           manage the {@link DeduplicationStore}'s data source
+     * @param taskScheduler      runs the periodic purge of old dedup records
+     */
+    public EventConsumerContainerFactory(ConnectionFactory connectionFactory, EventCodecs eventCodecs,
+                                         DeduplicationStore deduplicationStore,
+                                         PlatformTransactionManager transactionManager,
+                                         TaskScheduler taskScheduler) {
+        if (transactionManager == null) {
+            throw new IllegalArgumentException("A transaction manager is required");
+        }
+        if (taskScheduler == null) {
+            throw new IllegalArgumentException("A task scheduler is required to purge dedup records");
+        }
+        this.connectionFactory = connectionFactory;
+        this.eventCodecs = eventCodecs;
+        this.deduplicationStore = deduplicationStore;
+        this.transactionManager = transactionManager;
+        this.taskScheduler = taskScheduler;
+    }
+
+    /**
+     * @param consumer name the dedup records are kept under; each logical consumer of an
+     *                 event needs its own, or one would hide events from another
+     */
+    public SimpleMessageListenerContainer create(String consumer, EventConsumerProperties properties,
+                                                 BatchEventHandler handler, String... queues) {
+        if (consumer == null || consumer.isBlank()) {
+            throw new IllegalArgumentException("Consumer name is required");
+        }
+        if (queues.length == 0) {
+            throw new IllegalArgumentException("At least one queue is required for consumer " + consumer);
+        }
+
+        IdempotentBatchListener listener = new IdempotentBatchListener(consumer, handler, eventCodecs,
+            deduplicationStore, new RecentEventWindow(properties.getWindowSize()),
+            new TransactionTemplate(transactionManager));
+
+        SimpleMessageListenerContainer container = new SimpleMessageListenerContainer(connectionFactory);
+        container.setQueueNames(queues);
+        container.setConcurrentConsumers(properties.getConcurrency());
+        container.setMaxConcurrentConsumers(Math.max(properties.getConcurrency(), properties.getMaxConcurrency()));
+        // A batch can only fill up to the prefetch, so it never goes below the batch size
+        container.setPrefetchCount(Math.max(properties.getPrefetch(), properties.getBatchSize()));
+        container.setConsumerBatchEnabled(true);
+        container.setBatchSize(properties.getBatchSize());
+        container.setReceiveTimeout(properties.getReceiveTimeout().toMillis());
+        // AUTO acks each batch with a single multiple=true ack once the listener returns
+        container.setAcknowledgeMode(AcknowledgeMode.AUTO);
+        container.setDefaultRequeueRejected(properties.isRequeueOnFailure());
+        long retryInterval = properties.getRetryInterval().toMillis();
+        container.setAdviceChain(RetryInterceptorBuilder.stateless()
+            .maxAttempts(Math.max(1, properties.getMaxAttempts()))
+            .backOffOptions(retryInterval, 2.0, retryInterval * 10)
+            .recoverer(giveUp(consumer, properties))
+            .build());
+        container.setMessageListener(listener);
+
+        // Every instance purges; the deletes are idempotent, so overlapping runs are harmless
+        Duration retention = properties.getRetention();
+        taskScheduler.scheduleWithFixedDelay(() -> purge(consumer, retention), properties.getPurgeInterval());
+        return container;
+    }
+
+    /**
+     * A durable queue whose rejected messages go to {@code <name>.dlq}, and that queue.
+     * Bindings to the event exchange are left to the caller.
+     */
+    public static Declarables deadLetteredQueue(String name) {
+        Queue queue = QueueBuilder.durable(name)
+            .deadLetterExchange("")
+            .deadLetterRoutingKey(name + DEAD_LETTER_SUFFIX)
+            .build();
+        return new Declarables(queue, QueueBuilder.durable(name + DEAD_LETTER_SUFFIX).build());
+    }
+
+    private void purge(String consumer, Duration retention) {
+        try {
+            int purged = deduplicationStore.purgeOlderThan(consumer, retention);
+            log.debug("[{}] Purged {} processed event ids older than {}", consumer, purged, retention);
+        } catch (RuntimeException e) {
+            log.warn("[{}] Failed to purge processed event ids: {}", consumer, e.getMessage());
+        }
+    }
+
+    // Without a recoverer the retry interceptor would log the batch as dropped and acknowledge it
+    private static MessageBatchRecoverer giveUp(String consumer, EventConsumerProperties properties) {
+        return (messages, cause) -> {
+            log.error("[{}] Giving up on a batch of {} messages after {} attempts", consumer, messages.size(),
+                properties.getMaxAttempts(), cause);
+            if (properties.isRequeueOnFailure()) {
+                throw new ImmediateRequeueAmqpException("Requeueing failed batch", cause);
+            }
+            throw new AmqpRejectAndDontRequeueException("Rejecting failed batch", cause);
+        };
+    }
+}
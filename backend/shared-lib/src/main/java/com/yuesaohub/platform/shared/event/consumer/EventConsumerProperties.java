@@ -0,0 +1,127 @@
+package com.yuesaohub.platform.shared.event.consumer;
+
+import java.time.Duration;
+
+/**
+ * Tuning for one event consumer. Services bind it from their own configuration, e.g.
+ * {@code @ConfigurationProperties("app.messaging.consumers.profile-sync")}.
+ */
+public class EventConsumerProperties {
+
+    // Consumers started up front, and the ceiling the container may scale to under load
+    private int concurrency = 1;
+    private int maxConcurrency = 4;
+
+    // Unacked messages the broker pushes per consumer; raised to batchSize if lower
+    private int prefetch = 250;
+
+    // Messages handed to the handler and acknowledged together
+    private int batchSize = 50;
+
+    // How long a partial batch waits for more messages before it is delivered anyway
+    private Duration receiveTimeout = Duration.ofSeconds(1);
+
+    // Recently processed ids remembered in memory per consumer
+    private int windowSize = 10000;
+
+    // Times a batch is handled before it is rejected, with a growing pause in between
+    private int maxAttempts = 3;
+    private Duration retryInterval = Duration.ofSeconds(1);
+
+    // Requeue a batch that failed every attempt instead of rejecting it to the queue's
+    // dead-letter exchange; a batch that always fails is then redelivered forever
+    private boolean requeueOnFailure = false;
+
+    // How long processed ids are kept for deduplication, and how often older ones are purged;
+    // must exceed the longest a message can wait for redelivery
+    private Duration retention = Duration.ofDays(7);
+    private Duration purgeInterval = Duration.ofHours(1);
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    public int getPrefetch() {
+        return prefetch;
+    }
+
+    public void setPrefetch(int prefetch) {
+        this.prefetch = prefetch;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getReceiveTimeout() {
+        return receiveTimeout;
+    }
+
+    public void setReceiveTimeout(Duration receiveTimeout) {
+        this.receiveTimeout = receiveTimeout;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public void setWindowSize(int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public Duration getRetryInterval() {
+        return retryInterval;
+    }
+
+    public void setRetryInterval(Duration retryInterval) {
+        this.retryInterval = retryInterval;
+    }
+
+    public boolean isRequeueOnFailure() {
+        return requeueOnFailure;
+    }
+
+    public void setRequeueOnFailure(boolean requeueOnFailure) {
+        this.requeueOnFailure = requeueOnFailure;
+    }
+
+    public Duration getRetention() {
+        return retention;
+    }
+
+    public void setRetention(Duration retention) {
+        this.retention = retention;
+    }
+
+    public Duration getPurgeInterval() {
+        return purgeInterval;
+    }
+
+    public void setPurgeInterval(Duration purgeInterval) {
+        this.purgeInterval = purgeInterval;
+    }
+}
@@ -0,0 +1,113 @@
+package com.yuesaohub.platform.shared.event.consumer;
+
+import com.yuesaohub.platform.shared.event.BaseEvent;
+import com.yuesaohub.platform.shared.event.codec.EventCodecs;
+import com.yuesaohub.platform.shared.exception.EventCodecException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.BatchMessageListener;
+import org.springframework.amqp.core.Message;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Decodes a delivered batch, drops events this consumer has already processed and hands
+ * the rest to the {@link BatchEventHandler}. The container acknowledges the batch once
+ * this returns and rejects all of it if it throws.
+ *
+ * <p>Redeliveries seen recently are dropped from the in-memory window without touching
+ * the database. The remaining ids are claimed in the {@link DeduplicationStore} in the
+ * same transaction as the handler, so a batch either commits its side effects and its
+ * claims together or neither. A transaction is therefore required: without one the claims
+ * would commit before the handler ran, and a failed batch would be skipped on redelivery.
+ */
+public class IdempotentBatchListener implements BatchMessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotentBatchListener.class);
+
+    private final String consumer;
+    private final BatchEventHandler handler;
+    private final EventCodecs eventCodecs;
+    private final DeduplicationStore deduplicationStore;
+    private final RecentEventWindow window;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * @param transactionTemplate wraps the claim and the handler; must cover the
+     *                            {@link DeduplicationStore}'s connection
+     */
+    public IdempotentBatchListener(String consumer, BatchEventHandler handler, EventCodecs eventCodecs,
+                                   DeduplicationStore deduplicationStore, RecentEventWindow window,
+                                   TransactionTemplate transactionTemplate) {
+        if (transactionTemplate == null) {
+            throw new IllegalArgumentException("A transaction template is required for consumer " + consumer);
+        }
+        this.consumer = consumer;
+        this.handler = handler;
+        this.eventCodecs = eventCodecs;
+        this.deduplicationStore = deduplicationStore;
+        this.window = window;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void onMessageBatch(List<Message> messages) {
+        // Keyed by event id, which also collapses duplicates within the batch
+        Map<String, BaseEvent> candidates = new LinkedHashMap<>();
+        int duplicates = 0;
+        for (Message message : messages) {
+            BaseEvent event = decode(message);
+            if (event == null) {
+                continue;
+            }
+            String eventId = event.getEventId();
+            if (eventId == null) {
+                log.warn("[{}] Dropping {} event without an event id", consumer, event.getEventType());
+            } else if (window.contains(eventId) || candidates.putIfAbsent(eventId, event) != null) {
+                duplicates++;
+            }
+        }
+        if (duplicates > 0) {
+            log.debug("[{}] Skipped {} redelivered events from the recent window", consumer, duplicates);
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> process(candidates));
+        window.addAll(candidates.keySet());
+    }
+
+    private void process(Map<String, BaseEvent> candidates) {
+        Set<String> claimed = deduplicationStore.claim(consumer, candidates.keySet());
+        List<BaseEvent> fresh = new ArrayList<>(claimed.size());
+        for (Map.Entry<String, BaseEvent> candidate : candidates.entrySet()) {
+            if (claimed.contains(candidate.getKey())) {
+                fresh.add(candidate.getValue());
+            }
+        }
+        if (fresh.size() < candidates.size()) {
+            log.debug("[{}] Skipped {} events already recorded as processed", consumer, candidates.size() - fresh.size());
+        }
+        if (!fresh.isEmpty()) {
+            handler.handle(fresh);
+        }
+    }
+
+    // A body that cannot be decoded never will be, so it is logged and acknowledged with the batch
+    private BaseEvent decode(Message message) {
+        try {
+            return eventCodecs.forContentType(message.getMessageProperties().getContentType())
+                .decode(message.getBody());
+        } catch (EventCodecException e) {
+            log.error("[{}] Dropping undecodable message {}: {}", consumer,
+                message.getMessageProperties().getMessageId(), e.getMessage());
+            return null;
+        }
+    }
+}
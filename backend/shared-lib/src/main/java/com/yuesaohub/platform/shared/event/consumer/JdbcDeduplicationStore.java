@@ -0,0 +1,68 @@
+package com.yuesaohub.platform.shared.event.consumer;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * PostgreSQL-backed {@link DeduplicationStore}. Services using it add this library's
+ * migration of the {@code processed_events} table to their Flyway locations:
+ *
+ * <pre>
+ * spring.flyway.locations: classpath:db/migration,{@value #FLYWAY_LOCATION}
+ * </pre>
+ */
+public class JdbcDeduplicationStore implements DeduplicationStore {
+
+    // Holds a repeatable migration, so it never collides with a service's versioned ones
+    public static final String FLYWAY_LOCATION = "classpath:db/event-consumer";
+
+    // One round trip per batch; the primary key decides which ids are new
+    private static final String CLAIM_SQL = """
+        INSERT INTO processed_events (consumer, event_id, processed_at)
+        SELECT ?, event_id, LOCALTIMESTAMP FROM unnest(?) AS event_id
+        ON CONFLICT (consumer, event_id) DO NOTHING
+        RETURNING event_id
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcDeduplicationStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Set<String> claim(String consumer, Collection<String> eventIds) {
+        Set<String> claimed = new HashSet<>();
+        if (eventIds.isEmpty()) {
+            return claimed;
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(CLAIM_SQL);
+            Array ids = connection.createArrayOf("varchar", eventIds.toArray());
+            statement.setString(1, consumer);
+            statement.setArray(2, ids);
+            return statement;
+        }, rs -> {
+            claimed.add(rs.getString(1));
+        });
+        return claimed;
+    }
+
+    /**
+     * Must exceed the longest time a message can wait for redelivery, or a late duplicate
+     * is processed again.
+     */
+    @Override
+    public int purgeOlderThan(String consumer, Duration retention) {
+        return jdbcTemplate.update("DELETE FROM processed_events WHERE consumer = ? AND processed_at < ?",
+            consumer, Timestamp.valueOf(LocalDateTime.now().minus(retention)));
+    }
+}
@@ -0,0 +1,42 @@
+package com.yuesaohub.platform.shared.event.consumer;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded in-memory set of the most recently processed event ids. Answers the common
+ * redelivery case without a database round trip; anything older falls through to the
+ * {@link DeduplicationStore}, so forgetting an id is safe.
+ */
+public class RecentEventWindow {
+
+    private final Map<String, Boolean> recent;
+
+    public RecentEventWindow(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Window capacity must not be negative");
+        }
+        // Access order, so ids that keep being redelivered stay in the window
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public synchronized boolean contains(String eventId) {
+        return recent.get(eventId) != null;
+    }
+
+    public synchronized void addAll(Collection<String> eventIds) {
+        for (String eventId : eventIds) {
+            recent.put(eventId, Boolean.TRUE);
+        }
+    }
+
+    public synchronized int size() {
+        return recent.size();
+    }
+}
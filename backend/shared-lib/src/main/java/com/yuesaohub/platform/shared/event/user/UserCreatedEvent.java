@@ -1,14 +1,17 @@
-package com.yuesaohub.platform.userservice.event;
+package com.yuesaohub.platform.shared.event.user;
 
-import com.yuesaohub.platform.userservice.entity.UserType;
 import com.yuesaohub.platform.shared.event.BaseEvent;
 
 public class UserCreatedEvent extends BaseEvent {
     private Long userId;
     private String userEmail;
-    private UserType userType;
+    // UserType name, e.g. CAREGIVER
+    private String userType;
 
-    public UserCreatedEvent(Long userId, String userEmail, UserType userType) {
+    // For event decoders
+    public UserCreatedEvent() {}
+
+    public UserCreatedEvent(Long userId, String userEmail, String userType) {
         super("USER_CREATED", "user-service");
         this.userId = userId;
         this.userEmail = userEmail;
@@ -32,11 +35,11 @@ public class UserCreatedEvent extends BaseEvent {
         this.userEmail = userEmail;
     }
 
-    public UserType getUserType() {
+    public String getUserType() {
         return userType;
     }
 
-    public void setUserType(UserType userType) {
+    public void setUserType(String userType) {
         this.userType = userType;
     }
 }
@@ -0,0 +1,93 @@
+package com.yuesaohub.platform.shared.event.user;
+
+import com.yuesaohub.platform.shared.event.codec.BinaryEventReader;
+import com.yuesaohub.platform.shared.event.codec.BinaryEventSchema;
+import com.yuesaohub.platform.shared.event.codec.BinaryEventWriter;
+import com.yuesaohub.platform.shared.event.codec.EventTypeRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wire ids and binary layouts of the events user-service publishes, shared so consumers
+ * register the same ones. Ids are permanent; changing a layout means bumping its version
+ * and keeping the old branch in read().
+ */
+public final class UserEventSchemas {
+
+    public static final int USER_CREATED_TYPE_ID = 1;
+    public static final int USER_PROFILE_UPDATED_TYPE_ID = 2;
+
+    private UserEventSchemas() {
+    }
+
+    public static EventTypeRegistry register(EventTypeRegistry registry) {
+        return registry
+            .register(USER_CREATED_TYPE_ID, "USER_CREATED", UserCreatedEvent.class, new UserCreatedSchema())
+            .register(USER_PROFILE_UPDATED_TYPE_ID, "USER_PROFILE_UPDATED", UserProfileUpdatedEvent.class,
+                new UserProfileUpdatedSchema());
+    }
+
+    static class UserCreatedSchema implements BinaryEventSchema<UserCreatedEvent> {
+
+        @Override
+        public int version() {
+            return 1;
+        }
+
+        @Override
+        public void write(UserCreatedEvent event, BinaryEventWriter out) {
+            out.writeNullableLong(event.getUserId());
+            out.writeString(event.getUserEmail());
+            out.writeString(event.getUserType());
+        }
+
+        @Override
+        public UserCreatedEvent read(BinaryEventReader in, int version) {
+            UserCreatedEvent event = new UserCreatedEvent();
+            event.setUserId(in.readNullableLong());
+            event.setUserEmail(in.readString());
+            event.setUserType(in.readString());
+            return event;
+        }
+    }
+
+    static class UserProfileUpdatedSchema implements BinaryEventSchema<UserProfileUpdatedEvent> {
+
+        @Override
+        public int version() {
+            return 1;
+        }
+
+        @Override
+        public void write(UserProfileUpdatedEvent event, BinaryEventWriter out) {
+            out.writeNullableLong(event.getUserId());
+            out.writeString(event.getFirebaseUid());
+            out.writeNullableLong(event.getVersion());
+            List<UserProfileUpdatedEvent.FieldChange> changes = event.getChanges();
+            out.writeVarLong(changes != null ? changes.size() : 0);
+            if (changes != null) {
+                for (UserProfileUpdatedEvent.FieldChange change : changes) {
+                    out.writeString(change.getField());
+                    out.writeValue(change.getOldValue());
+                    out.writeValue(change.getNewValue());
+                }
+            }
+        }
+
+        @Override
+        public UserProfileUpdatedEvent read(BinaryEventReader in, int version) {
+            UserProfileUpdatedEvent event = new UserProfileUpdatedEvent();
+            event.setUserId(in.readNullableLong());
+            event.setFirebaseUid(in.readString());
+            event.setVersion(in.readNullableLong());
+            int count = Math.toIntExact(in.readVarLong());
+            List<UserProfileUpdatedEvent.FieldChange> changes = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                changes.add(new UserProfileUpdatedEvent.FieldChange(in.readString(), in.readValue(), in.readValue()));
+            }
+            event.setChanges(changes);
+            return event;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.yuesaohub.platform.shared.event.user;
+
+import com.yuesaohub.platform.shared.event.BaseEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Emitted once per profile update that changed at least one field. Carries only the
+ * changed fields with their old and new values, plus the user's profile version after
+ * the update. Versions increase by one per update, so a consumer applying deltas can
+ * drop anything at or below the version it already has and detect a gap (then refetch).
+ */
+public class UserProfileUpdatedEvent extends BaseEvent {
+    private Long userId;
+    private String firebaseUid;
+    private Long version;
+    private List<FieldChange> changes = new ArrayList<>();
+
+    // For event decoders
+    public UserProfileUpdatedEvent() {}
+
+    public UserProfileUpdatedEvent(Long userId, String firebaseUid, Long version, List<FieldChange> changes) {
+        super("USER_PROFILE_UPDATED", "user-service");
+        this.userId = userId;
+        this.firebaseUid = firebaseUid;
+        this.version = version;
+        this.changes = changes;
+    }
+
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getFirebaseUid() {
+        return firebaseUid;
+    }
+
+    public void setFirebaseUid(String firebaseUid) {
+        this.firebaseUid = firebaseUid;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public List<FieldChange> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<FieldChange> changes) {
+        this.changes = changes;
+    }
+
+    /**
+     * One changed profile field, named as in {@code UpdateProfileRequest}. Values are
+     * strings, numbers or booleans; null means the field was empty.
+     */
+    public static class FieldChange {
+        private String field;
+        private Object oldValue;
+        private Object newValue;
+
+        public FieldChange() {}
+
+        public FieldChange(String field, Object oldValue, Object newValue) {
+            this.field = field;
+            this.oldValue = oldValue;
+            this.newValue = newValue;
+        }
+
+        public String getField() {
+            return field;
+        }
+
+        public void setField(String field) {
+            this.field = field;
+        }
+
+        public Object getOldValue() {
+            return oldValue;
+        }
+
+        public void setOldValue(Object oldValue) {
+            this.oldValue = oldValue;
+        }
+
+        public Object getNewValue() {
+            return newValue;
+        }
+
+        public void setNewValue(Object newValue) {
+            this.newValue = newValue;
+        }
+    }
+}
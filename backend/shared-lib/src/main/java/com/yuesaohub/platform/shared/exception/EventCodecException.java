@@ -0,0 +1,12 @@
+package com.yuesaohub.platform.shared.exception;
+
+public class EventCodecException extends RuntimeException {
+
+    public EventCodecException(String message) {
+        super(message);
+    }
+
+    public EventCodecException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,12 @@
+-- Event ids each consumer has processed, for JdbcDeduplicationStore. Repeatable and
+-- idempotent, so services can add this location next to their own versioned migrations.
+CREATE TABLE IF NOT EXISTS processed_events (
+    consumer     VARCHAR(100) NOT NULL,
+    event_id     VARCHAR(36)  NOT NULL,
+    processed_at TIMESTAMP    NOT NULL,
+    PRIMARY KEY (consumer, event_id)
+);
+
+-- Serves the scheduled per-consumer purge of old records
+CREATE INDEX IF NOT EXISTS idx_processed_events_consumer_processed_at
+    ON processed_events (consumer, processed_at);
@@ -0,0 +1,53 @@
+package com.yuesaohub.platform.shared.event.consumer;
+
+import com.yuesaohub.platform.shared.event.codec.EventCodecs;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EventConsumerContainerFactoryTest {
+
+    private final DeduplicationStore store = mock(DeduplicationStore.class);
+    private final TaskScheduler taskScheduler = mock(TaskScheduler.class);
+    private final EventConsumerContainerFactory factory = new EventConsumerContainerFactory(
+        mock(ConnectionFactory.class), mock(EventCodecs.class), store, mock(PlatformTransactionManager.class),
+        taskScheduler);
+
+    @Test
+    void consumerRecordsArePurgedPastTheirRetention() {
+        EventConsumerProperties properties = new EventConsumerProperties();
+        properties.setRetention(Duration.ofDays(3));
+        properties.setPurgeInterval(Duration.ofMinutes(10));
+
+        factory.create("profile-sync", properties, events -> { }, "profile-sync.queue");
+
+        ArgumentCaptor<Runnable> purge = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).scheduleWithFixedDelay(purge.capture(), eq(Duration.ofMinutes(10)));
+        purge.getValue().run();
+        verify(store).purgeOlderThan("profile-sync", Duration.ofDays(3));
+    }
+
+    @Test
+    void failedPurgeIsRetriedOnTheNextRun() {
+        when(store.purgeOlderThan("profile-sync", Duration.ofDays(7))).thenThrow(new IllegalStateException("db down"));
+
+        factory.create("profile-sync", new EventConsumerProperties(), events -> { }, "profile-sync.queue");
+
+        ArgumentCaptor<Runnable> purge = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).scheduleWithFixedDelay(purge.capture(), eq(Duration.ofHours(1)));
+        // Must not throw, or some schedulers would cancel the repeating task
+        purge.getValue().run();
+        purge.getValue().run();
+        verify(store, times(2)).purgeOlderThan("profile-sync", Duration.ofDays(7));
+    }
+}
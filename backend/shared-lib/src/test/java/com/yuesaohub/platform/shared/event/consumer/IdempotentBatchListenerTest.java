@@ -0,0 +1,126 @@
+package com.yuesaohub.platform.shared.event.consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuesaohub.platform.shared.event.BaseEvent;
+import com.yuesaohub.platform.shared.event.codec.EventCodec;
+import com.yuesaohub.platform.shared.event.codec.EventCodecs;
+import com.yuesaohub.platform.shared.event.codec.EventTypeRegistry;
+import com.yuesaohub.platform.shared.event.codec.JsonEventCodec;
+import com.yuesaohub.platform.shared.event.user.UserCreatedEvent;
+import com.yuesaohub.platform.shared.event.user.UserEventSchemas;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotentBatchListenerTest {
+
+    private final EventCodec codec = new JsonEventCodec(new ObjectMapper().findAndRegisterModules(),
+        UserEventSchemas.register(new EventTypeRegistry()));
+    private final EventCodecs eventCodecs = new EventCodecs(List.of(codec), JsonEventCodec.CONTENT_TYPE);
+    private final TransactionalStore store = new TransactionalStore();
+    private final List<BaseEvent> handled = new ArrayList<>();
+
+    @Test
+    void failedBatchIsHandledAgainOnRedelivery() {
+        List<Message> batch = List.of(message(new UserCreatedEvent(1L, "a@example.com", "CAREGIVER")),
+            message(new UserCreatedEvent(2L, "b@example.com", "PARENT")));
+        IdempotentBatchListener listener = listener(events -> {
+            if (handled.isEmpty()) {
+                handled.add(null);
+                throw new IllegalStateException("handler down");
+            }
+            handled.addAll(events);
+        });
+
+        assertThatThrownBy(() -> listener.onMessageBatch(batch)).isInstanceOf(IllegalStateException.class);
+        assertThat(store.committed).isEmpty();
+
+        listener.onMessageBatch(batch);
+
+        assertThat(handled).hasSize(3);
+        assertThat(store.committed).hasSize(2);
+    }
+
+    @Test
+    void handledEventsAreSkippedOnRedelivery() {
+        List<Message> batch = List.of(message(new UserCreatedEvent(1L, "a@example.com", "CAREGIVER")));
+        listener(handled::addAll).onMessageBatch(batch);
+
+        // A fresh listener, so the recent window does not hide the redelivery
+        listener(handled::addAll).onMessageBatch(batch);
+
+        assertThat(handled).hasSize(1);
+    }
+
+    @Test
+    void requiresATransaction() {
+        assertThatThrownBy(() -> new IdempotentBatchListener("test", handled::addAll, eventCodecs, store,
+            new RecentEventWindow(10), null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private IdempotentBatchListener listener(BatchEventHandler handler) {
+        return new IdempotentBatchListener("test", handler, eventCodecs, store, new RecentEventWindow(10),
+            new TransactionTemplate(store));
+    }
+
+    private Message message(BaseEvent event) {
+        return MessageBuilder.withBody(codec.encode(event)).setContentType(JsonEventCodec.CONTENT_TYPE).build();
+    }
+
+    // Claims stay pending until the surrounding transaction commits, as with JdbcDeduplicationStore
+    private static class TransactionalStore extends AbstractPlatformTransactionManager implements DeduplicationStore {
+        private final Set<String> committed = new HashSet<>();
+        private final Set<String> pending = new HashSet<>();
+
+        @Override
+        public Set<String> claim(String consumer, Collection<String> eventIds) {
+            Set<String> claimed = new HashSet<>();
+            for (String eventId : eventIds) {
+                if (!committed.contains(eventId) && pending.add(eventId)) {
+                    claimed.add(eventId);
+                }
+            }
+            return claimed;
+        }
+
+        @Override
+        public int purgeOlderThan(String consumer, Duration retention) {
+            return 0;
+        }
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            pending.clear();
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            committed.addAll(pending);
+            pending.clear();
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            pending.clear();
+        }
+    }
+}
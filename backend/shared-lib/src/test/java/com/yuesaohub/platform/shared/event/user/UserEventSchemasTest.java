@@ -0,0 +1,117 @@
+package com.yuesaohub.platform.shared.event.user;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.yuesaohub.platform.shared.event.BaseEvent;
+import com.yuesaohub.platform.shared.event.codec.BinaryEventCodec;
+import com.yuesaohub.platform.shared.event.codec.BinaryEventWriter;
+import com.yuesaohub.platform.shared.event.codec.EventCodec;
+import com.yuesaohub.platform.shared.event.codec.EventTypeRegistry;
+import com.yuesaohub.platform.shared.event.codec.JsonEventCodec;
+import com.yuesaohub.platform.shared.exception.EventCodecException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class UserEventSchemasTest {
+
+    private static final EventTypeRegistry registry = UserEventSchemas.register(new EventTypeRegistry());
+
+    static Stream<EventCodec> codecs() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return Stream.of(new BinaryEventCodec(registry), new JsonEventCodec(objectMapper, registry));
+    }
+
+    @ParameterizedTest
+    @MethodSource("codecs")
+    void userCreatedRoundTrips(EventCodec codec) {
+        UserCreatedEvent event = new UserCreatedEvent(42L, "li@example.com", "CAREGIVER");
+
+        BaseEvent decoded = codec.decode(codec.encode(event));
+
+        assertThat(decoded).isInstanceOf(UserCreatedEvent.class);
+        UserCreatedEvent created = (UserCreatedEvent) decoded;
+        assertThat(created.getEventId()).isEqualTo(event.getEventId());
+        assertThat(created.getEventType()).isEqualTo("USER_CREATED");
+        assertThat(created.getUserId()).isEqualTo(42L);
+        assertThat(created.getUserEmail()).isEqualTo("li@example.com");
+        assertThat(created.getUserType()).isEqualTo("CAREGIVER");
+    }
+
+    @ParameterizedTest
+    @MethodSource("codecs")
+    void profileUpdatedRoundTrips(EventCodec codec) {
+        UserProfileUpdatedEvent event = new UserProfileUpdatedEvent(42L, "uid-42", 7L, List.of(
+            new UserProfileUpdatedEvent.FieldChange("city", "Shanghai", "Hangzhou"),
+            new UserProfileUpdatedEvent.FieldChange("aboutMe", null, "Ten years of newborn care")));
+
+        BaseEvent decoded = codec.decode(codec.encode(event));
+
+        assertThat(decoded).isInstanceOf(UserProfileUpdatedEvent.class);
+        UserProfileUpdatedEvent updated = (UserProfileUpdatedEvent) decoded;
+        assertThat(updated.getEventId()).isEqualTo(event.getEventId());
+        assertThat(updated.getFirebaseUid()).isEqualTo("uid-42");
+        assertThat(updated.getVersion()).isEqualTo(7L);
+        assertThat(updated.getChanges()).extracting(UserProfileUpdatedEvent.FieldChange::getField,
+                UserProfileUpdatedEvent.FieldChange::getOldValue, UserProfileUpdatedEvent.FieldChange::getNewValue)
+            .containsExactly(
+                tuple("city", "Shanghai", "Hangzhou"),
+                tuple("aboutMe", null, "Ten years of newborn care"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("codecs")
+    void truncatedPayloadIsACodecError(EventCodec codec) {
+        byte[] encoded = codec.encode(new UserCreatedEvent(42L, "li@example.com", "CAREGIVER"));
+
+        assertThatThrownBy(() -> codec.decode(Arrays.copyOf(encoded, encoded.length / 2)))
+            .isInstanceOf(EventCodecException.class);
+    }
+
+    @ParameterizedTest
+    @MethodSource("codecs")
+    void garbagePayloadIsACodecError(EventCodec codec) {
+        assertThatThrownBy(() -> codec.decode("Y\u0001 not an event".getBytes(StandardCharsets.UTF_8)))
+            .isInstanceOf(EventCodecException.class);
+    }
+
+    @Test
+    void outOfRangeBinaryValuesAreCodecErrors() {
+        BinaryEventCodec codec = new BinaryEventCodec(registry);
+        BinaryEventWriter typeIdOverflow = header();
+        typeIdOverflow.writeVarLong(Long.MAX_VALUE);
+        BinaryEventWriter badTimestamp = header();
+        badTimestamp.writeVarLong(registry.forEventType("USER_CREATED").typeId());
+        badTimestamp.writeVarLong(1);
+        badTimestamp.writeByte(1);
+        badTimestamp.writeString("event-1");
+        badTimestamp.writeBoolean(true);
+        badTimestamp.writeZigZag(0);
+        badTimestamp.writeVarLong(2_000_000_000L);
+
+        assertThatThrownBy(() -> codec.decode(typeIdOverflow.toByteArray()))
+            .isInstanceOf(EventCodecException.class)
+            .hasCauseInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> codec.decode(badTimestamp.toByteArray()))
+            .isInstanceOf(EventCodecException.class)
+            .hasCauseInstanceOf(DateTimeException.class);
+    }
+
+    private static BinaryEventWriter header() {
+        BinaryEventWriter out = new BinaryEventWriter();
+        out.writeByte('Y');
+        out.writeByte(1);
+        return out;
+    }
+}
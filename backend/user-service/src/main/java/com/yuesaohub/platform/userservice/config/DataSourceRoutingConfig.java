@@ -0,0 +1,89 @@
+package com.yuesaohub.platform.userservice.config;
+
+import com.yuesaohub.platform.userservice.datasource.ReadYourWritesInterceptor;
+import com.yuesaohub.platform.userservice.datasource.ReadYourWritesTracker;
+import com.yuesaohub.platform.userservice.datasource.ReplicaLagMonitor;
+import com.yuesaohub.platform.userservice.datasource.ReplicaRoutingDataSource;
+import com.yuesaohub.platform.userservice.datasource.ReplicaRoutingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+public class DataSourceRoutingConfig implements WebMvcConfigurer {
+
+    private final ReadYourWritesInterceptor readYourWritesInterceptor;
+
+    public DataSourceRoutingConfig(ReadYourWritesInterceptor readYourWritesInterceptor) {
+        this.readYourWritesInterceptor = readYourWritesInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(readYourWritesInterceptor);
+    }
+
+    /**
+     * Replaces the auto-configured DataSource with primary + replicas behind a routing
+     * data source. Only active when {@code app.datasource.routing.enabled=true}.
+     */
+    @Configuration
+    @ConditionalOnProperty(name = "app.datasource.routing.enabled", havingValue = "true", matchIfMissing = false)
+    static class RoutingDataSourceConfiguration {
+
+        @Bean
+        @ConfigurationProperties("spring.datasource.hikari")
+        public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+            return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        }
+
+        @Bean
+        public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                                 ReplicaRoutingProperties properties) {
+            Map<String, DataSource> replicas = new LinkedHashMap<>();
+            List<ReplicaRoutingProperties.Replica> configured = properties.getReplicas();
+            for (int i = 0; i < configured.size(); i++) {
+                ReplicaRoutingProperties.Replica replica = configured.get(i);
+                HikariDataSource dataSource = new HikariDataSource();
+                dataSource.setPoolName("replica-" + i);
+                dataSource.setJdbcUrl(replica.getUrl());
+                dataSource.setUsername(replica.getUsername());
+                dataSource.setPassword(replica.getPassword());
+                dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+                dataSource.setReadOnly(true);
+                // Do not fail startup when a replica is down; the lag monitor keeps it out of rotation
+                dataSource.setInitializationFailTimeout(-1);
+                replicas.put("replica-" + i, dataSource);
+            }
+            return new ReplicaRoutingDataSource(primaryDataSource, replicas);
+        }
+
+        @Bean
+        @Primary
+        public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+            return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+        }
+
+        @Bean
+        public ReplicaLagMonitor replicaLagMonitor(ReplicaRoutingDataSource replicaRoutingDataSource,
+                                                   ReadYourWritesTracker readYourWritesTracker,
+                                                   ReplicaRoutingProperties properties) {
+            return new ReplicaLagMonitor(replicaRoutingDataSource, readYourWritesTracker, properties);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.yuesaohub.platform.userservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuesaohub.platform.shared.event.codec.BinaryEventCodec;
+import com.yuesaohub.platform.shared.event.codec.EventCodecs;
+import com.yuesaohub.platform.shared.event.codec.EventTypeRegistry;
+import com.yuesaohub.platform.shared.event.codec.JsonEventCodec;
+import com.yuesaohub.platform.shared.event.user.UserEventSchemas;
+import com.yuesaohub.platform.userservice.messaging.EventPublisherProperties;
+
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(EventPublisherProperties.class)
+public class RabbitConfig {
+
+    public static final String USER_EXCHANGE = "user.exchange";
+    public static final String USER_CREATED_ROUTING_KEY = "user.created";
+    public static final String USER_PROFILE_UPDATED_ROUTING_KEY = "user.profile.updated";
+
+    @Bean
+    public EventTypeRegistry eventTypeRegistry() {
+        return UserEventSchemas.register(new EventTypeRegistry());
+    }
+
+    // Events are encoded with the configured content type (JSON unless binary is opted into); both can be decoded
+    @Bean
+    public EventCodecs eventCodecs(EventTypeRegistry eventTypeRegistry, ObjectMapper objectMapper,
+                                   @Value("${app.messaging.event-content-type:" + JsonEventCodec.CONTENT_TYPE + "}")
+                                   String eventContentType) {
+        return new EventCodecs(List.of(
+            new BinaryEventCodec(eventTypeRegistry),
+            new JsonEventCodec(objectMapper, eventTypeRegistry)
+        ), eventContentType);
+    }
+
+    // Declared so the relay never publishes to a missing exchange (which closes the channel)
+    @Bean
+    public TopicExchange userExchange() {
+        return new TopicExchange(USER_EXCHANGE, true, false);
+    }
+}
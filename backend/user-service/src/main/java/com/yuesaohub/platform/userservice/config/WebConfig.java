@@ -0,0 +1,10 @@
+package com.yuesaohub.platform.userservice.config;
+
+import com.yuesaohub.platform.userservice.controller.HttpCacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(HttpCacheProperties.class)
+public class WebConfig {
+}
@@ -0,0 +1,57 @@
+package com.yuesaohub.platform.userservice.controller;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.CacheControl;
+
+import java.time.Duration;
+
+/**
+ * Cache-Control sent with public reads, which the gateway's response cache honours. Kept
+ * short, as an update is not visible until cached copies expire.
+ */
+@ConfigurationProperties(prefix = "app.http-cache")
+public class HttpCacheProperties {
+
+    /**
+     * Lets the gateway cache a public read for {@code maxAge} instead of its own default.
+     * Sent over REST and gRPC alike.
+     */
+    public CacheControl publicFor(Duration maxAge) {
+        return CacheControl.maxAge(maxAge)
+            .cachePublic()
+            .staleWhileRevalidate(staleWhileRevalidate);
+    }
+
+    // GET /v1/users/{id}
+    private Duration profileMaxAge = Duration.ofSeconds(5);
+
+    // GET /v1/users/search/**
+    private Duration searchMaxAge = Duration.ofSeconds(30);
+
+    // How long an expired copy may still be served while a fresh one is fetched
+    private Duration staleWhileRevalidate = Duration.ofSeconds(10);
+
+    public Duration getProfileMaxAge() {
+        return profileMaxAge;
+    }
+
+    public void setProfileMaxAge(Duration profileMaxAge) {
+        this.profileMaxAge = profileMaxAge;
+    }
+
+    public Duration getSearchMaxAge() {
+        return searchMaxAge;
+    }
+
+    public void setSearchMaxAge(Duration searchMaxAge) {
+        this.searchMaxAge = searchMaxAge;
+    }
+
+    public Duration getStaleWhileRevalidate() {
+        return staleWhileRevalidate;
+    }
+
+    public void setStaleWhileRevalidate(Duration staleWhileRevalidate) {
+        this.staleWhileRevalidate = staleWhileRevalidate;
+    }
+}
@@ -1,21 +1,32 @@
 package com.yuesaohub.platform.userservice.controller;
 
+import com.yuesaohub.platform.userservice.dto.AddPhotoRequest;
 import com.yuesaohub.platform.userservice.dto.CreateUserRequest;
 import com.yuesaohub.platform.userservice.dto.CaregiverSearchItemDto;
 import com.yuesaohub.platform.userservice.dto.SearchResultsDto;
 import com.yuesaohub.platform.userservice.dto.FieldUpdateRequest;
+import com.yuesaohub.platform.userservice.dto.ReorderPhotosRequest;
 import com.yuesaohub.platform.userservice.dto.UpdateProfileRequest;
 import com.yuesaohub.platform.userservice.dto.UserDto;
+import com.yuesaohub.platform.userservice.dto.UserImportResultDto;
+import com.yuesaohub.platform.userservice.dto.UserPhotoDto;
+import com.yuesaohub.platform.userservice.entity.PhotoKind;
 import com.yuesaohub.platform.userservice.entity.UserType;
+import com.yuesaohub.platform.userservice.service.UserImportService;
+import com.yuesaohub.platform.userservice.service.UserPhotoService;
 import com.yuesaohub.platform.userservice.service.UserService;
 import com.yuesaohub.platform.shared.dto.ApiResponse;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -24,9 +35,16 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final UserImportService userImportService;
+    private final UserPhotoService userPhotoService;
+    private final HttpCacheProperties httpCacheProperties;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserImportService userImportService,
+                          UserPhotoService userPhotoService, HttpCacheProperties httpCacheProperties) {
         this.userService = userService;
+        this.userImportService = userImportService;
+        this.userPhotoService = userPhotoService;
+        this.httpCacheProperties = httpCacheProperties;
     }
 
     @PostMapping
@@ -36,10 +54,21 @@ public class UserController {
             .body(ApiResponse.success(createdUser, "User created successfully"));
     }
 
+    // Bulk import of agency spreadsheets (text/csv with a header row, or application/x-ndjson)
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ApiResponse<UserImportResultDto>> importUsers(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            HttpServletRequest request) throws IOException {
+        UserImportResultDto result = userImportService.importUsers(request.getInputStream(), contentType);
+        return ResponseEntity.ok(ApiResponse.success(result, "Import completed"));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<UserDto>> getUserById(@PathVariable Long id) {
         UserDto user = userService.getUserById(id);
-        return ResponseEntity.ok(ApiResponse.success(user));
+        return ResponseEntity.ok()
+            .cacheControl(httpCacheProperties.publicFor(httpCacheProperties.getProfileMaxAge()))
+            .body(ApiResponse.success(user));
     }
 
     @GetMapping("/firebase/{firebaseUid}")
@@ -93,6 +122,41 @@ public class UserController {
         return ResponseEntity.ok(ApiResponse.success(completion, "Profile completion retrieved"));
     }
 
+    // Photo endpoints: single-photo changes without rewriting the whole list
+
+    @GetMapping("/{id}/photos")
+    public ResponseEntity<ApiResponse<List<UserPhotoDto>>> getPhotos(
+            @PathVariable Long id,
+            @RequestParam(required = false) PhotoKind kind) {
+        List<UserPhotoDto> photos = userPhotoService.getPhotos(id, kind);
+        return ResponseEntity.ok(ApiResponse.success(photos));
+    }
+
+    @PostMapping("/firebase/{firebaseUid}/photos")
+    public ResponseEntity<ApiResponse<UserPhotoDto>> appendPhoto(
+            @PathVariable String firebaseUid,
+            @Valid @RequestBody AddPhotoRequest request) {
+        UserPhotoDto photo = userPhotoService.appendPhoto(firebaseUid, request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+            .body(ApiResponse.success(photo, "Photo added successfully"));
+    }
+
+    @DeleteMapping("/firebase/{firebaseUid}/photos/{photoId}")
+    public ResponseEntity<ApiResponse<Void>> removePhoto(
+            @PathVariable String firebaseUid,
+            @PathVariable Long photoId) {
+        userPhotoService.removePhoto(firebaseUid, photoId);
+        return ResponseEntity.ok(ApiResponse.success(null, "Photo removed successfully"));
+    }
+
+    @PutMapping("/firebase/{firebaseUid}/photos/order")
+    public ResponseEntity<ApiResponse<List<UserPhotoDto>>> reorderPhotos(
+            @PathVariable String firebaseUid,
+            @Valid @RequestBody ReorderPhotosRequest request) {
+        List<UserPhotoDto> photos = userPhotoService.reorderPhotos(firebaseUid, request.getKind(), request.getPhotoIds());
+        return ResponseEntity.ok(ApiResponse.success(photos, "Photos reordered successfully"));
+    }
+
     // Specialized endpoints for caregivers
     
     @GetMapping("/caregivers")
@@ -140,6 +204,8 @@ public class UserController {
         SearchResultsDto<CaregiverSearchItemDto> results = userService.searchCaregivers(
             province, languages, services, specializations, minExperience, available, ageMin, ageMax, page, size, sort
         );
-        return ResponseEntity.ok(ApiResponse.success(results));
+        return ResponseEntity.ok()
+            .cacheControl(httpCacheProperties.publicFor(httpCacheProperties.getSearchMaxAge()))
+            .body(ApiResponse.success(results));
     }
 }
@@ -0,0 +1,61 @@
+package com.yuesaohub.platform.userservice.datasource;
+
+import com.yuesaohub.platform.shared.event.BaseEvent;
+import com.yuesaohub.platform.shared.event.codec.EventCodecs;
+import com.yuesaohub.platform.shared.event.user.UserProfileUpdatedEvent;
+import com.yuesaohub.platform.userservice.config.RabbitConfig;
+import com.yuesaohub.platform.userservice.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.ExchangeTypes;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.Exchange;
+import org.springframework.amqp.rabbit.annotation.Queue;
+import org.springframework.amqp.rabbit.annotation.QueueBinding;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies profile writes made on any instance to this one. The second-level cache and the
+ * read-your-writes window are both local, so each instance listens to user.profile.updated
+ * on its own auto-delete queue, evicts the cached user and starts the writer's stickiness.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.peer-invalidation-enabled", havingValue = "true", matchIfMissing = true)
+public class PeerWriteListener {
+
+    private static final Logger log = LoggerFactory.getLogger(PeerWriteListener.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ReadYourWritesTracker tracker;
+    private final EventCodecs eventCodecs;
+
+    public PeerWriteListener(EntityManagerFactory entityManagerFactory, ReadYourWritesTracker tracker,
+                             EventCodecs eventCodecs) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.tracker = tracker;
+        this.eventCodecs = eventCodecs;
+    }
+
+    @RabbitListener(bindings = @QueueBinding(
+        value = @Queue,
+        exchange = @Exchange(name = RabbitConfig.USER_EXCHANGE, type = ExchangeTypes.TOPIC),
+        key = RabbitConfig.USER_PROFILE_UPDATED_ROUTING_KEY))
+    public void onMessage(Message message) {
+        BaseEvent event;
+        try {
+            event = eventCodecs.forContentType(message.getMessageProperties().getContentType())
+                .decode(message.getBody());
+        } catch (RuntimeException e) {
+            // Requeueing would only loop; the region TTL still bounds staleness
+            log.warn("Ignoring undecodable profile update: {}", e.getMessage());
+            return;
+        }
+        if (event instanceof UserProfileUpdatedEvent updated) {
+            entityManagerFactory.getCache().evict(User.class, updated.getUserId());
+            tracker.recordWrite(updated.getFirebaseUid());
+        }
+    }
+}
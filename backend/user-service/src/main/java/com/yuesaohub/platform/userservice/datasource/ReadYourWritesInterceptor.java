@@ -0,0 +1,31 @@
+package com.yuesaohub.platform.userservice.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Pins the whole request to the primary when the caller (X-User-ID, set by the gateway
+ * from the verified Firebase token) wrote their own profile within the stickiness window.
+ */
+@Component
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+    private final ReadYourWritesTracker tracker;
+
+    public ReadYourWritesInterceptor(ReadYourWritesTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ReadYourWritesTracker.pinToPrimary(tracker.isSticky(request.getHeader("X-User-ID")));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReadYourWritesTracker.pinToPrimary(false);
+    }
+}
@@ -0,0 +1,64 @@
+package com.yuesaohub.platform.userservice.datasource;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers users who just changed their own profile so that their next reads are
+ * served by the primary instead of a replica that may not have replayed the write yet.
+ * Also carries the per-request "pin to primary" flag consulted by the routing data source.
+ * The window is per instance: profile updates from other instances are recorded here by
+ * {@link PeerWriteListener}, photo writes only on the instance that made them.
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private final Map<String, Long> stickyUntil = new ConcurrentHashMap<>();
+    private final long windowNanos;
+
+    public ReadYourWritesTracker(ReplicaRoutingProperties properties) {
+        this.windowNanos = properties.getReadYourWritesWindow().toNanos();
+    }
+
+    public void recordWrite(String firebaseUid) {
+        if (firebaseUid != null) {
+            stickyUntil.put(firebaseUid, System.nanoTime() + windowNanos);
+        }
+    }
+
+    public boolean isSticky(String firebaseUid) {
+        if (firebaseUid == null) {
+            return false;
+        }
+        Long until = stickyUntil.get(firebaseUid);
+        if (until == null) {
+            return false;
+        }
+        if (until - System.nanoTime() > 0) {
+            return true;
+        }
+        stickyUntil.remove(firebaseUid, until);
+        return false;
+    }
+
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        stickyUntil.entrySet().removeIf(entry -> entry.getValue() - now <= 0);
+    }
+
+    public static void pinToPrimary(boolean pinned) {
+        if (pinned) {
+            PINNED_TO_PRIMARY.set(Boolean.TRUE);
+        } else {
+            PINNED_TO_PRIMARY.remove();
+        }
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PINNED_TO_PRIMARY.get() != null;
+    }
+}
@@ -0,0 +1,80 @@
+package com.yuesaohub.platform.userservice.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Periodically measures replay lag on every replica and publishes the set of replicas
+ * that are reachable and within {@code app.datasource.routing.max-lag}. With no healthy
+ * replica all reads fall back to the primary.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    // Caught up means nothing received is left to replay, which only holds while the WAL
+    // receiver is streaming. Without it there is no telling what the primary has since
+    // committed, so the age of the last replayed transaction is the lag.
+    private static final String LAG_SQL = """
+        SELECT CASE
+            WHEN NOT pg_is_in_recovery() THEN 0
+            WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming')
+                THEN COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp())::float8, 'Infinity'::float8)
+            WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+            ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp())::float8, 0)
+        END
+        """;
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final Map<String, DataSource> replicas;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final double maxLagSeconds;
+
+    public ReplicaLagMonitor(ReplicaRoutingDataSource routingDataSource,
+                             ReadYourWritesTracker readYourWritesTracker, ReplicaRoutingProperties properties) {
+        this.routingDataSource = routingDataSource;
+        this.replicas = routingDataSource.getReplicas();
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.maxLagSeconds = properties.getMaxLag().toMillis() / 1000.0;
+    }
+
+    @Scheduled(fixedDelayString = "#{T(org.springframework.boot.convert.DurationStyle)"
+        + ".detectAndParse('${app.datasource.routing.lag-check-interval:5s}').toMillis()}")
+    public void checkReplicas() {
+        List<String> healthy = new ArrayList<>();
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            double lag = measureLagSeconds(replica.getKey(), replica.getValue());
+            if (lag >= 0 && lag <= maxLagSeconds) {
+                healthy.add(replica.getKey());
+            } else if (lag > maxLagSeconds) {
+                log.warn("Replica {} is {}s behind the primary, routing its reads to the primary", replica.getKey(), lag);
+            }
+        }
+        if (!healthy.equals(routingDataSource.getHealthyReplicas())) {
+            log.info("Healthy read replicas: {}", healthy);
+        }
+        routingDataSource.setHealthyReplicas(healthy);
+        readYourWritesTracker.purgeExpired();
+    }
+
+    private double measureLagSeconds(String name, DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(LAG_SQL)) {
+            rs.next();
+            return rs.getDouble(1);
+        } catch (Exception e) {
+            log.warn("Replica {} is unreachable: {}", name, e.getMessage());
+            return -1;
+        }
+    }
+}
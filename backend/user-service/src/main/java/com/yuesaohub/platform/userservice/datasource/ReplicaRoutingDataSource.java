@@ -0,0 +1,70 @@
+package com.yuesaohub.platform.userservice.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a healthy replica (round robin) and everything else,
+ * including reads pinned by read-your-writes, to the primary. Must sit behind a
+ * LazyConnectionDataSourceProxy so the lookup happens after the transaction's
+ * read-only flag is known.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    public static final String PRIMARY = "primary";
+
+    private final Map<String, DataSource> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile List<String> healthyReplicas = List.of();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas) {
+        this.replicas = Map.copyOf(replicas);
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || ReadYourWritesTracker.isPinnedToPrimary()) {
+            return PRIMARY;
+        }
+        List<String> replicas = healthyReplicas;
+        if (replicas.isEmpty()) {
+            return PRIMARY;
+        }
+        return replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+    }
+
+    Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    void setHealthyReplicas(List<String> healthyReplicas) {
+        this.healthyReplicas = List.copyOf(healthyReplicas);
+    }
+
+    List<String> getHealthyReplicas() {
+        return healthyReplicas;
+    }
+
+    // The primary is a bean of its own; only the replica pools are owned here
+    @Override
+    public void close() throws IOException {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
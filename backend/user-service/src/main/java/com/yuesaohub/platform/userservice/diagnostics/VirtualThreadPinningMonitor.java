@@ -0,0 +1,115 @@
+package com.yuesaohub.platform.userservice.diagnostics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Streams JFR {@code jdk.VirtualThreadPinned} events while virtual threads are enabled.
+ * A virtual thread that blocks inside a synchronized block (or native frame) pins its
+ * carrier thread; a few such paths in JDBC/AMQP code are enough to starve the small
+ * carrier pool. Each pin longer than the threshold is logged with its stack and counted,
+ * tagged by the library it happened in.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true", matchIfMissing = false)
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 12;
+
+    // Package prefix -> tag value; first match walking down the stack wins
+    private static final List<String[]> LIBRARIES = List.of(
+        new String[] {"org.postgresql.", "postgresql"},
+        new String[] {"com.zaxxer.hikari.", "hikari"},
+        new String[] {"com.rabbitmq.", "amqp-client"},
+        new String[] {"org.springframework.amqp.", "spring-amqp"},
+        new String[] {"org.hibernate.", "hibernate"},
+        new String[] {"com.yuesaohub.", "application"}
+    );
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${app.virtual-threads.pinning-threshold:20ms}") Duration threshold) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+    }
+
+    @PostConstruct
+    public void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+        log.info("Virtual thread pinning monitor started (threshold {})", threshold);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace != null ? stackTrace.getFrames() : List.of();
+        String library = libraryOf(frames);
+
+        Counter.builder("jvm.threads.virtual.pinned")
+            .description("Virtual thread pins longer than the configured threshold")
+            .tag("library", library)
+            .register(meterRegistry)
+            .increment();
+        Timer.builder("jvm.threads.virtual.pinned.duration")
+            .tag("library", library)
+            .register(meterRegistry)
+            .record(event.getDuration());
+
+        if (log.isWarnEnabled()) {
+            String stack = frames.stream()
+                .filter(frame -> frame.getMethod() != null)
+                .limit(LOGGED_FRAMES)
+                .map(frame -> "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                    + "(line " + frame.getLineNumber() + ")")
+                .collect(Collectors.joining("\n"));
+            log.warn("Virtual thread pinned its carrier for {} ms in {}:\n{}",
+                event.getDuration().toMillis(), library, stack);
+        }
+    }
+
+    private String libraryOf(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            if (frame.getMethod() == null) {
+                continue;
+            }
+            String className = frame.getMethod().getType().getName();
+            for (String[] library : LIBRARIES) {
+                if (className.startsWith(library[0])) {
+                    return library[1];
+                }
+            }
+        }
+        return "other";
+    }
+}
@@ -0,0 +1,68 @@
+package com.yuesaohub.platform.userservice.dto;
+
+import com.yuesaohub.platform.userservice.entity.PhotoKind;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public class AddPhotoRequest {
+    @NotNull(message = "Photo kind is required")
+    private PhotoKind kind;
+
+    @NotBlank(message = "Photo URL is required")
+    @Size(max = 500, message = "Photo URL cannot exceed 500 characters")
+    private String url;
+
+    @Size(max = 500, message = "Thumbnail URL cannot exceed 500 characters")
+    private String thumbnailUrl;
+
+    @Min(value = 1, message = "Width must be positive")
+    private Integer width;
+
+    @Min(value = 1, message = "Height must be positive")
+    private Integer height;
+
+    public AddPhotoRequest() {}
+
+    public PhotoKind getKind() {
+        return kind;
+    }
+
+    public void setKind(PhotoKind kind) {
+        this.kind = kind;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getThumbnailUrl() {
+        return thumbnailUrl;
+    }
+
+    public void setThumbnailUrl(String thumbnailUrl) {
+        this.thumbnailUrl = thumbnailUrl;
+    }
+
+    public Integer getWidth() {
+        return width;
+    }
+
+    public void setWidth(Integer width) {
+        this.width = width;
+    }
+
+    public Integer getHeight() {
+        return height;
+    }
+
+    public void setHeight(Integer height) {
+        this.height = height;
+    }
+}
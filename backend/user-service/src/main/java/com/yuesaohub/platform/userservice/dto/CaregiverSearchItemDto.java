@@ -6,6 +6,7 @@ public class CaregiverSearchItemDto {
     private Long id;
     private String displayName;
     private String profilePhotoUrl;
+    private String coverPhotoUrl;
     private String province;
     private String languages;
     private String servicesOffered;
@@ -25,6 +26,9 @@ public class CaregiverSearchItemDto {
     public String getProfilePhotoUrl() { return profilePhotoUrl; }
     public void setProfilePhotoUrl(String profilePhotoUrl) { this.profilePhotoUrl = profilePhotoUrl; }
 
+    public String getCoverPhotoUrl() { return coverPhotoUrl; }
+    public void setCoverPhotoUrl(String coverPhotoUrl) { this.coverPhotoUrl = coverPhotoUrl; }
+
     public String getProvince() { return province; }
     public void setProvince(String province) { this.province = province; }
 
@@ -0,0 +1,37 @@
+package com.yuesaohub.platform.userservice.dto;
+
+import com.yuesaohub.platform.userservice.entity.PhotoKind;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * New display order for one photo list: every photo ID of that kind, first to last
+ */
+public class ReorderPhotosRequest {
+    @NotNull(message = "Photo kind is required")
+    private PhotoKind kind;
+
+    @NotEmpty(message = "Photo IDs are required")
+    private List<Long> photoIds;
+
+    public ReorderPhotosRequest() {}
+
+    public PhotoKind getKind() {
+        return kind;
+    }
+
+    public void setKind(PhotoKind kind) {
+        this.kind = kind;
+    }
+
+    public List<Long> getPhotoIds() {
+        return photoIds;
+    }
+
+    public void setPhotoIds(List<Long> photoIds) {
+        this.photoIds = photoIds;
+    }
+}
@@ -0,0 +1,210 @@
+package com.yuesaohub.platform.userservice.dto;
+
+import com.yuesaohub.platform.userservice.entity.UserType;
+
+import jakarta.validation.constraints.*;
+
+import java.math.BigDecimal;
+
+/**
+ * One row of a bulk caregiver import (a CSV record or an NDJSON line)
+ */
+public class UserImportRecord {
+
+    // Core Identity
+    @NotBlank(message = "Firebase UID is required")
+    @Size(max = 255, message = "Firebase UID cannot exceed 255 characters")
+    private String firebaseUid;
+
+    @Email(message = "Invalid email format")
+    @NotBlank(message = "Email is required")
+    @Size(max = 255, message = "Email cannot exceed 255 characters")
+    private String email;
+
+    @NotNull(message = "User type is required")
+    private UserType userType;
+
+    // Basic Information
+    @Size(max = 255, message = "Full name cannot exceed 255 characters")
+    private String fullName;
+
+    @Size(max = 255, message = "Display name cannot exceed 255 characters")
+    private String displayName;
+
+    @Min(value = 18, message = "Age must be at least 18")
+    @Max(value = 100, message = "Age cannot exceed 100")
+    private Integer age;
+
+    // Contact Information
+    @Pattern(regexp = "^[+]?[0-9]{10,15}$", message = "Invalid phone number format")
+    private String primaryPhone;
+
+    @Size(max = 100, message = "WeChat ID cannot exceed 100 characters")
+    private String wechatId;
+
+    // Location
+    @Size(max = 100, message = "City cannot exceed 100 characters")
+    private String city;
+
+    @Size(max = 100, message = "Province cannot exceed 100 characters")
+    private String province;
+
+    @Size(max = 100, message = "Country cannot exceed 100 characters")
+    private String country;
+
+    // Professional Information
+    @Min(value = 0, message = "Years of experience cannot be negative")
+    @Max(value = 50, message = "Years of experience cannot exceed 50")
+    private Integer yearsOfExperience;
+
+    private String languages;
+    private String specializations;
+    private String servicesOffered;
+
+    @DecimalMin(value = "0.0", message = "Hourly rate cannot be negative")
+    @DecimalMax(value = "1000.0", message = "Hourly rate cannot exceed 1000")
+    private BigDecimal hourlyRate;
+
+    // Rich Content
+    @Size(max = 2000, message = "About me cannot exceed 2000 characters")
+    private String aboutMe;
+
+    public UserImportRecord() {}
+
+    // Getters and Setters
+    public String getFirebaseUid() {
+        return firebaseUid;
+    }
+
+    public void setFirebaseUid(String firebaseUid) {
+        this.firebaseUid = firebaseUid;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public UserType getUserType() {
+        return userType;
+    }
+
+    public void setUserType(UserType userType) {
+        this.userType = userType;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    public void setFullName(String fullName) {
+        this.fullName = fullName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public void setDisplayName(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public Integer getAge() {
+        return age;
+    }
+
+    public void setAge(Integer age) {
+        this.age = age;
+    }
+
+    public String getPrimaryPhone() {
+        return primaryPhone;
+    }
+
+    public void setPrimaryPhone(String primaryPhone) {
+        this.primaryPhone = primaryPhone;
+    }
+
+    public String getWechatId() {
+        return wechatId;
+    }
+
+    public void setWechatId(String wechatId) {
+        this.wechatId = wechatId;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public String getProvince() {
+        return province;
+    }
+
+    public void setProvince(String province) {
+        this.province = province;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public void setCountry(String country) {
+        this.country = country;
+    }
+
+    public Integer getYearsOfExperience() {
+        return yearsOfExperience;
+    }
+
+    public void setYearsOfExperience(Integer yearsOfExperience) {
+        this.yearsOfExperience = yearsOfExperience;
+    }
+
+    public String getLanguages() {
+        return languages;
+    }
+
+    public void setLanguages(String languages) {
+        this.languages = languages;
+    }
+
+    public String getSpecializations() {
+        return specializations;
+    }
+
+    public void setSpecializations(String specializations) {
+        this.specializations = specializations;
+    }
+
+    public String getServicesOffered() {
+        return servicesOffered;
+    }
+
+    public void setServicesOffered(String servicesOffered) {
+        this.servicesOffered = servicesOffered;
+    }
+
+    public BigDecimal getHourlyRate() {
+        return hourlyRate;
+    }
+
+    public void setHourlyRate(BigDecimal hourlyRate) {
+        this.hourlyRate = hourlyRate;
+    }
+
+    public String getAboutMe() {
+        return aboutMe;
+    }
+
+    public void setAboutMe(String aboutMe) {
+        this.aboutMe = aboutMe;
+    }
+}
@@ -0,0 +1,60 @@
+package com.yuesaohub.platform.userservice.dto;
+
+import java.util.List;
+
+public class UserImportResultDto {
+    private long totalRows;
+    private long importedRows;
+    private long duplicateRows;
+    private long failedRows;
+    private List<RowError> errors;
+    private boolean errorsTruncated;
+
+    public UserImportResultDto() {}
+
+    public UserImportResultDto(long totalRows, long importedRows, long duplicateRows, long failedRows,
+                               List<RowError> errors, boolean errorsTruncated) {
+        this.totalRows = totalRows;
+        this.importedRows = importedRows;
+        this.duplicateRows = duplicateRows;
+        this.failedRows = failedRows;
+        this.errors = errors;
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    public long getTotalRows() { return totalRows; }
+    public void setTotalRows(long totalRows) { this.totalRows = totalRows; }
+
+    public long getImportedRows() { return importedRows; }
+    public void setImportedRows(long importedRows) { this.importedRows = importedRows; }
+
+    public long getDuplicateRows() { return duplicateRows; }
+    public void setDuplicateRows(long duplicateRows) { this.duplicateRows = duplicateRows; }
+
+    public long getFailedRows() { return failedRows; }
+    public void setFailedRows(long failedRows) { this.failedRows = failedRows; }
+
+    public List<RowError> getErrors() { return errors; }
+    public void setErrors(List<RowError> errors) { this.errors = errors; }
+
+    public boolean isErrorsTruncated() { return errorsTruncated; }
+    public void setErrorsTruncated(boolean errorsTruncated) { this.errorsTruncated = errorsTruncated; }
+
+    public static class RowError {
+        private long lineNumber;
+        private String message;
+
+        public RowError() {}
+
+        public RowError(long lineNumber, String message) {
+            this.lineNumber = lineNumber;
+            this.message = message;
+        }
+
+        public long getLineNumber() { return lineNumber; }
+        public void setLineNumber(long lineNumber) { this.lineNumber = lineNumber; }
+
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+    }
+}
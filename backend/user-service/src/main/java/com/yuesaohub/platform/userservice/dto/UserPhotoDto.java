@@ -0,0 +1,34 @@
+package com.yuesaohub.platform.userservice.dto;
+
+import com.yuesaohub.platform.userservice.entity.PhotoKind;
+
+public class UserPhotoDto {
+    private Long id;
+    private PhotoKind kind;
+    private Integer position;
+    private String url;
+    private String thumbnailUrl;
+    private Integer width;
+    private Integer height;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public PhotoKind getKind() { return kind; }
+    public void setKind(PhotoKind kind) { this.kind = kind; }
+
+    public Integer getPosition() { return position; }
+    public void setPosition(Integer position) { this.position = position; }
+
+    public String getUrl() { return url; }
+    public void setUrl(String url) { this.url = url; }
+
+    public String getThumbnailUrl() { return thumbnailUrl; }
+    public void setThumbnailUrl(String thumbnailUrl) { this.thumbnailUrl = thumbnailUrl; }
+
+    public Integer getWidth() { return width; }
+    public void setWidth(Integer width) { this.width = width; }
+
+    public Integer getHeight() { return height; }
+    public void setHeight(Integer height) { this.height = height; }
+}
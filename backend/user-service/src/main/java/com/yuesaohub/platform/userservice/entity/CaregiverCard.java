@@ -0,0 +1,158 @@
+package com.yuesaohub.platform.userservice.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Denormalized read model behind caregiver search and list views: one narrow row per
+ * caregiver holding only what a card shows, lowercased tag text for filtering and
+ * non-null sort keys. Rows are rebuilt from {@code users} by
+ * {@code CaregiverCardRepository#upsertFromUsers} in the same transaction as every
+ * write, so the entity is read-only here.
+ */
+@Entity
+@Immutable
+@Table(name = "caregiver_cards")
+public class CaregiverCard {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    // Card content
+    @Column(name = "display_name")
+    private String displayName;
+
+    @Column(name = "profile_photo_url", length = 500)
+    private String profilePhotoUrl;
+
+    @Column(name = "cover_photo_url", length = 500)
+    private String coverPhotoUrl;
+
+    @Column(length = 100)
+    private String province;
+
+    @Column(columnDefinition = "TEXT")
+    private String languages;
+
+    @Column(name = "services_offered", columnDefinition = "TEXT")
+    private String servicesOffered;
+
+    @Column(columnDefinition = "TEXT")
+    private String specializations;
+
+    @Column(name = "years_of_experience")
+    private Integer yearsOfExperience;
+
+    private Integer age;
+
+    @Column(name = "total_rating", precision = 2, scale = 1)
+    private BigDecimal totalRating;
+
+    @Column(name = "total_reviews")
+    private Integer totalReviews;
+
+    @Column(name = "is_active")
+    private Boolean isActive;
+
+    // Normalized tags: lowercased, JSON punctuation stripped, separators collapsed to ','
+    @Column(name = "language_tags", columnDefinition = "TEXT")
+    private String languageTags;
+
+    @Column(name = "service_tags", columnDefinition = "TEXT")
+    private String serviceTags;
+
+    @Column(name = "specialization_tags", columnDefinition = "TEXT")
+    private String specializationTags;
+
+    // Sort keys
+    @Column(name = "profile_completion_percentage", nullable = false)
+    private Integer profileCompletionPercentage;
+
+    @Column(name = "experience_rank", nullable = false)
+    private Integer experienceRank;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public CaregiverCard() {}
+
+    // Getters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public String getProfilePhotoUrl() {
+        return profilePhotoUrl;
+    }
+
+    public String getCoverPhotoUrl() {
+        return coverPhotoUrl;
+    }
+
+    public String getProvince() {
+        return province;
+    }
+
+    public String getLanguages() {
+        return languages;
+    }
+
+    public String getServicesOffered() {
+        return servicesOffered;
+    }
+
+    public String getSpecializations() {
+        return specializations;
+    }
+
+    public Integer getYearsOfExperience() {
+        return yearsOfExperience;
+    }
+
+    public Integer getAge() {
+        return age;
+    }
+
+    public BigDecimal getTotalRating() {
+        return totalRating;
+    }
+
+    public Integer getTotalReviews() {
+        return totalReviews;
+    }
+
+    public Boolean getIsActive() {
+        return isActive;
+    }
+
+    public String getLanguageTags() {
+        return languageTags;
+    }
+
+    public String getServiceTags() {
+        return serviceTags;
+    }
+
+    public String getSpecializationTags() {
+        return specializationTags;
+    }
+
+    public Integer getProfileCompletionPercentage() {
+        return profileCompletionPercentage;
+    }
+
+    public Integer getExperienceRank() {
+        return experienceRank;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
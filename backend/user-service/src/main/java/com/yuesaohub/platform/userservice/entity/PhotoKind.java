@@ -0,0 +1,6 @@
+package com.yuesaohub.platform.userservice.entity;
+
+public enum PhotoKind {
+    GALLERY,     // 生活/工作照片
+    CERTIFICATE  // 证书照片
+}
@@ -1,11 +1,19 @@
 package com.yuesaohub.platform.userservice.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@NaturalIdCache(region = "users-natural-id")
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -17,6 +25,7 @@ public class User {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @NaturalId
     @Column(name = "firebase_uid", unique = true, nullable = false)
     private String firebaseUid;
 
@@ -62,9 +71,6 @@ public class User {
     @Column(length = 100)
     private String country = "China";
 
-    @Column(name = "service_areas", columnDefinition = "TEXT")
-    private String serviceAreas;
-
     @Column(name = "current_location")
     private String currentLocation;
 
@@ -90,26 +96,6 @@ public class User {
     @Column(name = "hourly_rate", precision = 10, scale = 2)
     private BigDecimal hourlyRate;
 
-    // Rich Content
-    @Column(name = "about_me", columnDefinition = "TEXT")
-    private String aboutMe;
-
-    @Column(name = "professional_experience", columnDefinition = "TEXT")
-    private String professionalExperience;
-
-    @Column(name = "education_background", columnDefinition = "TEXT")
-    private String educationBackground;
-
-    @Column(name = "special_skills", columnDefinition = "TEXT")
-    private String specialSkills;
-
-    // Media (JSON arrays stored as text)
-    @Column(name = "gallery_photos", columnDefinition = "TEXT")
-    private String galleryPhotos;
-
-    @Column(name = "certificates_photos", columnDefinition = "TEXT")
-    private String certificatesPhotos;
-
     // Social Proof
     @Column(name = "total_rating", precision = 2, scale = 1)
     private BigDecimal totalRating = BigDecimal.valueOf(0.0);
@@ -137,6 +123,11 @@ public class User {
     @Column(name = "verification_status", length = 20)
     private VerificationStatus verificationStatus = VerificationStatus.UNVERIFIED;
 
+    // Bumped on every profile change; carried in UserProfileUpdatedEvent
+    @Version
+    @Column(name = "profile_version", nullable = false)
+    private Long profileVersion;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -291,14 +282,6 @@ public class User {
         this.country = country;
     }
 
-    public String getServiceAreas() {
-        return serviceAreas;
-    }
-
-    public void setServiceAreas(String serviceAreas) {
-        this.serviceAreas = serviceAreas;
-    }
-
     public String getCurrentLocation() {
         return currentLocation;
     }
@@ -364,56 +347,6 @@ public class User {
         this.hourlyRate = hourlyRate;
     }
 
-    // Rich Content
-    public String getAboutMe() {
-        return aboutMe;
-    }
-
-    public void setAboutMe(String aboutMe) {
-        this.aboutMe = aboutMe;
-    }
-
-    public String getProfessionalExperience() {
-        return professionalExperience;
-    }
-
-    public void setProfessionalExperience(String professionalExperience) {
-        this.professionalExperience = professionalExperience;
-    }
-
-    public String getEducationBackground() {
-        return educationBackground;
-    }
-
-    public void setEducationBackground(String educationBackground) {
-        this.educationBackground = educationBackground;
-    }
-
-    public String getSpecialSkills() {
-        return specialSkills;
-    }
-
-    public void setSpecialSkills(String specialSkills) {
-        this.specialSkills = specialSkills;
-    }
-
-    // Media
-    public String getGalleryPhotos() {
-        return galleryPhotos;
-    }
-
-    public void setGalleryPhotos(String galleryPhotos) {
-        this.galleryPhotos = galleryPhotos;
-    }
-
-    public String getCertificatesPhotos() {
-        return certificatesPhotos;
-    }
-
-    public void setCertificatesPhotos(String certificatesPhotos) {
-        this.certificatesPhotos = certificatesPhotos;
-    }
-
     // Social Proof
     public BigDecimal getTotalRating() {
         return totalRating;
@@ -479,4 +412,8 @@ public class User {
     public void setVerificationStatus(VerificationStatus verificationStatus) {
         this.verificationStatus = verificationStatus;
     }
+
+    public Long getProfileVersion() {
+        return profileVersion;
+    }
 }
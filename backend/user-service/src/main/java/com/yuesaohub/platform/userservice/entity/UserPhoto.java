@@ -0,0 +1,129 @@
+package com.yuesaohub.platform.userservice.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One gallery or certificate photo. Photos are stored as ordered child rows so a
+ * single photo can be appended, removed or moved without rewriting the whole list,
+ * and list views can fetch just the first one.
+ */
+@Entity
+@Table(name = "user_photos", indexes = {
+    @Index(name = "idx_user_photos_user_kind_position", columnList = "user_id, kind, position")
+})
+public class UserPhoto {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private PhotoKind kind;
+
+    @Column(nullable = false)
+    private Integer position;
+
+    @Column(nullable = false, length = 500)
+    private String url;
+
+    @Column(name = "thumbnail_url", length = 500)
+    private String thumbnailUrl;
+
+    private Integer width;
+
+    private Integer height;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public UserPhoto() {}
+
+    public UserPhoto(Long userId, PhotoKind kind, Integer position, String url) {
+        this.userId = userId;
+        this.kind = kind;
+        this.position = position;
+        this.url = url;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public PhotoKind getKind() {
+        return kind;
+    }
+
+    public void setKind(PhotoKind kind) {
+        this.kind = kind;
+    }
+
+    public Integer getPosition() {
+        return position;
+    }
+
+    public void setPosition(Integer position) {
+        this.position = position;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getThumbnailUrl() {
+        return thumbnailUrl;
+    }
+
+    public void setThumbnailUrl(String thumbnailUrl) {
+        this.thumbnailUrl = thumbnailUrl;
+    }
+
+    public Integer getWidth() {
+        return width;
+    }
+
+    public void setWidth(Integer width) {
+        this.width = width;
+    }
+
+    public Integer getHeight() {
+        return height;
+    }
+
+    public void setHeight(Integer height) {
+        this.height = height;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
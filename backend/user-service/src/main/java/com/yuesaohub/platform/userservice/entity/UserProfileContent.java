@@ -0,0 +1,99 @@
+package com.yuesaohub.platform.userservice.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Rich, rarely-filtered profile content kept out of the {@code users} row so that
+ * search and list queries only touch the narrow searchable columns. Loaded only
+ * for the full profile view and for profile updates.
+ */
+@Entity
+@Table(name = "user_profile_content")
+public class UserProfileContent {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id")
+    private User user;
+
+    // Location & Service
+    @Column(name = "service_areas", columnDefinition = "TEXT")
+    private String serviceAreas;
+
+    // Rich Content
+    @Column(name = "about_me", columnDefinition = "TEXT")
+    private String aboutMe;
+
+    @Column(name = "professional_experience", columnDefinition = "TEXT")
+    private String professionalExperience;
+
+    @Column(name = "education_background", columnDefinition = "TEXT")
+    private String educationBackground;
+
+    @Column(name = "special_skills", columnDefinition = "TEXT")
+    private String specialSkills;
+
+    public UserProfileContent() {}
+
+    public UserProfileContent(User user) {
+        this.user = user;
+    }
+
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    // Location & Service
+    public String getServiceAreas() {
+        return serviceAreas;
+    }
+
+    public void setServiceAreas(String serviceAreas) {
+        this.serviceAreas = serviceAreas;
+    }
+
+    // Rich Content
+    public String getAboutMe() {
+        return aboutMe;
+    }
+
+    public void setAboutMe(String aboutMe) {
+        this.aboutMe = aboutMe;
+    }
+
+    public String getProfessionalExperience() {
+        return professionalExperience;
+    }
+
+    public void setProfessionalExperience(String professionalExperience) {
+        this.professionalExperience = professionalExperience;
+    }
+
+    public String getEducationBackground() {
+        return educationBackground;
+    }
+
+    public void setEducationBackground(String educationBackground) {
+        this.educationBackground = educationBackground;
+    }
+
+    public String getSpecialSkills() {
+        return specialSkills;
+    }
+
+    public void setSpecialSkills(String specialSkills) {
+        this.specialSkills = specialSkills;
+    }
+}
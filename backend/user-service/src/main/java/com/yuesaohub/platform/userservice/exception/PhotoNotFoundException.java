@@ -0,0 +1,8 @@
+package com.yuesaohub.platform.userservice.exception;
+
+public class PhotoNotFoundException extends RuntimeException {
+
+    public PhotoNotFoundException(Long photoId) {
+        super("Photo not found with id: " + photoId);
+    }
+}
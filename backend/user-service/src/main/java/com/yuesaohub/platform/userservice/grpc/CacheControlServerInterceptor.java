@@ -0,0 +1,55 @@
+package com.yuesaohub.platform.userservice.grpc;
+
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.ForwardingServerCall;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Sends the {@code Cache-Control} a handler chose with {@link #set} as a
+ * {@code cache-control} response header, so a read answered over gRPC can be cached as
+ * long as the same read over REST. Calls that set none send no header, as in REST.
+ */
+@Component
+public class CacheControlServerInterceptor implements ServerInterceptor {
+
+    static final Metadata.Key<String> CACHE_CONTROL =
+        Metadata.Key.of("cache-control", Metadata.ASCII_STRING_MARSHALLER);
+
+    private static final Context.Key<AtomicReference<String>> CHOSEN = Context.key("cache-control");
+
+    /**
+     * Chooses the current call's {@code Cache-Control}; a no-op outside a gRPC call.
+     */
+    static void set(CacheControl cacheControl) {
+        AtomicReference<String> chosen = CHOSEN.get();
+        if (chosen != null) {
+            chosen.set(cacheControl.getHeaderValue());
+        }
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        AtomicReference<String> chosen = new AtomicReference<>();
+        ServerCall<ReqT, RespT> withHeader = new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+            @Override
+            public void sendHeaders(Metadata responseHeaders) {
+                // Unary handlers send headers with their response, after choosing
+                String cacheControl = chosen.get();
+                if (cacheControl != null) {
+                    responseHeaders.put(CACHE_CONTROL, cacheControl);
+                }
+                super.sendHeaders(responseHeaders);
+            }
+        };
+        return Contexts.interceptCall(Context.current().withValue(CHOSEN, chosen), withHeader, headers, next);
+    }
+}
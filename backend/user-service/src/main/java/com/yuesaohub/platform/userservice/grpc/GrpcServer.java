@@ -0,0 +1,92 @@
+package com.yuesaohub.platform.userservice.grpc;
+
+import io.grpc.BindableService;
+import io.grpc.Server;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerInterceptors;
+import io.grpc.netty.NettyServerBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves every {@link BindableService} bean over gRPC on {@code app.grpc.port}, next to
+ * the REST API. Started once the context is up and drained on shutdown for up to
+ * {@code app.grpc.shutdown-grace}, like Tomcat. Calls run on virtual threads when
+ * {@code spring.threads.virtual.enabled} is set, as REST requests do; otherwise on
+ * gRPC's default pool. Every {@link ServerInterceptor} bean applies to every service.
+ */
+@Component
+@ConditionalOnProperty(name = "app.grpc.enabled", havingValue = "true", matchIfMissing = true)
+public class GrpcServer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(GrpcServer.class);
+
+    private final Server server;
+    private final ExecutorService executor;
+    private final Duration shutdownGrace;
+    private volatile boolean running;
+
+    public GrpcServer(List<BindableService> services, List<ServerInterceptor> interceptors,
+                      @Value("${app.grpc.port:9091}") int port,
+                      @Value("${app.grpc.shutdown-grace:10s}") Duration shutdownGrace,
+                      @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.shutdownGrace = shutdownGrace;
+        this.executor = virtualThreads ? Executors.newVirtualThreadPerTaskExecutor() : null;
+
+        NettyServerBuilder builder = NettyServerBuilder.forPort(port)
+            // The gateway keeps its channel warm with pings; allow them while idle
+            .permitKeepAliveTime(20, TimeUnit.SECONDS)
+            .permitKeepAliveWithoutCalls(true);
+        if (executor != null) {
+            builder.executor(executor);
+        }
+        services.forEach(service -> builder.addService(ServerInterceptors.intercept(service, interceptors)));
+        this.server = builder.build();
+    }
+
+    @Override
+    public void start() {
+        try {
+            server.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start gRPC server", e);
+        }
+        running = true;
+        log.info("gRPC server started on port {}", server.getPort());
+    }
+
+    @Override
+    public void stop() {
+        server.shutdown();
+        try {
+            if (!server.awaitTermination(shutdownGrace.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("gRPC calls still running after {}, cancelling them", shutdownGrace);
+                server.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            server.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        if (executor != null) {
+            executor.shutdown();
+        }
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
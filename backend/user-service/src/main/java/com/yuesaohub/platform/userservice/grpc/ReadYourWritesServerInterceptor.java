@@ -0,0 +1,79 @@
+package com.yuesaohub.platform.userservice.grpc;
+
+import com.yuesaohub.platform.userservice.datasource.ReadYourWritesTracker;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * gRPC counterpart of {@code ReadYourWritesInterceptor}: pins a call to the primary when
+ * its caller ({@code x-user-id}, sent by the gateway from the verified token) wrote within
+ * the stickiness window. The flag is thread-bound and a call's callbacks may run on
+ * different threads, so it is set around each callback and cleared after it.
+ */
+@Component
+public class ReadYourWritesServerInterceptor implements ServerInterceptor {
+
+    static final Metadata.Key<String> USER_ID = Metadata.Key.of("x-user-id", Metadata.ASCII_STRING_MARSHALLER);
+
+    private final ReadYourWritesTracker tracker;
+
+    public ReadYourWritesServerInterceptor(ReadYourWritesTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        boolean pinned = tracker.isSticky(headers.get(USER_ID));
+        ServerCall.Listener<ReqT> listener = supplyPinned(pinned, () -> next.startCall(call, headers));
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(listener) {
+            @Override
+            public void onMessage(ReqT message) {
+                pinned(pinned, () -> super.onMessage(message));
+            }
+
+            @Override
+            public void onHalfClose() {
+                // Unary handlers run here
+                pinned(pinned, super::onHalfClose);
+            }
+
+            @Override
+            public void onCancel() {
+                pinned(pinned, super::onCancel);
+            }
+
+            @Override
+            public void onComplete() {
+                pinned(pinned, super::onComplete);
+            }
+
+            @Override
+            public void onReady() {
+                pinned(pinned, super::onReady);
+            }
+        };
+    }
+
+    private static void pinned(boolean pinned, Runnable callback) {
+        supplyPinned(pinned, () -> {
+            callback.run();
+            return null;
+        });
+    }
+
+    private static <T> T supplyPinned(boolean pinned, Supplier<T> callback) {
+        ReadYourWritesTracker.pinToPrimary(pinned);
+        try {
+            return callback.get();
+        } finally {
+            ReadYourWritesTracker.pinToPrimary(false);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.yuesaohub.platform.userservice.grpc;
+
+import com.yuesaohub.platform.userapi.v1.CaregiverSearchItem;
+import com.yuesaohub.platform.userapi.v1.SearchCaregiversResponse;
+import com.yuesaohub.platform.userapi.v1.User;
+import com.yuesaohub.platform.userservice.dto.CaregiverSearchItemDto;
+import com.yuesaohub.platform.userservice.dto.SearchResultsDto;
+import com.yuesaohub.platform.userservice.dto.UserDto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Consumer;
+
+/**
+ * DTOs to their protobuf messages. Values are rendered the way Jackson writes them in the
+ * REST responses (ISO local date-times, {@link BigDecimal#toString()}, enum names), so the
+ * gateway can turn a message back into the same JSON.
+ */
+final class UserProtoMapper {
+
+    private UserProtoMapper() {
+    }
+
+    static User toProto(UserDto dto) {
+        User.Builder b = User.newBuilder();
+
+        // Core Identity
+        set(dto.getId(), b::setId);
+        set(format(dto.getCreatedAt()), b::setCreatedAt);
+        set(format(dto.getUpdatedAt()), b::setUpdatedAt);
+        set(dto.getFirebaseUid(), b::setFirebaseUid);
+        set(dto.getEmail(), b::setEmail);
+        set(dto.getUserType() != null ? dto.getUserType().name() : null, b::setUserType);
+
+        // Basic Information
+        set(dto.getFullName(), b::setFullName);
+        set(dto.getDisplayName(), b::setDisplayName);
+        set(dto.getAge(), b::setAge);
+        set(dto.getProfilePhotoUrl(), b::setProfilePhotoUrl);
+
+        // Contact Information
+        set(dto.getPrimaryPhone(), b::setPrimaryPhone);
+        set(dto.getWechatId(), b::setWechatId);
+        set(dto.getWechatQrCodeUrl(), b::setWechatQrCodeUrl);
+        set(dto.getXiaohongshuHandle(), b::setXiaohongshuHandle);
+
+        // Location & Service
+        set(dto.getCity(), b::setCity);
+        set(dto.getProvince(), b::setProvince);
+        set(dto.getCountry(), b::setCountry);
+        set(dto.getServiceAreas(), b::setServiceAreas);
+        set(dto.getCurrentLocation(), b::setCurrentLocation);
+        set(dto.getWillingToRelocate(), b::setWillingToRelocate);
+
+        // Professional Information
+        set(dto.getYearsOfExperience(), b::setYearsOfExperience);
+        set(dto.getLanguages(), b::setLanguages);
+        set(dto.getSpecializations(), b::setSpecializations);
+        set(dto.getCertifications(), b::setCertifications);
+        set(dto.getServicesOffered(), b::setServicesOffered);
+        set(format(dto.getHourlyRate()), b::setHourlyRate);
+
+        // Rich Content
+        set(dto.getAboutMe(), b::setAboutMe);
+        set(dto.getProfessionalExperience(), b::setProfessionalExperience);
+        set(dto.getEducationBackground(), b::setEducationBackground);
+        set(dto.getSpecialSkills(), b::setSpecialSkills);
+
+        // Media
+        set(dto.getGalleryPhotos(), b::setGalleryPhotos);
+        set(dto.getCertificatesPhotos(), b::setCertificatesPhotos);
+
+        // Social Proof
+        set(format(dto.getTotalRating()), b::setTotalRating);
+        set(dto.getTotalReviews(), b::setTotalReviews);
+
+        // Platform Management
+        set(dto.getProfileCompletionPercentage(), b::setProfileCompletionPercentage);
+        set(dto.getIsFeatured(), b::setIsFeatured);
+        set(dto.getIsActive(), b::setIsActive);
+        set(format(dto.getLastActiveAt()), b::setLastActiveAt);
+        set(dto.getProfileViews(), b::setProfileViews);
+        set(dto.getVerificationStatus() != null ? dto.getVerificationStatus().name() : null, b::setVerificationStatus);
+
+        return b.build();
+    }
+
+    static SearchCaregiversResponse toProto(SearchResultsDto<CaregiverSearchItemDto> results) {
+        SearchCaregiversResponse.Builder b = SearchCaregiversResponse.newBuilder()
+            .setTotal(results.getTotal())
+            .setPage(results.getPage())
+            .setSize(results.getSize());
+        if (results.getItems() != null) {
+            results.getItems().forEach(item -> b.addItems(toProto(item)));
+        }
+        return b.build();
+    }
+
+    private static CaregiverSearchItem toProto(CaregiverSearchItemDto dto) {
+        CaregiverSearchItem.Builder b = CaregiverSearchItem.newBuilder();
+        set(dto.getId(), b::setId);
+        set(dto.getDisplayName(), b::setDisplayName);
+        set(dto.getProfilePhotoUrl(), b::setProfilePhotoUrl);
+        set(dto.getCoverPhotoUrl(), b::setCoverPhotoUrl);
+        set(dto.getProvince(), b::setProvince);
+        set(dto.getLanguages(), b::setLanguages);
+        set(dto.getServicesOffered(), b::setServicesOffered);
+        set(dto.getSpecializations(), b::setSpecializations);
+        set(dto.getYearsOfExperience(), b::setYearsOfExperience);
+        set(dto.getAge(), b::setAge);
+        set(dto.getProfileCompletionPercentage(), b::setProfileCompletionPercentage);
+        set(format(dto.getTotalRating()), b::setTotalRating);
+        set(dto.getTotalReviews(), b::setTotalReviews);
+        return b.build();
+    }
+
+    // Null stays unset, so the gateway can tell it from an empty value
+    private static <T> void set(T value, Consumer<T> setter) {
+        if (value != null) {
+            setter.accept(value);
+        }
+    }
+
+    private static String format(LocalDateTime value) {
+        return value != null ? DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value) : null;
+    }
+
+    private static String format(BigDecimal value) {
+        return value != null ? value.toString() : null;
+    }
+}
@@ -0,0 +1,113 @@
+package com.yuesaohub.platform.userservice.grpc;
+
+import com.yuesaohub.platform.shared.exception.UserNotFoundException;
+import com.yuesaohub.platform.userapi.v1.BatchGetUsersRequest;
+import com.yuesaohub.platform.userapi.v1.BatchGetUsersResponse;
+import com.yuesaohub.platform.userapi.v1.GetUserRequest;
+import com.yuesaohub.platform.userapi.v1.SearchCaregiversRequest;
+import com.yuesaohub.platform.userapi.v1.SearchCaregiversResponse;
+import com.yuesaohub.platform.userapi.v1.User;
+import com.yuesaohub.platform.userapi.v1.UserQueryServiceGrpc;
+import com.yuesaohub.platform.userservice.controller.HttpCacheProperties;
+import com.yuesaohub.platform.userservice.dto.UserDto;
+import com.yuesaohub.platform.userservice.service.UserService;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * gRPC face of the hot read endpoints of {@code UserController}, backed by the same
+ * {@link UserService} calls. Errors map the way {@code GlobalExceptionHandler} maps them
+ * for REST: unknown user to NOT_FOUND, bad arguments to INVALID_ARGUMENT. Reads REST marks
+ * cacheable carry the same {@code Cache-Control} (see {@link CacheControlServerInterceptor}).
+ */
+@Component
+public class UserQueryGrpcService extends UserQueryServiceGrpc.UserQueryServiceImplBase {
+
+    private static final Logger log = LoggerFactory.getLogger(UserQueryGrpcService.class);
+
+    // Bounds the profiles (and photo rows) one call can load
+    private static final int MAX_BATCH_SIZE = 100;
+
+    private final UserService userService;
+    private final HttpCacheProperties httpCacheProperties;
+
+    public UserQueryGrpcService(UserService userService, HttpCacheProperties httpCacheProperties) {
+        this.userService = userService;
+        this.httpCacheProperties = httpCacheProperties;
+    }
+
+    @Override
+    public void getUser(GetUserRequest request, StreamObserver<User> responseObserver) {
+        respond(responseObserver, () -> {
+            UserDto user = switch (request.getKeyCase()) {
+                case ID -> {
+                    UserDto byId = userService.getUserById(request.getId());
+                    CacheControlServerInterceptor.set(
+                        httpCacheProperties.publicFor(httpCacheProperties.getProfileMaxAge()));
+                    yield byId;
+                }
+                case FIREBASE_UID -> userService.getUserByFirebaseUid(request.getFirebaseUid());
+                case KEY_NOT_SET -> throw new IllegalArgumentException("Either id or firebase_uid is required");
+            };
+            return UserProtoMapper.toProto(user);
+        });
+    }
+
+    @Override
+    public void batchGetUsers(BatchGetUsersRequest request, StreamObserver<BatchGetUsersResponse> responseObserver) {
+        respond(responseObserver, () -> {
+            if (request.getIdsCount() > MAX_BATCH_SIZE) {
+                throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " ids per batch");
+            }
+            BatchGetUsersResponse.Builder response = BatchGetUsersResponse.newBuilder();
+            userService.getUsersByIds(request.getIdsList())
+                .forEach(user -> response.addUsers(UserProtoMapper.toProto(user)));
+            return response.build();
+        });
+    }
+
+    @Override
+    public void searchCaregivers(SearchCaregiversRequest request,
+                                 StreamObserver<SearchCaregiversResponse> responseObserver) {
+        respond(responseObserver, () -> {
+            SearchCaregiversResponse response = UserProtoMapper.toProto(userService.searchCaregivers(
+                request.hasProvince() ? request.getProvince() : null,
+                request.hasLanguages() ? request.getLanguages() : null,
+                request.hasServices() ? request.getServices() : null,
+                request.hasSpecializations() ? request.getSpecializations() : null,
+                request.hasMinExperience() ? request.getMinExperience() : null,
+                request.hasAvailable() ? request.getAvailable() : null,
+                request.hasAgeMin() ? request.getAgeMin() : null,
+                request.hasAgeMax() ? request.getAgeMax() : null,
+                request.getPage(),
+                request.getSize(),
+                request.getSort().isEmpty() ? "relevance" : request.getSort()));
+            CacheControlServerInterceptor.set(httpCacheProperties.publicFor(httpCacheProperties.getSearchMaxAge()));
+            return response;
+        });
+    }
+
+    private <T> void respond(StreamObserver<T> responseObserver, Supplier<T> call) {
+        T response;
+        try {
+            response = call.get();
+        } catch (UserNotFoundException e) {
+            responseObserver.onError(Status.NOT_FOUND.withDescription(e.getMessage()).asRuntimeException());
+            return;
+        } catch (IllegalArgumentException e) {
+            responseObserver.onError(Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+            return;
+        } catch (RuntimeException e) {
+            log.error("gRPC user query failed", e);
+            responseObserver.onError(Status.INTERNAL.withDescription("An unexpected error occurred").asRuntimeException());
+            return;
+        }
+        responseObserver.onNext(response);
+        responseObserver.onCompleted();
+    }
+}
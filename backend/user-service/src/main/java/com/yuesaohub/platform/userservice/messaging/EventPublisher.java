@@ -0,0 +1,353 @@
+package com.yuesaohub.platform.userservice.messaging;
+
+import com.rabbitmq.client.ShutdownSignalException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.Connection;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionListener;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Asynchronous AMQP publisher. Callers hand messages to a bounded buffer and get a future
+ * that completes once the broker has confirmed the message. Publisher threads drain the
+ * buffer in batches, sending each batch on one channel of the dedicated publisher
+ * connection (so publishing never competes with consumers for a connection), and track
+ * correlated confirms asynchronously. Nacked or unconfirmed messages are retried with
+ * exponential backoff up to {@code max-attempts}; when the buffer is full {@link #publish}
+ * waits briefly and then rejects, pushing back on the producer. Whether the broker is
+ * reachable is tracked from the publisher connection's lifecycle, so producers can stop
+ * feeding the buffer during an outage.
+ */
+@Component
+public class EventPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(EventPublisher.class);
+
+    private final RabbitTemplate rabbitTemplate;
+    private final EventPublisherProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final BlockingQueue<PendingMessage> queue;
+    private final Set<PendingMessage> inFlight = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService retryScheduler;
+    private final List<Thread> workers = new ArrayList<>();
+    private final Timer confirmLatency;
+    private final Counter published;
+    private final Counter rejected;
+
+    private volatile boolean accepting;
+    private volatile boolean brokerReachable = true;
+    private volatile boolean workersRunning;
+
+    @Autowired
+    public EventPublisher(ConnectionFactory connectionFactory, EventPublisherProperties properties,
+                          MeterRegistry meterRegistry) {
+        this(publisherTemplate(connectionFactory),
+            connectionFactory.getPublisherConnectionFactory() != null
+                ? connectionFactory.getPublisherConnectionFactory()
+                : connectionFactory,
+            properties, meterRegistry);
+    }
+
+    // Tests pass a template whose invoke() hands out mocked operations
+    EventPublisher(RabbitTemplate rabbitTemplate, ConnectionFactory publisherConnections,
+                   EventPublisherProperties properties, MeterRegistry meterRegistry) {
+        this.rabbitTemplate = rabbitTemplate;
+        publisherConnections.addConnectionListener(new BrokerReachabilityListener());
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "event-publisher-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("events.publisher.queue.depth", queue, Collection::size)
+            .description("Messages buffered and not yet sent")
+            .register(meterRegistry);
+        Gauge.builder("events.publisher.in.flight", inFlight, Collection::size)
+            .description("Messages sent and awaiting a broker confirm")
+            .register(meterRegistry);
+        Gauge.builder("events.publisher.broker.reachable", this, publisher -> publisher.brokerReachable ? 1 : 0)
+            .description("1 while the publisher connection is up, 0 during a broker outage")
+            .register(meterRegistry);
+        this.confirmLatency = Timer.builder("events.publisher.confirm.latency")
+            .description("Time from send to broker ack")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.published = Counter.builder("events.publisher.published")
+            .description("Messages confirmed by the broker")
+            .register(meterRegistry);
+        this.rejected = Counter.builder("events.publisher.rejected")
+            .description("Messages refused because the buffer was full")
+            .register(meterRegistry);
+    }
+
+    private static RabbitTemplate publisherTemplate(ConnectionFactory connectionFactory) {
+        RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
+        rabbitTemplate.setUsePublisherConnection(true);
+        return rabbitTemplate;
+    }
+
+    @PostConstruct
+    public void start() {
+        accepting = true;
+        workersRunning = true;
+        for (int i = 0; i < properties.getThreads(); i++) {
+            Thread worker = new Thread(this::drainQueue, "event-publisher-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    /**
+     * Buffers a message for publishing. The returned future completes when the broker
+     * acks it, or exceptionally when the buffer is full or every attempt failed.
+     */
+    public CompletableFuture<Void> publish(String exchange, String routingKey, Message message) {
+        PendingMessage pending = new PendingMessage(exchange, routingKey, message);
+        if (!accepting) {
+            pending.future.completeExceptionally(new RejectedExecutionException("Event publisher is shutting down"));
+            return pending.future;
+        }
+        boolean accepted;
+        try {
+            accepted = queue.offer(pending, properties.getOfferTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+        if (!accepted) {
+            rejected.increment();
+            pending.future.completeExceptionally(new RejectedExecutionException("Event publisher buffer is full"));
+        }
+        return pending.future;
+    }
+
+    // Lets producers size their next batch to what the buffer can take
+    public int remainingCapacity() {
+        return queue.remainingCapacity();
+    }
+
+    /**
+     * False from a failed connect or an unexpected connection loss until the next
+     * connection is established. Starts out true, before any connection is attempted.
+     */
+    public boolean isBrokerReachable() {
+        return brokerReachable;
+    }
+
+    /**
+     * Waits until nothing is buffered or awaiting a confirm, or the timeout passes.
+     */
+    public boolean awaitIdle(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!queue.isEmpty() || !inFlight.isEmpty()) {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @PreDestroy
+    public void stop() {
+        accepting = false;
+        if (!awaitIdle(properties.getShutdownTimeout())) {
+            log.warn("Event publisher stopped with {} buffered and {} unconfirmed messages", queue.size(), inFlight.size());
+        }
+        workersRunning = false;
+        for (Thread worker : workers) {
+            try {
+                worker.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        retryScheduler.shutdownNow();
+        RejectedExecutionException stopped = new RejectedExecutionException("Event publisher stopped");
+        queue.forEach(pending -> pending.future.completeExceptionally(stopped));
+        inFlight.forEach(pending -> pending.future.completeExceptionally(stopped));
+    }
+
+    private void drainQueue() {
+        List<PendingMessage> batch = new ArrayList<>(properties.getBatchSize());
+        while (workersRunning) {
+            try {
+                PendingMessage first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.getBatchSize() - 1);
+                sendBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Event publisher worker failed on a batch of {} messages", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void sendBatch(List<PendingMessage> batch) {
+        // Counted up front, so messages that never reached a channel still back off and run out of attempts
+        for (PendingMessage pending : batch) {
+            pending.attempts++;
+        }
+        int[] handedOver = {0};
+        try {
+            rabbitTemplate.invoke(operations -> {
+                for (PendingMessage pending : batch) {
+                    send(operations, pending);
+                    handedOver[0]++;
+                }
+                return null;
+            });
+        } catch (AmqpException e) {
+            // No channel could be obtained, or the channel broke mid-batch
+            log.warn("Could not publish {} events: {}", batch.size() - handedOver[0], e.getMessage());
+            for (int i = handedOver[0]; i < batch.size(); i++) {
+                retryOrFail(batch.get(i), "send_error", e.getMessage());
+            }
+        }
+    }
+
+    private void send(RabbitOperations operations, PendingMessage pending) {
+        CorrelationData correlation = new CorrelationData();
+        pending.sentAtNanos = System.nanoTime();
+        inFlight.add(pending);
+        try {
+            operations.send(pending.exchange, pending.routingKey, pending.message, correlation);
+        } catch (AmqpException e) {
+            inFlight.remove(pending);
+            throw e;
+        }
+        correlation.getFuture()
+            .orTimeout(properties.getConfirmTimeout().toMillis(), TimeUnit.MILLISECONDS)
+            .whenComplete((confirm, error) -> {
+                inFlight.remove(pending);
+                if (error == null && confirm.isAck()) {
+                    confirmLatency.record(System.nanoTime() - pending.sentAtNanos, TimeUnit.NANOSECONDS);
+                    published.increment();
+                    pending.future.complete(null);
+                } else if (error instanceof TimeoutException) {
+                    retryOrFail(pending, "timeout", "no confirm within " + properties.getConfirmTimeout());
+                } else if (error != null) {
+                    retryOrFail(pending, "error", error.getMessage());
+                } else {
+                    retryOrFail(pending, "nack", confirm.getReason());
+                }
+            });
+    }
+
+    private void retryOrFail(PendingMessage pending, String reason, String detail) {
+        meterRegistry.counter("events.publisher.failures", "reason", reason).increment();
+        if (pending.attempts >= properties.getMaxAttempts()) {
+            meterRegistry.counter("events.publisher.failures", "reason", "exhausted").increment();
+            pending.future.completeExceptionally(new AmqpException(
+                "Giving up after " + pending.attempts + " attempts (" + reason + "): " + detail));
+            return;
+        }
+        long backoffMillis = Math.min(
+            properties.getInitialBackoff().toMillis() << Math.min(pending.attempts - 1, 20),
+            properties.getMaxBackoff().toMillis());
+        scheduleRetry(pending, backoffMillis);
+    }
+
+    private void scheduleRetry(PendingMessage pending, long delayMillis) {
+        try {
+            retryScheduler.schedule(() -> {
+                // Retries skip the offer timeout; if the buffer is still full, try again later
+                if (!queue.offer(pending)) {
+                    scheduleRetry(pending, delayMillis);
+                }
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            pending.future.completeExceptionally(e);
+        }
+    }
+
+    private void setBrokerReachable(boolean reachable, String detail) {
+        if (brokerReachable != reachable) {
+            brokerReachable = reachable;
+            if (reachable) {
+                log.info("RabbitMQ publisher connection established");
+            } else {
+                log.warn("RabbitMQ unreachable, pausing event publishing: {}", detail);
+            }
+        }
+    }
+
+    private class BrokerReachabilityListener implements ConnectionListener {
+
+        @Override
+        public void onCreate(Connection connection) {
+            setBrokerReachable(true, null);
+        }
+
+        @Override
+        public void onShutDown(ShutdownSignalException signal) {
+            if (!signal.isInitiatedByApplication()) {
+                setBrokerReachable(false, signal.getMessage());
+            }
+        }
+
+        @Override
+        public void onFailed(Exception exception) {
+            setBrokerReachable(false, exception.getMessage());
+        }
+    }
+
+    private static final class PendingMessage {
+        private final String exchange;
+        private final String routingKey;
+        private final Message message;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private volatile int attempts;
+        private volatile long sentAtNanos;
+
+        private PendingMessage(String exchange, String routingKey, Message message) {
+            this.exchange = exchange;
+            this.routingKey = routingKey;
+            this.message = message;
+        }
+    }
+}
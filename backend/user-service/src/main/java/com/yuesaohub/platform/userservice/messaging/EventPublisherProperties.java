@@ -0,0 +1,104 @@
+package com.yuesaohub.platform.userservice.messaging;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.messaging.publisher")
+public class EventPublisherProperties {
+
+    // Messages buffered ahead of the broker; publish() blocks, then rejects, when full
+    private int queueCapacity = 10_000;
+
+    // How long publish() waits for buffer space before rejecting
+    private Duration offerTimeout = Duration.ofMillis(100);
+
+    // Messages sent per channel checkout by each publisher thread
+    private int batchSize = 100;
+
+    private int threads = 2;
+
+    // Unconfirmed after this long counts as a failed attempt
+    private Duration confirmTimeout = Duration.ofSeconds(5);
+
+    private int maxAttempts = 5;
+
+    private Duration initialBackoff = Duration.ofMillis(200);
+
+    private Duration maxBackoff = Duration.ofSeconds(10);
+
+    // On shutdown, how long to keep publishing what is still buffered or unconfirmed
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public Duration getOfferTimeout() {
+        return offerTimeout;
+    }
+
+    public void setOfferTimeout(Duration offerTimeout) {
+        this.offerTimeout = offerTimeout;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public Duration getConfirmTimeout() {
+        return confirmTimeout;
+    }
+
+    public void setConfirmTimeout(Duration confirmTimeout) {
+        this.confirmTimeout = confirmTimeout;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public Duration getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    public void setInitialBackoff(Duration initialBackoff) {
+        this.initialBackoff = initialBackoff;
+    }
+
+    public Duration getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    public void setMaxBackoff(Duration maxBackoff) {
+        this.maxBackoff = maxBackoff;
+    }
+
+    public Duration getShutdownTimeout() {
+        return shutdownTimeout;
+    }
+
+    public void setShutdownTimeout(Duration shutdownTimeout) {
+        this.shutdownTimeout = shutdownTimeout;
+    }
+}
@@ -0,0 +1,215 @@
+package com.yuesaohub.platform.userservice.outbox;
+
+import com.yuesaohub.platform.userservice.messaging.EventPublisher;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Publishes committed outbox rows to RabbitMQ through {@link EventPublisher}. Each run
+ * claims a batch with {@code FOR UPDATE SKIP LOCKED} and leases it (pushes
+ * {@code next_attempt_at} past the publisher's retry window) in a short transaction,
+ * then hands the rows to the publisher without holding any database lock while the
+ * broker confirms. Confirmed rows are marked sent in bulk on the next run; rows the
+ * publisher gave up on are retried with backoff, and rows of a crashed instance become
+ * claimable again when their lease runs out. Claims never exceed the publisher's free
+ * buffer space, so a slow broker leaves events waiting in the outbox, not in memory.
+ * While the broker is unreachable the relay only claims a single event every
+ * {@code outage-probe-interval} to detect its return, so an outage does not turn into a
+ * stream of failed sends and retry bookkeeping on the database.
+ * Delivery is at-least-once: consumers dedupe on the message id.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.relay-enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final String CLAIM_SQL = """
+        SELECT id, event_id, event_type, exchange, routing_key, content_type, payload, created_at, attempts
+        FROM outbox_events
+        WHERE sent_at IS NULL AND next_attempt_at <= ?
+        ORDER BY id
+        LIMIT ?
+        FOR UPDATE SKIP LOCKED
+        """;
+
+    private static final String LEASE_SQL = "UPDATE outbox_events SET next_attempt_at = ? WHERE id = ANY(?)";
+
+    private static final String MARK_SENT_SQL = "UPDATE outbox_events SET sent_at = ? WHERE id = ANY(?)";
+
+    private static final String MARK_FAILED_SQL = """
+        UPDATE outbox_events SET attempts = attempts + 1, next_attempt_at = ?, last_error = ? WHERE id = ?
+        """;
+
+    private static final String PURGE_SQL = "DELETE FROM outbox_events WHERE sent_at < ?";
+
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(5);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Queue<Long> confirmedIds = new ConcurrentLinkedQueue<>();
+    private final Queue<FailedMessage> failedMessages = new ConcurrentLinkedQueue<>();
+
+    @Value("${app.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.outbox.lease:2m}")
+    private Duration lease;
+
+    @Value("${app.outbox.retention:7d}")
+    private Duration retention;
+
+    @Value("${app.outbox.outage-probe-interval:5s}")
+    private Duration outageProbeInterval;
+
+    // Only touched by the scheduled relay() runs, which never overlap
+    private long nextProbeNanos = System.nanoTime();
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate, EventPublisher eventPublisher,
+                       PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Spring 6.1 only reads millis or ISO-8601 here, so parse the "500ms" style as Boot does
+    @Scheduled(fixedDelayString = "#{T(org.springframework.boot.convert.DurationStyle)"
+        + ".detectAndParse('${app.outbox.poll-interval:500ms}').toMillis()}")
+    public void relay() {
+        recordOutcomes();
+        // Keep claiming while batches come back full so a backlog clears without waiting a poll
+        while (true) {
+            boolean probing = !eventPublisher.isBrokerReachable();
+            if (probing) {
+                long now = System.nanoTime();
+                if (now - nextProbeNanos < 0) {
+                    return;
+                }
+                nextProbeNanos = now + outageProbeInterval.toNanos();
+            }
+            int limit = Math.min(probing ? 1 : batchSize, eventPublisher.remainingCapacity());
+            if (limit == 0) {
+                return;
+            }
+            List<OutboxMessage> batch = transactionTemplate.execute(status -> claimBatch(limit));
+            for (OutboxMessage message : batch) {
+                eventPublisher.publish(message.exchange(), message.routingKey(), toAmqpMessage(message))
+                    .whenComplete((ignored, error) -> {
+                        if (error == null) {
+                            confirmedIds.add(message.id());
+                        } else {
+                            failedMessages.add(new FailedMessage(message, error.getMessage()));
+                        }
+                    });
+            }
+            if (probing || batch.size() < limit) {
+                return;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "#{T(org.springframework.boot.convert.DurationStyle)"
+        + ".detectAndParse('${app.outbox.purge-interval:1h}').toMillis()}")
+    public void purgeSent() {
+        int purged = jdbcTemplate.update(PURGE_SQL, Timestamp.valueOf(LocalDateTime.now().minus(retention)));
+        if (purged > 0) {
+            log.debug("Purged {} sent outbox events", purged);
+        }
+    }
+
+    // Record what is already confirmed so a restart does not publish it again
+    @PreDestroy
+    public void stop() {
+        eventPublisher.awaitIdle(Duration.ofSeconds(10));
+        recordOutcomes();
+    }
+
+    private List<OutboxMessage> claimBatch(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxMessage> batch = jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> new OutboxMessage(
+            rs.getLong("id"),
+            rs.getString("event_id"),
+            rs.getString("event_type"),
+            rs.getString("exchange"),
+            rs.getString("routing_key"),
+            rs.getString("content_type"),
+            rs.getBytes("payload"),
+            rs.getTimestamp("created_at").toLocalDateTime(),
+            rs.getInt("attempts")
+        ), Timestamp.valueOf(now), limit);
+        if (!batch.isEmpty()) {
+            updateByIds(LEASE_SQL, Timestamp.valueOf(now.plus(lease)), batch.stream().map(OutboxMessage::id).toList());
+        }
+        return batch;
+    }
+
+    private void recordOutcomes() {
+        List<Long> sent = new ArrayList<>();
+        for (Long id = confirmedIds.poll(); id != null; id = confirmedIds.poll()) {
+            sent.add(id);
+        }
+        if (!sent.isEmpty()) {
+            updateByIds(MARK_SENT_SQL, Timestamp.valueOf(LocalDateTime.now()), sent);
+        }
+        for (FailedMessage failed = failedMessages.poll(); failed != null; failed = failedMessages.poll()) {
+            markFailed(failed.message(), failed.error());
+        }
+    }
+
+    private void updateByIds(String sql, Timestamp timestamp, List<Long> ids) {
+        jdbcTemplate.update(sql, ps -> {
+            ps.setTimestamp(1, timestamp);
+            ps.setArray(2, ps.getConnection().createArrayOf("bigint", ids.toArray()));
+        });
+    }
+
+    private void markFailed(OutboxMessage message, String error) {
+        long backoffSeconds = Math.min(1L << Math.min(message.attempts(), 20), MAX_BACKOFF.toSeconds());
+        LocalDateTime nextAttempt = LocalDateTime.now().plusSeconds(backoffSeconds);
+        jdbcTemplate.update(MARK_FAILED_SQL, Timestamp.valueOf(nextAttempt), truncate(error), message.id());
+        log.warn("Outbox event {} ({}) not published, retrying in {}s: {}",
+            message.eventId(), message.eventType(), backoffSeconds, error);
+    }
+
+    private Message toAmqpMessage(OutboxMessage message) {
+        return MessageBuilder.withBody(message.payload())
+            .setMessageId(message.eventId())
+            .setType(message.eventType())
+            .setContentType(message.contentType())
+            .setDeliveryMode(MessageDeliveryMode.PERSISTENT)
+            .setTimestamp(Timestamp.valueOf(message.createdAt()))
+            .build();
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+    }
+
+    record OutboxMessage(long id, String eventId, String eventType, String exchange, String routingKey,
+                         String contentType, byte[] payload, LocalDateTime createdAt, int attempts) {
+    }
+
+    private record FailedMessage(OutboxMessage message, String error) {
+    }
+}
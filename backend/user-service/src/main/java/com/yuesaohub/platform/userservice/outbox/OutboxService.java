@@ -0,0 +1,58 @@
+package com.yuesaohub.platform.userservice.outbox;
+
+import com.yuesaohub.platform.shared.event.BaseEvent;
+import com.yuesaohub.platform.shared.event.codec.EventCodec;
+import com.yuesaohub.platform.shared.event.codec.EventCodecs;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Records integration events in the {@code outbox_events} table as part of the caller's
+ * transaction. Nothing is sent to RabbitMQ here: {@link OutboxRelay} publishes committed
+ * rows, so an event exists exactly when the change that produced it was committed.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxService {
+
+    private static final String INSERT_SQL = """
+        INSERT INTO outbox_events (event_id, event_type, exchange, routing_key, content_type, payload, created_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private static final int INSERT_BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EventCodecs eventCodecs;
+
+    public OutboxService(JdbcTemplate jdbcTemplate, EventCodecs eventCodecs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventCodecs = eventCodecs;
+    }
+
+    public void enqueue(String exchange, String routingKey, BaseEvent event) {
+        enqueueAll(exchange, routingKey, List.of(event));
+    }
+
+    public void enqueueAll(String exchange, String routingKey, List<? extends BaseEvent> events) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        // Each row records its own content type, so switching formats never strands queued events
+        EventCodec codec = eventCodecs.defaultCodec();
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, INSERT_BATCH_SIZE, (ps, event) -> {
+            ps.setString(1, event.getEventId());
+            ps.setString(2, event.getEventType());
+            ps.setString(3, exchange);
+            ps.setString(4, routingKey);
+            ps.setString(5, codec.contentType());
+            ps.setBytes(6, codec.encode(event));
+            ps.setTimestamp(7, now);
+        });
+    }
+}
@@ -0,0 +1,84 @@
+package com.yuesaohub.platform.userservice.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.yuesaohub.platform.userservice.entity.CaregiverCard;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.Collection;
+
+@Repository
+public interface CaregiverCardRepository extends JpaRepository<CaregiverCard, Long>, JpaSpecificationExecutor<CaregiverCard> {
+
+    /**
+     * Rebuilds the cards of the given caregivers from {@code users} and their first
+     * gallery photo. Pending entity changes are flushed first so the cards see them.
+     * Rows whose content did not change are left untouched to avoid dead tuples.
+     * The V3 migration backfills with the same SELECT; keep the two in step.
+     * The native-spaces hint scopes cache invalidation to this table; without it Hibernate
+     * clears the whole second-level cache after every native write.
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "caregiver_cards"))
+    @Query(value = """
+        INSERT INTO caregiver_cards (
+            user_id, display_name, profile_photo_url, cover_photo_url, province,
+            languages, services_offered, specializations, years_of_experience, age,
+            total_rating, total_reviews, is_active,
+            language_tags, service_tags, specialization_tags,
+            profile_completion_percentage, experience_rank, updated_at
+        )
+        SELECT u.id, u.display_name, u.profile_photo_url, cover.url, u.province,
+               u.languages, u.services_offered, u.specializations, u.years_of_experience, u.age,
+               u.total_rating, u.total_reviews, u.is_active,
+               btrim(regexp_replace(regexp_replace(lower(u.languages), '["\\[\\]]', '', 'g'), '\\s*[,，、;；]\\s*', ',', 'g')),
+               btrim(regexp_replace(regexp_replace(lower(u.services_offered), '["\\[\\]]', '', 'g'), '\\s*[,，、;；]\\s*', ',', 'g')),
+               btrim(regexp_replace(regexp_replace(lower(u.specializations), '["\\[\\]]', '', 'g'), '\\s*[,，、;；]\\s*', ',', 'g')),
+               COALESCE(u.profile_completion_percentage, 0), COALESCE(u.years_of_experience, -1),
+               COALESCE(u.updated_at, u.created_at)
+        FROM users u
+        LEFT JOIN LATERAL (
+            SELECT COALESCE(p.thumbnail_url, p.url) AS url
+            FROM user_photos p
+            WHERE p.user_id = u.id AND p.kind = 'GALLERY'
+            ORDER BY p.position
+            LIMIT 1
+        ) cover ON TRUE
+        WHERE u.id IN (:userIds) AND u.user_type = 'CAREGIVER'
+        ON CONFLICT (user_id) DO UPDATE SET
+            display_name = EXCLUDED.display_name,
+            profile_photo_url = EXCLUDED.profile_photo_url,
+            cover_photo_url = EXCLUDED.cover_photo_url,
+            province = EXCLUDED.province,
+            languages = EXCLUDED.languages,
+            services_offered = EXCLUDED.services_offered,
+            specializations = EXCLUDED.specializations,
+            years_of_experience = EXCLUDED.years_of_experience,
+            age = EXCLUDED.age,
+            total_rating = EXCLUDED.total_rating,
+            total_reviews = EXCLUDED.total_reviews,
+            is_active = EXCLUDED.is_active,
+            language_tags = EXCLUDED.language_tags,
+            service_tags = EXCLUDED.service_tags,
+            specialization_tags = EXCLUDED.specialization_tags,
+            profile_completion_percentage = EXCLUDED.profile_completion_percentage,
+            experience_rank = EXCLUDED.experience_rank,
+            updated_at = EXCLUDED.updated_at
+        WHERE (caregiver_cards.*) IS DISTINCT FROM (EXCLUDED.*)
+        """, nativeQuery = true)
+    int upsertFromUsers(@Param("userIds") Collection<Long> userIds);
+
+    // Cards of users that no longer exist or are no longer caregivers
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "caregiver_cards"))
+    @Query(value = "DELETE FROM caregiver_cards c WHERE c.user_id IN (:userIds) AND NOT EXISTS " +
+                   "(SELECT 1 FROM users u WHERE u.id = c.user_id AND u.user_type = 'CAREGIVER')", nativeQuery = true)
+    int deleteStale(@Param("userIds") Collection<Long> userIds);
+}
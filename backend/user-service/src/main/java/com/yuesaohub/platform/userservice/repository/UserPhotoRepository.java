@@ -0,0 +1,33 @@
+package com.yuesaohub.platform.userservice.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.yuesaohub.platform.userservice.entity.PhotoKind;
+import com.yuesaohub.platform.userservice.entity.UserPhoto;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UserPhotoRepository extends JpaRepository<UserPhoto, Long> {
+
+    List<UserPhoto> findByUserIdOrderByKindAscPositionAsc(Long userId);
+
+    List<UserPhoto> findByUserIdInOrderByKindAscPositionAsc(Collection<Long> userIds);
+
+    List<UserPhoto> findByUserIdAndKindOrderByPositionAsc(Long userId, PhotoKind kind);
+
+    Optional<UserPhoto> findByIdAndUserId(Long id, Long userId);
+
+    @Query("SELECT COALESCE(MAX(p.position), -1) FROM UserPhoto p WHERE p.userId = :userId AND p.kind = :kind")
+    int findMaxPosition(@Param("userId") Long userId, @Param("kind") PhotoKind kind);
+
+    @Modifying
+    @Query("DELETE FROM UserPhoto p WHERE p.userId = :userId AND p.kind = :kind")
+    void deleteByUserIdAndKind(@Param("userId") Long userId, @Param("kind") PhotoKind kind);
+}
@@ -0,0 +1,10 @@
+package com.yuesaohub.platform.userservice.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.yuesaohub.platform.userservice.entity.UserProfileContent;
+
+@Repository
+public interface UserProfileContentRepository extends JpaRepository<UserProfileContent, Long> {
+}
@@ -2,6 +2,7 @@ package com.yuesaohub.platform.userservice.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -9,14 +10,19 @@ import org.springframework.stereotype.Repository;
 import com.yuesaohub.platform.userservice.entity.User;
 import com.yuesaohub.platform.userservice.entity.UserType;
 
+import jakarta.persistence.LockModeType;
+
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
-    
-    Optional<User> findByFirebaseUid(String firebaseUid);
-    
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User>,
+        UserRepositoryCustom {
+
+    // findByFirebaseUid / existsByFirebaseUid come from UserRepositoryCustom (natural-id cache)
+
+    // Email lookups always read the database: a per-instance cached "no" would let two
+    // instances create users with the same email
     Optional<User> findByEmail(String email);
     
     List<User> findByUserType(UserType userType);
@@ -25,7 +31,11 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
     List<User> findByUserTypeAndEmailContaining(@Param("userType") UserType userType, 
                                                @Param("email") String email);
     
-    boolean existsByFirebaseUid(String firebaseUid);
-    
     boolean existsByEmail(String email);
+
+    // Row lock on the owner, held to the end of the transaction, to serialize changes to one
+    // user's photo lists
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.firebaseUid = :firebaseUid")
+    Optional<User> findByFirebaseUidForUpdate(@Param("firebaseUid") String firebaseUid);
 }
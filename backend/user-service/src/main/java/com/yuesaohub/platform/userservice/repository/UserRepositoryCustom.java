@@ -0,0 +1,16 @@
+package com.yuesaohub.platform.userservice.repository;
+
+import com.yuesaohub.platform.userservice.entity.User;
+
+import java.util.Optional;
+
+/**
+ * Firebase UID lookups resolved through Hibernate's natural-id API, so they are served
+ * from the natural-id and entity caches instead of a query per call.
+ */
+public interface UserRepositoryCustom {
+
+    Optional<User> findByFirebaseUid(String firebaseUid);
+
+    boolean existsByFirebaseUid(String firebaseUid);
+}
@@ -0,0 +1,26 @@
+package com.yuesaohub.platform.userservice.repository;
+
+import com.yuesaohub.platform.userservice.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.util.Optional;
+
+class UserRepositoryImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<User> findByFirebaseUid(String firebaseUid) {
+        return entityManager.unwrap(Session.class)
+            .bySimpleNaturalId(User.class)
+            .loadOptional(firebaseUid);
+    }
+
+    @Override
+    public boolean existsByFirebaseUid(String firebaseUid) {
+        return findByFirebaseUid(firebaseUid).isPresent();
+    }
+}
@@ -0,0 +1,41 @@
+package com.yuesaohub.platform.userservice.service;
+
+import com.yuesaohub.platform.userservice.repository.CaregiverCardRepository;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Keeps the {@code caregiver_cards} read model in step with {@code users}. Every code
+ * path that changes a card field (profile, photos, import) calls {@link #refresh}
+ * inside its own transaction, so a card is never visible out of date after commit.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class CaregiverCardService {
+
+    private static final int REFRESH_CHUNK_SIZE = 1000;
+
+    private final CaregiverCardRepository caregiverCardRepository;
+
+    public CaregiverCardService(CaregiverCardRepository caregiverCardRepository) {
+        this.caregiverCardRepository = caregiverCardRepository;
+    }
+
+    public void refresh(Long userId) {
+        refresh(List.of(userId));
+    }
+
+    public void refresh(Collection<Long> userIds) {
+        List<Long> ids = List.copyOf(userIds);
+        for (int from = 0; from < ids.size(); from += REFRESH_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + REFRESH_CHUNK_SIZE, ids.size()));
+            caregiverCardRepository.deleteStale(chunk);
+            caregiverCardRepository.upsertFromUsers(chunk);
+        }
+    }
+}
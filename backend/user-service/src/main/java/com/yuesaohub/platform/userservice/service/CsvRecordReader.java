@@ -0,0 +1,109 @@
+package com.yuesaohub.platform.userservice.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming RFC 4180 reader: quoted fields, doubled quotes and
+ * line breaks inside quotes. Only one record is held in memory at a time.
+ */
+class CsvRecordReader {
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private long lineNumber = 1;
+    private long recordLineNumber;
+
+    CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Physical line on which the record last returned by {@link #next()} started.
+     */
+    long getRecordLineNumber() {
+        return recordLineNumber;
+    }
+
+    /**
+     * Returns the next record, or null at end of input. Blank lines are skipped.
+     */
+    List<String> next() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        boolean sawAnything = false;
+        recordLineNumber = lineNumber;
+
+        int c;
+        while ((c = read()) != -1) {
+            char ch = (char) c;
+            if (inQuotes) {
+                if (ch == '"') {
+                    if (peek() == '"') {
+                        read();
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    if (ch == '\n') lineNumber++;
+                    field.append(ch);
+                }
+                continue;
+            }
+
+            if (ch == '"') {
+                inQuotes = true;
+                sawAnything = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                sawAnything = true;
+            } else if (ch == '\r' || ch == '\n') {
+                if (ch == '\r' && peek() == '\n') read();
+                lineNumber++;
+                if (!sawAnything && field.length() == 0) {
+                    recordLineNumber = lineNumber;
+                    continue;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append(ch);
+                sawAnything = true;
+            }
+        }
+
+        if (inQuotes) {
+            throw new IllegalArgumentException("Unterminated quoted field starting on line " + recordLineNumber);
+        }
+        if (!sawAnything && field.length() == 0) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) return -1;
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) return -1;
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int n = reader.read(buffer, 0, buffer.length);
+        if (n <= 0) return false;
+        position = 0;
+        limit = n;
+        return true;
+    }
+}
@@ -0,0 +1,467 @@
+package com.yuesaohub.platform.userservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuesaohub.platform.shared.event.user.UserCreatedEvent;
+import com.yuesaohub.platform.userservice.config.RabbitConfig;
+import com.yuesaohub.platform.userservice.dto.UserImportRecord;
+import com.yuesaohub.platform.userservice.dto.UserImportResultDto;
+import com.yuesaohub.platform.userservice.entity.User;
+import com.yuesaohub.platform.userservice.entity.UserProfileContent;
+import com.yuesaohub.platform.userservice.outbox.OutboxService;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk caregiver import. The upload is first spooled to a temp file, so a slow client
+ * never holds a pooled connection. Rows are then streamed from CSV or NDJSON, validated
+ * one at a time, bulk-loaded with COPY into a transaction-scoped staging table and merged
+ * into {@code users} in a single statement.
+ */
+@Service
+public class UserImportService {
+
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private static final int COPY_FLUSH_THRESHOLD = 64 * 1024;
+
+    private static final List<String> RECORD_FIELDS = List.of(
+        "firebaseUid", "email", "userType", "fullName", "displayName", "age", "primaryPhone", "wechatId",
+        "city", "province", "country", "yearsOfExperience", "languages", "specializations", "servicesOffered",
+        "hourlyRate", "aboutMe"
+    );
+
+    private static final String STAGING_COLUMNS =
+        "line_number, firebase_uid, email, user_type, full_name, display_name, age, primary_phone, wechat_id, " +
+        "city, province, country, years_of_experience, languages, specializations, services_offered, " +
+        "hourly_rate, about_me, profile_completion_percentage";
+
+    private static final String CREATE_STAGING_SQL = """
+        CREATE TEMP TABLE user_import_staging (
+            line_number BIGINT NOT NULL,
+            firebase_uid VARCHAR(255) NOT NULL,
+            email VARCHAR(255) NOT NULL,
+            user_type VARCHAR(255) NOT NULL,
+            full_name VARCHAR(255),
+            display_name VARCHAR(255),
+            age INTEGER,
+            primary_phone VARCHAR(20),
+            wechat_id VARCHAR(100),
+            city VARCHAR(100),
+            province VARCHAR(100),
+            country VARCHAR(100),
+            years_of_experience INTEGER,
+            languages TEXT,
+            specializations TEXT,
+            services_offered TEXT,
+            hourly_rate NUMERIC(10, 2),
+            about_me TEXT,
+            profile_completion_percentage INTEGER
+        ) ON COMMIT DROP
+        """;
+
+    private static final String COPY_SQL =
+        "COPY user_import_staging (" + STAGING_COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+
+    private static final String REMOVE_EXISTING_SQL = """
+        DELETE FROM user_import_staging s
+        USING users u
+        WHERE u.firebase_uid = s.firebase_uid OR u.email = s.email
+        RETURNING s.line_number, u.firebase_uid = s.firebase_uid AS uid_match
+        """;
+
+    private static final String MERGE_SQL = """
+        WITH inserted AS (
+            INSERT INTO users (
+                firebase_uid, email, user_type, full_name, display_name, age, primary_phone, wechat_id,
+                city, province, country, years_of_experience, languages, specializations, services_offered,
+                hourly_rate, profile_completion_percentage,
+                created_at, updated_at, last_active_at, willing_to_relocate, total_rating, total_reviews,
+                is_featured, is_active, profile_views, verification_status
+            )
+            SELECT firebase_uid, email, user_type, full_name, display_name, age, primary_phone, wechat_id,
+                   city, province, COALESCE(country, 'China'), years_of_experience, languages, specializations,
+                   services_offered, hourly_rate, profile_completion_percentage,
+                   LOCALTIMESTAMP, LOCALTIMESTAMP, LOCALTIMESTAMP, FALSE, 0.0, 0,
+                   FALSE, TRUE, 0, 'UNVERIFIED'
+            FROM user_import_staging
+            ORDER BY line_number
+            ON CONFLICT (firebase_uid) DO NOTHING
+            RETURNING id, firebase_uid, email, user_type
+        ), content AS (
+            INSERT INTO user_profile_content (user_id, about_me)
+            SELECT i.id, s.about_me
+            FROM inserted i
+            JOIN user_import_staging s ON s.firebase_uid = i.firebase_uid
+            WHERE s.about_me IS NOT NULL
+        )
+        SELECT id, email, user_type FROM inserted
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final UserService userService;
+    private final CaregiverCardService caregiverCardService;
+    private final OutboxService outboxService;
+    private final Map<String, String> fieldsByNormalizedName;
+
+    @Value("${app.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    @Value("${app.import.max-upload-size:50MB}")
+    private DataSize maxUploadSize;
+
+    public UserImportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper, Validator validator, UserService userService,
+                             CaregiverCardService caregiverCardService, OutboxService outboxService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.userService = userService;
+        this.caregiverCardService = caregiverCardService;
+        this.outboxService = outboxService;
+        this.fieldsByNormalizedName = new HashMap<>();
+        for (String field : RECORD_FIELDS) {
+            fieldsByNormalizedName.put(normalizeColumnName(field), field);
+        }
+    }
+
+    public UserImportResultDto importUsers(InputStream input, MediaType contentType) throws IOException {
+        boolean csv = TEXT_CSV.isCompatibleWith(contentType);
+        if (!csv && !MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)) {
+            throw new IllegalArgumentException("Unsupported import format: " + contentType);
+        }
+
+        Path spooled = spool(input);
+        try (InputStream body = Files.newInputStream(spooled)) {
+            return transactionTemplate.execute(status -> load(body, csv));
+        } finally {
+            Files.deleteIfExists(spooled);
+        }
+    }
+
+    // Reads the whole upload at the client's pace, before any connection is taken
+    private Path spool(InputStream input) throws IOException {
+        Path spooled = Files.createTempFile("user-import-", ".tmp");
+        try (OutputStream out = Files.newOutputStream(spooled)) {
+            byte[] chunk = new byte[COPY_FLUSH_THRESHOLD];
+            long size = 0;
+            int n;
+            while ((n = input.read(chunk)) != -1) {
+                size += n;
+                if (size > maxUploadSize.toBytes()) {
+                    throw new IllegalArgumentException("Import exceeds the maximum size of " + maxUploadSize);
+                }
+                out.write(chunk, 0, n);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(spooled);
+            throw e;
+        }
+        return spooled;
+    }
+
+    private UserImportResultDto load(InputStream input, boolean csv) {
+        jdbcTemplate.execute(CREATE_STAGING_SQL);
+
+        ImportRun run = new ImportRun(maxReportedErrors);
+        Reader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+            try {
+                StagingWriter writer = new StagingWriter(copyIn);
+                if (csv) {
+                    readCsv(reader, run, writer);
+                } else {
+                    readNdjson(reader, run, writer);
+                }
+                writer.flush();
+                copyIn.endCopy();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read import stream", e);
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+            return null;
+        });
+
+        jdbcTemplate.query(REMOVE_EXISTING_SQL, rs -> {
+            String message = rs.getBoolean("uid_match")
+                ? "User with Firebase UID already exists"
+                : "User with email already exists";
+            run.duplicate(rs.getLong("line_number"), message);
+            run.unstaged++;
+        });
+
+        List<UserCreatedEvent> createdEvents = jdbcTemplate.query(MERGE_SQL, (rs, rowNum) -> new UserCreatedEvent(
+            rs.getLong("id"), rs.getString("email"), rs.getString("user_type")));
+        List<Long> importedIds = createdEvents.stream().map(UserCreatedEvent::getUserId).toList();
+        caregiverCardService.refresh(importedIds);
+        outboxService.enqueueAll(RabbitConfig.USER_EXCHANGE, RabbitConfig.USER_CREATED_ROUTING_KEY, createdEvents);
+        long imported = importedIds.size();
+        // Rows that lost a race against a concurrent signup were skipped by ON CONFLICT
+        long raced = run.staged - run.unstaged - imported;
+        run.duplicateRows += Math.max(raced, 0);
+
+        return new UserImportResultDto(run.totalRows, imported, run.duplicateRows, run.failedRows,
+            run.errors, run.errorsTruncated);
+    }
+
+    private void readCsv(Reader reader, ImportRun run, StagingWriter writer) throws IOException, SQLException {
+        CsvRecordReader csvReader = new CsvRecordReader(reader);
+        List<String> header = csvReader.next();
+        if (header == null) {
+            return;
+        }
+        String[] columns = new String[header.size()];
+        for (int i = 0; i < header.size(); i++) {
+            String column = header.get(i).trim();
+            if (i == 0 && column.startsWith("\uFEFF")) {
+                column = column.substring(1);
+            }
+            String field = fieldsByNormalizedName.get(normalizeColumnName(column));
+            if (field == null) {
+                throw new IllegalArgumentException("Unknown column: " + column);
+            }
+            columns[i] = field;
+        }
+
+        List<String> values;
+        while ((values = csvReader.next()) != null) {
+            long lineNumber = csvReader.getRecordLineNumber();
+            run.totalRows++;
+            if (values.size() != columns.length) {
+                run.fail(lineNumber, "Expected " + columns.length + " columns but found " + values.size());
+                continue;
+            }
+            Map<String, String> row = new HashMap<>();
+            for (int i = 0; i < columns.length; i++) {
+                String value = values.get(i).trim();
+                if (!value.isEmpty()) {
+                    row.put(columns[i], value);
+                }
+            }
+            UserImportRecord record;
+            try {
+                record = objectMapper.convertValue(row, UserImportRecord.class);
+            } catch (IllegalArgumentException e) {
+                run.fail(lineNumber, describeMappingError(e.getCause()));
+                continue;
+            }
+            stage(lineNumber, record, run, writer);
+        }
+    }
+
+    private void readNdjson(Reader reader, ImportRun run, StagingWriter writer) throws IOException, SQLException {
+        BufferedReader lines = (BufferedReader) reader;
+        long lineNumber = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            run.totalRows++;
+            UserImportRecord record;
+            try {
+                record = objectMapper.readValue(line, UserImportRecord.class);
+            } catch (JsonProcessingException e) {
+                run.fail(lineNumber, describeMappingError(e));
+                continue;
+            }
+            stage(lineNumber, record, run, writer);
+        }
+    }
+
+    private void stage(long lineNumber, UserImportRecord record, ImportRun run, StagingWriter writer)
+            throws SQLException {
+        Set<ConstraintViolation<UserImportRecord>> violations = validator.validate(record);
+        if (!violations.isEmpty()) {
+            run.fail(lineNumber, violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; ")));
+            return;
+        }
+        if (!run.seenFirebaseUids.add(record.getFirebaseUid())) {
+            run.duplicate(lineNumber, "Duplicate Firebase UID in import file");
+            return;
+        }
+        if (!run.seenEmails.add(record.getEmail())) {
+            run.duplicate(lineNumber, "Duplicate email in import file");
+            return;
+        }
+
+        writer.write(lineNumber, record, calculateProfileCompletion(record));
+        run.staged++;
+    }
+
+    private Integer calculateProfileCompletion(UserImportRecord record) {
+        User user = new User();
+        user.setFirebaseUid(record.getFirebaseUid());
+        user.setEmail(record.getEmail());
+        user.setUserType(record.getUserType());
+        user.setFullName(record.getFullName());
+        user.setDisplayName(record.getDisplayName());
+        user.setAge(record.getAge());
+        user.setPrimaryPhone(record.getPrimaryPhone());
+        user.setWechatId(record.getWechatId());
+        user.setCity(record.getCity());
+        user.setProvince(record.getProvince());
+        user.setYearsOfExperience(record.getYearsOfExperience());
+        user.setLanguages(record.getLanguages());
+        user.setSpecializations(record.getSpecializations());
+        user.setServicesOffered(record.getServicesOffered());
+        user.setHourlyRate(record.getHourlyRate());
+        UserProfileContent content = new UserProfileContent(user);
+        content.setAboutMe(record.getAboutMe());
+        return userService.calculateProfileCompletion(user, content);
+    }
+
+    private String describeMappingError(Throwable error) {
+        if (error instanceof JsonMappingException mappingError && !mappingError.getPath().isEmpty()) {
+            String field = mappingError.getPath().get(mappingError.getPath().size() - 1).getFieldName();
+            if (field != null) {
+                return "Invalid value for " + field;
+            }
+        }
+        return "Malformed record";
+    }
+
+    private static String normalizeColumnName(String column) {
+        return column.replace("_", "").toLowerCase();
+    }
+
+    /**
+     * Buffers COPY rows in CSV form and hands them to the driver in large chunks.
+     */
+    private static class StagingWriter {
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(COPY_FLUSH_THRESHOLD + 1024);
+
+        StagingWriter(CopyIn copyIn) {
+            this.copyIn = copyIn;
+        }
+
+        void write(long lineNumber, UserImportRecord record, Integer completion) throws SQLException {
+            buffer.append(lineNumber);
+            append(record.getFirebaseUid());
+            append(record.getEmail());
+            append(record.getUserType().name());
+            append(record.getFullName());
+            append(record.getDisplayName());
+            append(record.getAge());
+            append(record.getPrimaryPhone());
+            append(record.getWechatId());
+            append(record.getCity());
+            append(record.getProvince());
+            append(record.getCountry());
+            append(record.getYearsOfExperience());
+            append(record.getLanguages());
+            append(record.getSpecializations());
+            append(record.getServicesOffered());
+            append(record.getHourlyRate());
+            append(record.getAboutMe());
+            append(completion);
+            buffer.append('\n');
+            if (buffer.length() >= COPY_FLUSH_THRESHOLD) {
+                flush();
+            }
+        }
+
+        void flush() throws SQLException {
+            if (buffer.length() == 0) {
+                return;
+            }
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+
+        private void append(Object value) {
+            buffer.append(',');
+            if (value == null) {
+                return;
+            }
+            buffer.append('"');
+            String text = value.toString();
+            for (int i = 0; i < text.length(); i++) {
+                char ch = text.charAt(i);
+                if (ch == '"') buffer.append('"');
+                buffer.append(ch);
+            }
+            buffer.append('"');
+        }
+    }
+
+    private static class ImportRun {
+        private final int maxReportedErrors;
+        private final List<UserImportResultDto.RowError> errors = new ArrayList<>();
+        private final Set<String> seenFirebaseUids = new HashSet<>();
+        private final Set<String> seenEmails = new HashSet<>();
+        private boolean errorsTruncated;
+        private long totalRows;
+        private long staged;
+        private long failedRows;
+        private long duplicateRows;
+        private long unstaged;
+
+        ImportRun(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        void fail(long lineNumber, String message) {
+            failedRows++;
+            report(lineNumber, message);
+        }
+
+        void duplicate(long lineNumber, String message) {
+            duplicateRows++;
+            report(lineNumber, message);
+        }
+
+        private void report(long lineNumber, String message) {
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new UserImportResultDto.RowError(lineNumber, message));
+            } else {
+                errorsTruncated = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.yuesaohub.platform.userservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuesaohub.platform.userservice.config.RabbitConfig;
+import com.yuesaohub.platform.userservice.datasource.ReadYourWritesTracker;
+import com.yuesaohub.platform.userservice.dto.AddPhotoRequest;
+import com.yuesaohub.platform.userservice.dto.UserPhotoDto;
+import com.yuesaohub.platform.userservice.entity.PhotoKind;
+import com.yuesaohub.platform.userservice.entity.User;
+import com.yuesaohub.platform.userservice.entity.UserPhoto;
+import com.yuesaohub.platform.userservice.exception.PhotoNotFoundException;
+import com.yuesaohub.platform.userservice.outbox.OutboxService;
+import com.yuesaohub.platform.userservice.repository.UserPhotoRepository;
+import com.yuesaohub.platform.userservice.repository.UserRepository;
+import com.yuesaohub.platform.shared.event.user.UserProfileUpdatedEvent;
+import com.yuesaohub.platform.shared.exception.UserNotFoundException;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+public class UserPhotoService {
+
+    private final UserPhotoRepository photoRepository;
+    private final UserRepository userRepository;
+    private final CaregiverCardService caregiverCardService;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final OutboxService outboxService;
+    private final ObjectMapper objectMapper;
+
+    public UserPhotoService(UserPhotoRepository photoRepository, UserRepository userRepository,
+                            CaregiverCardService caregiverCardService, ReadYourWritesTracker readYourWritesTracker,
+                            OutboxService outboxService, ObjectMapper objectMapper) {
+        this.photoRepository = photoRepository;
+        this.userRepository = userRepository;
+        this.caregiverCardService = caregiverCardService;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.outboxService = outboxService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public List<UserPhotoDto> getPhotos(Long userId, PhotoKind kind) {
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException(userId);
+        }
+        List<UserPhoto> photos = kind == null
+            ? photoRepository.findByUserIdOrderByKindAscPositionAsc(userId)
+            : photoRepository.findByUserIdAndKindOrderByPositionAsc(userId, kind);
+        return photos.stream().map(this::mapToDto).toList();
+    }
+
+    public UserPhotoDto appendPhoto(String firebaseUid, AddPhotoRequest request) {
+        User user = findUser(firebaseUid);
+        String before = currentUrlJson(user.getId(), request.getKind());
+
+        int position = photoRepository.findMaxPosition(user.getId(), request.getKind()) + 1;
+        UserPhoto photo = new UserPhoto(user.getId(), request.getKind(), position, request.getUrl());
+        photo.setThumbnailUrl(request.getThumbnailUrl());
+        photo.setWidth(request.getWidth());
+        photo.setHeight(request.getHeight());
+
+        UserPhoto saved = photoRepository.save(photo);
+        recordPhotoChange(user, request.getKind(), before);
+        caregiverCardService.refresh(user.getId());
+        return mapToDto(saved);
+    }
+
+    public void removePhoto(String firebaseUid, Long photoId) {
+        User user = findUser(firebaseUid);
+        UserPhoto photo = photoRepository.findByIdAndUserId(photoId, user.getId())
+            .orElseThrow(() -> new PhotoNotFoundException(photoId));
+        String before = currentUrlJson(user.getId(), photo.getKind());
+        // Remaining positions keep their gaps; only relative order matters
+        photoRepository.delete(photo);
+        recordPhotoChange(user, photo.getKind(), before);
+        caregiverCardService.refresh(user.getId());
+    }
+
+    public List<UserPhotoDto> reorderPhotos(String firebaseUid, PhotoKind kind, List<Long> photoIds) {
+        User user = findUser(firebaseUid);
+        List<UserPhoto> photos = photoRepository.findByUserIdAndKindOrderByPositionAsc(user.getId(), kind);
+
+        Map<Long, UserPhoto> photosById = new HashMap<>();
+        for (UserPhoto photo : photos) {
+            photosById.put(photo.getId(), photo);
+        }
+        if (photoIds.size() != photos.size() || !photosById.keySet().equals(new HashSet<>(photoIds))) {
+            throw new IllegalArgumentException("Photo IDs must list every " + kind + " photo exactly once");
+        }
+        String before = toUrlJson(photos, kind);
+
+        // Only rows whose position actually changes are dirty and get an UPDATE
+        for (int i = 0; i < photoIds.size(); i++) {
+            UserPhoto photo = photosById.get(photoIds.get(i));
+            if (photo.getPosition() != i) {
+                photo.setPosition(i);
+            }
+        }
+        recordPhotoChange(user, kind, before);
+        caregiverCardService.refresh(user.getId());
+
+        return photoIds.stream().map(photosById::get).map(this::mapToDto).toList();
+    }
+
+    /**
+     * Replaces a whole list from the legacy profile field format: a JSON array of URL
+     * strings (as sent by profile updates), or an already-deserialized list.
+     */
+    void replacePhotos(Long userId, PhotoKind kind, Object value) {
+        List<String> urls = parseUrls(value);
+        photoRepository.deleteByUserIdAndKind(userId, kind);
+        for (int i = 0; i < urls.size(); i++) {
+            photoRepository.save(new UserPhoto(userId, kind, i, urls.get(i)));
+        }
+    }
+
+    /**
+     * Renders one list in the legacy format returned in {@code UserDto}: a JSON array of URLs.
+     */
+    String toUrlJson(List<UserPhoto> photos, PhotoKind kind) {
+        List<String> urls = photos.stream()
+            .filter(photo -> photo.getKind() == kind)
+            .map(UserPhoto::getUrl)
+            .toList();
+        if (urls.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(urls);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize photo list", e);
+        }
+    }
+
+    /**
+     * The profile field a photo list is read and written through, and reported under in
+     * profile update events.
+     */
+    static String profileField(PhotoKind kind) {
+        return switch (kind) {
+            case GALLERY -> "galleryPhotos";
+            case CERTIFICATE -> "certificatesPhotos";
+        };
+    }
+
+    List<UserPhoto> getAllPhotos(Long userId) {
+        return photoRepository.findByUserIdOrderByKindAscPositionAsc(userId);
+    }
+
+    // Photos of several users in one query, by user id
+    Map<Long, List<UserPhoto>> getAllPhotos(Collection<Long> userIds) {
+        return photoRepository.findByUserIdInOrderByKindAscPositionAsc(userIds).stream()
+            .collect(Collectors.groupingBy(UserPhoto::getUserId));
+    }
+
+    private List<String> parseUrls(Object value) {
+        if (value == null) {
+            return List.of();
+        }
+        if (value instanceof Collection<?> collection) {
+            return collection.stream().map(String::valueOf).filter(url -> !url.isBlank()).toList();
+        }
+        String json = value.toString();
+        if (json.isBlank()) {
+            return List.of();
+        }
+        try {
+            List<String> urls = objectMapper.readValue(json, new TypeReference<List<String>>() {});
+            return urls.stream().filter(url -> url != null && !url.isBlank()).toList();
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid photo list: expected a JSON array of URLs");
+        }
+    }
+
+    private String currentUrlJson(Long userId, PhotoKind kind) {
+        return toUrlJson(photoRepository.findByUserIdAndKindOrderByPositionAsc(userId, kind), kind);
+    }
+
+    // Photo lists are part of the profile: bump its version and emit the list's delta as a field change
+    private void recordPhotoChange(User user, PhotoKind kind, String before) {
+        String after = currentUrlJson(user.getId(), kind);
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        user.setUpdatedAt(LocalDateTime.now());
+        // Flush so the new profile version is assigned before it goes into the event
+        userRepository.flush();
+        UserProfileUpdatedEvent event = new UserProfileUpdatedEvent(user.getId(), user.getFirebaseUid(),
+            user.getProfileVersion(), List.of(new UserProfileUpdatedEvent.FieldChange(profileField(kind), before, after)));
+        outboxService.enqueue(RabbitConfig.USER_EXCHANGE, RabbitConfig.USER_PROFILE_UPDATED_ROUTING_KEY, event);
+    }
+
+    // Only used by the photo mutations, so looking the owner up also starts read-your-writes stickiness.
+    // The owner's row stays locked until commit, so two appends cannot take the same next position
+    private User findUser(String firebaseUid) {
+        User user = userRepository.findByFirebaseUidForUpdate(firebaseUid)
+            .orElseThrow(() -> new UserNotFoundException("User not found with Firebase UID: " + firebaseUid));
+        readYourWritesTracker.recordWrite(firebaseUid);
+        return user;
+    }
+
+    private UserPhotoDto mapToDto(UserPhoto photo) {
+        UserPhotoDto dto = new UserPhotoDto();
+        dto.setId(photo.getId());
+        dto.setKind(photo.getKind());
+        dto.setPosition(photo.getPosition());
+        dto.setUrl(photo.getUrl());
+        dto.setThumbnailUrl(photo.getThumbnailUrl());
+        dto.setWidth(photo.getWidth());
+        dto.setHeight(photo.getHeight());
+        return dto;
+    }
+}
@@ -1,19 +1,26 @@
 package com.yuesaohub.platform.userservice.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuesaohub.platform.userservice.config.RabbitConfig;
 import com.yuesaohub.platform.userservice.dto.CreateUserRequest;
 import com.yuesaohub.platform.userservice.dto.CaregiverSearchItemDto;
 import com.yuesaohub.platform.userservice.dto.SearchResultsDto;
 import com.yuesaohub.platform.userservice.dto.UpdateProfileRequest;
 import com.yuesaohub.platform.userservice.dto.UserDto;
+import com.yuesaohub.platform.userservice.entity.CaregiverCard;
+import com.yuesaohub.platform.userservice.entity.PhotoKind;
+import com.yuesaohub.platform.userservice.datasource.ReadYourWritesTracker;
 import com.yuesaohub.platform.userservice.entity.User;
+import com.yuesaohub.platform.userservice.entity.UserPhoto;
+import com.yuesaohub.platform.userservice.entity.UserProfileContent;
 import com.yuesaohub.platform.userservice.entity.UserType;
-import com.yuesaohub.platform.userservice.event.UserCreatedEvent;
+import com.yuesaohub.platform.userservice.outbox.OutboxService;
+import com.yuesaohub.platform.userservice.repository.CaregiverCardRepository;
+import com.yuesaohub.platform.userservice.repository.UserProfileContentRepository;
 import com.yuesaohub.platform.userservice.repository.UserRepository;
+import com.yuesaohub.platform.shared.event.user.UserCreatedEvent;
+import com.yuesaohub.platform.shared.event.user.UserProfileUpdatedEvent;
 import com.yuesaohub.platform.shared.exception.UserNotFoundException;
 
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -22,25 +29,39 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class UserService {
 
     private final UserRepository userRepository;
-    private final ObjectMapper objectMapper;
-    private RabbitTemplate rabbitTemplate;
-
-    public UserService(UserRepository userRepository, ObjectMapper objectMapper) {
+    private final UserProfileContentRepository profileContentRepository;
+    private final UserPhotoService userPhotoService;
+    private final CaregiverCardService caregiverCardService;
+    private final CaregiverCardRepository caregiverCardRepository;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final OutboxService outboxService;
+
+    public UserService(UserRepository userRepository, UserProfileContentRepository profileContentRepository,
+                       UserPhotoService userPhotoService, CaregiverCardService caregiverCardService,
+                       CaregiverCardRepository caregiverCardRepository, ReadYourWritesTracker readYourWritesTracker,
+                       OutboxService outboxService) {
         this.userRepository = userRepository;
-        this.objectMapper = objectMapper;
-    }
-
-    @Autowired(required = false)
-    public void setRabbitTemplate(RabbitTemplate rabbitTemplate) {
-        this.rabbitTemplate = rabbitTemplate;
+        this.profileContentRepository = profileContentRepository;
+        this.userPhotoService = userPhotoService;
+        this.caregiverCardService = caregiverCardService;
+        this.caregiverCardRepository = caregiverCardRepository;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.outboxService = outboxService;
     }
 
     public UserDto createUser(CreateUserRequest request) {
@@ -55,76 +76,120 @@ public class UserService {
         user.setUserType(request.getUserType());
 
         User savedUser = userRepository.save(user);
+        caregiverCardService.refresh(savedUser.getId());
+        readYourWritesTracker.recordWrite(savedUser.getFirebaseUid());
 
-        // Publish event
+        // Recorded in the outbox and published after commit
         publishUserCreatedEvent(savedUser);
 
-        return mapToDto(savedUser);
+        return mapToDto(savedUser, null);
     }
 
+    @Transactional(readOnly = true)
     public UserDto getUserById(Long id) {
         User user = userRepository.findById(id)
             .orElseThrow(() -> new UserNotFoundException(id));
-        return mapToDto(user);
+        return mapToFullDto(user, findContent(user));
     }
 
+    @Transactional(readOnly = true)
     public UserDto getUserByFirebaseUid(String firebaseUid) {
         User user = userRepository.findByFirebaseUid(firebaseUid)
             .orElseThrow(() -> new UserNotFoundException(firebaseUid));
-        return mapToDto(user);
+        return mapToFullDto(user, findContent(user));
+    }
+
+    // Full profiles of the given users in request order; unknown ids are left out
+    @Transactional(readOnly = true)
+    public List<UserDto> getUsersByIds(List<Long> ids) {
+        Map<Long, User> users = userRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<Long, UserProfileContent> contents = profileContentRepository.findAllById(users.keySet()).stream()
+            .collect(Collectors.toMap(UserProfileContent::getUserId, Function.identity()));
+        Map<Long, List<UserPhoto>> photos = userPhotoService.getAllPhotos(users.keySet());
+
+        return ids.stream()
+            .distinct()
+            .map(users::get)
+            .filter(Objects::nonNull)
+            .map(user -> mapToFullDto(user, contents.get(user.getId()),
+                photos.getOrDefault(user.getId(), List.of())))
+            .toList();
     }
 
+    @Transactional(readOnly = true)
     public List<UserDto> getUsersByType(UserType userType) {
         List<User> users = userRepository.findByUserType(userType);
-        return users.stream().map(this::mapToDto).toList();
+        return users.stream().map(user -> mapToDto(user, null)).toList();
     }
 
+    @Transactional(readOnly = true)
     public List<UserDto> getAllUsers() {
         List<User> users = userRepository.findAll();
-        return users.stream().map(this::mapToDto).toList();
+        return users.stream().map(user -> mapToDto(user, null)).toList();
     }
 
     public UserDto updateProfile(String firebaseUid, UpdateProfileRequest request) {
         User user = userRepository.findByFirebaseUid(firebaseUid)
             .orElseThrow(() -> new UserNotFoundException("User not found with Firebase UID: " + firebaseUid));
 
-        updateUserFromRequest(user, request);
-        calculateProfileCompletion(user);
-        
-        User updatedUser = userRepository.save(user);
-        return mapToDto(updatedUser);
+        UserProfileContent content = findOrCreateContent(user);
+        Map<String, Object> before = snapshotProfile(user, content);
+        updateUserFromRequest(user, content, request);
+        return saveProfile(user, content, before);
     }
 
     public UserDto updateProfile(Long userId, UpdateProfileRequest request) {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + userId));
 
-        updateUserFromRequest(user, request);
-        calculateProfileCompletion(user);
-        
-        User updatedUser = userRepository.save(user);
-        return mapToDto(updatedUser);
+        UserProfileContent content = findOrCreateContent(user);
+        Map<String, Object> before = snapshotProfile(user, content);
+        updateUserFromRequest(user, content, request);
+        return saveProfile(user, content, before);
     }
 
     public UserDto updateProfileField(String firebaseUid, String fieldName, Object value) {
         User user = userRepository.findByFirebaseUid(firebaseUid)
             .orElseThrow(() -> new UserNotFoundException("User not found with Firebase UID: " + firebaseUid));
 
-        updateSingleField(user, fieldName, value);
-        calculateProfileCompletion(user);
-        
+        UserProfileContent content = findOrCreateContent(user);
+        Map<String, Object> before = snapshotProfile(user, content);
+        updateSingleField(user, content, fieldName, value);
+        return saveProfile(user, content, before);
+    }
+
+    // Shared tail of the profile updates: persist, refresh the card, emit the field deltas
+    private UserDto saveProfile(User user, UserProfileContent content, Map<String, Object> before) {
+        calculateProfileCompletion(user, content);
+        List<UserProfileUpdatedEvent.FieldChange> changes = diffProfile(before, snapshotProfile(user, content));
+        if (!changes.isEmpty()) {
+            // Content-only changes must still bump the version (and count as an update)
+            user.setUpdatedAt(LocalDateTime.now());
+        }
+
         User updatedUser = userRepository.save(user);
-        return mapToDto(updatedUser);
+        profileContentRepository.save(content);
+        // Flush so the new profile version is assigned before it goes into the event
+        userRepository.flush();
+        caregiverCardService.refresh(updatedUser.getId());
+        if (!changes.isEmpty()) {
+            publishProfileUpdatedEvent(updatedUser, changes);
+        }
+        readYourWritesTracker.recordWrite(updatedUser.getFirebaseUid());
+        return mapToFullDto(updatedUser, content);
     }
 
+    @Transactional(readOnly = true)
     public Integer getProfileCompletion(String firebaseUid) {
         User user = userRepository.findByFirebaseUid(firebaseUid)
             .orElseThrow(() -> new UserNotFoundException("User not found with Firebase UID: " + firebaseUid));
         
-        return calculateProfileCompletion(user);
+        return calculateProfileCompletion(user, findContent(user));
     }
 
     // Search caregivers with filters including age range
+    @Transactional(readOnly = true)
     public SearchResultsDto<CaregiverSearchItemDto> searchCaregivers(
             String province,
             String languages,
@@ -138,7 +203,8 @@ public class UserService {
             int size,
             String sort
     ) {
-        Specification<User> spec = (root, query, cb) -> cb.equal(root.get("userType"), UserType.CAREGIVER);
+        // Cards only exist for caregivers, so no user type filter is needed
+        Specification<CaregiverCard> spec = Specification.where(null);
 
         if (province != null && !province.isBlank()) {
             spec = spec.and((root, q, cb) -> cb.equal(root.get("province"), province));
@@ -155,43 +221,46 @@ public class UserService {
         if (ageMax != null) {
             spec = spec.and((root, q, cb) -> cb.lessThanOrEqualTo(root.get("age"), ageMax));
         }
+        // Tag columns are stored lowercased, so the trigram indexes serve these directly
         if (languages != null && !languages.isBlank()) {
-            spec = spec.and((root, q, cb) -> cb.like(cb.lower(root.get("languages")), "%" + languages.toLowerCase() + "%"));
+            spec = spec.and((root, q, cb) -> cb.like(root.get("languageTags"), "%" + languages.trim().toLowerCase() + "%"));
         }
         if (services != null && !services.isBlank()) {
-            spec = spec.and((root, q, cb) -> cb.like(cb.lower(root.get("servicesOffered")), "%" + services.toLowerCase() + "%"));
+            spec = spec.and((root, q, cb) -> cb.like(root.get("serviceTags"), "%" + services.trim().toLowerCase() + "%"));
         }
         if (specializations != null && !specializations.isBlank()) {
-            spec = spec.and((root, q, cb) -> cb.like(cb.lower(root.get("specializations")), "%" + specializations.toLowerCase() + "%"));
+            spec = spec.and((root, q, cb) -> cb.like(root.get("specializationTags"), "%" + specializations.trim().toLowerCase() + "%"));
         }
 
         Sort sortBy;
         if ("experience".equalsIgnoreCase(sort)) {
-            sortBy = Sort.by(Sort.Direction.DESC, "yearsOfExperience");
+            sortBy = Sort.by(Sort.Direction.DESC, "experienceRank");
         } else if ("newest".equalsIgnoreCase(sort)) {
             sortBy = Sort.by(Sort.Direction.DESC, "updatedAt");
         } else {
             sortBy = Sort.by(Sort.Direction.DESC, "profileCompletionPercentage");
         }
 
-        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.max(size, 1), sortBy);
-        Page<User> resultPage = userRepository.findAll(spec, pageable);
+        // userId tiebreaker keeps paging stable and matches the card indexes (see V3 migration)
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.max(size, 1), sortBy.and(Sort.by("userId")));
+        Page<CaregiverCard> resultPage = caregiverCardRepository.findAll(spec, pageable);
 
         List<CaregiverSearchItemDto> items = new ArrayList<>();
-        for (User u : resultPage.getContent()) {
+        for (CaregiverCard card : resultPage.getContent()) {
             CaregiverSearchItemDto item = new CaregiverSearchItemDto();
-            item.setId(u.getId());
-            item.setDisplayName(u.getDisplayName());
-            item.setProfilePhotoUrl(u.getProfilePhotoUrl());
-            item.setProvince(u.getProvince());
-            item.setLanguages(u.getLanguages());
-            item.setServicesOffered(u.getServicesOffered());
-            item.setSpecializations(u.getSpecializations());
-            item.setYearsOfExperience(u.getYearsOfExperience());
-            item.setAge(u.getAge());
-            item.setProfileCompletionPercentage(u.getProfileCompletionPercentage());
-            item.setTotalRating(u.getTotalRating());
-            item.setTotalReviews(u.getTotalReviews());
+            item.setId(card.getUserId());
+            item.setDisplayName(card.getDisplayName());
+            item.setProfilePhotoUrl(card.getProfilePhotoUrl());
+            item.setCoverPhotoUrl(card.getCoverPhotoUrl());
+            item.setProvince(card.getProvince());
+            item.setLanguages(card.getLanguages());
+            item.setServicesOffered(card.getServicesOffered());
+            item.setSpecializations(card.getSpecializations());
+            item.setYearsOfExperience(card.getYearsOfExperience());
+            item.setAge(card.getAge());
+            item.setProfileCompletionPercentage(card.getProfileCompletionPercentage());
+            item.setTotalRating(card.getTotalRating());
+            item.setTotalReviews(card.getTotalReviews());
             items.add(item);
         }
 
@@ -208,32 +277,80 @@ public class UserService {
         }
     }
 
+    // Rich content lives in its own table and is only read for the full profile view
+    private UserProfileContent findContent(User user) {
+        return profileContentRepository.findById(user.getId()).orElse(null);
+    }
+
+    private UserProfileContent findOrCreateContent(User user) {
+        return profileContentRepository.findById(user.getId())
+            .orElseGet(() -> new UserProfileContent(user));
+    }
+
     private void publishUserCreatedEvent(User user) {
-        if (rabbitTemplate == null) {
-            // RabbitMQ is not available, skip event publishing
-            System.out.println("RabbitMQ not available, skipping event publishing for user: " + user.getId());
-            return;
+        UserCreatedEvent event = new UserCreatedEvent(user.getId(), user.getEmail(),
+            user.getUserType() != null ? user.getUserType().name() : null);
+        outboxService.enqueue(RabbitConfig.USER_EXCHANGE, RabbitConfig.USER_CREATED_ROUTING_KEY, event);
+    }
+
+    private void publishProfileUpdatedEvent(User user, List<UserProfileUpdatedEvent.FieldChange> changes) {
+        UserProfileUpdatedEvent event = new UserProfileUpdatedEvent(
+            user.getId(), user.getFirebaseUid(), user.getProfileVersion(), changes);
+        outboxService.enqueue(RabbitConfig.USER_EXCHANGE, RabbitConfig.USER_PROFILE_UPDATED_ROUTING_KEY, event);
+    }
+
+    // Current value of every field reported in profile update events
+    private Map<String, Object> snapshotProfile(User user, UserProfileContent content) {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("fullName", user.getFullName());
+        snapshot.put("displayName", user.getDisplayName());
+        snapshot.put("age", user.getAge());
+        snapshot.put("profilePhotoUrl", user.getProfilePhotoUrl());
+        snapshot.put("primaryPhone", user.getPrimaryPhone());
+        snapshot.put("wechatId", user.getWechatId());
+        snapshot.put("wechatQrCodeUrl", user.getWechatQrCodeUrl());
+        snapshot.put("xiaohongshuHandle", user.getXiaohongshuHandle());
+        snapshot.put("city", user.getCity());
+        snapshot.put("province", user.getProvince());
+        snapshot.put("country", user.getCountry());
+        snapshot.put("currentLocation", user.getCurrentLocation());
+        snapshot.put("willingToRelocate", user.getWillingToRelocate());
+        snapshot.put("yearsOfExperience", user.getYearsOfExperience());
+        snapshot.put("languages", user.getLanguages());
+        snapshot.put("specializations", user.getSpecializations());
+        snapshot.put("certifications", user.getCertifications());
+        snapshot.put("servicesOffered", user.getServicesOffered());
+        snapshot.put("hourlyRate", user.getHourlyRate());
+        snapshot.put("profileCompletionPercentage", user.getProfileCompletionPercentage());
+        snapshot.put("serviceAreas", content.getServiceAreas());
+        snapshot.put("aboutMe", content.getAboutMe());
+        snapshot.put("professionalExperience", content.getProfessionalExperience());
+        snapshot.put("educationBackground", content.getEducationBackground());
+        snapshot.put("specialSkills", content.getSpecialSkills());
+        // Photo lists in the legacy URL-array form, as profile updates send and return them
+        List<UserPhoto> photos = userPhotoService.getAllPhotos(user.getId());
+        for (PhotoKind kind : PhotoKind.values()) {
+            snapshot.put(UserPhotoService.profileField(kind), userPhotoService.toUrlJson(photos, kind));
         }
+        return snapshot;
+    }
 
-        try {
-            UserCreatedEvent event = new UserCreatedEvent(
-                user.getId(),
-                user.getEmail(),
-                user.getUserType()
-            );
-
-            rabbitTemplate.convertAndSend(
-                "user.exchange",
-                "user.created",
-                objectMapper.writeValueAsString(event)
-            );
-        } catch (Exception e) {
-            // Log error but don't fail the transaction
-            System.err.println("Failed to publish user created event: " + e.getMessage());
+    private List<UserProfileUpdatedEvent.FieldChange> diffProfile(Map<String, Object> before, Map<String, Object> after) {
+        List<UserProfileUpdatedEvent.FieldChange> changes = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : after.entrySet()) {
+            Object oldValue = before.get(entry.getKey());
+            Object newValue = entry.getValue();
+            boolean same = oldValue instanceof BigDecimal oldDecimal && newValue instanceof BigDecimal newDecimal
+                ? oldDecimal.compareTo(newDecimal) == 0
+                : Objects.equals(oldValue, newValue);
+            if (!same) {
+                changes.add(new UserProfileUpdatedEvent.FieldChange(entry.getKey(), oldValue, newValue));
+            }
         }
+        return changes;
     }
 
-    private void updateUserFromRequest(User user, UpdateProfileRequest request) {
+    private void updateUserFromRequest(User user, UserProfileContent content, UpdateProfileRequest request) {
         // Basic Information
         if (request.getFullName() != null) user.setFullName(request.getFullName());
         if (request.getDisplayName() != null) user.setDisplayName(request.getDisplayName());
@@ -250,7 +367,7 @@ public class UserService {
         if (request.getCity() != null) user.setCity(request.getCity());
         if (request.getProvince() != null) user.setProvince(request.getProvince());
         if (request.getCountry() != null) user.setCountry(request.getCountry());
-        if (request.getServiceAreas() != null) user.setServiceAreas(request.getServiceAreas());
+        if (request.getServiceAreas() != null) content.setServiceAreas(request.getServiceAreas());
         if (request.getCurrentLocation() != null) user.setCurrentLocation(request.getCurrentLocation());
         if (request.getWillingToRelocate() != null) user.setWillingToRelocate(request.getWillingToRelocate());
 
@@ -263,17 +380,17 @@ public class UserService {
         if (request.getHourlyRate() != null) user.setHourlyRate(request.getHourlyRate());
 
         // Rich Content
-        if (request.getAboutMe() != null) user.setAboutMe(request.getAboutMe());
-        if (request.getProfessionalExperience() != null) user.setProfessionalExperience(request.getProfessionalExperience());
-        if (request.getEducationBackground() != null) user.setEducationBackground(request.getEducationBackground());
-        if (request.getSpecialSkills() != null) user.setSpecialSkills(request.getSpecialSkills());
+        if (request.getAboutMe() != null) content.setAboutMe(request.getAboutMe());
+        if (request.getProfessionalExperience() != null) content.setProfessionalExperience(request.getProfessionalExperience());
+        if (request.getEducationBackground() != null) content.setEducationBackground(request.getEducationBackground());
+        if (request.getSpecialSkills() != null) content.setSpecialSkills(request.getSpecialSkills());
 
         // Media
-        if (request.getGalleryPhotos() != null) user.setGalleryPhotos(request.getGalleryPhotos());
-        if (request.getCertificatesPhotos() != null) user.setCertificatesPhotos(request.getCertificatesPhotos());
+        if (request.getGalleryPhotos() != null) userPhotoService.replacePhotos(user.getId(), PhotoKind.GALLERY, request.getGalleryPhotos());
+        if (request.getCertificatesPhotos() != null) userPhotoService.replacePhotos(user.getId(), PhotoKind.CERTIFICATE, request.getCertificatesPhotos());
     }
 
-    private void updateSingleField(User user, String fieldName, Object value) {
+    private void updateSingleField(User user, UserProfileContent content, String fieldName, Object value) {
         switch (fieldName.toLowerCase()) {
             case "fullname" -> user.setFullName(convertToString(value));
             case "displayname" -> user.setDisplayName(convertToString(value));
@@ -286,7 +403,7 @@ public class UserService {
             case "city" -> user.setCity(convertToString(value));
             case "province" -> user.setProvince(convertToString(value));
             case "country" -> user.setCountry(convertToString(value));
-            case "serviceareas" -> user.setServiceAreas(convertToString(value));
+            case "serviceareas" -> content.setServiceAreas(convertToString(value));
             case "currentlocation" -> user.setCurrentLocation(convertToString(value));
             case "willingtorelocate" -> user.setWillingToRelocate(convertToBoolean(value));
             case "yearsofexperience" -> user.setYearsOfExperience(convertToInteger(value));
@@ -294,17 +411,17 @@ public class UserService {
             case "specializations" -> user.setSpecializations(convertToString(value));
             case "certifications" -> user.setCertifications(convertToString(value));
             case "servicesoffered" -> user.setServicesOffered(convertToString(value));
-            case "aboutme" -> user.setAboutMe(convertToString(value));
-            case "professionalexperience" -> user.setProfessionalExperience(convertToString(value));
-            case "educationbackground" -> user.setEducationBackground(convertToString(value));
-            case "specialskills" -> user.setSpecialSkills(convertToString(value));
-            case "galleryphotos" -> user.setGalleryPhotos(convertToString(value));
-            case "certificatesphotos" -> user.setCertificatesPhotos(convertToString(value));
+            case "aboutme" -> content.setAboutMe(convertToString(value));
+            case "professionalexperience" -> content.setProfessionalExperience(convertToString(value));
+            case "educationbackground" -> content.setEducationBackground(convertToString(value));
+            case "specialskills" -> content.setSpecialSkills(convertToString(value));
+            case "galleryphotos" -> userPhotoService.replacePhotos(user.getId(), PhotoKind.GALLERY, value);
+            case "certificatesphotos" -> userPhotoService.replacePhotos(user.getId(), PhotoKind.CERTIFICATE, value);
             default -> throw new IllegalArgumentException("Unknown field: " + fieldName);
         }
     }
 
-    private Integer calculateProfileCompletion(User user) {
+    Integer calculateProfileCompletion(User user, UserProfileContent content) {
         int totalFields = 0;
         int completedFields = 0;
 
@@ -337,7 +454,7 @@ public class UserService {
             if (user.getYearsOfExperience() != null) completedFields++;
             if (user.getLanguages() != null && !user.getLanguages().trim().isEmpty()) completedFields++;
             if (user.getSpecializations() != null && !user.getSpecializations().trim().isEmpty()) completedFields++;
-            if (user.getAboutMe() != null && !user.getAboutMe().trim().isEmpty()) completedFields++;
+            if (content != null && content.getAboutMe() != null && !content.getAboutMe().trim().isEmpty()) completedFields++;
             if (user.getServicesOffered() != null && !user.getServicesOffered().trim().isEmpty()) completedFields++;
             if (user.getHourlyRate() != null) completedFields++;
         }
@@ -347,7 +464,19 @@ public class UserService {
         return percentage;
     }
 
-    private UserDto mapToDto(User user) {
+    // Full profile view: scalar columns plus rich content and photo lists
+    private UserDto mapToFullDto(User user, UserProfileContent content) {
+        return mapToFullDto(user, content, userPhotoService.getAllPhotos(user.getId()));
+    }
+
+    private UserDto mapToFullDto(User user, UserProfileContent content, List<UserPhoto> photos) {
+        UserDto dto = mapToDto(user, content);
+        dto.setGalleryPhotos(userPhotoService.toUrlJson(photos, PhotoKind.GALLERY));
+        dto.setCertificatesPhotos(userPhotoService.toUrlJson(photos, PhotoKind.CERTIFICATE));
+        return dto;
+    }
+
+    private UserDto mapToDto(User user, UserProfileContent content) {
         UserDto dto = new UserDto();
         
         // Core Identity
@@ -374,7 +503,6 @@ public class UserService {
         dto.setCity(user.getCity());
         dto.setProvince(user.getProvince());
         dto.setCountry(user.getCountry());
-        dto.setServiceAreas(user.getServiceAreas());
         dto.setCurrentLocation(user.getCurrentLocation());
         dto.setWillingToRelocate(user.getWillingToRelocate());
 
@@ -386,16 +514,6 @@ public class UserService {
         dto.setServicesOffered(user.getServicesOffered());
         dto.setHourlyRate(user.getHourlyRate());
 
-        // Rich Content
-        dto.setAboutMe(user.getAboutMe());
-        dto.setProfessionalExperience(user.getProfessionalExperience());
-        dto.setEducationBackground(user.getEducationBackground());
-        dto.setSpecialSkills(user.getSpecialSkills());
-
-        // Media
-        dto.setGalleryPhotos(user.getGalleryPhotos());
-        dto.setCertificatesPhotos(user.getCertificatesPhotos());
-
         // Social Proof
         dto.setTotalRating(user.getTotalRating());
         dto.setTotalReviews(user.getTotalReviews());
@@ -408,6 +526,17 @@ public class UserService {
         dto.setProfileViews(user.getProfileViews());
         dto.setVerificationStatus(user.getVerificationStatus());
 
+        if (content != null) {
+            // Location & Service
+            dto.setServiceAreas(content.getServiceAreas());
+
+            // Rich Content
+            dto.setAboutMe(content.getAboutMe());
+            dto.setProfessionalExperience(content.getProfessionalExperience());
+            dto.setEducationBackground(content.getEducationBackground());
+            dto.setSpecialSkills(content.getSpecialSkills());
+        }
+
         return dto;
     }
 
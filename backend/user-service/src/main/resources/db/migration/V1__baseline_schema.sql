@@ -0,0 +1,133 @@
+-- Baseline schema for user-service. Mirrors the JPA entities so Hibernate can run with
+-- ddl-auto=validate. Databases previously managed by ddl-auto=update already have these
+-- tables; IF NOT EXISTS lets this script run against them as well.
+
+CREATE TABLE IF NOT EXISTS users (
+    id                            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    created_at                    TIMESTAMP(6) NOT NULL,
+    updated_at                    TIMESTAMP(6),
+    firebase_uid                  VARCHAR(255) NOT NULL,
+    email                         VARCHAR(255) NOT NULL,
+    user_type                     VARCHAR(255) NOT NULL,
+    full_name                     VARCHAR(255),
+    display_name                  VARCHAR(255),
+    age                           INTEGER,
+    profile_photo_url             VARCHAR(500),
+    primary_phone                 VARCHAR(20),
+    wechat_id                     VARCHAR(100),
+    wechat_qr_code_url            VARCHAR(500),
+    xiaohongshu_handle            VARCHAR(100),
+    city                          VARCHAR(100),
+    province                      VARCHAR(100),
+    country                       VARCHAR(100),
+    current_location              VARCHAR(255),
+    willing_to_relocate           BOOLEAN,
+    years_of_experience           INTEGER,
+    languages                     TEXT,
+    specializations               TEXT,
+    certifications                TEXT,
+    services_offered              TEXT,
+    hourly_rate                   NUMERIC(10, 2),
+    total_rating                  NUMERIC(2, 1),
+    total_reviews                 INTEGER,
+    profile_completion_percentage INTEGER,
+    is_featured                   BOOLEAN,
+    is_active                     BOOLEAN,
+    last_active_at                TIMESTAMP(6),
+    profile_views                 INTEGER,
+    verification_status           VARCHAR(20)
+);
+
+-- ddl-auto created this constraint under a generated name; only add it on fresh databases
+DO $$
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1
+        FROM pg_index i
+        JOIN pg_attribute a ON a.attrelid = i.indrelid AND a.attnum = ANY (i.indkey)
+        WHERE i.indrelid = 'users'::regclass AND i.indisunique AND i.indnatts = 1 AND a.attname = 'firebase_uid'
+    ) THEN
+        ALTER TABLE users ADD CONSTRAINT uk_users_firebase_uid UNIQUE (firebase_uid);
+    END IF;
+END $$;
+
+CREATE TABLE IF NOT EXISTS user_profile_content (
+    user_id                 BIGINT PRIMARY KEY REFERENCES users (id) ON DELETE CASCADE,
+    service_areas           TEXT,
+    about_me                TEXT,
+    professional_experience TEXT,
+    education_background    TEXT,
+    special_skills          TEXT
+);
+
+CREATE TABLE IF NOT EXISTS user_photos (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id       BIGINT       NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    kind          VARCHAR(20)  NOT NULL,
+    position      INTEGER      NOT NULL,
+    url           VARCHAR(500) NOT NULL,
+    thumbnail_url VARCHAR(500),
+    width         INTEGER,
+    height        INTEGER,
+    created_at    TIMESTAMP(6) NOT NULL
+);
+
+-- Serves per-user photo lists (ordered by kind, position) and the cover photo lookup
+CREATE INDEX IF NOT EXISTS idx_user_photos_user_kind_position ON user_photos (user_id, kind, position);
+
+-- Databases created by older builds still carry rich content and photo JSON on the
+-- users row (or, briefly, on user_profile_content). Move it into the new tables and
+-- drop the old columns so the schema matches the entities.
+CREATE FUNCTION pg_temp.try_jsonb(value TEXT) RETURNS JSONB AS $$
+BEGIN
+    RETURN value::jsonb;
+EXCEPTION WHEN others THEN
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql IMMUTABLE;
+
+CREATE FUNCTION pg_temp.has_column(tbl TEXT, col TEXT) RETURNS BOOLEAN AS $$
+    SELECT EXISTS (
+        SELECT 1 FROM information_schema.columns
+        WHERE table_schema = current_schema() AND table_name = tbl AND column_name = col
+    );
+$$ LANGUAGE sql STABLE;
+
+DO $$
+DECLARE
+    source RECORD;
+    photo_list RECORD;
+BEGIN
+    IF pg_temp.has_column('users', 'about_me') THEN
+        INSERT INTO user_profile_content
+            (user_id, service_areas, about_me, professional_experience, education_background, special_skills)
+        SELECT id, service_areas, about_me, professional_experience, education_background, special_skills
+        FROM users
+        WHERE COALESCE(service_areas, about_me, professional_experience, education_background, special_skills) IS NOT NULL
+        ON CONFLICT (user_id) DO NOTHING;
+
+        ALTER TABLE users
+            DROP COLUMN IF EXISTS service_areas,
+            DROP COLUMN IF EXISTS about_me,
+            DROP COLUMN IF EXISTS professional_experience,
+            DROP COLUMN IF EXISTS education_background,
+            DROP COLUMN IF EXISTS special_skills;
+    END IF;
+
+    FOR source IN SELECT * FROM (VALUES ('users', 'id'), ('user_profile_content', 'user_id')) AS s (tbl, key_column) LOOP
+        FOR photo_list IN SELECT * FROM (VALUES ('gallery_photos', 'GALLERY'), ('certificates_photos', 'CERTIFICATE')) AS p (col, kind) LOOP
+            IF pg_temp.has_column(source.tbl, photo_list.col) THEN
+                EXECUTE format(
+                    'INSERT INTO user_photos (user_id, kind, position, url, created_at)
+                     SELECT src.%1$I, %2$L, photo.ordinal - 1, left(photo.url, 500), LOCALTIMESTAMP
+                     FROM %3$I src
+                     CROSS JOIN LATERAL jsonb_array_elements_text(pg_temp.try_jsonb(src.%4$I)) WITH ORDINALITY AS photo (url, ordinal)
+                     WHERE jsonb_typeof(pg_temp.try_jsonb(src.%4$I)) = ''array''
+                       AND btrim(photo.url) <> ''''
+                       AND NOT EXISTS (SELECT 1 FROM user_photos p WHERE p.user_id = src.%1$I AND p.kind = %2$L)',
+                    source.key_column, photo_list.kind, source.tbl, photo_list.col);
+                EXECUTE format('ALTER TABLE %I DROP COLUMN %I', source.tbl, photo_list.col);
+            END IF;
+        END LOOP;
+    END LOOP;
+END $$;
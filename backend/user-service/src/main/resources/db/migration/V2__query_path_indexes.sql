@@ -0,0 +1,38 @@
+-- Indexes matched to the UserRepository methods and the caregiver search sorts.
+-- The unique constraint on firebase_uid already serves findByFirebaseUid / existsByFirebaseUid.
+
+-- existsByEmail runs on every signup; findByEmail uses the same index
+CREATE INDEX IF NOT EXISTS idx_users_email ON users (email);
+
+-- findByUserType (admin lists, featured / verified caregiver lists)
+CREATE INDEX IF NOT EXISTS idx_users_user_type ON users (user_type, id);
+
+-- findByUserTypeAndEmailContaining filters with LIKE '%...%', which only a trigram index can serve
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_users_email_trgm ON users USING gin (email gin_trgm_ops);
+
+-- searchCaregivers always filters user_type = 'CAREGIVER', so the search indexes are
+-- partial on it (parents and admins never enter them) and lead with the optional
+-- province filter. Each index ends with id to match the sort's tiebreaker so a page
+-- is read straight off the index in order.
+CREATE INDEX IF NOT EXISTS idx_caregivers_province_completion
+    ON users (province, profile_completion_percentage DESC, id) WHERE user_type = 'CAREGIVER';
+CREATE INDEX IF NOT EXISTS idx_caregivers_province_experience
+    ON users (province, years_of_experience DESC, id) WHERE user_type = 'CAREGIVER';
+CREATE INDEX IF NOT EXISTS idx_caregivers_province_updated
+    ON users (province, updated_at DESC, id) WHERE user_type = 'CAREGIVER';
+
+-- Same sorts when no province is selected
+CREATE INDEX IF NOT EXISTS idx_caregivers_completion
+    ON users (profile_completion_percentage DESC, id) WHERE user_type = 'CAREGIVER';
+CREATE INDEX IF NOT EXISTS idx_caregivers_experience
+    ON users (years_of_experience DESC, id) WHERE user_type = 'CAREGIVER';
+CREATE INDEX IF NOT EXISTS idx_caregivers_updated
+    ON users (updated_at DESC, id) WHERE user_type = 'CAREGIVER';
+
+-- The "available only" filter is selective enough to deserve its own partial index
+CREATE INDEX IF NOT EXISTS idx_caregivers_active_completion
+    ON users (profile_completion_percentage DESC, id) WHERE user_type = 'CAREGIVER' AND is_active;
+
+ANALYZE users;
+ANALYZE user_photos;
@@ -0,0 +1,81 @@
+-- Denormalized caregiver card read model (see CaregiverCard). Search and list views read
+-- this narrow table instead of the wide users row; the application refreshes a card in
+-- the same transaction as every write that affects it.
+
+CREATE TABLE caregiver_cards (
+    user_id                       BIGINT PRIMARY KEY REFERENCES users (id) ON DELETE CASCADE,
+    display_name                  VARCHAR(255),
+    profile_photo_url             VARCHAR(500),
+    cover_photo_url               VARCHAR(500),
+    province                      VARCHAR(100),
+    languages                     TEXT,
+    services_offered              TEXT,
+    specializations               TEXT,
+    years_of_experience           INTEGER,
+    age                           INTEGER,
+    total_rating                  NUMERIC(2, 1),
+    total_reviews                 INTEGER,
+    is_active                     BOOLEAN,
+    language_tags                 TEXT,
+    service_tags                  TEXT,
+    specialization_tags           TEXT,
+    profile_completion_percentage INTEGER      NOT NULL,
+    experience_rank               INTEGER      NOT NULL,
+    updated_at                    TIMESTAMP(6) NOT NULL
+) WITH (fillfactor = 90); -- leave room for HOT updates when a card is refreshed
+
+-- Same SELECT as CaregiverCardRepository.upsertFromUsers
+INSERT INTO caregiver_cards (
+    user_id, display_name, profile_photo_url, cover_photo_url, province,
+    languages, services_offered, specializations, years_of_experience, age,
+    total_rating, total_reviews, is_active,
+    language_tags, service_tags, specialization_tags,
+    profile_completion_percentage, experience_rank, updated_at
+)
+SELECT u.id, u.display_name, u.profile_photo_url, cover.url, u.province,
+       u.languages, u.services_offered, u.specializations, u.years_of_experience, u.age,
+       u.total_rating, u.total_reviews, u.is_active,
+       btrim(regexp_replace(regexp_replace(lower(u.languages), '["\[\]]', '', 'g'), '\s*[,，、;；]\s*', ',', 'g')),
+       btrim(regexp_replace(regexp_replace(lower(u.services_offered), '["\[\]]', '', 'g'), '\s*[,，、;；]\s*', ',', 'g')),
+       btrim(regexp_replace(regexp_replace(lower(u.specializations), '["\[\]]', '', 'g'), '\s*[,，、;；]\s*', ',', 'g')),
+       COALESCE(u.profile_completion_percentage, 0), COALESCE(u.years_of_experience, -1),
+       COALESCE(u.updated_at, u.created_at)
+FROM users u
+LEFT JOIN LATERAL (
+    SELECT COALESCE(p.thumbnail_url, p.url) AS url
+    FROM user_photos p
+    WHERE p.user_id = u.id AND p.kind = 'GALLERY'
+    ORDER BY p.position
+    LIMIT 1
+) cover ON TRUE
+WHERE u.user_type = 'CAREGIVER';
+
+-- One index per search sort, with and without the province filter; user_id matches the
+-- sort tiebreaker so a page is read straight off the index
+CREATE INDEX idx_caregiver_cards_province_completion
+    ON caregiver_cards (province, profile_completion_percentage DESC, user_id);
+CREATE INDEX idx_caregiver_cards_province_experience
+    ON caregiver_cards (province, experience_rank DESC, user_id);
+CREATE INDEX idx_caregiver_cards_province_updated
+    ON caregiver_cards (province, updated_at DESC, user_id);
+CREATE INDEX idx_caregiver_cards_completion ON caregiver_cards (profile_completion_percentage DESC, user_id);
+CREATE INDEX idx_caregiver_cards_experience ON caregiver_cards (experience_rank DESC, user_id);
+CREATE INDEX idx_caregiver_cards_updated ON caregiver_cards (updated_at DESC, user_id);
+
+-- Tag filters are substring matches on the lowercased tag text
+CREATE INDEX idx_caregiver_cards_language_tags ON caregiver_cards USING gin (language_tags gin_trgm_ops);
+CREATE INDEX idx_caregiver_cards_service_tags ON caregiver_cards USING gin (service_tags gin_trgm_ops);
+CREATE INDEX idx_caregiver_cards_specialization_tags ON caregiver_cards USING gin (specialization_tags gin_trgm_ops);
+
+-- Physically order cards for the default search (province, best profiles first)
+CLUSTER caregiver_cards USING idx_caregiver_cards_province_completion;
+ANALYZE caregiver_cards;
+
+-- Search no longer reads users, so its partial indexes there are only write overhead
+DROP INDEX IF EXISTS idx_caregivers_province_completion;
+DROP INDEX IF EXISTS idx_caregivers_province_experience;
+DROP INDEX IF EXISTS idx_caregivers_province_updated;
+DROP INDEX IF EXISTS idx_caregivers_completion;
+DROP INDEX IF EXISTS idx_caregivers_experience;
+DROP INDEX IF EXISTS idx_caregivers_updated;
+DROP INDEX IF EXISTS idx_caregivers_active_completion;
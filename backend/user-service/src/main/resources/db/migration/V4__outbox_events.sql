@@ -0,0 +1,23 @@
+-- Transactional outbox: events are inserted in the same transaction as the change that
+-- produced them and published afterwards by OutboxRelay.
+
+CREATE TABLE outbox_events (
+    id              BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    event_id        VARCHAR(36)   NOT NULL UNIQUE,
+    event_type      VARCHAR(100)  NOT NULL,
+    exchange        VARCHAR(255)  NOT NULL,
+    routing_key     VARCHAR(255)  NOT NULL,
+    content_type    VARCHAR(100)  NOT NULL,
+    payload         BYTEA         NOT NULL,
+    created_at      TIMESTAMP(6)  NOT NULL,
+    next_attempt_at TIMESTAMP(6)  NOT NULL DEFAULT LOCALTIMESTAMP,
+    attempts        INTEGER       NOT NULL DEFAULT 0,
+    last_error      VARCHAR(1000),
+    sent_at         TIMESTAMP(6)
+);
+
+-- The relay only ever scans unsent rows in id order; sent rows drop out of this index
+CREATE INDEX idx_outbox_events_pending ON outbox_events (id) WHERE sent_at IS NULL;
+
+-- Retention purge of sent rows
+CREATE INDEX idx_outbox_events_sent_at ON outbox_events (sent_at) WHERE sent_at IS NOT NULL;
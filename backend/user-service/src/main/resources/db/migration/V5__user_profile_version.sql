@@ -0,0 +1,2 @@
+-- Per-user profile version (JPA @Version on User), carried in USER_PROFILE_UPDATED events
+ALTER TABLE users ADD COLUMN profile_version BIGINT NOT NULL DEFAULT 0;
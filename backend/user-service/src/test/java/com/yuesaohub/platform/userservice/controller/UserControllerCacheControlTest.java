@@ -0,0 +1,56 @@
+package com.yuesaohub.platform.userservice.controller;
+
+import com.yuesaohub.platform.userservice.dto.SearchResultsDto;
+import com.yuesaohub.platform.userservice.dto.UserDto;
+import com.yuesaohub.platform.userservice.service.UserImportService;
+import com.yuesaohub.platform.userservice.service.UserPhotoService;
+import com.yuesaohub.platform.userservice.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The gateway's response cache keeps public reads as long as these headers say.
+ */
+class UserControllerCacheControlTest {
+
+    private final UserService userService = mock(UserService.class);
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new UserController(userService,
+        mock(UserImportService.class), mock(UserPhotoService.class), new HttpCacheProperties())).build();
+
+    @Test
+    void profileIsCacheableForAFewSeconds() throws Exception {
+        when(userService.getUserById(42L)).thenReturn(new UserDto());
+
+        mockMvc.perform(get("/v1/users/42"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Cache-Control", "max-age=5, public, stale-while-revalidate=10"));
+    }
+
+    @Test
+    void searchIsCacheableLonger() throws Exception {
+        when(userService.searchCaregivers(any(), any(), any(), any(), any(), any(), any(), any(), anyInt(), anyInt(),
+            any())).thenReturn(new SearchResultsDto<>());
+
+        mockMvc.perform(get("/v1/users/search/caregivers").param("province", "Zhejiang"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Cache-Control", "max-age=30, public, stale-while-revalidate=10"));
+    }
+
+    @Test
+    void otherReadsAreNotMarkedCacheable() throws Exception {
+        when(userService.getUserByFirebaseUid("uid-42")).thenReturn(new UserDto());
+
+        mockMvc.perform(get("/v1/users/firebase/uid-42"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("Cache-Control"));
+    }
+}
@@ -0,0 +1,57 @@
+package com.yuesaohub.platform.userservice.datasource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuesaohub.platform.shared.event.codec.EventCodec;
+import com.yuesaohub.platform.shared.event.codec.EventCodecs;
+import com.yuesaohub.platform.shared.event.codec.EventTypeRegistry;
+import com.yuesaohub.platform.shared.event.codec.JsonEventCodec;
+import com.yuesaohub.platform.shared.event.user.UserEventSchemas;
+import com.yuesaohub.platform.shared.event.user.UserProfileUpdatedEvent;
+import com.yuesaohub.platform.userservice.entity.User;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.MessageBuilder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class PeerWriteListenerTest {
+
+    private final EventCodec codec = new JsonEventCodec(new ObjectMapper().findAndRegisterModules(),
+        UserEventSchemas.register(new EventTypeRegistry()));
+    private final Cache cache = mock(Cache.class);
+    private final ReadYourWritesTracker tracker = new ReadYourWritesTracker(new ReplicaRoutingProperties());
+    private final PeerWriteListener listener;
+
+    PeerWriteListenerTest() {
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        listener = new PeerWriteListener(entityManagerFactory, tracker,
+            new EventCodecs(List.of(codec), JsonEventCodec.CONTENT_TYPE));
+    }
+
+    @Test
+    void updateOnAnotherInstanceEvictsAndSticks() {
+        UserProfileUpdatedEvent event = new UserProfileUpdatedEvent(42L, "uid-42", 7L,
+            List.of(new UserProfileUpdatedEvent.FieldChange("city", "Shanghai", "Hangzhou")));
+
+        listener.onMessage(MessageBuilder.withBody(codec.encode(event))
+            .setContentType(JsonEventCodec.CONTENT_TYPE).build());
+
+        verify(cache).evict(User.class, 42L);
+        assertThat(tracker.isSticky("uid-42")).isTrue();
+    }
+
+    @Test
+    void undecodableMessageIsDropped() {
+        listener.onMessage(MessageBuilder.withBody(new byte[] {1, 2, 3}).setContentType("text/plain").build());
+
+        verifyNoInteractions(cache);
+    }
+}
@@ -0,0 +1,173 @@
+package com.yuesaohub.platform.userservice.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.images.builder.Transferable;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A primary and a streaming replica, set up as in the README's local recipe.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ReplicaRoutingDataSourceTest {
+
+    private static final String IMAGE = "postgres:15-alpine";
+
+    private static final Network network = Network.newNetwork();
+
+    @Container
+    static final PostgreSQLContainer<?> primary = new PostgreSQLContainer<>(IMAGE)
+        .withNetwork(network)
+        .withNetworkAliases("primary")
+        .withCopyToContainer(Transferable.of("echo 'host replication all all scram-sha-256' >> \"$PGDATA/pg_hba.conf\"\n"),
+            "/docker-entrypoint-initdb.d/replication.sh");
+
+    @Container
+    static final GenericContainer<?> replica = new GenericContainer<>(IMAGE)
+        .withNetwork(network)
+        .dependsOn(primary)
+        .withEnv("PGPASSWORD", "test")
+        .withExposedPorts(5432)
+        .withCommand("sh", "-c",
+            "pg_basebackup -h primary -U test -D /tmp/replica -R -X stream && "
+                + "chown -R postgres /tmp/replica && chmod 700 /tmp/replica && "
+                + "su postgres -c 'postgres -D /tmp/replica'")
+        .waitingFor(Wait.forLogMessage(".*ready to accept read-only connections.*\\n", 1));
+
+    private static ReplicaRoutingDataSource routingDataSource;
+    private static ReplicaLagMonitor monitor;
+    private static JdbcTemplate jdbc;
+    private static TransactionTemplate readOnlyTransaction;
+    private static JdbcTemplate replicaJdbc;
+
+    @BeforeAll
+    static void setUp() {
+        HikariDataSource primaryDataSource = dataSource(primary.getJdbcUrl());
+        HikariDataSource replicaDataSource = dataSource(
+            "jdbc:postgresql://" + replica.getHost() + ":" + replica.getMappedPort(5432) + "/test");
+
+        routingDataSource = new ReplicaRoutingDataSource(primaryDataSource, Map.of("replica-0", replicaDataSource));
+        routingDataSource.afterPropertiesSet();
+        ReplicaRoutingProperties properties = new ReplicaRoutingProperties();
+        properties.setMaxLag(Duration.ofSeconds(1));
+        monitor = new ReplicaLagMonitor(routingDataSource, new ReadYourWritesTracker(properties), properties);
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbc = new JdbcTemplate(dataSource);
+        readOnlyTransaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        readOnlyTransaction.setReadOnly(true);
+        replicaJdbc = new JdbcTemplate(replicaDataSource);
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        ReadYourWritesTracker.pinToPrimary(false);
+        if (routingDataSource != null) {
+            routingDataSource.close();
+            ((HikariDataSource) routingDataSource.getResolvedDefaultDataSource()).close();
+        }
+    }
+
+    @Test
+    @Order(1)
+    void readOnlyTransactionsGoToAStreamingReplica() {
+        jdbc.execute("CREATE TABLE caregiver (id bigint PRIMARY KEY, name text)");
+        jdbc.update("INSERT INTO caregiver VALUES (1, 'Li')");
+
+        awaitHealthy(List.of("replica-0"));
+
+        assertThat(readOnly(ReplicaRoutingDataSourceTest::inRecovery)).isTrue();
+        assertThat(readOnly(() -> jdbc.queryForObject("SELECT name FROM caregiver WHERE id = 1",
+            String.class))).isEqualTo("Li");
+        assertThat(inRecovery()).isFalse();
+    }
+
+    @Test
+    @Order(2)
+    void pinnedReadsGoToThePrimary() {
+        ReadYourWritesTracker.pinToPrimary(true);
+        try {
+            assertThat(readOnly(ReplicaRoutingDataSourceTest::inRecovery)).isFalse();
+        } finally {
+            ReadYourWritesTracker.pinToPrimary(false);
+        }
+    }
+
+    @Test
+    @Order(3)
+    void replicaWithoutWalReceiverIsDroppedOnceItFallsBehind() {
+        // Received and replayed positions stay equal after the receiver stops, however far the primary moves on
+        replicaJdbc.execute("ALTER SYSTEM SET primary_conninfo = ''");
+        replicaJdbc.execute("SELECT pg_reload_conf()");
+        await(() -> replicaJdbc.queryForObject(
+            "SELECT count(*) FROM pg_stat_wal_receiver WHERE status = 'streaming'", Long.class) == 0);
+        jdbc.update("INSERT INTO caregiver VALUES (2, 'Wang')");
+
+        awaitHealthy(List.of());
+
+        assertThat(readOnly(ReplicaRoutingDataSourceTest::inRecovery)).isFalse();
+        assertThat(readOnly(() -> jdbc.queryForObject("SELECT name FROM caregiver WHERE id = 2",
+            String.class))).isEqualTo("Wang");
+    }
+
+    private static <T> T readOnly(Supplier<T> work) {
+        return readOnlyTransaction.execute(status -> work.get());
+    }
+
+    private static boolean inRecovery() {
+        return Boolean.TRUE.equals(jdbc.queryForObject("SELECT pg_is_in_recovery()", Boolean.class));
+    }
+
+    private static void awaitHealthy(List<String> expected) {
+        await(() -> {
+            monitor.checkReplicas();
+            return routingDataSource.getHealthyReplicas().equals(expected);
+        });
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime() - deadline).as("timed out").isNegative();
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+
+    private static HikariDataSource dataSource(String url) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername("test");
+        dataSource.setPassword("test");
+        dataSource.setMaximumPoolSize(2);
+        return dataSource;
+    }
+}
@@ -0,0 +1,129 @@
+package com.yuesaohub.platform.userservice.grpc;
+
+import com.yuesaohub.platform.userapi.v1.GetUserRequest;
+import com.yuesaohub.platform.userapi.v1.SearchCaregiversRequest;
+import com.yuesaohub.platform.userapi.v1.SearchCaregiversResponse;
+import com.yuesaohub.platform.userapi.v1.User;
+import com.yuesaohub.platform.userapi.v1.UserQueryServiceGrpc;
+import com.yuesaohub.platform.userservice.controller.HttpCacheProperties;
+import com.yuesaohub.platform.userservice.controller.UserController;
+import com.yuesaohub.platform.userservice.dto.SearchResultsDto;
+import com.yuesaohub.platform.userservice.dto.UserDto;
+import com.yuesaohub.platform.userservice.service.UserImportService;
+import com.yuesaohub.platform.userservice.service.UserPhotoService;
+import com.yuesaohub.platform.userservice.service.UserService;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.netty.NettyChannelBuilder;
+import io.grpc.netty.NettyServerBuilder;
+import io.grpc.stub.MetadataUtils;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * The gateway caches a read answered over gRPC as long as the same read over REST.
+ */
+class CacheControlServerInterceptorTest {
+
+    private final UserService userService = mock(UserService.class);
+    private final HttpCacheProperties httpCacheProperties = new HttpCacheProperties();
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new UserController(userService,
+        mock(UserImportService.class), mock(UserPhotoService.class), httpCacheProperties)).build();
+
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(userService.getUserById(42L)).thenReturn(new UserDto());
+        when(userService.getUserByFirebaseUid("uid-42")).thenReturn(new UserDto());
+        when(userService.searchCaregivers(any(), any(), any(), any(), any(), any(), any(), any(), anyInt(), anyInt(),
+            any())).thenReturn(new SearchResultsDto<>());
+        server = NettyServerBuilder.forPort(0)
+            .addService(ServerInterceptors.intercept(new UserQueryGrpcService(userService, httpCacheProperties),
+                new CacheControlServerInterceptor()))
+            .build()
+            .start();
+        channel = NettyChannelBuilder.forAddress("localhost", server.getPort()).usePlaintext().build();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void profileByIdMatchesRest() throws Exception {
+        String grpc = this.<User>cacheControl((stub, observer) ->
+            stub.getUser(GetUserRequest.newBuilder().setId(42).build(), observer));
+
+        assertThat(grpc).isNotNull().isEqualTo(restCacheControl("/v1/users/42"));
+    }
+
+    @Test
+    void searchMatchesRest() throws Exception {
+        String grpc = this.<SearchCaregiversResponse>cacheControl((stub, observer) ->
+            stub.searchCaregivers(SearchCaregiversRequest.newBuilder().setProvince("Zhejiang").build(), observer));
+
+        assertThat(grpc).isNotNull().isEqualTo(restCacheControl("/v1/users/search/caregivers?province=Zhejiang"));
+    }
+
+    @Test
+    void profileByFirebaseUidIsNotMarkedCacheable() throws Exception {
+        String grpc = this.<User>cacheControl((stub, observer) ->
+            stub.getUser(GetUserRequest.newBuilder().setFirebaseUid("uid-42").build(), observer));
+
+        assertThat(grpc).isNull();
+        assertThat(restCacheControl("/v1/users/firebase/uid-42")).isNull();
+    }
+
+    private String restCacheControl(String path) throws Exception {
+        return mockMvc.perform(get(path)).andReturn().getResponse().getHeader("Cache-Control");
+    }
+
+    // Async, as the gateway calls; grpc-netty 1.58's blocking stub trips over Netty 4.1.101
+    private <T> String cacheControl(BiConsumer<UserQueryServiceGrpc.UserQueryServiceStub, StreamObserver<T>> call)
+            throws Exception {
+        AtomicReference<Metadata> headers = new AtomicReference<>();
+        AtomicReference<Metadata> trailers = new AtomicReference<>();
+        UserQueryServiceGrpc.UserQueryServiceStub stub = UserQueryServiceGrpc.newStub(channel)
+            .withInterceptors(MetadataUtils.newCaptureMetadataInterceptor(headers, trailers));
+        CompletableFuture<T> answer = new CompletableFuture<>();
+        call.accept(stub, new StreamObserver<>() {
+            @Override
+            public void onNext(T value) {
+                answer.complete(value);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                answer.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+            }
+        });
+        answer.get(5, TimeUnit.SECONDS);
+        return headers.get().get(CacheControlServerInterceptor.CACHE_CONTROL);
+    }
+}
@@ -0,0 +1,121 @@
+package com.yuesaohub.platform.userservice.grpc;
+
+import com.yuesaohub.platform.userapi.v1.GetUserRequest;
+import com.yuesaohub.platform.userapi.v1.User;
+import com.yuesaohub.platform.userapi.v1.UserQueryServiceGrpc;
+import com.yuesaohub.platform.userservice.controller.HttpCacheProperties;
+import com.yuesaohub.platform.userservice.datasource.ReadYourWritesTracker;
+import com.yuesaohub.platform.userservice.datasource.ReplicaRoutingProperties;
+import com.yuesaohub.platform.userservice.dto.UserDto;
+import com.yuesaohub.platform.userservice.service.UserService;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.netty.NettyChannelBuilder;
+import io.grpc.netty.NettyServerBuilder;
+import io.grpc.stub.MetadataUtils;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Reads over gRPC right after a write, with the caller's uid as the gateway sends it.
+ */
+class ReadYourWritesServerInterceptorTest {
+
+    private final ReadYourWritesTracker tracker = new ReadYourWritesTracker(new ReplicaRoutingProperties());
+    private final AtomicReference<Boolean> pinnedDuringRead = new AtomicReference<>();
+
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        UserService userService = mock(UserService.class);
+        when(userService.getUserByFirebaseUid(anyString())).thenAnswer(invocation -> {
+            pinnedDuringRead.set(ReadYourWritesTracker.isPinnedToPrimary());
+            UserDto user = new UserDto();
+            user.setId(1L);
+            user.setFirebaseUid(invocation.getArgument(0));
+            return user;
+        });
+        server = NettyServerBuilder.forPort(0)
+            .addService(ServerInterceptors.intercept(new UserQueryGrpcService(userService, new HttpCacheProperties()),
+                new ReadYourWritesServerInterceptor(tracker)))
+            .build()
+            .start();
+        channel = NettyChannelBuilder.forAddress("localhost", server.getPort()).usePlaintext().build();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void writerReadsFromThePrimary() throws Exception {
+        // As UserService does once a profile is saved
+        tracker.recordWrite("uid-1");
+
+        read("uid-1", "uid-1");
+
+        assertThat(pinnedDuringRead).hasValue(true);
+    }
+
+    @Test
+    void otherUsersReadFromReplicas() throws Exception {
+        tracker.recordWrite("uid-1");
+
+        read("uid-2", "uid-1");
+
+        assertThat(pinnedDuringRead).hasValue(false);
+    }
+
+    @Test
+    void anonymousReadsAreNotPinned() throws Exception {
+        tracker.recordWrite("uid-1");
+
+        read(null, "uid-1");
+
+        assertThat(pinnedDuringRead).hasValue(false);
+    }
+
+    // Async, as the gateway calls; grpc-netty 1.58's blocking stub trips over Netty 4.1.101
+    private void read(String callerUid, String firebaseUid) throws Exception {
+        UserQueryServiceGrpc.UserQueryServiceStub stub = UserQueryServiceGrpc.newStub(channel);
+        if (callerUid != null) {
+            Metadata headers = new Metadata();
+            headers.put(ReadYourWritesServerInterceptor.USER_ID, callerUid);
+            stub = stub.withInterceptors(MetadataUtils.newAttachHeadersInterceptor(headers));
+        }
+        CompletableFuture<User> user = new CompletableFuture<>();
+        stub.getUser(GetUserRequest.newBuilder().setFirebaseUid(firebaseUid).build(), new StreamObserver<>() {
+            @Override
+            public void onNext(User value) {
+                user.complete(value);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                user.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+            }
+        });
+        assertThat(user.get(5, TimeUnit.SECONDS).getFirebaseUid()).isEqualTo(firebaseUid);
+    }
+}
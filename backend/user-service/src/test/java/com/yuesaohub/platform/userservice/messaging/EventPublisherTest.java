@@ -0,0 +1,141 @@
+package com.yuesaohub.platform.userservice.messaging;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EventPublisherTest {
+
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private final RabbitOperations operations = mock(RabbitOperations.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EventPublisherProperties properties = new EventPublisherProperties();
+    private final Message message = new Message("{}".getBytes());
+
+    private EventPublisher publisher;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        // Every batch runs against the same mocked channel operations
+        when(rabbitTemplate.invoke(any(RabbitOperations.OperationsCallback.class))).thenAnswer(invocation ->
+            invocation.<RabbitOperations.OperationsCallback<Object>>getArgument(0).doInRabbit(operations));
+        properties.setMaxAttempts(3);
+        properties.setInitialBackoff(Duration.ofMillis(1));
+        properties.setMaxBackoff(Duration.ofMillis(5));
+        properties.setShutdownTimeout(Duration.ofMillis(100));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (publisher != null) {
+            publisher.stop();
+        }
+    }
+
+    @Test
+    void ackedMessageCompletes() throws Exception {
+        confirmEverySend(new CorrelationData.Confirm(true, null));
+        publisher = started();
+
+        publisher.publish("user.events", "user.created", message).get(5, TimeUnit.SECONDS);
+
+        assertThat(meterRegistry.get("events.publisher.published").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void nackedMessageIsGivenUpAfterMaxAttempts() {
+        confirmEverySend(new CorrelationData.Confirm(false, "queue full"));
+        publisher = started();
+
+        CompletableFuture<Void> future = publisher.publish("user.events", "user.created", message);
+
+        assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class)
+            .cause()
+            .isInstanceOf(AmqpException.class)
+            .hasMessageContaining("Giving up after 3 attempts (nack): queue full");
+        verify(operations, times(3)).send(eq("user.events"), eq("user.created"), eq(message),
+            any(CorrelationData.class));
+        assertThat(meterRegistry.get("events.publisher.failures").tag("reason", "exhausted").counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void publishIsRejectedWhenTheBufferIsFull() {
+        properties.setQueueCapacity(1);
+        properties.setOfferTimeout(Duration.ofMillis(10));
+        // No workers, so nothing drains the buffer
+        properties.setThreads(0);
+        publisher = started();
+
+        CompletableFuture<Void> buffered = publisher.publish("user.events", "user.created", message);
+        CompletableFuture<Void> overflow = publisher.publish("user.events", "user.created", message);
+
+        assertThat(buffered).isNotDone();
+        assertThatThrownBy(overflow::join).hasCauseInstanceOf(RejectedExecutionException.class)
+            .hasMessageContaining("buffer is full");
+        assertThat(meterRegistry.get("events.publisher.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void publishIsRejectedOnceStopped() {
+        publisher = started();
+        publisher.stop();
+
+        CompletableFuture<Void> future = publisher.publish("user.events", "user.created", message);
+
+        assertThatThrownBy(future::join).hasCauseInstanceOf(RejectedExecutionException.class)
+            .hasMessageContaining("shutting down");
+    }
+
+    @Test
+    void messagesStillBufferedAtShutdownFail() {
+        properties.setThreads(0);
+        publisher = started();
+        CompletableFuture<Void> buffered = publisher.publish("user.events", "user.created", message);
+
+        publisher.stop();
+
+        assertThatThrownBy(buffered::join).hasCauseInstanceOf(RejectedExecutionException.class)
+            .hasMessageContaining("stopped");
+    }
+
+    private EventPublisher started() {
+        EventPublisher started = new EventPublisher(rabbitTemplate, mock(ConnectionFactory.class), properties,
+            meterRegistry);
+        started.start();
+        return started;
+    }
+
+    // The broker's answer to each publish, as a correlated confirm
+    private void confirmEverySend(CorrelationData.Confirm confirm) {
+        doAnswer(invocation -> {
+            invocation.<CorrelationData>getArgument(3).getFuture().complete(confirm);
+            return null;
+        }).when(operations).send(any(String.class), any(String.class), any(Message.class), any(CorrelationData.class));
+    }
+}
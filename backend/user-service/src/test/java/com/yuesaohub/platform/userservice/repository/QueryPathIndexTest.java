@@ -0,0 +1,146 @@
+package com.yuesaohub.platform.userservice.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Flyway migrations, loads 100,000 users shaped like production (mostly
+ * caregivers, few admins, most outbox events already sent) and checks that every query
+ * path the V2-V4 indexes were made for is planned as an index scan on its index. With
+ * much less data Postgres rightly prefers sequential scans for some of them.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class QueryPathIndexTest {
+
+    private static final Set<String> INDEX_SCANS = Set.of("Index Scan", "Index Only Scan", "Bitmap Index Scan");
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static JdbcTemplate jdbc;
+
+    @BeforeAll
+    static void migrateAndSeed() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        jdbc = new JdbcTemplate(dataSource);
+
+        jdbc.update("""
+            INSERT INTO users (created_at, updated_at, firebase_uid, email, user_type, province,
+                               profile_completion_percentage, years_of_experience, is_active)
+            SELECT now() - i * interval '1 minute', now() - i * interval '1 minute', 'uid-' || i,
+                   'user' || i || '@example.com',
+                   CASE WHEN i % 200 = 0 THEN 'ADMIN' WHEN i % 20 = 0 THEN 'PARENT' ELSE 'CAREGIVER' END,
+                   'province-' || i % 30, i % 101, i % 25, i % 10 <> 0
+            FROM generate_series(1, 100000) AS i
+            """);
+        jdbc.update("""
+            INSERT INTO caregiver_cards (user_id, province, language_tags, is_active,
+                                         profile_completion_percentage, experience_rank, updated_at)
+            SELECT id, province,
+                   CASE WHEN id % 500 = 0 THEN 'cantonese' ELSE 'english' END || ',mandarin,dialect-' || id % 997,
+                   is_active,
+                   profile_completion_percentage, years_of_experience, updated_at
+            FROM users WHERE user_type = 'CAREGIVER'
+            """);
+        jdbc.update("""
+            INSERT INTO user_photos (user_id, kind, position, url, created_at)
+            SELECT u.id, 'GALLERY', p, 'https://cdn.example.com/' || u.id || '/' || p, now()
+            FROM users u, generate_series(0, 2) AS p
+            WHERE u.id % 4 = 0
+            """);
+        jdbc.update("""
+            INSERT INTO outbox_events (event_id, event_type, exchange, routing_key, content_type, payload,
+                                       created_at, sent_at)
+            SELECT gen_random_uuid()::text, 'USER_PROFILE_UPDATED', 'user.events', 'user.profile.updated',
+                   'application/json', '\\x7b7d'::bytea, now(), CASE WHEN i > 50 THEN now() END
+            FROM generate_series(1, 20000) AS i
+            """);
+        jdbc.execute("ANALYZE");
+    }
+
+    static Stream<Arguments> queryPaths() {
+        return Stream.of(
+            Arguments.of("findByEmail / existsByEmail",
+                "SELECT * FROM users WHERE email = 'user1234@example.com'", "idx_users_email"),
+            Arguments.of("findByFirebaseUid",
+                "SELECT * FROM users WHERE firebase_uid = 'uid-1234'", "uk_users_firebase_uid"),
+            Arguments.of("findByUserType",
+                "SELECT * FROM users WHERE user_type = 'ADMIN'", "idx_users_user_type"),
+            Arguments.of("findByUserTypeAndEmailContaining",
+                "SELECT * FROM users WHERE user_type = 'CAREGIVER' AND email LIKE '%user1234%'",
+                "idx_users_email_trgm"),
+            Arguments.of("search by province, best profiles first",
+                "SELECT * FROM caregiver_cards WHERE province = 'province-3' "
+                    + "ORDER BY profile_completion_percentage DESC, user_id LIMIT 20",
+                "idx_caregiver_cards_province_completion"),
+            Arguments.of("search by province, most experienced first",
+                "SELECT * FROM caregiver_cards WHERE province = 'province-3' "
+                    + "ORDER BY experience_rank DESC, user_id LIMIT 20",
+                "idx_caregiver_cards_province_experience"),
+            Arguments.of("search by province, recently updated first",
+                "SELECT * FROM caregiver_cards WHERE province = 'province-3' "
+                    + "ORDER BY updated_at DESC, user_id LIMIT 20",
+                "idx_caregiver_cards_province_updated"),
+            Arguments.of("search everywhere, best profiles first",
+                "SELECT * FROM caregiver_cards ORDER BY profile_completion_percentage DESC, user_id LIMIT 20",
+                "idx_caregiver_cards_completion"),
+            Arguments.of("search everywhere, most experienced first",
+                "SELECT * FROM caregiver_cards ORDER BY experience_rank DESC, user_id LIMIT 20",
+                "idx_caregiver_cards_experience"),
+            Arguments.of("search everywhere, recently updated first",
+                "SELECT * FROM caregiver_cards ORDER BY updated_at DESC, user_id LIMIT 20",
+                "idx_caregiver_cards_updated"),
+            Arguments.of("search by a rare language",
+                "SELECT * FROM caregiver_cards WHERE language_tags LIKE '%cantonese%'",
+                "idx_caregiver_cards_language_tags"),
+            Arguments.of("findByUserIdAndKindOrderByPositionAsc",
+                "SELECT * FROM user_photos WHERE user_id = 1200 AND kind = 'GALLERY' ORDER BY position",
+                "idx_user_photos_user_kind_position"),
+            Arguments.of("outbox relay claim",
+                "SELECT * FROM outbox_events WHERE sent_at IS NULL AND next_attempt_at <= now() "
+                    + "ORDER BY id LIMIT 100 FOR UPDATE SKIP LOCKED",
+                "idx_outbox_events_pending")
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queryPaths")
+    void usesItsIndex(String queryPath, String sql, String index) throws Exception {
+        String plan = jdbc.queryForObject("EXPLAIN (FORMAT JSON) " + sql, String.class);
+
+        List<String> scannedIndexes = new ArrayList<>();
+        collectIndexScans(objectMapper.readTree(plan).get(0).get("Plan"), scannedIndexes);
+
+        assertThat(scannedIndexes).as("%s%n%s", queryPath, plan).contains(index);
+    }
+
+    private static void collectIndexScans(JsonNode node, List<String> indexes) {
+        if (INDEX_SCANS.contains(node.path("Node Type").asText())) {
+            indexes.add(node.path("Index Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectIndexScans(child, indexes);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.yuesaohub.platform.userservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvRecordReaderTest {
+
+    @Test
+    void quotedFieldsKeepCommasAndDoubledQuotes() throws Exception {
+        List<List<String>> records = readAll("name,about\n\"Li, Na\",\"Says \"\"hello\"\"\"\n");
+
+        assertThat(records).containsExactly(
+            List.of("name", "about"),
+            List.of("Li, Na", "Says \"hello\""));
+    }
+
+    @Test
+    void lineBreaksInsideQuotesStayInTheField() throws Exception {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(
+            "name,about\r\nLi,\"Line one\nLine two\"\r\nWang,Short\r\n"));
+
+        reader.next();
+        assertThat(reader.next()).containsExactly("Li", "Line one\nLine two");
+        assertThat(reader.getRecordLineNumber()).isEqualTo(2);
+        // The record after a multi-line field starts on the physical line after it
+        assertThat(reader.next()).containsExactly("Wang", "Short");
+        assertThat(reader.getRecordLineNumber()).isEqualTo(4);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void blankLinesAreSkippedAndEmptyFieldsKept() throws Exception {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("a,b\n\n,x\n\"\",\n"));
+
+        assertThat(reader.next()).containsExactly("a", "b");
+        assertThat(reader.next()).containsExactly("", "x");
+        assertThat(reader.getRecordLineNumber()).isEqualTo(3);
+        assertThat(reader.next()).containsExactly("", "");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void lastRecordNeedsNoTrailingNewline() throws Exception {
+        assertThat(readAll("a,b\n1,2")).containsExactly(List.of("a", "b"), List.of("1", "2"));
+    }
+
+    @Test
+    void unterminatedQuoteIsRejected() {
+        assertThatThrownBy(() -> readAll("a,b\n1,\"open\n"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("line 2");
+    }
+
+    private static List<List<String>> readAll(String csv) throws Exception {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(csv));
+        List<List<String>> records = new ArrayList<>();
+        List<String> record;
+        while ((record = reader.next()) != null) {
+            records.add(record);
+        }
+        return records;
+    }
+}
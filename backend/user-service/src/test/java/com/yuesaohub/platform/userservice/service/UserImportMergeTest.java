@@ -0,0 +1,89 @@
+package com.yuesaohub.platform.userservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuesaohub.platform.userservice.dto.UserImportResultDto;
+import com.yuesaohub.platform.userservice.outbox.OutboxService;
+import jakarta.validation.Validation;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Imports against the Flyway schema: rows that collide with an existing user, by Firebase
+ * UID or by email, or with an earlier row of the same file are skipped and reported.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class UserImportMergeTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private static JdbcTemplate jdbc;
+    private static UserImportService service;
+
+    @BeforeAll
+    static void migrate() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        jdbc = new JdbcTemplate(dataSource);
+        service = new UserImportService(jdbc, new DataSourceTransactionManager(dataSource), new ObjectMapper(),
+            Validation.buildDefaultValidatorFactory().getValidator(), mock(UserService.class),
+            mock(CaregiverCardService.class), mock(OutboxService.class));
+        ReflectionTestUtils.setField(service, "maxReportedErrors", 100);
+        ReflectionTestUtils.setField(service, "maxUploadSize", DataSize.ofMegabytes(1));
+
+        jdbc.update("""
+            INSERT INTO users (created_at, updated_at, firebase_uid, email, user_type)
+            VALUES (now(), now(), 'uid-existing', 'existing@example.com', 'CAREGIVER'),
+                   (now(), now(), 'uid-other', 'taken@example.com', 'CAREGIVER')
+            """);
+    }
+
+    @Test
+    void uidAndEmailDuplicatesAreReportedSeparately() throws Exception {
+        String csv = """
+            firebaseUid,email,userType,fullName
+            uid-existing,new@example.com,CAREGIVER,Same UID as a user
+            uid-new-1,taken@example.com,CAREGIVER,Same email as a user
+            uid-new-2,fresh@example.com,CAREGIVER,Imported
+            uid-new-2,second@example.com,CAREGIVER,Same UID as line 4
+            uid-new-3,fresh@example.com,CAREGIVER,Same email as line 4
+            """;
+
+        UserImportResultDto result = service.importUsers(
+            new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), UserImportService.TEXT_CSV);
+
+        assertThat(result.getTotalRows()).isEqualTo(5);
+        assertThat(result.getImportedRows()).isEqualTo(1);
+        assertThat(result.getDuplicateRows()).isEqualTo(4);
+        assertThat(result.getFailedRows()).isZero();
+        assertThat(result.getErrors())
+            .extracting(UserImportResultDto.RowError::getLineNumber, UserImportResultDto.RowError::getMessage)
+            .containsExactlyInAnyOrder(
+                tuple(2L, "User with Firebase UID already exists"),
+                tuple(3L, "User with email already exists"),
+                tuple(5L, "Duplicate Firebase UID in import file"),
+                tuple(6L, "Duplicate email in import file"));
+        assertThat(jdbc.queryForObject("SELECT firebase_uid FROM users WHERE email = 'fresh@example.com'",
+            String.class)).isEqualTo("uid-new-2");
+        // Neither existing user was touched
+        assertThat(jdbc.queryForList("SELECT email FROM users WHERE firebase_uid IN ('uid-existing', 'uid-other')",
+            String.class)).containsExactlyInAnyOrder("existing@example.com", "taken@example.com");
+    }
+}
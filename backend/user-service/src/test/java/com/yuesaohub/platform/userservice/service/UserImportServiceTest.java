@@ -0,0 +1,64 @@
+package com.yuesaohub.platform.userservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuesaohub.platform.userservice.outbox.OutboxService;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * The upload is read to the end before a transaction, and so a pooled connection, is taken.
+ */
+class UserImportServiceTest {
+
+    private static final String CSV = "firebaseUid,email,userType\nuid-1,li@example.com,CAREGIVER\n";
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final UserImportService service = new UserImportService(jdbcTemplate, transactionManager,
+        new ObjectMapper(), Validation.buildDefaultValidatorFactory().getValidator(), mock(UserService.class),
+        mock(CaregiverCardService.class), mock(OutboxService.class));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "maxReportedErrors", 100);
+        ReflectionTestUtils.setField(service, "maxUploadSize", DataSize.ofKilobytes(1));
+    }
+
+    @Test
+    void uploadIsSpooledBeforeTheTransactionOpens() throws Exception {
+        InputStream upload = new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8));
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            assertThat(upload.available()).as("unread upload bytes").isZero();
+            return new SimpleTransactionStatus();
+        });
+
+        service.importUsers(upload, UserImportService.TEXT_CSV);
+    }
+
+    @Test
+    void oversizedUploadIsRejectedWithoutTakingAConnection() {
+        byte[] upload = (CSV + "x".repeat(2048)).getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> service.importUsers(new ByteArrayInputStream(upload), UserImportService.TEXT_CSV))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("maximum size");
+        verifyNoInteractions(transactionManager, jdbcTemplate);
+    }
+}
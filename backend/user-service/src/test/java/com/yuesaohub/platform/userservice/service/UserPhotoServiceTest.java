@@ -0,0 +1,108 @@
+package com.yuesaohub.platform.userservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuesaohub.platform.shared.event.BaseEvent;
+import com.yuesaohub.platform.shared.event.user.UserProfileUpdatedEvent;
+import com.yuesaohub.platform.userservice.config.RabbitConfig;
+import com.yuesaohub.platform.userservice.datasource.ReadYourWritesTracker;
+import com.yuesaohub.platform.userservice.dto.AddPhotoRequest;
+import com.yuesaohub.platform.userservice.entity.PhotoKind;
+import com.yuesaohub.platform.userservice.entity.User;
+import com.yuesaohub.platform.userservice.entity.UserPhoto;
+import com.yuesaohub.platform.userservice.exception.PhotoNotFoundException;
+import com.yuesaohub.platform.userservice.outbox.OutboxService;
+import com.yuesaohub.platform.userservice.repository.UserPhotoRepository;
+import com.yuesaohub.platform.userservice.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Photo mutations change the profile, so they bump its version and emit the list's delta.
+ */
+class UserPhotoServiceTest {
+
+    private final UserPhotoRepository photoRepository = mock(UserPhotoRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final OutboxService outboxService = mock(OutboxService.class);
+    private final UserPhotoService service = new UserPhotoService(photoRepository, userRepository,
+        mock(CaregiverCardService.class), mock(ReadYourWritesTracker.class), outboxService, new ObjectMapper());
+
+    private final User user = new User();
+
+    @BeforeEach
+    void setUp() {
+        user.setId(42L);
+        user.setFirebaseUid("uid-42");
+        // Photo mutations take the owner's row lock
+        when(userRepository.findByFirebaseUidForUpdate("uid-42")).thenReturn(Optional.of(user));
+        when(photoRepository.save(any(UserPhoto.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void appendingAPhotoPublishesTheGalleryDelta() {
+        when(photoRepository.findByUserIdAndKindOrderByPositionAsc(42L, PhotoKind.GALLERY)).thenReturn(
+            List.of(photo(1L, 0, "https://cdn/a.jpg")),
+            List.of(photo(1L, 0, "https://cdn/a.jpg"), photo(2L, 1, "https://cdn/b.jpg")));
+        when(photoRepository.findMaxPosition(42L, PhotoKind.GALLERY)).thenReturn(0);
+        AddPhotoRequest request = new AddPhotoRequest();
+        request.setKind(PhotoKind.GALLERY);
+        request.setUrl("https://cdn/b.jpg");
+
+        service.appendPhoto("uid-42", request);
+
+        // A dirty owner row is what bumps its @Version profile version on flush
+        assertThat(user.getUpdatedAt()).isNotNull();
+        verify(userRepository).flush();
+        assertThat(publishedChanges()).extracting(UserProfileUpdatedEvent.FieldChange::getField,
+                UserProfileUpdatedEvent.FieldChange::getOldValue, UserProfileUpdatedEvent.FieldChange::getNewValue)
+            .containsExactly(tuple("galleryPhotos", "[\"https://cdn/a.jpg\"]",
+                "[\"https://cdn/a.jpg\",\"https://cdn/b.jpg\"]"));
+    }
+
+    @Test
+    void reorderToTheSameOrderPublishesNothing() {
+        List<UserPhoto> photos = List.of(photo(1L, 0, "https://cdn/a.jpg"), photo(2L, 1, "https://cdn/b.jpg"));
+        when(photoRepository.findByUserIdAndKindOrderByPositionAsc(42L, PhotoKind.GALLERY)).thenReturn(photos);
+
+        service.reorderPhotos("uid-42", PhotoKind.GALLERY, List.of(1L, 2L));
+
+        assertThat(user.getUpdatedAt()).isNull();
+        verify(outboxService, never()).enqueue(any(), any(), any());
+    }
+
+    @Test
+    void removingAnotherUsersPhotoIsNotFound() {
+        when(photoRepository.findByIdAndUserId(7L, 42L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.removePhoto("uid-42", 7L)).isInstanceOf(PhotoNotFoundException.class);
+        verify(outboxService, never()).enqueue(any(), any(), any());
+    }
+
+    private List<UserProfileUpdatedEvent.FieldChange> publishedChanges() {
+        ArgumentCaptor<BaseEvent> event = ArgumentCaptor.forClass(BaseEvent.class);
+        verify(outboxService).enqueue(eq(RabbitConfig.USER_EXCHANGE),
+            eq(RabbitConfig.USER_PROFILE_UPDATED_ROUTING_KEY), event.capture());
+        assertThat(event.getValue()).isInstanceOf(UserProfileUpdatedEvent.class);
+        return ((UserProfileUpdatedEvent) event.getValue()).getChanges();
+    }
+
+    private static UserPhoto photo(Long id, int position, String url) {
+        UserPhoto photo = new UserPhoto(42L, PhotoKind.GALLERY, position, url);
+        photo.setId(id);
+        return photo;
+    }
+}
@@ -0,0 +1,60 @@
+#!/bin/bash
+
+# YuesaoHub Platform - User Service Throughput Benchmark
+# Compares Tomcat platform threads with virtual threads on the public read paths.
+# Requires: hey (https://github.com/rakyll/hey), a built user-service jar, and
+# PostgreSQL/RabbitMQ running (./docker-start.sh or docker-compose up postgres rabbitmq -d).
+
+JAR=${JAR:-backend/user-service/target/user-service-1.0.0.jar}
+BASE_URL=${BASE_URL:-http://localhost:8081}
+CONCURRENCY=${CONCURRENCY:-400}
+DURATION=${DURATION:-30s}
+USER_ID=${USER_ID:-1}
+
+if ! command -v hey > /dev/null; then
+    echo "❌ hey is not installed: go install github.com/rakyll/hey@latest"
+    exit 1
+fi
+
+if [ ! -f "$JAR" ]; then
+    echo "❌ $JAR not found. Build it first: (cd backend && mvn clean package -DskipTests)"
+    exit 1
+fi
+
+run_mode() {
+    local mode=$1
+    local virtual=$2
+
+    echo ""
+    echo "🚀 Starting user-service with $mode threads..."
+    VIRTUAL_THREADS_ENABLED=$virtual java -jar "$JAR" > "/tmp/user-service-$mode.log" 2>&1 &
+    local pid=$!
+
+    until curl -sf "$BASE_URL/actuator/health" > /dev/null; do
+        if ! kill -0 $pid 2> /dev/null; then
+            echo "❌ user-service exited, see /tmp/user-service-$mode.log"
+            exit 1
+        fi
+        sleep 1
+    done
+
+    # Warm up JIT and connection pools
+    hey -z 10s -c 50 "$BASE_URL/v1/users/search/caregivers?sort=experience" > /dev/null
+
+    echo "📊 [$mode] search, c=$CONCURRENCY, $DURATION"
+    hey -z "$DURATION" -c "$CONCURRENCY" "$BASE_URL/v1/users/search/caregivers?sort=experience" \
+        | grep -E "Requests/sec|Average|99% in|\[[0-9]+\]"
+
+    echo "📊 [$mode] profile by id, c=$CONCURRENCY, $DURATION"
+    hey -z "$DURATION" -c "$CONCURRENCY" "$BASE_URL/v1/users/$USER_ID" \
+        | grep -E "Requests/sec|Average|99% in|\[[0-9]+\]"
+
+    kill $pid
+    wait $pid 2> /dev/null
+}
+
+run_mode platform false
+run_mode virtual true
+
+echo ""
+echo "✅ Done. Pinning warnings (virtual mode) are in /tmp/user-service-virtual.log"
@@ -4,6 +4,7 @@ export interface CaregiverSearchItem {
   id: number;
   displayName?: string | null;
   profilePhotoUrl?: string | null;
+  coverPhotoUrl?: string | null;
   province?: string | null;
   languages?: string | null;
   servicesOffered?: string | null;